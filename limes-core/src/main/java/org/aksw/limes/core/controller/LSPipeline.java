@@ -26,6 +26,7 @@ import org.aksw.limes.core.execution.rewriter.RewriterFactory;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
 
 /**
  * Execution pipeline for generating mappings out of link specifications.
@@ -110,6 +111,47 @@ public class LSPipeline {
         return engine.execute(rwLs, planner);
     }
 
+    /**
+     * Execute a given LS, passing the links to a sink. Atomic LS are
+     * streamed by mappers supporting it, e.g. to write the links to disk
+     * without ever holding them in memory as a whole.
+     *
+     * @param sourceCache
+     *            Resources from source KB
+     * @param targetCache
+     *            Resources from target KB
+     * @param ls
+     *            LIMES Link Specification
+     * @param sourceVar
+     *            Name of SPARQL variable for resources from source KB
+     * @param targetVar
+     *            Name of SPARQL variable for resources from target KB
+     * @param rewriterType
+     *            Specifies rewriter module to use
+     * @param executionPlannerType
+     *            Specifies executionPlanner module to use
+     * @param executionEngineType
+     *            Specifies executionEngine module to use
+     * @param sink
+     *            Receives the links of resources in sourceCache to resources
+     *            in targetCache with similarity &gt; threshold
+     */
+    public static void execute(ACache sourceCache, ACache targetCache, LinkSpecification ls, String sourceVar,
+                               String targetVar, RewriterFactory.RewriterType rewriterType,
+                               ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                               ExecutionEngineFactory.ExecutionEngineType executionEngineType, long maxOpt, double k,
+                               ILinkSink sink) {
+        Rewriter rw = RewriterFactory.getRewriter(rewriterType);
+        assert rw != null;
+        LinkSpecification rwLs = rw.rewrite(ls);
+        Planner planner = ExecutionPlannerFactory.getPlanner(executionPlannerType, sourceCache, targetCache);
+        assert planner != null;
+        ExecutionEngine engine = ExecutionEngineFactory.getEngine(executionEngineType, sourceCache, targetCache,
+                sourceVar, targetVar, maxOpt, k);
+        assert engine != null;
+        engine.execute(rwLs, planner, sink);
+    }
+
     /**
      * Execute a given LS with default rewriter, planner and execution engine,
      * generating a mapping.
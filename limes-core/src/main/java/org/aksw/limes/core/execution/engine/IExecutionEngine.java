@@ -20,6 +20,8 @@ package org.aksw.limes.core.execution.engine;
 import org.aksw.limes.core.execution.planning.planner.IPlanner;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.TopKLinkSink;
 
 /**
  * Implements the engine interface. The engine is responsible for executing the
@@ -42,4 +44,42 @@ public interface IExecutionEngine {
      */
     AMapping execute(LinkSpecification spec, IPlanner planner);
 
+    /**
+     * Implementation of the execution of a link specification that passes
+     * the links to a sink instead of returning them as a mapping. By default
+     * the whole mapping is computed first, engines that can stream (some)
+     * specifications override it.
+     *
+     * @param spec
+     *            The link specification
+     * @param planner,
+     *            The type of the planner
+     * @param sink
+     *            Receives the links
+     */
+    default void execute(LinkSpecification spec, IPlanner planner, ILinkSink sink) {
+        sink.addAll(execute(spec, planner));
+    }
+
+    /**
+     * Implementation of the execution of a link specification that only
+     * returns the links to the k most similar targets of every source,
+     * including the targets tied with the k-th one. By default the links of
+     * {@link #execute(LinkSpecification, IPlanner, ILinkSink)} are filtered,
+     * engines that can run (some) specifications in top-k mode override it.
+     *
+     * @param spec
+     *            The link specification
+     * @param planner,
+     *            The type of the planner
+     * @param k
+     *            The number of targets per source
+     * @return The best links of every source
+     */
+    default AMapping executeTopK(LinkSpecification spec, IPlanner planner, int k) {
+        TopKLinkSink sink = new TopKLinkSink(k, 0);
+        execute(spec, planner, sink);
+        return sink.getMapping();
+    }
+
 }
@@ -31,7 +31,10 @@ import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.mapping.MemoryMapping;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
 import org.aksw.limes.core.measures.mapper.IMapper;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
+import org.aksw.limes.core.measures.mapper.ITopKMapper;
 import org.aksw.limes.core.measures.mapper.MapperFactory;
 import org.aksw.limes.core.measures.mapper.MappingOperations;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
@@ -533,4 +536,69 @@ public class SimpleExecutionEngine extends ExecutionEngine {
         return m;
     }
 
+    /**
+     * Executes a link specification and passes the links to the sink. Leaf
+     * specifications whose mapper is an {@link IStreamingMapper} are run
+     * directly, so that their links are never held in memory as a whole.
+     * All other specifications are executed as usual and their mapping is
+     * passed on afterwards.
+     *
+     * @param spec
+     *            The link specification, after it was re-written
+     * @param planner
+     *            The chosen planner
+     * @param sink
+     *            Receives the links
+     */
+    @Override
+    public void execute(LinkSpecification spec, IPlanner planner, ILinkSink sink) {
+        LinkSpecification normalized = planner.normalize(spec);
+        if (!normalized.isEmpty() && normalized.isAtomic()) {
+            double threshold = normalized.getThreshold();
+            if (threshold <= 0) {
+                throw new InvalidThresholdException(threshold);
+            }
+            String expression = normalized.getFilterExpression();
+            IMapper mapper = MapperFactory.createMapper(MeasureFactory.getMeasureType(expression));
+            if (mapper instanceof IStreamingMapper) {
+                ((IStreamingMapper) mapper).getMapping(source, target, sourceVariable, targetVariable, expression,
+                        threshold, sink);
+                return;
+            }
+        }
+        super.execute(spec, planner, sink);
+    }
+
+    /**
+     * Executes a link specification and keeps the best links of every source.
+     * Leaf specifications whose mapper is an {@link ITopKMapper} are run in
+     * top-k mode, all other specifications are executed as usual and their
+     * mapping is filtered afterwards.
+     *
+     * @param spec
+     *            The link specification, after it was re-written
+     * @param planner
+     *            The chosen planner
+     * @param k
+     *            The number of targets per source
+     * @return The best links of every source
+     */
+    @Override
+    public AMapping executeTopK(LinkSpecification spec, IPlanner planner, int k) {
+        LinkSpecification normalized = planner.normalize(spec);
+        if (!normalized.isEmpty() && normalized.isAtomic()) {
+            double threshold = normalized.getThreshold();
+            if (threshold <= 0) {
+                throw new InvalidThresholdException(threshold);
+            }
+            String expression = normalized.getFilterExpression();
+            IMapper mapper = MapperFactory.createMapper(MeasureFactory.getMeasureType(expression));
+            if (mapper instanceof ITopKMapper) {
+                return ((ITopKMapper) mapper).getTopKMapping(source, target, sourceVariable, targetVariable,
+                        expression, threshold, k);
+            }
+        }
+        return super.executeTopK(spec, planner, k);
+    }
+
 }
@@ -25,6 +25,8 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.ls.ExtendedLinkSpecification;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.TopKLinkSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,4 +84,25 @@ public class PartialRecallExecutionEngine extends SimpleExecutionEngine {
         return super.execute(newSpec, planner);
     }
 
+    /**
+     * Executes the refined link specification as a whole, see
+     * {@link #execute(LinkSpecification, IPlanner)}, and passes its links to
+     * the sink.
+     */
+    @Override
+    public void execute(LinkSpecification spec, IPlanner planner, ILinkSink sink) {
+        sink.addAll(execute(spec, planner));
+    }
+
+    /**
+     * Keeps the best links of every source of the refined link specification,
+     * see {@link #execute(LinkSpecification, IPlanner)}.
+     */
+    @Override
+    public AMapping executeTopK(LinkSpecification spec, IPlanner planner, int k) {
+        TopKLinkSink sink = new TopKLinkSink(k, 0);
+        sink.addAll(execute(spec, planner));
+        return sink.getMapping();
+    }
+
 }
@@ -104,14 +104,16 @@ public class CanonicalPlanner extends Planner {
     }
 
     /**
-     * Normalization of input link specification.
+     * Normalization of input link specification. Disjunctions of topological
+     * relations are merged (see
+     * {@link #mergeTopologicalRelations(LinkSpecification)}).
      *
      * @param spec
      *            The input link specification
      */
     @Override
     public LinkSpecification normalize(LinkSpecification spec) {
-        return spec;
+        return mergeTopologicalRelations(spec);
     }
 
 }
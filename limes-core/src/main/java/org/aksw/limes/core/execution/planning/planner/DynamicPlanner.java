@@ -62,6 +62,10 @@ public class DynamicPlanner extends Planner {
      * Language of the source/target data.
      */
     private Language lang;
+    /**
+     * Estimates the costs of atomic specifications on samples, if set.
+     */
+    private SamplingCostEstimator costEstimator;
     /**
      * Sub-link specifications (as string) and their corresponding plans.
      */
@@ -207,6 +211,61 @@ public class DynamicPlanner extends Planner {
         return (plans.get(spec.toString()).getExecutionStatus());
     }
 
+    /**
+     * Sets the estimator of the costs of atomic specifications. If set, the
+     * costs are estimated by running the mappers on samples of the caches,
+     * instead of using the approximations of the mappers.
+     *
+     * @param costEstimator
+     *            The estimator, or null to use the approximations
+     */
+    public void setCostEstimator(SamplingCostEstimator costEstimator) {
+        this.costEstimator = costEstimator;
+    }
+
+    /**
+     * Computes atomic costs for an atomic link specification, estimated on
+     * samples if a cost estimator is set (see
+     * {@link #setCostEstimator(SamplingCostEstimator)}).
+     *
+     * @param spec
+     *            Atomic link specification
+     * @return estimated runtime cost of the link specification
+     */
+    public double getAtomicRuntimeCosts(LinkSpecification spec) {
+        SamplingCostEstimator.Estimate estimate = getEstimate(spec);
+        if (estimate != null) {
+            return estimate.getRuntime();
+        }
+        Parser p = new Parser(spec.getFilterExpression(), spec.getThreshold());
+        return getAtomicRuntimeCosts(p.getOperator(), spec.getThreshold());
+    }
+
+    /**
+     * Computes atomic mapping sizes for an atomic link specification,
+     * estimated on samples if a cost estimator is set (see
+     * {@link #setCostEstimator(SamplingCostEstimator)}).
+     *
+     * @param spec
+     *            Atomic link specification
+     * @return estimated size of returned mapping
+     */
+    public double getAtomicMappingSizes(LinkSpecification spec) {
+        SamplingCostEstimator.Estimate estimate = getEstimate(spec);
+        if (estimate != null) {
+            return estimate.getMappingSize();
+        }
+        Parser p = new Parser(spec.getFilterExpression(), spec.getThreshold());
+        return getAtomicMappingSizes(p.getOperator(), spec.getThreshold());
+    }
+
+    private SamplingCostEstimator.Estimate getEstimate(LinkSpecification spec) {
+        if (costEstimator == null) {
+            return null;
+        }
+        return costEstimator.estimate(spec.getFilterExpression(), spec.getThreshold());
+    }
+
     /**
      * Computes costs for a filtering instruction. If the metric expression of
      * the filtering instruction is not supported by the framework, it throws an
@@ -333,12 +392,11 @@ public class DynamicPlanner extends Planner {
         plan = new NestedPlan();
         // atomic specs are simply ran
         if (spec.isAtomic()) {
-            Parser p = new Parser(spec.getFilterExpression(), spec.getThreshold());
             plan.setInstructionList(new ArrayList<Instruction>());
             plan.addInstruction(new Instruction(Instruction.Command.RUN, spec.getFilterExpression(),
                     spec.getThreshold() + "", -1, -1, 0));
-            plan.setRuntimeCost(getAtomicRuntimeCosts(p.getOperator(), spec.getThreshold()));
-            plan.setMappingSize(getAtomicMappingSizes(p.getOperator(), spec.getThreshold()));
+            plan.setRuntimeCost(getAtomicRuntimeCosts(spec));
+            plan.setMappingSize(getAtomicMappingSizes(spec));
             plan.setSelectivity(plan.getMappingSize() / (double) (source.size() * target.size()));
 
         } else {
@@ -786,7 +844,9 @@ public class DynamicPlanner extends Planner {
      * XOR(cosine(x.name,y.name)|0.5, overlap(x.label,y.label)|0.6){@literal >}
      * =0.8 will transformed into MINUS(OR(cosine(x.name,y.name)|0.5,
      * overlap(x.label,y.label)|0.6)|0.8, AND(cosine(x.name,y.name)|0.5,
-     * overlap(x.label,y.label)|0.6)|0.8) ){@literal >}=0.8
+     * overlap(x.label,y.label)|0.6)|0.8) ){@literal >}=0.8. Disjunctions of
+     * topological relations are merged beforehand (see
+     * {@link #mergeTopologicalRelations(LinkSpecification)}).
      *
      * @param spec
      *            The normalized link specification
@@ -796,6 +856,7 @@ public class DynamicPlanner extends Planner {
         if (spec.isEmpty()) {
             return spec;
         }
+        spec = mergeTopologicalRelations(spec);
         LinkSpecification ls = new ExtendedLinkSpecification(spec.getFullExpression(), spec.getThreshold());
         init(ls);
         return ls;
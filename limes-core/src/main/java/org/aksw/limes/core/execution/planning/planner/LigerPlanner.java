@@ -187,7 +187,7 @@ public class LigerPlanner extends Planner {
 
     @Override
     public LinkSpecification normalize(LinkSpecification spec) {
-        return spec;
+        return mergeTopologicalRelations(spec);
     }
 
 }
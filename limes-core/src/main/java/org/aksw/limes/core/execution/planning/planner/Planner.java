@@ -17,6 +17,14 @@
  */
 package org.aksw.limes.core.execution.planning.planner;
 
+import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.topology.TopologicalRelationsMapper;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * Implements the planner abstract class. It takes as input a link specification
@@ -26,4 +34,90 @@ package org.aksw.limes.core.execution.planning.planner;
  * @version 1.0
  */
 public abstract class Planner implements IPlanner {
+
+    /**
+     * Whether {@link #mergeTopologicalRelations(LinkSpecification)} is
+     * applied during normalization.
+     */
+    public static boolean mergeTopologicalRelations = true;
+
+    /**
+     * Rewrites every disjunction whose leaves all check topological relations
+     * computed by RADON on the same properties into a single leaf, so that
+     * the relations are computed in one pass (see
+     * {@link TopologicalRelationsMapper}). The similarities of these leaves
+     * are 1, thus the rewriting is only done if all thresholds of the
+     * disjunction are at most 1.
+     *
+     * @param spec
+     *            The input link specification
+     * @return the rewritten link specification, or the input one if nothing
+     *         was rewritten or the rewriting is disabled
+     */
+    protected LinkSpecification mergeTopologicalRelations(LinkSpecification spec) {
+        if (!mergeTopologicalRelations || spec == null || spec.isEmpty() || spec.isAtomic()) {
+            return spec;
+        }
+        boolean[] merged = new boolean[1];
+        String expression = merge(spec, merged);
+        if (!merged[0]) {
+            return spec;
+        }
+        return new LinkSpecification(expression, spec.getThreshold());
+    }
+
+    private static String merge(LinkSpecification spec, boolean[] merged) {
+        if (spec.isAtomic()) {
+            return spec.getFullExpression();
+        }
+        if (spec.getOperator() == LogicOperator.OR) {
+            Collection<String> relations = new LinkedHashSet<>();
+            String[] properties = new String[2];
+            if (collectRelations(spec, relations, properties)) {
+                merged[0] = true;
+                return TopologicalRelationsMapper.getMeasureName(relations) + "(" + properties[0] + ","
+                        + properties[1] + ")";
+            }
+        }
+        StringBuilder expression = new StringBuilder(spec.getOperator().toString()).append("(");
+        List<LinkSpecification> children = spec.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            if (i > 0) {
+                expression.append(",");
+            }
+            expression.append(merge(children.get(i), merged)).append("|").append(children.get(i).getThreshold());
+        }
+        return expression.append(")").toString();
+    }
+
+    private static boolean collectRelations(LinkSpecification spec, Collection<String> relations,
+                                            String[] properties) {
+        if (spec.getThreshold() > 1) {
+            return false;
+        }
+        if (spec.isAtomic()) {
+            Parser p = new Parser(spec.getFilterExpression(), spec.getThreshold());
+            List<String> leafRelations = TopologicalRelationsMapper.getRelations(p.getOperator());
+            if (leafRelations == null || spec.getThreshold() <= 0) {
+                return false;
+            }
+            if (properties[0] == null) {
+                properties[0] = p.getLeftTerm();
+                properties[1] = p.getRightTerm();
+            } else if (!properties[0].equals(p.getLeftTerm()) || !properties[1].equals(p.getRightTerm())) {
+                return false;
+            }
+            relations.addAll(leafRelations);
+            return true;
+        }
+        if (spec.getOperator() != LogicOperator.OR) {
+            return false;
+        }
+        for (LinkSpecification child : spec.getChildren()) {
+            if (!collectRelations(child, relations, properties)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
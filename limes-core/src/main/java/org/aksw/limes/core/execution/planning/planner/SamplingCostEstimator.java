@@ -0,0 +1,348 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.execution.planning.planner;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.DerivedCache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.IMapper;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates the runtime and the mapping size of atomic specifications by
+ * running their mappers on random samples of the source and target caches,
+ * instead of relying on the fixed approximations of the mappers (see
+ * {@link IMapper#getRuntimeApproximation}).
+ * <p>
+ * The selectivity measured on the samples is extrapolated linearly to the
+ * whole caches. The runtime is measured on the samples and on halves of
+ * them, which gives the exponent e of a runtime growing with the number of
+ * pairs to the power of e (from 0.5 for linear to 1 for quadratic mappers),
+ * used to extrapolate it. Runtimes are given in milliseconds.
+ * <p>
+ * The samples are drawn with a fixed seed, so estimates are reproducible up
+ * to the measured times. Estimates are shared by all estimators and keyed by
+ * the expression, the threshold, the sampling and fingerprints of the values
+ * of the properties of the expression, so that re-planning over the same
+ * data (e.g. by learners) reuses them.
+ */
+public class SamplingCostEstimator {
+
+    static Logger logger = LoggerFactory.getLogger(SamplingCostEstimator.class);
+
+    public static final int DEFAULT_SAMPLE_SIZE = 300;
+    public static final long DEFAULT_SEED = 42;
+
+    private static final int MAX_ESTIMATES = 10000;
+    private static final Map<Key, Estimate> estimates = new LinkedHashMap<Key, Estimate>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Estimate> eldest) {
+            return size() > MAX_ESTIMATES;
+        }
+    };
+
+    // fingerprints of the properties of caches, see fingerprint
+    private static final DerivedCache<String, Long> fingerprints = new DerivedCache<>(f -> 1, MAX_ESTIMATES);
+    // number of fingerprints computed so far, for testing
+    static final AtomicLong fingerprinted = new AtomicLong();
+
+    private final ACache source;
+    private final ACache target;
+    private final int sampleSize;
+    private final long seed;
+
+    // valid as long as neither cache was modified, see ACache#getVersion
+    private long sourceVersion = -1;
+    private long targetVersion = -1;
+    private ACache sourceSample;
+    private ACache targetSample;
+    private ACache sourceHalf;
+    private ACache targetHalf;
+
+    /**
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     */
+    public SamplingCostEstimator(ACache source, ACache target) {
+        this(source, target, DEFAULT_SAMPLE_SIZE, DEFAULT_SEED);
+    }
+
+    /**
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sampleSize
+     *            Maximal number of instances sampled from each cache
+     * @param seed
+     *            Seed of the sampling
+     */
+    public SamplingCostEstimator(ACache source, ACache target, int sampleSize, long seed) {
+        if (sampleSize < 2) {
+            throw new IllegalArgumentException("The sample size must be at least 2, not " + sampleSize);
+        }
+        this.source = source;
+        this.target = target;
+        this.sampleSize = sampleSize;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the estimate of an atomic specification, running its mapper on
+     * the samples unless it is cached.
+     *
+     * @param expression
+     *            Metric expression of the atomic specification
+     * @param threshold
+     *            Threshold of the atomic specification
+     * @return the estimate, or null if the mapper could not be run on the
+     *         samples
+     */
+    public synchronized Estimate estimate(String expression, double threshold) {
+        if (source.getVersion() != sourceVersion || target.getVersion() != targetVersion) {
+            sourceVersion = source.getVersion();
+            targetVersion = target.getVersion();
+            sourceSample = null;
+        }
+        Key key;
+        try {
+            List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+            key = new Key(expression, threshold, sampleSize, seed,
+                    fingerprints.get(source, properties.get(0), SamplingCostEstimator::fingerprint),
+                    fingerprints.get(target, properties.get(1), SamplingCostEstimator::fingerprint));
+        } catch (RuntimeException e) {
+            logger.debug("Cannot estimate the costs of " + expression + ": " + e);
+            return null;
+        }
+        synchronized (estimates) {
+            Estimate estimate = estimates.get(key);
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        Estimate estimate = run(expression, threshold);
+        if (estimate != null) {
+            synchronized (estimates) {
+                estimates.put(key, estimate);
+            }
+        }
+        return estimate;
+    }
+
+    private Estimate run(String expression, double threshold) {
+        if (sourceSample == null) {
+            Random random = new Random(seed);
+            List<Instance> sourceInstances = sample(source, random);
+            List<Instance> targetInstances = sample(target, random);
+            sourceSample = toCache(sourceInstances, sourceInstances.size());
+            targetSample = toCache(targetInstances, targetInstances.size());
+            sourceHalf = toCache(sourceInstances, (sourceInstances.size() + 1) / 2);
+            targetHalf = toCache(targetInstances, (targetInstances.size() + 1) / 2);
+        }
+        double pairs = (double) sourceSample.size() * targetSample.size();
+        if (pairs == 0) {
+            return new Estimate(0, 0, 0);
+        }
+        try {
+            IMapper mapper = MapperFactory.createMapper(MeasureFactory.getMeasureType(expression));
+            // the first run also warms up the mapper
+            long start = System.nanoTime();
+            AMapping mapping = mapper.getMapping(sourceSample, targetSample, "?x", "?y", expression, threshold);
+            long first = System.nanoTime() - start;
+            start = System.nanoTime();
+            mapper.getMapping(sourceHalf, targetHalf, "?x", "?y", expression, threshold);
+            long half = System.nanoTime() - start;
+            start = System.nanoTime();
+            mapper.getMapping(sourceSample, targetSample, "?x", "?y", expression, threshold);
+            long full = Math.min(first, System.nanoTime() - start);
+
+            double scale = (double) source.size() * target.size() / pairs;
+            double halfPairs = (double) sourceHalf.size() * targetHalf.size();
+            double exponent = 1;
+            if (half > 0 && full > 0 && halfPairs < pairs) {
+                exponent = Math.log((double) full / half) / Math.log(pairs / halfPairs);
+                exponent = Math.max(0.5, Math.min(1, exponent));
+            }
+            double runtime = full / 1e6 * Math.pow(scale, exponent);
+            // an empty sample only tells that the selectivity is below about
+            // one link per sample
+            double selectivity = Math.max(mapping.size(), scale > 1 ? 0.5 : 0) / pairs;
+            return new Estimate(runtime, selectivity * source.size() * target.size(), selectivity);
+        } catch (RuntimeException e) {
+            logger.debug("Cannot estimate the costs of " + expression + ": " + e);
+            return null;
+        }
+    }
+
+    private List<Instance> sample(ACache cache, Random random) {
+        List<String> uris = new ArrayList<>(cache.getAllUris());
+        // sorted, so that the sample does not depend on the order of the uris
+        Collections.sort(uris);
+        int size = Math.min(sampleSize, uris.size());
+        List<Instance> instances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Collections.swap(uris, i, i + random.nextInt(uris.size() - i));
+            instances.add(cache.getInstance(uris.get(i)));
+        }
+        return instances;
+    }
+
+    // only changes the version of the sample, not the one of the sampled cache
+    private static ACache toCache(List<Instance> instances, int size) {
+        ACache cache = new MemoryCache();
+        for (Instance instance : instances.subList(0, size)) {
+            cache.addInstance(instance);
+        }
+        return cache;
+    }
+
+    /**
+     * Order independent hash of the uris and the values of a property of all
+     * instances of a cache. Properties of point sets may be lists of
+     * properties separated by |.
+     */
+    private static long fingerprint(ACache cache, String property) {
+        fingerprinted.incrementAndGet();
+        String[] properties = property.split("\\|");
+        long hash = cache.size();
+        for (String uri : cache.getAllUris()) {
+            Instance instance = cache.getInstance(uri);
+            long h = uri.hashCode();
+            for (String p : properties) {
+                h = 31 * h + instance.getProperty(p).hashCode();
+            }
+            hash += mix(h);
+        }
+        return hash;
+    }
+
+    // finalizer of splitmix64, spreads the bits of the instance hashes
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Removes all cached estimates.
+     */
+    public static void clear() {
+        synchronized (estimates) {
+            estimates.clear();
+        }
+        fingerprints.clear();
+    }
+
+    /**
+     * Estimated costs of an atomic specification.
+     */
+    public static class Estimate {
+
+        private final double runtime;
+        private final double mappingSize;
+        private final double selectivity;
+
+        public Estimate(double runtime, double mappingSize, double selectivity) {
+            this.runtime = runtime;
+            this.mappingSize = mappingSize;
+            this.selectivity = selectivity;
+        }
+
+        /**
+         * @return the estimated runtime in milliseconds
+         */
+        public double getRuntime() {
+            return runtime;
+        }
+
+        /**
+         * @return the estimated number of links
+         */
+        public double getMappingSize() {
+            return mappingSize;
+        }
+
+        /**
+         * @return the estimated fraction of the pairs of source and target
+         *         instances that are linked
+         */
+        public double getSelectivity() {
+            return selectivity;
+        }
+
+        @Override
+        public String toString() {
+            return "runtime: " + runtime + "ms, mapping size: " + mappingSize + ", selectivity: " + selectivity;
+        }
+    }
+
+    private static class Key {
+
+        private final String expression;
+        private final double threshold;
+        private final int sampleSize;
+        private final long seed;
+        private final long sourceFingerprint;
+        private final long targetFingerprint;
+
+        Key(String expression, double threshold, int sampleSize, long seed, long sourceFingerprint,
+            long targetFingerprint) {
+            this.expression = expression;
+            this.threshold = threshold;
+            this.sampleSize = sampleSize;
+            this.seed = seed;
+            this.sourceFingerprint = sourceFingerprint;
+            this.targetFingerprint = targetFingerprint;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expression, threshold, sampleSize, seed, sourceFingerprint, targetFingerprint);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return expression.equals(other.expression) && threshold == other.threshold
+                    && sampleSize == other.sampleSize && seed == other.seed
+                    && sourceFingerprint == other.sourceFingerprint && targetFingerprint == other.targetFingerprint;
+        }
+    }
+}
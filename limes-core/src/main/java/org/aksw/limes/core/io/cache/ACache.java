@@ -21,12 +21,36 @@ import org.apache.jena.rdf.model.Model;
 
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Mohamed Sherif (sherif@informatik.uni-leipzig.de)
  * @version Jul 8, 2015
  */
 public abstract class ACache implements ICache {
+
+    // incremented on every modification of this cache or of its instances
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Records a modification of this cache or of one of its instances.
+     */
+    protected void modified() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of this cache, which changes whenever an instance
+     * is added to or replaced in the cache, or a property of one of its
+     * instances is modified. Indexes built over a cache stay valid as long as
+     * its version does not change.
+     *
+     * @return modification count of this cache
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     public abstract void addInstance(Instance i);
 
     public abstract Instance getNextInstance();
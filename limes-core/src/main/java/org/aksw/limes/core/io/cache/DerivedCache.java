@@ -0,0 +1,171 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.io.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Values derived from a cache, e.g. indexes over one of its properties, kept
+ * per cache identity and key as long as the cache is reachable and its
+ * version has not changed since they were built (see
+ * {@link ACache#getVersion()}). The cache is bounded by the total weight of
+ * the values it holds and evicts the least recently used ones first.
+ *
+ * @param <K>
+ *            type of the keys, e.g. properties
+ * @param <V>
+ *            type of the derived values
+ */
+public class DerivedCache<K, V> {
+
+    private final LinkedHashMap<Key<K>, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<ACache> collected = new ReferenceQueue<>();
+    private final ToLongFunction<? super V> weigher;
+    private long maxWeight;
+    private long weight = 0;
+
+    /**
+     * @param weigher
+     *            weight of a value, e.g. its number of elements
+     * @param maxWeight
+     *            maximal total weight of the values held
+     */
+    public DerivedCache(ToLongFunction<? super V> weigher, long maxWeight) {
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the value derived from a cache for a key, building it if it is
+     * not kept or no longer valid. Values are built outside of the lock, so
+     * concurrent callers may build the same value twice.
+     *
+     * @param cache
+     *            the cache
+     * @param key
+     *            the key
+     * @param builder
+     *            builds the value from the cache and the key
+     * @return the value
+     */
+    public V get(ACache cache, K key, BiFunction<? super ACache, ? super K, ? extends V> builder) {
+        long version = cache.getVersion();
+        synchronized (this) {
+            Entry<V> entry = entries.get(new Key<>(cache, key, null));
+            if (entry != null && entry.version == version) {
+                return entry.value;
+            }
+        }
+        V value = builder.apply(cache, key);
+        Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value), version);
+        synchronized (this) {
+            Entry<V> old = entries.put(new Key<>(cache, key, collected), entry);
+            if (old != null) {
+                weight -= old.weight;
+            }
+            weight += entry.weight;
+            evict();
+        }
+        return value;
+    }
+
+    private void evict() {
+        // drop the entries of caches that have been garbage collected
+        for (Object key; (key = collected.poll()) != null; ) {
+            Entry<V> entry = entries.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+        // then the least recently used ones
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+        }
+    }
+
+    /**
+     * Sets the maximal total weight of the values held, evicting values if
+     * needed.
+     *
+     * @param maxWeight
+     *            the maximal weight, 0 disables caching of weighted values
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    /**
+     * Removes all values.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private static class Key<K> extends WeakReference<ACache> {
+
+        private final int hash;
+        private final K key;
+
+        Key(ACache cache, K key, ReferenceQueue<ACache> queue) {
+            super(cache, queue);
+            this.hash = 31 * System.identityHashCode(cache) + Objects.hashCode(key);
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key<?> other = (Key<?>) obj;
+            ACache c = get();
+            return c != null && c == other.get() && Objects.equals(key, other.key);
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long weight;
+        private final long version;
+
+        Entry(V value, long weight, long version) {
+            this.value = value;
+            this.weight = weight;
+            this.version = version;
+        }
+    }
+}
@@ -102,6 +102,14 @@ public class HybridCache extends MemoryCache implements Serializable {
         }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // owners are not serialized
+        for (Instance i : instanceMap.values()) {
+            i.addOwner(this);
+        }
+    }
+
     public static HybridCache getData(KBInfo kb) {
         return getData(new File(""), kb);
     }
@@ -238,6 +246,8 @@ public class HybridCache extends MemoryCache implements Serializable {
     public void addInstance(Instance i) {
         if (!instanceMap.containsKey(i.getUri())) {
             instanceMap.put(i.getUri(), i);
+            i.addOwner(this);
+            modified();
         }
     }
 
@@ -277,8 +287,10 @@ public class HybridCache extends MemoryCache implements Serializable {
             m.addProperty(p, o);
         } else {
             Instance m = new Instance(s);
+            m.addOwner(this);
             m.addProperty(p, o);
             instanceMap.put(s, m);
+            modified();
         }
     }
 
@@ -21,10 +21,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Contains all the data related to a particular URI, i.e., all the (s p o)
@@ -45,6 +47,10 @@ public class Instance implements Comparable<Object>, Serializable {
     public double distance;
     private String uri;
     private HashMap<String, TreeSet<String>> properties;
+    // the cache the instance was first added to, notified of its modifications
+    private transient volatile ACache owner;
+    // further caches sharing the instance, e.g. samples, held weakly
+    private transient volatile CopyOnWriteArrayList<WeakReference<ACache>> sharers;
 
     /**
      * Constructor
@@ -75,6 +81,7 @@ public class Instance implements Comparable<Object>, Serializable {
             values.add(value);
             properties.put(propUri, values);
         }
+        modified();
     }
 
     public void addProperty(String propUri, TreeSet<String> values) {
@@ -87,6 +94,7 @@ public class Instance implements Comparable<Object>, Serializable {
         } else {
             properties.put(propUri, values);
         }
+        modified();
     }
 
     /*
@@ -178,6 +186,46 @@ public class Instance implements Comparable<Object>, Serializable {
         return instance;
     }
 
+    /**
+     * Registers a cache holding this instance, so that its version changes
+     * whenever the properties of this instance are modified.
+     *
+     * @param cache
+     *         cache the instance has been added to
+     */
+    synchronized void addOwner(ACache cache) {
+        if (owner == null || owner == cache) {
+            owner = cache;
+            return;
+        }
+        if (sharers == null) {
+            sharers = new CopyOnWriteArrayList<>();
+        }
+        sharers.removeIf(r -> r.get() == null);
+        for (WeakReference<ACache> r : sharers) {
+            if (r.get() == cache) {
+                return;
+            }
+        }
+        sharers.add(new WeakReference<>(cache));
+    }
+
+    private void modified() {
+        ACache cache = owner;
+        if (cache != null) {
+            cache.modified();
+        }
+        CopyOnWriteArrayList<WeakReference<ACache>> shared = sharers;
+        if (shared != null) {
+            for (WeakReference<ACache> r : shared) {
+                cache = r.get();
+                if (cache != null) {
+                    cache.modified();
+                }
+            }
+        }
+    }
+
     /**
      * Removes property with URI uri from this Instance
      *
@@ -186,6 +234,7 @@ public class Instance implements Comparable<Object>, Serializable {
     public void removePropery(String uri) {
         if (properties.containsKey(uri)) {
             properties.remove(uri);
+            modified();
         }
     }
 
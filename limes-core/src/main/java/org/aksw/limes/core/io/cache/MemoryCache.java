@@ -79,6 +79,8 @@ public class MemoryCache extends ACache {
             // Instance m = instanceMap.get(i.getUri());
         } else {
             instanceMap.put(i.getUri(), i);
+            i.addOwner(this);
+            modified();
         }
     }
 
@@ -121,8 +123,10 @@ public class MemoryCache extends ACache {
             m.addProperty(p, o);
         } else {
             Instance m = new Instance(s);
+            m.addOwner(this);
             m.addProperty(p, o);
             instanceMap.put(s, m);
+            modified();
         }
     }
 
@@ -204,6 +208,8 @@ public class MemoryCache extends ACache {
             instanceMap.remove(uri);
         }
         instanceMap.put(uri, a);
+        a.addOwner(this);
+        modified();
     }
 
     public Model parseCSVtoRDFModel(String baseURI, String IDbaseURI, String rdfType) {
@@ -0,0 +1,63 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.io.serializer;
+
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+
+/**
+ * Sink writing each link to a file with a serializer as it arrives, so that
+ * streamed links never have to be held in memory. As opposed to
+ * {@link ISerializer#writeToFile(org.aksw.limes.core.io.mapping.AMapping,
+ * String, String)}, a pair passed several times is written several times.
+ */
+public class SerializerLinkSink implements ILinkSink, AutoCloseable {
+
+    private final ISerializer serializer;
+    private final String predicate;
+
+    /**
+     * Opens the file.
+     *
+     * @param serializer
+     *            the serializer
+     * @param predicate
+     *            the predicate of the links
+     * @param file
+     *            the file to write to
+     */
+    public SerializerLinkSink(ISerializer serializer, String predicate, String file) {
+        if (!serializer.open(file)) {
+            throw new RuntimeException("Could not open " + file);
+        }
+        this.serializer = serializer;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public void add(String source, String target, double similarity) {
+        serializer.printStatement(source, predicate, target, similarity);
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close() {
+        serializer.close();
+    }
+}
@@ -33,7 +33,9 @@ import java.util.*;
 public abstract class AMapper implements IMapper {
 
     /**
-     * Helper method, re-factored from common setup code of Mappers.
+     * Helper method, re-factored from common setup code of Mappers. The maps
+     * are shared between mappers through {@link ValueToUriMapCache} and must
+     * not be modified.
      *
      * @param cache,
      *            Input cache
@@ -43,18 +45,7 @@ public abstract class AMapper implements IMapper {
      *         property
      */
     protected Map<String, Set<String>> getValueToUriMap(ACache cache, String property) {
-        Map<String, Set<String>> result = new HashMap<>();
-        List<String> uris = cache.getAllUris();
-        for (String uri : uris) {
-            Set<String> values = cache.getInstance(uri).getProperty(property);
-            for (String value : values) {
-                if (!result.containsKey(value)) {
-                    result.put(value, new HashSet<>());
-                }
-                result.get(value).add(uri);
-            }
-        }
-        return result;
+        return ValueToUriMapCache.get(cache, property);
     }
 
     /**
@@ -74,19 +65,47 @@ public abstract class AMapper implements IMapper {
                                           Map<String, Set<String>> sourceValueToUriMap, Map<String, Set<String>> targetValueToUriMap,
                                           boolean swapped) {
         AMapping result = MappingFactory.createDefaultMapping();
+        ILinkSink sink = getUriToUriSink(sourceValueToUriMap, targetValueToUriMap, swapped, result::add);
         for (String s : valueMap.keySet()) {
-            for (String t : valueMap.get(s).keySet()) {
-                if (sourceValueToUriMap.get(swapped ? t : s) != null)
-                    for (String sourceUri : sourceValueToUriMap.get(swapped ? t : s)) {
-                        for (String targetUri : targetValueToUriMap.get(swapped ? s : t)) {
-                            result.add(sourceUri, targetUri, valueMap.get(s).get(t));
-                        }
-                    }
+            for (Map.Entry<String, Double> t : valueMap.get(s).entrySet()) {
+                sink.add(s, t.getKey(), t.getValue());
             }
         }
         return result;
     }
 
+    /**
+     * Streaming counterpart of
+     * {@link #getUriToUriMapping(Map, Map, Map, boolean)}: wraps a sink of
+     * resource links into a sink of value links, which passes every pair of
+     * resources having the values on to the former.
+     *
+     * @param sourceValueToUriMap
+     *            ValueToUriMap constructed from a source cache
+     * @param targetValueToUriMap
+     *            ValueToUriMap constructed from a target cache
+     * @param swapped
+     *            True if source and target values are swapped in the links
+     *            passed to the returned sink
+     * @param sink
+     *            receives the links between the resources
+     * @return sink of the links between the values
+     */
+    protected ILinkSink getUriToUriSink(Map<String, Set<String>> sourceValueToUriMap,
+                                        Map<String, Set<String>> targetValueToUriMap, boolean swapped, ILinkSink sink) {
+        return (s, t, similarity) -> {
+            Set<String> sourceUris = sourceValueToUriMap.get(swapped ? t : s);
+            Set<String> targetUris = targetValueToUriMap.get(swapped ? s : t);
+            if (sourceUris != null && targetUris != null) {
+                for (String sourceUri : sourceUris) {
+                    for (String targetUri : targetUris) {
+                        sink.add(sourceUri, targetUri, similarity);
+                    }
+                }
+            }
+        };
+    }
+
     protected AMapping getUriToUriMapping(Map<String, Map<String, Double>> valueMap,
                                           Map<String, Set<String>> sourceValueToUriMap, Map<String, Set<String>> targetValueToUriMap) {
         return getUriToUriMapping(valueMap, sourceValueToUriMap, targetValueToUriMap, false);
@@ -0,0 +1,137 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sink that hands the links over to another sink running in a thread of its
+ * own, e.g. one writing them to disk, through a bounded queue. When the
+ * queue is full, {@link #add(String, String, double)} blocks until the
+ * consumer has caught up, so a fast mapper cannot pile up links in memory.
+ * Unlike other sinks, it may be shared by several threads.
+ * <p>
+ * {@link #close()} waits until all links have been passed on. A failure of
+ * the consumer is rethrown by the next call of either method.
+ */
+public class BoundedLinkSink implements ILinkSink, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final Link END = new Link(null, null, 0);
+
+    private final BlockingQueue<Link> queue;
+    private final Thread consumer;
+    private volatile Throwable failure = null;
+    private volatile boolean closed = false;
+
+    /**
+     * Starts the consumer.
+     *
+     * @param sink
+     *            the sink to pass the links on to
+     * @param capacity
+     *            the maximal number of links waiting in the queue
+     */
+    public BoundedLinkSink(ILinkSink sink, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.consumer = new Thread(() -> {
+            try {
+                for (Link link = queue.take(); link != END; link = queue.take()) {
+                    sink.add(link.source, link.target, link.similarity);
+                }
+            } catch (Throwable t) {
+                failure = t;
+                // unblock the producers, they fail on their next call
+                queue.clear();
+            }
+        }, "BoundedLinkSink");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Starts the consumer with the {@link #DEFAULT_CAPACITY}.
+     *
+     * @param sink
+     *            the sink to pass the links on to
+     */
+    public BoundedLinkSink(ILinkSink sink) {
+        this(sink, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void add(String source, String target, double similarity) {
+        if (closed) {
+            throw new IllegalStateException("The sink has been closed");
+        }
+        put(new Link(source, target, similarity));
+    }
+
+    private void put(Link link) {
+        checkFailure();
+        try {
+            while (!queue.offer(link, 100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new RuntimeException("Passing on the links failed", failure);
+        }
+    }
+
+    /**
+     * Waits until the consumer has passed on all links.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        put(END);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        checkFailure();
+    }
+
+    private static class Link {
+
+        private final String source;
+        private final String target;
+        private final double similarity;
+
+        Link(String source, String target, double similarity) {
+            this.source = source;
+            this.target = target;
+            this.similarity = similarity;
+        }
+    }
+}
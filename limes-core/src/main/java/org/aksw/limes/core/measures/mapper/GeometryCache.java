@@ -0,0 +1,226 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.DerivedCache;
+import org.aksw.limes.core.measures.mapper.pointsets.OrchidMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
+import org.aksw.limes.core.util.LimesWktReader;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Shared cache of parsed WKT geometries for the spatial mappers and measures,
+ * so that the same literals are parsed only once, e.g. by the ORCHID and the
+ * topological mappers of one specification, or by the one instance caches of
+ * {@link org.aksw.limes.core.measures.measure.MeasureProcessor}.
+ * <p>
+ * Literals are cached independently of any cache, in segments chosen by the
+ * hash of the literal so that concurrent readers rarely contend. In addition,
+ * the geometries (and the ORCHID polygons) of a property of a cache are kept
+ * per cache identity and property, and are valid as long as the version of
+ * the cache has not changed since they were built (see
+ * {@link ACache#getVersion()}). Both levels are bounded by the total number
+ * of coordinates they hold, split evenly among the literal segments, and
+ * evict the least recently used entries first. The geometries, polygons and
+ * collections handed out are shared and must not be modified.
+ */
+public class GeometryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeometryCache.class);
+
+    // rough estimate of the heap used per coordinate of a parsed geometry
+    private static final long BYTES_PER_COORDINATE = 64;
+
+    // number of literal segments, a power of two
+    private static final int SEGMENTS = 16;
+
+    private static volatile long maxCoordinates = Runtime.getRuntime().maxMemory() / 8 / BYTES_PER_COORDINATE;
+
+    private static final Segment[] literals = new Segment[SEGMENTS];
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            literals[i] = new Segment();
+        }
+    }
+    private static final DerivedCache<String, Entry> entries = new DerivedCache<>(e -> e.coordinates, maxCoordinates);
+
+    private static final ThreadLocal<LimesWktReader> readers = ThreadLocal.withInitial(LimesWktReader::new);
+
+    private GeometryCache() {
+    }
+
+    /**
+     * Parses a WKT literal, or returns the geometry parsed before.
+     *
+     * @param wkt
+     *            WKT literal, possibly with CRS prefix and datatype
+     * @return the parsed geometry
+     * @throws ParseException
+     *             if the literal is malformed
+     */
+    public static Geometry read(String wkt) throws ParseException {
+        int hash = wkt.hashCode();
+        Segment segment = literals[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        Geometry geometry = segment.get(wkt);
+        if (geometry == null) {
+            geometry = readers.get().read(wkt);
+            segment.put(wkt, geometry, maxCoordinates / SEGMENTS);
+        }
+        return geometry;
+    }
+
+    /**
+     * Returns the geometries of the first values of a property of a cache.
+     * Malformed values are skipped.
+     *
+     * @param cache
+     *            Input cache
+     * @param property
+     *            Property holding WKT literals
+     * @return unmodifiable map from resource uris to geometries
+     */
+    public static Map<String, Geometry> getGeometries(ACache cache, String property) {
+        return getEntry(cache, property).geometries;
+    }
+
+    /**
+     * Returns the polygons of the first values of a property of a cache, as
+     * used by ORCHID. Malformed values are skipped.
+     *
+     * @param cache
+     *            Input cache
+     * @param property
+     *            Property holding WKT literals
+     * @return unmodifiable set of polygons, labeled with their resource uris
+     */
+    public static Set<Polygon> getPolygons(ACache cache, String property) {
+        Entry entry = getEntry(cache, property);
+        Set<Polygon> polygons = entry.polygons;
+        if (polygons == null) {
+            Set<Polygon> result = new HashSet<>();
+            for (Map.Entry<String, Geometry> e : entry.geometries.entrySet()) {
+                result.add(new Polygon(e.getKey(), OrchidMapper.getPoints(e.getValue())));
+            }
+            polygons = Collections.unmodifiableSet(result);
+            entry.polygons = polygons;
+        }
+        return polygons;
+    }
+
+    private static Entry getEntry(ACache cache, String property) {
+        return entries.get(cache, property, GeometryCache::build);
+    }
+
+    private static Entry build(ACache cache, String property) {
+        Map<String, Geometry> geometries = new HashMap<>();
+        long count = 0;
+        for (String uri : cache.getAllUris()) {
+            Set<String> values = cache.getInstance(uri).getProperty(property);
+            if (values.size() > 0) {
+                String wkt = values.iterator().next();
+                try {
+                    Geometry geometry = read(wkt);
+                    geometries.put(uri, geometry);
+                    count += geometry.getNumPoints();
+                } catch (ParseException e) {
+                    logger.warn("Skipping malformed geometry at " + uri + "...");
+                }
+            }
+        }
+        return new Entry(Collections.unmodifiableMap(geometries), count);
+    }
+
+    /**
+     * Sets the maximal number of coordinates held by each level of the cache,
+     * evicting entries if needed. Defaults to roughly an eighth of the maximal
+     * heap.
+     *
+     * @param maxCoordinates
+     *            the maximal number of coordinates, 0 disables caching
+     */
+    public static synchronized void setMaxCoordinates(long maxCoordinates) {
+        GeometryCache.maxCoordinates = maxCoordinates;
+        for (Segment segment : literals) {
+            segment.evict(maxCoordinates / SEGMENTS);
+        }
+        entries.setMaxWeight(maxCoordinates);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public static synchronized void clear() {
+        for (Segment segment : literals) {
+            segment.clear();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Least recently used literals of one segment, guarded by the segment.
+     */
+    private static class Segment {
+
+        private final LinkedHashMap<String, Geometry> geometries = new LinkedHashMap<>(16, 0.75f, true);
+        private long coordinates = 0;
+
+        synchronized Geometry get(String wkt) {
+            return geometries.get(wkt);
+        }
+
+        synchronized void put(String wkt, Geometry geometry, long maxCoordinates) {
+            Geometry old = geometries.put(wkt, geometry);
+            if (old != null) {
+                coordinates -= old.getNumPoints();
+            }
+            coordinates += geometry.getNumPoints();
+            evict(maxCoordinates);
+        }
+
+        synchronized void evict(long maxCoordinates) {
+            Iterator<Geometry> it = geometries.values().iterator();
+            while (coordinates > maxCoordinates && it.hasNext()) {
+                coordinates -= it.next().getNumPoints();
+                it.remove();
+            }
+        }
+
+        synchronized void clear() {
+            geometries.clear();
+            coordinates = 0;
+        }
+    }
+
+    private static class Entry {
+
+        private final Map<String, Geometry> geometries;
+        private final long coordinates;
+        private volatile Set<Polygon> polygons;
+
+        Entry(Map<String, Geometry> geometries, long coordinates) {
+            this.geometries = geometries;
+            this.coordinates = coordinates;
+        }
+    }
+}
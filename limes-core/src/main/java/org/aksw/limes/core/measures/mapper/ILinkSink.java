@@ -0,0 +1,79 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receives the links computed by an {@link IStreamingMapper} one at a time,
+ * instead of having them collected in an {@link AMapping}. Mappers call a
+ * sink from one thread at a time, so implementations need not be thread
+ * safe. A sink may block to slow the mapper down, see
+ * {@link BoundedLinkSink}.
+ * <p>
+ * A pair may be passed more than once, e.g. for resources with several
+ * values. As for {@link AMapping#add(String, String, double)}, its
+ * similarity is then the maximum of the similarities passed.
+ */
+@FunctionalInterface
+public interface ILinkSink {
+
+    /**
+     * Receives a link.
+     *
+     * @param source
+     *            uri of the source resource
+     * @param target
+     *            uri of the target resource
+     * @param similarity
+     *            similarity of the resources
+     */
+    void add(String source, String target, double similarity);
+
+    /**
+     * Returns the similarity a new link of a source resource needs to reach
+     * to be kept by this sink, e.g. because it only keeps the best links of
+     * each source. Mappers may use it to skip candidates early.
+     *
+     * @param source
+     *            uri of the source resource
+     * @param threshold
+     *            threshold of the mapper
+     * @return the effective threshold, at least the given one
+     */
+    default double getThreshold(String source, double threshold) {
+        return threshold;
+    }
+
+    /**
+     * Receives all links of a mapping.
+     *
+     * @param mapping
+     *            the links
+     */
+    default void addAll(AMapping mapping) {
+        for (Map.Entry<String, HashMap<String, Double>> s : mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> t : s.getValue().entrySet()) {
+                add(s.getKey(), t.getKey(), t.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+
+/**
+ * Mapper that can compute only the best links of every source resource,
+ * raising the threshold of a source to the similarity of its k-th best link
+ * so far (see {@link TopKLinkSink}) to skip candidates.
+ */
+public interface ITopKMapper extends IMapper {
+
+    /**
+     * Returns for every source resource the links to the k targets of highest
+     * similarity that reach the threshold, including the targets tied with
+     * the k-th one.
+     *
+     * @param source
+     *            source cache
+     * @param target
+     *            target cache
+     * @param sourceVar
+     *            source property variable
+     * @param targetVar
+     *            target property variable
+     * @param expression
+     *            metric expression of link specification
+     * @param threshold
+     *            threshold of link specification
+     * @param k
+     *            number of targets per source
+     * @return the best links of every source
+     */
+    AMapping getTopKMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                            double threshold, int k);
+}
@@ -25,6 +25,7 @@ import org.aksw.limes.core.measures.mapper.pointsets.SymmetricHausdorffMapper;
 import org.aksw.limes.core.measures.mapper.resourcesets.SetJaccardMapper;
 import org.aksw.limes.core.measures.mapper.semantic.edgecounting.EdgeCountingSemanticMapper;
 import org.aksw.limes.core.measures.mapper.space.HR3Mapper;
+import org.aksw.limes.core.measures.mapper.space.KdTreeMapper;
 import org.aksw.limes.core.measures.mapper.string.*;
 import org.aksw.limes.core.measures.mapper.string.fastngram.FastNGramMapper;
 import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.complex.EqualsMapper;
@@ -113,6 +114,10 @@ public class MapperFactory {
             case GEO_ORTHODROMIC:
             case GEO_GREAT_ELLIPTIC:
                 return new HR3Mapper();
+            case EUCLIDEAN_TREE:
+            case MANHATTAN_TREE:
+            case GEO_ORTHODROMIC_TREE:
+                return new KdTreeMapper();
             ///////////////////////
             case GEO_CENTROID_INDEXED_HAUSDORFF:
             case GEO_FAST_HAUSDORFF:
@@ -191,6 +196,8 @@ public class MapperFactory {
                 return new TouchesMapper();
             case TOP_WITHIN:
                 return new WithinMapper();
+            case TOP_RELATIONS:
+                return new TopologicalRelationsMapper();
 
             ///////////////////////
             case TOP_COBALT_AREA_CONTAINS:
@@ -0,0 +1,175 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sink keeping for every source resource only the links to the k targets of
+ * highest similarity. Links tied with the k-th best one are kept as well,
+ * so for k = 1 the result is that of
+ * {@link AMapping#getBestOneToNMapping()}. As soon as k targets of a source
+ * have been seen, the similarity of the k-th best one becomes the effective
+ * threshold of the source (see {@link #getThreshold(String, double)}), which
+ * mappers can use to skip candidates.
+ * <p>
+ * Different sources may be added concurrently, as long as the links of each
+ * source are added by one thread at a time.
+ */
+public class TopKLinkSink implements ILinkSink {
+
+    private final int k;
+    private final double threshold;
+    private final Map<String, Candidates> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * @param k
+     *            the number of targets to keep per source
+     * @param threshold
+     *            the minimal similarity of the links
+     */
+    public TopKLinkSink(int k, double threshold) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k has to be positive, not " + k);
+        }
+        this.k = k;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void add(String source, String target, double similarity) {
+        if (similarity < threshold) {
+            return;
+        }
+        Candidates c = candidates.get(source);
+        if (c == null) {
+            c = new Candidates(k);
+            candidates.put(source, c);
+        }
+        c.add(target, similarity);
+    }
+
+    @Override
+    public double getThreshold(String source, double threshold) {
+        Candidates c = candidates.get(source);
+        return Math.max(Math.max(threshold, this.threshold), c == null ? threshold : c.getBound());
+    }
+
+    /**
+     * @return the best links of every source
+     */
+    public AMapping getMapping() {
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, Candidates> e : candidates.entrySet()) {
+            HashMap<String, Double> targets = e.getValue().getBest();
+            if (!targets.isEmpty()) {
+                result.add(e.getKey(), targets);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The best targets of one source seen so far. Targets are pruned lazily,
+     * whenever their number has doubled, so adding a link takes amortized
+     * logarithmic time.
+     */
+    public static class Candidates {
+
+        private final int k;
+        private final HashMap<String, Double> similarities = new HashMap<>();
+        private double bound = Double.NEGATIVE_INFINITY;
+        private int nextPruning;
+
+        /**
+         * @param k
+         *            the number of targets to keep
+         */
+        public Candidates(int k) {
+            this.k = k;
+            this.nextPruning = k;
+        }
+
+        /**
+         * Adds a target, keeping its highest similarity.
+         *
+         * @param target
+         *            the target
+         * @param similarity
+         *            its similarity
+         * @return false if the similarity is below the current bound
+         */
+        public boolean add(String target, double similarity) {
+            if (similarity < bound) {
+                return false;
+            }
+            Double old = similarities.get(target);
+            if (old == null || old < similarity) {
+                similarities.put(target, similarity);
+            }
+            if (similarities.size() >= nextPruning) {
+                prune();
+            }
+            return true;
+        }
+
+        /**
+         * @return the similarity of the k-th best target, or negative
+         *         infinity if there are less than k targets
+         */
+        public double getBound() {
+            return bound;
+        }
+
+        /**
+         * @return the targets whose similarity is at least the one of the k-th
+         *         best target, and their similarities
+         */
+        public HashMap<String, Double> getBest() {
+            prune();
+            return new HashMap<>(similarities);
+        }
+
+        private void prune() {
+            if (similarities.size() >= k) {
+                double[] values = new double[similarities.size()];
+                int i = 0;
+                for (double value : similarities.values()) {
+                    values[i++] = value;
+                }
+                Arrays.sort(values);
+                bound = values[values.length - k];
+                Iterator<Double> it = similarities.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next() < bound) {
+                        it.remove();
+                    }
+                }
+            }
+            // ties with the k-th target may keep more than k targets
+            nextPruning = 2 * Math.max(k, similarities.size());
+        }
+    }
+}
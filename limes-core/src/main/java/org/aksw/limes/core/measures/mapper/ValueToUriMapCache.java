@@ -0,0 +1,111 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.DerivedCache;
+
+import java.util.*;
+
+/**
+ * Shared cache of the value to uri maps of {@link AMapper}, so that atomic
+ * mappers over the same cache and property (e.g. the leaves of a
+ * specification, or a learner trying many thresholds) build the map only
+ * once.
+ * <p>
+ * Entries are keyed by the identity of the cache and the property. An entry
+ * is valid as long as the version of its cache has not changed since it was
+ * built (see {@link ACache#getVersion()}), which also covers in place
+ * preprocessing. The cache is bounded by the total number of (value,
+ * uri) pairs it holds and evicts the least recently used entries first. The
+ * maps handed out are unmodifiable.
+ */
+public class ValueToUriMapCache {
+
+    // rough estimate of the heap used per (value, uri) pair of a map
+    private static final long BYTES_PER_PAIR = 128;
+
+    private static final DerivedCache<String, Entry> entries = new DerivedCache<>(e -> e.pairs,
+            Runtime.getRuntime().maxMemory() / 8 / BYTES_PER_PAIR);
+
+    private ValueToUriMapCache() {
+    }
+
+    /**
+     * Returns the value to uri map of a property of a cache, building it if it
+     * is not cached or no longer valid.
+     *
+     * @param cache
+     *            Input cache
+     * @param property
+     *            Input linking property
+     * @return unmodifiable map from literal values to resource uris
+     */
+    public static Map<String, Set<String>> get(ACache cache, String property) {
+        return entries.get(cache, property, ValueToUriMapCache::build).map;
+    }
+
+    private static Entry build(ACache cache, String property) {
+        Map<String, Set<String>> result = new HashMap<>();
+        long count = 0;
+        List<String> uris = cache.getAllUris();
+        for (String uri : uris) {
+            Set<String> values = cache.getInstance(uri).getProperty(property);
+            for (String value : values) {
+                if (!result.containsKey(value)) {
+                    result.put(value, new HashSet<>());
+                }
+                result.get(value).add(uri);
+                count++;
+            }
+        }
+        for (Map.Entry<String, Set<String>> e : result.entrySet()) {
+            e.setValue(Collections.unmodifiableSet(e.getValue()));
+        }
+        return new Entry(Collections.unmodifiableMap(result), count);
+    }
+
+    /**
+     * Sets the maximal total number of (value, uri) pairs held, evicting
+     * entries if needed. Defaults to roughly an eighth of the maximal heap.
+     *
+     * @param maxPairs
+     *            the maximal number of pairs, 0 disables caching
+     */
+    public static void setMaxPairs(long maxPairs) {
+        entries.setMaxWeight(maxPairs);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public static void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+
+        private final Map<String, Set<String>> map;
+        private final long pairs;
+
+        Entry(Map<String, Set<String>> map, long pairs) {
+            this.map = map;
+            this.pairs = pairs;
+        }
+    }
+}
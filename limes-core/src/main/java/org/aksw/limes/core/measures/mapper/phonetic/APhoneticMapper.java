@@ -0,0 +1,261 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.phonetic;
+
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generic mapper for phonetic measures. Values are encoded (in parallel) with
+ * the phonetic encoder of the measure and grouped by their code. A target code
+ * matches a source code if it is not longer than the source code and differs
+ * from the source code prefix of the same length in at most
+ * <code>floor(distanceFactor * (1 - threshold))</code> positions. The
+ * similarity of a match is <code>1 - distance / codeLength</code>.
+ * <p>
+ * Exact matches are looked up in a hash index from code to values. Only if
+ * the threshold admits mismatching positions, the target codes are also
+ * indexed by the segments of their codes: with at most k mismatches, at least
+ * one of k + 1 segments of a matching code is identical.
+ */
+public abstract class APhoneticMapper extends AMapper {
+
+    private final Function<String, String> encoder;
+    private final double codeLength;
+    private final double distanceFactor;
+
+    /**
+     * @param encoder
+     *            computes the phonetic code of a value, may return null or the
+     *            empty string for values without code
+     * @param codeLength
+     *            normalization of the number of mismatching positions
+     * @param distanceFactor
+     *            number of mismatching positions admitted at threshold 0
+     */
+    protected APhoneticMapper(Function<String, String> encoder, double codeLength, double distanceFactor) {
+        this.encoder = encoder;
+        this.codeLength = codeLength;
+        this.distanceFactor = distanceFactor;
+    }
+
+    /**
+     * Computes the phonetic codes of a value. Encoders with several codes per
+     * value, e.g. a primary and an alternate code, override this method. A
+     * value then matches if any of its codes matches, with the highest
+     * similarity of its codes.
+     *
+     * @param value
+     *            the value
+     * @return the codes of the value, codes may be null or empty
+     */
+    protected Collection<String> getCodes(String value) {
+        return Collections.singletonList(encoder.apply(value));
+    }
+
+    /**
+     * Computes a mapping between a source and a target.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Variable for the source dataset
+     * @param targetVar
+     *            Variable for the target dataset
+     * @param expression
+     *            Expression to process.
+     * @param threshold
+     *            Similarity threshold
+     * @return A mapping which contains links between the source instances and
+     *         the target instances
+     */
+    @Override
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                               double threshold) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        Map<String, Set<String>> sourceMap = getValueToUriMap(source, properties.get(0));
+        Map<String, Set<String>> targetMap = getValueToUriMap(target, properties.get(1));
+        return getMapping(sourceMap, targetMap, threshold);
+    }
+
+    protected AMapping getMapping(Map<String, Set<String>> sourceMap, Map<String, Set<String>> targetMap,
+                                  double threshold) {
+        // create inverted lists (code=>values)
+        Map<String, List<String>> sourceCodes = getInvertedList(sourceMap.keySet());
+        Map<String, List<String>> targetCodes = getInvertedList(targetMap.keySet());
+        int maxDistance = getMaxDistance(threshold);
+        CodeIndex index = new CodeIndex(targetCodes.keySet(), maxDistance);
+        Map<String, Map<String, Double>> similarityBook = new ConcurrentHashMap<>();
+        sourceCodes.entrySet().parallelStream().forEach(entry -> {
+            String code = entry.getKey();
+            Map<String, Double> similarities = new HashMap<>();
+            index.search(code, (targetCode, distance) -> {
+                double sim = 1.0d - ((double) distance / codeLength);
+                for (String b : targetCodes.get(targetCode)) {
+                    similarities.merge(b, sim, Math::max);
+                }
+            });
+            if (!similarities.isEmpty()) {
+                for (String a : entry.getValue()) {
+                    similarityBook.merge(a, similarities, APhoneticMapper::max);
+                }
+            }
+        });
+        return getUriToUriMapping(similarityBook, sourceMap, targetMap);
+    }
+
+    // values with several codes meet several source codes, keep the best similarity
+    private static Map<String, Double> max(Map<String, Double> a, Map<String, Double> b) {
+        Map<String, Double> result = new HashMap<>(a);
+        b.forEach((value, sim) -> result.merge(value, sim, Math::max));
+        return result;
+    }
+
+    private Map<String, List<String>> getInvertedList(Collection<String> values) {
+        return values.parallelStream()
+                .filter(s -> !s.isEmpty())
+                .flatMap(s -> getCodes(s).stream()
+                        .filter(code -> code != null && !code.isEmpty())
+                        .distinct()
+                        .map(code -> new AbstractMap.SimpleImmutableEntry<>(code, s)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+    }
+
+    private int getMaxDistance(double threshold) {
+        return (int) Math.floor(distanceFactor * (1 - threshold));
+    }
+
+    public double getRuntimeApproximation(int sourceSize, int targetSize, double theta, Language language) {
+        return 1000d;
+    }
+
+    public double getMappingSizeApproximation(int sourceSize, int targetSize, double theta, Language language) {
+        return 1000d;
+    }
+
+    /**
+     * Receives the target codes found for a source code.
+     */
+    private interface MatchConsumer {
+        void accept(String targetCode, int distance);
+    }
+
+    /**
+     * Index over the distinct target codes, immutable once built.
+     */
+    private static class CodeIndex {
+
+        private final int maxDistance;
+        // code lengths present in the index, ascending
+        private final int[] lengths;
+        private final Set<String> codes;
+        // length => segment number => segment => codes
+        private final Map<Integer, List<Map<String, List<String>>>> segments = new HashMap<>();
+        // length => codes, for lengths not exceeding the maximal distance
+        private final Map<Integer, List<String>> shortCodes = new HashMap<>();
+
+        CodeIndex(Set<String> codes, int maxDistance) {
+            this.codes = codes;
+            this.maxDistance = maxDistance;
+            this.lengths = codes.stream().mapToInt(String::length).distinct().sorted().toArray();
+            if (maxDistance > 0) {
+                for (String code : codes) {
+                    int length = code.length();
+                    if (length <= maxDistance) {
+                        shortCodes.computeIfAbsent(length, k -> new ArrayList<>()).add(code);
+                        continue;
+                    }
+                    List<Map<String, List<String>>> bySegment = segments.computeIfAbsent(length, k -> {
+                        List<Map<String, List<String>>> list = new ArrayList<>(maxDistance + 1);
+                        for (int i = 0; i <= maxDistance; i++) {
+                            list.add(new HashMap<>());
+                        }
+                        return list;
+                    });
+                    for (int i = 0; i <= maxDistance; i++) {
+                        bySegment.get(i).computeIfAbsent(segment(code, i), k -> new ArrayList<>()).add(code);
+                    }
+                }
+            }
+        }
+
+        private String segment(String code, int i) {
+            int length = code.length();
+            return code.substring(i * length / (maxDistance + 1), (i + 1) * length / (maxDistance + 1));
+        }
+
+        void search(String code, MatchConsumer consumer) {
+            for (int length : lengths) {
+                if (length > code.length()) {
+                    break;
+                }
+                String prefix = code.substring(0, length);
+                if (maxDistance == 0) {
+                    if (codes.contains(prefix)) {
+                        consumer.accept(prefix, 0);
+                    }
+                } else if (length <= maxDistance) {
+                    for (String candidate : shortCodes.get(length)) {
+                        consumer.accept(candidate, distance(prefix, candidate));
+                    }
+                } else {
+                    Set<String> seen = new HashSet<>();
+                    List<Map<String, List<String>>> bySegment = segments.get(length);
+                    for (int i = 0; i <= maxDistance; i++) {
+                        List<String> candidates = bySegment.get(i).get(segment(prefix, i));
+                        if (candidates == null) {
+                            continue;
+                        }
+                        for (String candidate : candidates) {
+                            if (seen.add(candidate)) {
+                                int distance = distance(prefix, candidate);
+                                if (distance <= maxDistance) {
+                                    consumer.accept(candidate, distance);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int distance(String a, String b) {
+            int distance = 0;
+            for (int i = 0; i < a.length(); i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    distance++;
+                }
+            }
+            return distance;
+        }
+    }
+}
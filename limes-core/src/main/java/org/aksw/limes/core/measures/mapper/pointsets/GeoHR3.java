@@ -26,11 +26,17 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
 import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.pointsets.APointsetsMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.IPointsetsMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.hausdorff.CentroidIndexedHausdorffMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.hausdorff.IndexedHausdorffMeasure;
+import org.aksw.limes.core.measures.measure.pointsets.hausdorff.NaiveHausdorffMeasure;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Still need to add tabu list. Basically checks whether two polygons have
@@ -47,14 +53,23 @@ public class GeoHR3 {
     public static boolean threshold = false;
     public static double DEFAULT_THRESHOLD = 1f;
     public static int DEFAULT_GRANULARITY = 4;
+    /**
+     * Whether the Hausdorff distances are preceded by a bound on the
+     * simplified polygons, see {@link #isBeyondThreshold(Polygon, Polygon)}
+     */
+    public static boolean simplificationFilter = true;
+    /** Douglas-Peucker tolerance of the filter relative to the angular threshold */
+    public static double SIMPLIFICATION_RATIO = 0.25;
     public static float delta;
     public boolean HR3;
     public IPointsetsMeasure setMeasure;
+    public int numberOfThreads = Runtime.getRuntime().availableProcessors();
     public boolean verbose = false;
     public long indexingTime;
     protected int granularity;
     protected float angularThreshold;
     protected float distanceThreshold;
+    protected boolean filter;
     int latMax, latMin, longMax, longMin;
 
     public GeoHR3(float distanceThreshold, int granularity, MeasureType hd) {
@@ -240,7 +255,10 @@ public class GeoHR3 {
 
     /**
      * Runs GeoHR3 for source and target dataset. Uses the set SetMeasure
-     * implementation. FastHausdorff is used as default
+     * implementation. FastHausdorff is used as default. The latitude bands of
+     * the source index are processed in parallel. Each source polygon is only
+     * processed from the first of its squares, and compares each target
+     * polygon found in the squares to compare at most once.
      *
      * @param sourceData,
      *            Source polygons
@@ -253,7 +271,6 @@ public class GeoHR3 {
         GeoIndex source = assignSquares(sourceData);
         GeoIndex target = assignSquares(targetData);
         long end = System.currentTimeMillis();
-        Map<String, Set<String>> computed = new HashMap<String, Set<String>>();
         indexingTime = end - begin;
         if (verbose) {
             System.out.println("Geo-Indexing took: " + indexingTime + " ms");
@@ -263,9 +280,7 @@ public class GeoHR3 {
             System.out.println("Angular Threshold = " + angularThreshold);
             System.out.println("Index = " + source);
         }
-        AMapping m = MappingFactory.createDefaultMapping();
 
-        double d;
         if (setMeasure instanceof CentroidIndexedHausdorffMeasure) {
             ((CentroidIndexedHausdorffMeasure) setMeasure).computeIndexes(sourceData, targetData);
         } else if (setMeasure instanceof IndexedHausdorffMeasure) {
@@ -273,31 +288,157 @@ public class GeoHR3 {
             targetIndex.index(targetData);
             ((IndexedHausdorffMeasure) setMeasure).targetIndex = targetIndex;
         }
+        // the bounds hold for the directed Hausdorff distance on the
+        // orthodromic distance only
+        filter = simplificationFilter && !APointsetsMeasure.USE_GREAT_ELLIPTIC_DISTANCE
+                && (setMeasure instanceof NaiveHausdorffMeasure || setMeasure instanceof IndexedHausdorffMeasure);
+        // polygons are not comparable, thus number the targets by identity
+        Map<Polygon, Integer> targetIds = new IdentityHashMap<Polygon, Integer>();
+        for (Polygon b : targetData) {
+            targetIds.put(b, targetIds.size());
+        }
+
+        AMapping m = MappingFactory.createDefaultMapping();
+        ExecutorService exec = Executors.newFixedThreadPool(numberOfThreads);
+        List<Future<AMapping>> bands = new ArrayList<Future<AMapping>>();
         for (Integer latIndex : source.squares.keySet()) {
-            for (Integer longIndex : source.squares.get(latIndex).keySet()) {
-                GeoSquare g1 = source.getSquare(latIndex, longIndex);
-                Set<List<Integer>> squares = getSquaresToCompare(latIndex, longIndex, target);
-                for (List<Integer> squareIndex : squares) {
-                    GeoSquare g2 = target.getSquare(squareIndex.get(0), squareIndex.get(1));
-                    // only run if the hypercube actually exists
-                    for (Polygon a : g1.elements) {
+            bands.add(exec.submit(() -> runBand(latIndex, source.squares.get(latIndex), target, targetIds)));
+        }
+        try {
+            for (Future<AMapping> band : bands) {
+                for (Map.Entry<String, HashMap<String, Double>> e : band.get().getMap().entrySet()) {
+                    m.add(e.getKey(), e.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            exec.shutdown();
+        }
+        return m;
+    }
+
+    /**
+     * Compares the source polygons of a latitude band of the source index
+     * whose first square lies in the band.
+     *
+     * @param latIndex
+     *            Latitude index of the band
+     * @param band
+     *            Source squares of the band by longitude index
+     * @param target
+     *            Target index
+     * @param targetIds
+     *            Consecutive ids of the target polygons
+     * @return Mapping of the polygons of the band
+     */
+    protected AMapping runBand(int latIndex, Map<Integer, GeoSquare> band, GeoIndex target,
+                               Map<Polygon, Integer> targetIds) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        Map<Long, Set<List<Integer>>> squaresToCompare = new HashMap<Long, Set<List<Integer>>>();
+        // targets already compared to the current source polygon
+        BitSet compared = new BitSet(targetIds.size());
+        int[] comparedIds = new int[targetIds.size()];
+        double d;
+        for (Map.Entry<Integer, GeoSquare> square : band.entrySet()) {
+            long home = getSquareKey(latIndex, square.getKey());
+            for (Polygon a : square.getValue().elements) {
+                long[] squares = getSquareKeys(a);
+                if (squares[0] != home) {
+                    continue;
+                }
+                int count = 0;
+                for (long key : squares) {
+                    Set<List<Integer>> toCompare = squaresToCompare.computeIfAbsent(key,
+                            k -> getSquaresToCompare((int) (k >> 32), (int) k.longValue(), target));
+                    for (List<Integer> squareIndex : toCompare) {
+                        GeoSquare g2 = target.getSquare(squareIndex.get(0), squareIndex.get(1));
                         for (Polygon b : g2.elements) {
-                            if (!computed.containsKey(a.uri)) {
-                                computed.put(a.uri, new HashSet<String>());
-                            }
-                            if (!computed.get(a.uri).contains(b.uri)) {
-                                // add subset condition
+                            int id = targetIds.get(b);
+                            if (!compared.get(id)) {
+                                compared.set(id);
+                                comparedIds[count++] = id;
+                                if (filter && isBeyondThreshold(a, b)) {
+                                    continue;
+                                }
                                 d = setMeasure.computeDistance(a, b, distanceThreshold);
                                 if (d <= distanceThreshold) {
                                     m.add(a.uri, b.uri, 1 / (1 + d));
                                 }
                             }
-                            computed.get(a.uri).add(b.uri);
                         }
                     }
                 }
+                for (int i = 0; i < count; i++) {
+                    compared.clear(comparedIds[i]);
+                }
             }
         }
         return m;
     }
+
+    /**
+     * Checks on the Douglas-Peucker simplifications A' and B' of the polygons
+     * A and B whether the directed Hausdorff distance h(A, B) exceeds the
+     * threshold, using h(A, B) &gt;= h(A', B') - error(B). The check is only
+     * run if the simplified polygons have at most a quarter of the point
+     * pairs of the original ones. Pairs that pass are computed exactly, as
+     * their distance is needed for the similarity.
+     *
+     * @param a
+     *            Source polygon
+     * @param b
+     *            Target polygon
+     * @return true if the distance is known to be above the threshold
+     */
+    protected boolean isBeyondThreshold(Polygon a, Polygon b) {
+        double tolerance = angularThreshold * SIMPLIFICATION_RATIO;
+        SimplifiedPolygon x = a.getSimplified(tolerance);
+        SimplifiedPolygon y = b.getSimplified(tolerance);
+        if (4L * x.size() * y.size() > (long) a.getPacked().size() * b.getPacked().size()) {
+            return false;
+        }
+        double bound = distanceThreshold + y.error;
+        for (int i = 0; i < x.size(); i++) {
+            boolean near = false;
+            for (int j = 0; j < y.size() && !near; j++) {
+                near = OrthodromicDistance.getDistance(x.points, i, y.points, j) <= bound;
+            }
+            if (!near) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param p
+     *            Polygon
+     * @return the distinct keys of the squares of the points of p, in
+     *         ascending order
+     */
+    private long[] getSquareKeys(Polygon p) {
+        PackedPolygon packed = p.getPacked();
+        long[] keys = new long[packed.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = getSquareKey((int) Math.floor(packed.getLatitude(i) / delta),
+                    (int) Math.floor(packed.getLongitude(i) / delta));
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static long getSquareKey(int latIndex, int longIndex) {
+        return ((long) latIndex << 32) | (longIndex & 0xffffffffL);
+    }
 }
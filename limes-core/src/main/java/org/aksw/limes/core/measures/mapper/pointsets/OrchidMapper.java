@@ -22,9 +22,9 @@ import org.aksw.limes.core.datastrutures.Point;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.GeometryCache;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
 import org.aksw.limes.core.measures.measure.pointsets.IPointsetsMeasure;
-import org.aksw.limes.core.util.LimesWktReader;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.ParseException;
@@ -32,7 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -44,20 +43,29 @@ public class OrchidMapper extends AMapper {
     private static final Logger logger = LoggerFactory.getLogger(OrchidMapper.class);
 
     IPointsetsMeasure m = null;
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
     public static List<Point> getPoints(String wktString) {
-        LimesWktReader wktReader = new LimesWktReader();
-        List<Point> points = new ArrayList<>();
         try {
-            Geometry geometry = wktReader.read(wktString);
-            for (Coordinate coordinate : geometry.getCoordinates()) {
-                points.add(new Point("", Double.isNaN(coordinate.getZ()) ?
-                        Lists.newArrayList(coordinate.getX(), coordinate.getY()) :
-                        Lists.newArrayList(coordinate.getX(), coordinate.getY(), coordinate.getZ())));
-            }
+            return getPoints(GeometryCache.read(wktString));
         } catch (ParseException e) {
             logger.warn("Skipping malformed geometry \"" + wktString + "\"...");
         }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @param geometry
+     *            A parsed geometry
+     * @return the points of the geometry
+     */
+    public static List<Point> getPoints(Geometry geometry) {
+        List<Point> points = new ArrayList<>();
+        for (Coordinate coordinate : geometry.getCoordinates()) {
+            points.add(new Point("", Double.isNaN(coordinate.getZ()) ?
+                    Lists.newArrayList(coordinate.getX(), coordinate.getY()) :
+                    Lists.newArrayList(coordinate.getX(), coordinate.getY(), coordinate.getZ())));
+        }
         return points;
     }
 
@@ -107,12 +115,14 @@ public class OrchidMapper extends AMapper {
         Set<Polygon> targetPolygons = getPolygons(target, properties.get(1));
         float theta = (1 / (float) threshold) - 1;
         GeoHR3 orchid = new GeoHR3(theta, GeoHR3.DEFAULT_GRANULARITY, MeasureFactory.getMeasureType(expression));
+        orchid.numberOfThreads = numberOfThreads;
         return orchid.run(sourcePolygons, targetPolygons);
     }
 
     /**
      * Computes polygons out of strings in the WKT format. Currently works for
-     * LINESTRING, POINT, POLYGON
+     * LINESTRING, POINT, POLYGON. The polygons are shared through the
+     * {@link GeometryCache} and must not be modified.
      *
      * @param c
      *            Cache from which the data is to be fetched
@@ -122,21 +132,26 @@ public class OrchidMapper extends AMapper {
      *         matches
      */
     public Set<Polygon> getPolygons(ACache c, String property) {
-        Set<Polygon> polygons = new HashSet<>();
-        for (String uri : c.getAllUris()) {
-            Set<String> values = c.getInstance(uri).getProperty(property);
-            if (values.size() > 0) {
-                String wkt = values.iterator().next();
-                polygons.add(new Polygon(uri, getPoints(wkt)));
-            }
-        }
-        return polygons;
+        return GeometryCache.getPolygons(c, property);
     }
 
     public String getName() {
         return "Orchid";
     }
 
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * @param numberOfThreads
+     *            Number of threads used to compare the polygons, defaults to
+     *            the number of available processors
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
     public double getRuntimeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
         if (language.equals(Language.DE)) {
             // error = 667.22
@@ -92,4 +92,30 @@ public class OrthodromicDistance {
         return R * c;
     }
 
+    /**
+     * Computes the distance between point i of x and point j of y, using the
+     * precomputed radians and latitude cosines of the packed polygons. Gives
+     * the same result as {@link #getDistanceInDegrees(double, double, double, double)}.
+     *
+     * @param x,
+     *         first polygon
+     * @param i,
+     *         index of the point in x
+     * @param y,
+     *         second polygon
+     * @param j,
+     *         index of the point in y
+     * @return Distance between both points
+     */
+    public static double getDistance(PackedPolygon x, int i, PackedPolygon y, int j) {
+        double dLat = y.radians[2 * j] - x.radians[2 * i];
+        double dLon = y.radians[2 * j + 1] - x.radians[2 * i + 1];
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+
+        double a = sinLat * sinLat + sinLon * sinLon * x.cosLatitudes[i] * y.cosLatitudes[j];
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return R * c;
+    }
+
 }
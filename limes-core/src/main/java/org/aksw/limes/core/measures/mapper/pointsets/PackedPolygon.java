@@ -0,0 +1,95 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.pointsets;
+
+import org.aksw.limes.core.datastrutures.Point;
+
+import java.util.List;
+
+/**
+ * Immutable primitive snapshot of the points of a {@link Polygon}, used by
+ * the point set measures instead of the boxed {@link Point} list. Point
+ * <code>i</code> is stored at <code>2i</code> (latitude) and
+ * <code>2i + 1</code> (longitude) of the coordinate arrays. The radians and
+ * the latitude cosines needed by the orthodromic distance are precomputed,
+ * as well as the bounding box and the centroid (the mean of the points).
+ *
+ * @see Polygon#getPacked()
+ */
+public class PackedPolygon {
+
+    /** latitude/longitude pairs in degrees */
+    public final double[] coordinates;
+    /** latitude/longitude pairs in radians */
+    public final double[] radians;
+    /** cosine of the latitude of each point */
+    public final double[] cosLatitudes;
+    public final double minLatitude, maxLatitude, minLongitude, maxLongitude;
+    public final double centroidLatitude, centroidLongitude;
+
+    // the list this snapshot was taken from, to detect replaced point lists
+    final List<Point> points;
+
+    public PackedPolygon(List<Point> points) {
+        this.points = points;
+        int n = points.size();
+        coordinates = new double[2 * n];
+        radians = new double[2 * n];
+        cosLatitudes = new double[n];
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLong = Double.POSITIVE_INFINITY, maxLong = Double.NEGATIVE_INFINITY;
+        double sumLat = 0, sumLong = 0;
+        for (int i = 0; i < n; i++) {
+            List<Double> c = points.get(i).coordinates;
+            double lat = c.get(0);
+            double lon = c.get(1);
+            coordinates[2 * i] = lat;
+            coordinates[2 * i + 1] = lon;
+            radians[2 * i] = Math.toRadians(lat);
+            radians[2 * i + 1] = Math.toRadians(lon);
+            cosLatitudes[i] = Math.cos(radians[2 * i]);
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLong = Math.min(minLong, lon);
+            maxLong = Math.max(maxLong, lon);
+            sumLat += lat;
+            sumLong += lon;
+        }
+        minLatitude = minLat;
+        maxLatitude = maxLat;
+        minLongitude = minLong;
+        maxLongitude = maxLong;
+        centroidLatitude = sumLat / n;
+        centroidLongitude = sumLong / n;
+    }
+
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return cosLatitudes.length;
+    }
+
+    public double getLatitude(int i) {
+        return coordinates[2 * i];
+    }
+
+    public double getLongitude(int i) {
+        return coordinates[2 * i + 1];
+    }
+}
@@ -37,6 +37,8 @@ public class Polygon {
 
     public List<Point> points;
     public String uri;
+    private volatile PackedPolygon packed;
+    private volatile SimplifiedPolygon simplified;
 
     public Polygon(String name) {
         uri = name;
@@ -61,6 +63,7 @@ public class Polygon {
      */
     public void add(Point y) {
         points.add(y);
+        packed = null;
     }
 
     /**
@@ -71,6 +74,43 @@ public class Polygon {
      */
     public void remove(Point y) {
         ((List<Point>) points).remove(y);
+        packed = null;
+    }
+
+    /**
+     * Returns the primitive representation of the points, which is built on
+     * first use and kept until the points are changed through
+     * {@link #add(Point)} or {@link #remove(Point)} or the point list is
+     * replaced.
+     *
+     * @return packed points of the polygon
+     */
+    public PackedPolygon getPacked() {
+        PackedPolygon p = packed;
+        if (p == null || p.points != points || p.size() != points.size()) {
+            p = new PackedPolygon(points);
+            packed = p;
+        }
+        return p;
+    }
+
+    /**
+     * Returns the Douglas-Peucker simplification of the points. The last
+     * simplification is kept as long as it is requested with the same
+     * tolerance and the points are not changed.
+     *
+     * @param tolerance
+     *            the tolerance of the simplification in degrees
+     * @return simplified points of the polygon
+     */
+    public SimplifiedPolygon getSimplified(double tolerance) {
+        PackedPolygon p = getPacked();
+        SimplifiedPolygon s = simplified;
+        if (s == null || s.source != p || s.tolerance != tolerance) {
+            s = new SimplifiedPolygon(p, tolerance);
+            simplified = s;
+        }
+        return s;
     }
 
     /**
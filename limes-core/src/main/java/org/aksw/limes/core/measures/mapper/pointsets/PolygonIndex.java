@@ -37,11 +37,14 @@ public class PolygonIndex {
     static Logger logger = LoggerFactory.getLogger(PolygonIndex.class);
     public Map<String, Map<Point, Map<Point, Double>>> distanceIndex;
     public Map<String, Polygon> polygonIndex;
+    // upper triangles of the inner distance matrices, row by row
+    public Map<String, double[]> packedDistanceIndex;
     public int computations;
 
     public PolygonIndex() {
         distanceIndex = new HashMap<String, Map<Point, Map<Point, Double>>>();
         polygonIndex = new HashMap<String, Polygon>();
+        packedDistanceIndex = new HashMap<String, double[]>();
         computations = 0;
     }
 
@@ -77,21 +80,89 @@ public class PolygonIndex {
     public void index(Polygon p) {
         Map<Point, Map<Point, Double>> index = new HashMap<Point, Map<Point, Double>>();
         Map<Point, Double> distances;
-        for (int i = 0; i < p.points.size(); i++) {
+        PackedPolygon packed = p.getPacked();
+        int n = packed.size();
+        double[] packedDistances = getInnerDistances(packed);
+        computations += packedDistances.length;
+        for (int i = 0; i < n; i++) {
             distances = new HashMap<Point, Double>();
-            for (int j = i + 1; j < p.points.size(); j++) {
-                distances.put(p.points.get(j),
-                        OrthodromicDistance.getDistanceInDegrees(p.points.get(i), p.points.get(j)));
-                computations++;
+            for (int j = i + 1; j < n; j++) {
+                distances.put(p.points.get(j), packedDistances[getOffset(n, i, j)]);
             }
             // if (!distances.isEmpty()) {
             index.put(p.points.get(i), distances);
             // }
         }
         distanceIndex.put(p.uri, index);
+        packedDistanceIndex.put(p.uri, packedDistances);
         polygonIndex.put(p.uri, p);
     }
 
+    /**
+     * Returns the distance between the points i and j of the polygon with
+     * label uri, as indexed by {@link #index(Polygon)}. Falls back to the
+     * point based lookup for polygons indexed otherwise.
+     *
+     * @param uri
+     *            Label of the polygon
+     * @param i
+     *            Index of the first point in the polygon
+     * @param j
+     *            Index of the second point in the polygon
+     * @return Distance between the points i and j
+     */
+    public double getDistance(String uri, int i, int j) {
+        if (i == j) {
+            return 0f;
+        }
+        double[] distances = packedDistanceIndex.get(uri);
+        if (distances == null) {
+            Polygon p = polygonIndex.get(uri);
+            return getDistance(uri, p.points.get(i), p.points.get(j));
+        }
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int n = polygonIndex.get(uri).getPacked().size();
+        return distances[getOffset(n, i, j)];
+    }
+
+    /**
+     * Computes the orthodromic distances between all points of a polygon.
+     *
+     * @param p
+     *            Input polygon
+     * @return the upper triangle of the distance matrix, row by row
+     * @see #getOffset(int, int, int)
+     */
+    public static double[] getInnerDistances(PackedPolygon p) {
+        int n = p.size();
+        double[] distances = new double[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                distances[k++] = OrthodromicDistance.getDistance(p, i, p, j);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * @param n
+     *            Number of points of the polygon
+     * @param i
+     *            Index of the first point
+     * @param j
+     *            Index of the second point, larger than i
+     * @return the position of the distance between i and j in the array
+     *         returned by {@link #getInnerDistances(PackedPolygon)}
+     */
+    public static int getOffset(int n, int i, int j) {
+        return i * (2 * n - i - 1) / 2 + j - i - 1;
+    }
+
     /**
      * Returns the distances between two points x and y from the polygon with
      * label uri Returns -1 if nothing is found
@@ -0,0 +1,125 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.pointsets;
+
+import org.aksw.limes.core.datastrutures.Point;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Douglas-Peucker simplification of a {@link PackedPolygon}, used to bound
+ * point set distances on far fewer points. The simplified polygon keeps a
+ * subset of the points, and {@link #error} bounds the orthodromic distance of
+ * every point to its closest kept point (it is the distance to the closer of
+ * the kept points enclosing it). Hence, for the directed Hausdorff distance h
+ * and the polygons A and B simplified into A' and B',
+ * <code>h(A', B') - error(B) &lt;= h(A, B) &lt;= h(A', B') + error(A)</code>.
+ *
+ * @see Polygon#getSimplified(double)
+ */
+public class SimplifiedPolygon {
+
+    /** the kept points */
+    public final PackedPolygon points;
+    /** tolerance of the simplification in degrees */
+    public final double tolerance;
+    /** bound of the distance of a point to the kept points */
+    public final double error;
+
+    // the polygon this simplification was computed from
+    final PackedPolygon source;
+
+    /**
+     * @param source
+     *            the polygon to simplify
+     * @param tolerance
+     *            the Douglas-Peucker tolerance, i.e., the maximal planar
+     *            distance in degrees of a dropped point to the segment
+     *            replacing it
+     */
+    public SimplifiedPolygon(PackedPolygon source, double tolerance) {
+        this.source = source;
+        this.tolerance = tolerance;
+        int n = source.size();
+        boolean[] kept = simplify(source, tolerance);
+        List<Point> points = new ArrayList<Point>();
+        double error = 0;
+        int previous = -1;
+        for (int i = 0; i < n; i++) {
+            if (!kept[i]) {
+                continue;
+            }
+            points.add(source.points.get(i));
+            for (int j = previous + 1; j < i; j++) {
+                error = Math.max(error, Math.min(OrthodromicDistance.getDistance(source, j, source, previous),
+                        OrthodromicDistance.getDistance(source, j, source, i)));
+            }
+            previous = i;
+        }
+        this.points = new PackedPolygon(points);
+        this.error = error;
+    }
+
+    /**
+     * @return the number of kept points
+     */
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Iterative Douglas-Peucker on the latitude/longitude pairs. The first and
+     * the last point are always kept.
+     */
+    private static boolean[] simplify(PackedPolygon p, double tolerance) {
+        int n = p.size();
+        boolean[] kept = new boolean[n];
+        if (n == 0) {
+            return kept;
+        }
+        kept[0] = kept[n - 1] = true;
+        int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double max = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d = Line2D.ptSegDist(p.getLatitude(first), p.getLongitude(first), p.getLatitude(last),
+                        p.getLongitude(last), p.getLatitude(i), p.getLongitude(i));
+                if (d > max) {
+                    max = d;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && max > tolerance) {
+                kept[farthest] = true;
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.resourcesets;
+
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Set Jaccard similarity join over int encoded sets, in the style of
+ * AllPairs/PPJoin. The elements of both sides are dictionary encoded to ints
+ * in ascending order of their global frequency, and every set is stored as a
+ * sorted int array, so that rare elements come first. A pair
+ * <code>(x, y)</code> with <code>J(x, y) &gt;= t</code> then has to share an
+ * element among the first <code>|x| - ceil(t|x|) + 1</code> elements of
+ * <code>x</code> and the first <code>|y| - ceil(t|y|) + 1</code> elements of
+ * <code>y</code>. Only these prefixes of the target sets are put into an
+ * inverted index, whose posting lists are ordered by set size so that the
+ * size filter <code>t|x| &lt;= |y| &lt;= |x|/t</code> can stop early. The
+ * source sets probe the index in parallel chunks, candidates are pruned by
+ * the positional filter and finally verified by a merge of the sorted arrays
+ * that stops as soon as the required overlap cannot be reached anymore.
+ * <p>
+ * The encoding is done once in the constructor, the index (which depends on
+ * the threshold) on every call of {@link #getMapping(double)}. Empty sets
+ * are ignored.
+ */
+public class SetJaccardJoin {
+
+    private static final int CHUNK_SIZE = 1024;
+    // tolerance of the float arithmetic of the filters, they only get looser
+    private static final double EPSILON = 1e-9;
+
+    private final String[] sourceUris;
+    private final int[][] sourceSets;
+    // sorted by size
+    private final String[] targetUris;
+    private final int[][] targetSets;
+    private final int elementCount;
+
+    /**
+     * Encodes the sets.
+     *
+     * @param sources
+     *            map from the source uris to their sets
+     * @param targets
+     *            map from the target uris to their sets
+     */
+    public SetJaccardJoin(Map<String, ? extends Collection<String>> sources,
+                          Map<String, ? extends Collection<String>> targets) {
+        Encoder encoder = new Encoder();
+        List<String> uris = new ArrayList<>();
+        List<int[]> sets = new ArrayList<>();
+        encoder.encode(sources, uris, sets);
+        int sourceCount = sets.size();
+        encoder.encode(targets, uris, sets);
+        // both sides have to agree on the order of the elements
+        int[] ranks = encoder.getRanks();
+        this.elementCount = ranks.length;
+        for (int i = 0; i < sets.size(); i++) {
+            sets.set(i, toSortedSet(sets.get(i), ranks));
+        }
+
+        this.sourceUris = uris.subList(0, sourceCount).toArray(new String[0]);
+        this.sourceSets = sets.subList(0, sourceCount).toArray(new int[0][]);
+        Integer[] order = new Integer[sets.size() - sourceCount];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = sourceCount + i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sets.get(a).length, sets.get(b).length));
+        this.targetUris = new String[order.length];
+        this.targetSets = new int[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            targetUris[i] = uris.get(order[i]);
+            targetSets[i] = sets.get(order[i]);
+        }
+    }
+
+    /**
+     * @return the ranks of the elements of the set, sorted and without
+     *         duplicates
+     */
+    private static int[] toSortedSet(int[] set, int[] ranks) {
+        for (int i = 0; i < set.length; i++) {
+            set[i] = ranks[set[i]];
+        }
+        Arrays.sort(set);
+        int size = 0;
+        for (int i = 0; i < set.length; i++) {
+            if (i == 0 || set[i] != set[i - 1]) {
+                set[size++] = set[i];
+            }
+        }
+        return size == set.length ? set : Arrays.copyOf(set, size);
+    }
+
+    /**
+     * Computes all pairs of a source and a target set whose Jaccard
+     * similarity is at least the threshold.
+     *
+     * @param threshold
+     *            the minimal similarity, has to be positive
+     * @return mapping from the source to the target uris
+     */
+    public AMapping getMapping(double threshold) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        PrefixIndex index = new PrefixIndex(threshold);
+        // overlap in the prefixes so far per target set, one array per worker
+        // as probe resets the entries it touched
+        ThreadLocal<int[]> overlaps = ThreadLocal.withInitial(() -> new int[targetSets.length]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<AMapping>> probes = new ArrayList<>();
+        for (int i = 0; i < sourceSets.length; i += CHUNK_SIZE) {
+            int from = i;
+            int to = Math.min(i + CHUNK_SIZE, sourceSets.length);
+            probes.add(executor.submit(() -> probe(index, overlaps.get(), from, to, threshold)));
+        }
+        executor.shutdown();
+        AMapping result = MappingFactory.createDefaultMapping();
+        try {
+            for (Future<AMapping> probe : probes) {
+                for (Map.Entry<String, HashMap<String, Double>> e : probe.get().getMap().entrySet()) {
+                    result.add(e.getKey(), e.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException(e.getCause());
+        }
+        return result;
+    }
+
+    /**
+     * @param overlaps
+     *            overlap in the prefixes so far per target set, -1 for pruned
+     *            ones, all 0 on entry and on return
+     */
+    private AMapping probe(PrefixIndex index, int[] overlaps, int from, int to, double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        int[] candidates = new int[16];
+        double ratio = threshold / (1 + threshold);
+        for (int s = from; s < to; s++) {
+            int[] x = sourceSets[s];
+            int n = x.length;
+            int minSize = Math.max(1, minOverlap(threshold, n));
+            int maxSize = (int) Math.min(Integer.MAX_VALUE, Math.floor(n / threshold + EPSILON));
+            int candidateCount = 0;
+            for (int i = 0; i < n - minSize + 1; i++) {
+                for (int p = index.starts[x[i]]; p < index.starts[x[i] + 1]; p++) {
+                    int m = index.sizes[p];
+                    if (m < minSize) {
+                        continue;
+                    }
+                    if (m > maxSize) {
+                        break;
+                    }
+                    int t = index.sets[p];
+                    int overlap = overlaps[t];
+                    if (overlap < 0) {
+                        continue;
+                    }
+                    if (overlap == 0) {
+                        if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, 2 * candidateCount);
+                        }
+                        candidates[candidateCount++] = t;
+                    }
+                    // positional filter
+                    int bound = overlap + 1 + Math.min(n - i - 1, m - index.positions[p] - 1);
+                    overlaps[t] = bound >= minOverlap(ratio, n + m) ? overlap + 1 : -1;
+                }
+            }
+            for (int c = 0; c < candidateCount; c++) {
+                int t = candidates[c];
+                if (overlaps[t] > 0) {
+                    double similarity = verify(x, targetSets[t], minOverlap(ratio, n + targetSets[t].length));
+                    if (similarity >= threshold) {
+                        result.add(sourceUris[s], targetUris[t], similarity);
+                    }
+                }
+                overlaps[t] = 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the Jaccard similarity of the sorted sets, or 0 if their overlap
+     *         is below the given one
+     */
+    private static double verify(int[] x, int[] y, int minOverlap) {
+        int i = 0, j = 0, overlap = 0;
+        while (i < x.length && j < y.length) {
+            if (overlap + Math.min(x.length - i, y.length - j) < minOverlap) {
+                return 0;
+            }
+            if (x[i] == y[j]) {
+                overlap++;
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return overlap / ((double) x.length + (double) y.length - (double) overlap);
+    }
+
+    private static int minOverlap(double ratio, int size) {
+        return (int) Math.ceil(ratio * size - EPSILON);
+    }
+
+    /**
+     * Dictionary of the elements, ids are assigned in order of first
+     * occurrence and then ranked by frequency.
+     */
+    private static class Encoder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private int[] frequencies = new int[16];
+
+        /**
+         * Encodes the non empty sets of the map, adding their uris and ids.
+         */
+        void encode(Map<String, ? extends Collection<String>> sets, List<String> uris, List<int[]> encoded) {
+            for (Map.Entry<String, ? extends Collection<String>> e : sets.entrySet()) {
+                int[] set = new int[e.getValue().size()];
+                int size = 0;
+                for (String element : e.getValue()) {
+                    int id = ids.computeIfAbsent(element, x -> ids.size());
+                    if (id == frequencies.length) {
+                        frequencies = Arrays.copyOf(frequencies, 2 * id);
+                    }
+                    frequencies[id]++;
+                    set[size++] = id;
+                }
+                if (size > 0) {
+                    uris.add(e.getKey());
+                    encoded.add(set);
+                }
+            }
+        }
+
+        /**
+         * @return the rank of each id in ascending order of frequency, by a
+         *         counting sort
+         */
+        int[] getRanks() {
+            int n = ids.size();
+            int max = 0;
+            for (int id = 0; id < n; id++) {
+                max = Math.max(max, frequencies[id]);
+            }
+            int[] starts = new int[max + 2];
+            for (int id = 0; id < n; id++) {
+                starts[frequencies[id] + 1]++;
+            }
+            for (int f = 0; f <= max; f++) {
+                starts[f + 1] += starts[f];
+            }
+            int[] ranks = new int[n];
+            for (int id = 0; id < n; id++) {
+                ranks[id] = starts[frequencies[id]]++;
+            }
+            return ranks;
+        }
+    }
+
+    /**
+     * Inverted index of the prefixes of the target sets, as posting lists of
+     * (set, size, position) triples ordered by set size.
+     */
+    private class PrefixIndex {
+
+        private final int[] starts;
+        private final int[] sets;
+        private final int[] sizes;
+        private final int[] positions;
+
+        PrefixIndex(double threshold) {
+            starts = new int[elementCount + 1];
+            for (int[] y : targetSets) {
+                for (int j = 0; j < prefixLength(threshold, y.length); j++) {
+                    starts[y[j] + 1]++;
+                }
+            }
+            for (int e = 0; e < elementCount; e++) {
+                starts[e + 1] += starts[e];
+            }
+            sets = new int[starts[elementCount]];
+            sizes = new int[sets.length];
+            positions = new int[sets.length];
+            int[] next = Arrays.copyOf(starts, elementCount);
+            for (int t = 0; t < targetSets.length; t++) {
+                int[] y = targetSets[t];
+                for (int j = 0; j < prefixLength(threshold, y.length); j++) {
+                    int p = next[y[j]]++;
+                    sets[p] = t;
+                    sizes[p] = y.length;
+                    positions[p] = j;
+                }
+            }
+        }
+
+        private int prefixLength(double threshold, int size) {
+            return Math.max(0, size - Math.max(1, minOverlap(threshold, size)) + 1);
+        }
+    }
+}
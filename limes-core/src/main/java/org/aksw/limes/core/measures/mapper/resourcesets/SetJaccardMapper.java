@@ -19,7 +19,6 @@ package org.aksw.limes.core.measures.mapper.resourcesets;
 
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
-import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
 
@@ -175,123 +174,24 @@ public class SetJaccardMapper extends AMapper {
         }
     }
 
+    /**
+     * Links every source resource to the target resources whose sets of
+     * values of the given properties have a Jaccard similarity of at least
+     * the threshold, see {@link SetJaccardJoin}.
+     */
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression, double threshold) {
-        // Phase 0: Initialize
-        List<String> properties;
-        List<Set<String>> sourceIndex, targetIndex, small, big;
-        properties = PropertyFetcher.getProperties(expression, threshold);
-        sourceIndex = buildIndex(source, properties.get(0));
-        targetIndex = buildIndex(target, properties.get(1));
-        // Swap if necessary
-        if (sourceIndex.size() > targetIndex.size()) {
-            big = sourceIndex;
-            small = targetIndex;
-        } else {
-            big = targetIndex;
-            small = sourceIndex;
-        }
-        List<List<Set<String>>> possibleMatches = getPossibleMatches(small, big, threshold);
-        AMapping result = MappingFactory.createDefaultMapping();
-        for (int i = 0; i < possibleMatches.size(); i+=2) {
-            List<Set<String>> s = possibleMatches.get(i);
-            List<Set<String>> t = possibleMatches.get(i+1);
-            for (Set<String> setS : s) {
-                for (Set<String> setT : t) {
-                    double score = fastSimCheck(setS, setT, threshold);
-                    if (score >= threshold) {
-                        result.add(((NamedHashSet<String>)setS).getUri(), ((NamedHashSet<String>)setT).getUri(), score);
-                    }
-                }
-            }
-        }
-        return result;
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        SetJaccardJoin join = new SetJaccardJoin(getSets(source, properties.get(0)), getSets(target, properties.get(1)));
+        return join.getMapping(threshold);
     }
 
-    private List<Set<String>> buildIndex(ACache c, String p) {
-        List<Set<String>> index = new ArrayList<>();
-        // Phase 1: Build index
+    private Map<String, Set<String>> getSets(ACache c, String p) {
+        Map<String, Set<String>> sets = new HashMap<>();
         for (String uri : c.getAllUris()) {
-            Set<String> values = new NamedHashSet<>(c.getInstance(uri).getProperty(p), uri);
-            if (values.size() > 0) {
-                index.add(values);
-            }
-        }
-        SetSizeQuicksort.sort(index);
-        return index;
-    }
-
-    private List<List<Set<String>>> getPossibleMatches(List<Set<String>> small, List<Set<String>> big, double threshold) {
-        // Phase 2: Iterate over smaller KB
-        int startBig = 0;
-        int oldSize = small.get(0).size();
-        List<Set<String>> tempSource = new ArrayList<>();
-        List<Set<String>> tempTarget = new ArrayList<>();
-        List<List<Set<String>>> possibleMatches = new ArrayList<>();
-        for (Set<String> values : small) {
-            // add sets of same size in small to temp
-            if (values.size() > oldSize) {
-                // Phase 2.1: Use boundaries to lookup possible matches
-                int loB, hiB, nextStartSize;
-                boolean nextStartSizeNotFixedYet = true;
-                loB = (int) Math.ceil((double) oldSize * threshold);
-                hiB = (int) Math.floor((double) oldSize / threshold);
-                nextStartSize = (int) Math.ceil(threshold * (double) values.size());
-                for (int j = startBig; j < big.size(); j++) {
-                    Set<String> targetValues = big.get(j);
-                    if (targetValues.size() < loB) {
-                        continue;
-                    }
-                    if (targetValues.size() > hiB) {
-                        break;
-                    }
-                    if (nextStartSizeNotFixedYet && targetValues.size() >= nextStartSize) {
-                        nextStartSizeNotFixedYet = false;
-                        startBig = (startBig == 0) ? 0 : j - 1;
-                    }
-                    tempTarget.add(targetValues);
-                }
-                // Phase 2.2: Schedule temp lists for similarity check
-                possibleMatches.add(tempSource);
-                possibleMatches.add(tempTarget);
-                // Reset temps
-                tempSource = new ArrayList<>();
-                oldSize = values.size();
-            }
-            tempSource.add(values);
-        }
-        int loB = (int) Math.ceil((double) oldSize * threshold);
-        int hiB = (int) Math.floor((double) oldSize / threshold);
-        for (int j = startBig; j < big.size(); j++) {
-            Set<String> targetValues = big.get(j);
-            if (targetValues.size() < loB) {
-                continue;
-            }
-            if (targetValues.size() > hiB) {
-                break;
-            }
-            tempTarget.add(targetValues);
-        }
-        possibleMatches.add(tempSource);
-        possibleMatches.add(tempTarget);
-        return possibleMatches;
-    }
-
-    private double fastSimCheck (Set<String> s, Set<String> t, double threshold) {
-        int matches = 0;
-        int mismatches = 0;
-        int maxMismatches = (int) Math.floor((Math.min(s.size(), t.size()) -
-                threshold * Math.max(s.size(), t.size())) / (1 + threshold));
-        for (String x : s) {
-            if (t.contains(x)) {
-                matches++;
-            } else {
-                mismatches++;
-                if (mismatches > maxMismatches)
-                    return 0d;
-            }
+            sets.put(uri, c.getInstance(uri).getProperty(p));
         }
-        return matches / ((double) s.size() + (double) t.size() - (double) matches);
+        return sets;
     }
 
     @Override
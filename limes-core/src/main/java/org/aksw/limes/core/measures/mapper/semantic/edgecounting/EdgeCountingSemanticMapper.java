@@ -21,7 +21,6 @@ import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
-import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
@@ -29,21 +28,57 @@ import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingS
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.factory.SemanticFactory;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.factory.SemanticType;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
-import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.memory.MemoryIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.mapped.MappedIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MarkerFactory;
+import weka.core.Stopwords;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class EdgeCountingSemanticMapper extends AMapper {
     static Logger logger = LoggerFactory.getLogger(EdgeCountingSemanticMapper.class);
 
+    // number of source values compared by one task
+    private static final int CHUNK_SIZE = 64;
+    // slack of the threshold checks of the upper bounds, against rounding
+    private static final double EPSILON = 1e-9;
+
     AEdgeCountingSemanticMeasure measure = null;
     AIndex Indexer = null;
+    // measure given by the caller, used instead of creating one per mapping
+    private final AEdgeCountingSemanticMeasure givenMeasure;
+
+    public EdgeCountingSemanticMapper() {
+        this(null);
+    }
+
+    /**
+     * Creates a mapper that compares the values with the given measure, and
+     * its index, instead of creating a measure over a {@link MappedIndex} for
+     * each mapping. The measure is not closed by the mapper.
+     *
+     * @param measure
+     *            the semantic measure
+     */
+    public EdgeCountingSemanticMapper(AEdgeCountingSemanticMeasure measure) {
+        this.givenMeasure = measure;
+    }
 
     /**
-     * Computes a mapping between a source and a target.
+     * Computes a mapping between a source and a target. The distinct values
+     * of both sides are tokenized once and compared in parallel, with the
+     * token similarities memoized by the measure. An instance pair gets the
+     * maximal similarity of its value pairs.
      *
      * @param source
      *            Source cache
@@ -80,26 +115,64 @@ public class EdgeCountingSemanticMapper extends AMapper {
                     "Expression " + expression + " was given to a mapper to process");
         }
 
-        AMapping m = MappingFactory.createDefaultMapping();
-        // create index before anything
-        Indexer = new MemoryIndex();
-        Indexer.preIndex();
-        // create semantic similarity, pass indexer as parameter
-        SemanticType type = SemanticFactory.getMeasureType(expression);
-        measure = SemanticFactory.createMeasure(type, Indexer);
-
-        for (Instance sourceInstance : source.getAllInstances()) {
-            // System.out.println("Source URI "+sourceInstance.getUri());
-            for (Instance targetInstance : target.getAllInstances()) {
-                // System.out.println("-->Target URI "+targetInstance.getUri());
-                double similarity = measure.getSimilarity(sourceInstance, targetInstance, properties.get(0),
-                        properties.get(1));
-                if (similarity >= threshold) {
-                    m.add(sourceInstance.getUri(), targetInstance.getUri(), similarity);
-                }
+        if (givenMeasure != null) {
+            measure = givenMeasure;
+        } else {
+            // create index before anything
+            Indexer = new MappedIndex();
+            Indexer.preIndex();
+            // create semantic similarity, pass indexer as parameter
+            SemanticType type = SemanticFactory.getMeasureType(expression);
+            measure = SemanticFactory.createMeasure(type, Indexer);
+        }
 
+        Map<String, Set<String>> sourceMap = getValueToUriMap(source, properties.get(0));
+        Map<String, Set<String>> targetMap = getValueToUriMap(target, properties.get(1));
+        List<String> sourceValues = new ArrayList<String>();
+        List<String[]> sourceTokens = new ArrayList<String[]>();
+        tokenize(sourceMap.keySet(), sourceValues, sourceTokens);
+        List<String> targetValues = new ArrayList<String>();
+        List<String[]> targetTokens = new ArrayList<String[]>();
+        tokenize(targetMap.keySet(), targetValues, targetTokens);
+
+        // compare the distinct values in parallel
+        ConcurrentHashMap<String, Map<String, Double>> similarityBook = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<?>> probes = new ArrayList<>();
+        for (int i = 0; i < sourceValues.size(); i += CHUNK_SIZE) {
+            int from = i;
+            int to = Math.min(i + CHUNK_SIZE, sourceValues.size());
+            probes.add(executor.submit(() -> {
+                for (int s = from; s < to; s++) {
+                    Map<String, Double> similarities = new HashMap<>();
+                    for (int t = 0; t < targetValues.size(); t++) {
+                        double similarity = getSimilarity(sourceTokens.get(s), targetTokens.get(t), threshold);
+                        if (similarity >= threshold) {
+                            similarities.put(targetValues.get(t), similarity);
+                        }
+                    }
+                    if (!similarities.isEmpty()) {
+                        similarityBook.put(sourceValues.get(s), similarities);
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> probe : probes) {
+                probe.get();
             }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException(e.getCause());
         }
+        AMapping m = getUriToUriMapping(similarityBook, sourceMap, targetMap);
+        if (givenMeasure != null)
+            return m;
 
         // in case of a db, you close the connection
         Indexer.close();
@@ -113,6 +186,78 @@ public class EdgeCountingSemanticMapper extends AMapper {
         return m;
     }
 
+    /**
+     * Tokenizes the non empty values once, dropping the stop words, and
+     * resolves the senses of all their tokens, so that the comparisons only
+     * use memoized senses.
+     */
+    private void tokenize(Set<String> values, List<String> tokenizedValues, List<String[]> tokens) {
+        for (String value : values) {
+            if (value.equals(""))
+                continue;
+            String[] valueTokens = measure.tokenize(new String[] { value });
+            if (valueTokens == null)
+                continue;
+            List<String> nonStopwords = new ArrayList<String>();
+            for (String token : valueTokens) {
+                if (!Stopwords.isStopword(token)) {
+                    nonStopwords.add(token);
+                    measure.getSense(token);
+                }
+            }
+            tokenizedValues.add(value);
+            tokens.add(nonStopwords.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Computes the similarity of two values as
+     * {@link AEdgeCountingSemanticMeasure#getSimilarity(Instance, Instance, String, String)}
+     * does, i.e. the average over the source tokens of their maximal
+     * similarity to a target token. Returns early with a value below the
+     * threshold as soon as the upper bounds of the token similarities show
+     * that the threshold cannot be reached.
+     *
+     * @param sourceTokens
+     *            the non stop word tokens of the source value
+     * @param targetTokens
+     *            the non stop word tokens of the target value
+     * @param threshold
+     *            Similarity threshold
+     * @return the similarity of the values, or 0 if it is below the threshold
+     */
+    protected double getSimilarity(String[] sourceTokens, String[] targetTokens, double threshold) {
+        int n = sourceTokens.length;
+        if (n == 0 || targetTokens.length == 0)
+            return 0;
+        double[][] bounds = new double[n][targetTokens.length];
+        // remaining[i] bounds the sum of the similarities of the source tokens
+        // i to n - 1
+        double[] remaining = new double[n + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            double bound = 0;
+            for (int j = 0; j < targetTokens.length; j++) {
+                bounds[i][j] = measure.getTokenSimilarityUpperBound(sourceTokens[i], targetTokens[j]);
+                bound = Math.max(bound, bounds[i][j]);
+            }
+            remaining[i] = remaining[i + 1] + Math.min(1, bound);
+        }
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            if ((sum + remaining[i]) / n < threshold - EPSILON)
+                return 0;
+            double max = 0;
+            for (int j = 0; j < targetTokens.length && max < 1.0d; j++) {
+                // skip the target tokens that cannot improve the maximum
+                if (bounds[i][j] > max) {
+                    max = Math.max(max, measure.getTokenSimilarity(sourceTokens[i], targetTokens[j]));
+                }
+            }
+            sum += max;
+        }
+        return sum / n;
+    }
+
     @Override
     public double getRuntimeApproximation(int sourceSize, int targetSize, double theta, Language language) {
         return 1000d;
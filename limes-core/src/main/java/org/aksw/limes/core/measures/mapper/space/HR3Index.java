@@ -0,0 +1,247 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.Arrays;
+
+/**
+ * HR3 grid over the rows of a {@link PointMatrix}. The blocking space is
+ * tiled into cubes of width <code>radius / granularity</code>; a block id
+ * is the vector of the cube coordinates, hashed into a long. The members of
+ * each block are stored as instance indexes in one int array, and the
+ * offsets of the blocks to compare, pruned as in HR3, are computed once.
+ * Hash collisions of block ids only add candidates, which are verified by
+ * the caller anyway.
+ *
+ * @see org.aksw.limes.core.measures.mapper.space.blocking.HR3Blocker
+ */
+public class HR3Index implements ISpaceIndex {
+
+    private final SpaceDistance distance;
+    private final int dimensions;
+    private final int granularity;
+    private final double radius;
+    // offsets of the blocks to compare, dimensions entries per block
+    private final int[] offsets;
+
+    private final long[] keys;
+    // members of slot s are members[starts[s]] to members[starts[s + 1]]
+    private final int[] starts;
+    private final int[] members;
+    private final boolean[] used;
+    private final int mask;
+    // sum of the squared block sizes and number of non-empty blocks
+    private final long squaredSizes;
+    private final int blocks;
+
+    /**
+     * Indexes the rows of a matrix.
+     *
+     * @param target
+     *            the matrix to index
+     * @param distance
+     *            the distance to compute
+     * @param threshold
+     *            the distance threshold
+     * @param granularity
+     *            the number of blocks per threshold and dimension
+     */
+    public HR3Index(PointMatrix target, SpaceDistance distance, double threshold, int granularity) {
+        this.distance = distance;
+        this.dimensions = distance.getBlockingDimensions(target.getDimensions());
+        this.granularity = granularity;
+        this.radius = distance.getBlockingRadius(threshold);
+        this.offsets = getOffsets(granularity, dimensions);
+
+        int rows = target.getRowCount();
+        int capacity = Integer.highestOneBit(Math.max(2, rows) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        int[] slots = new int[rows];
+        int[] counts = new int[capacity + 1];
+        double[] point = new double[dimensions];
+        long[] block = new long[dimensions];
+        for (int i = 0; i < target.size(); i++) {
+            for (int row = target.getFirstRow(i); row < target.getEndRow(i); row++) {
+                getBlock(target, row, point, block);
+                long key = hash(block, null, 0);
+                int slot = find(key);
+                keys[slot] = key;
+                used[slot] = true;
+                slots[row] = slot;
+                counts[slot + 1]++;
+            }
+        }
+        long squares = 0;
+        int nonEmpty = 0;
+        this.starts = counts;
+        for (int s = 0; s < capacity; s++) {
+            squares += (long) starts[s + 1] * starts[s + 1];
+            nonEmpty += starts[s + 1] > 0 ? 1 : 0;
+            starts[s + 1] += starts[s];
+        }
+        this.squaredSizes = squares;
+        this.blocks = nonEmpty;
+        this.members = new int[rows];
+        int[] next = Arrays.copyOf(starts, capacity);
+        for (int i = 0; i < target.size(); i++) {
+            for (int row = target.getFirstRow(i); row < target.getEndRow(i); row++) {
+                members[next[slots[row]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Computes the offsets of the blocks to compare with a block, i.e. all
+     * blocks within <code>granularity</code> blocks in each dimension which
+     * pass the HR3 check of {@link org.aksw.limes.core.measures.mapper.space.blocking.HR3Blocker#getBlocksToCompare}.
+     *
+     * @param granularity
+     *            the granularity
+     * @param dimensions
+     *            the number of dimensions
+     * @return the offsets, dimensions entries per block
+     */
+    static int[] getOffsets(int granularity, int dimensions) {
+        int width = 2 * granularity + 1;
+        int total = (int) Math.pow(width, dimensions);
+        int alphaPowered = (int) Math.pow(granularity, dimensions);
+        int[] result = new int[total * dimensions];
+        int count = 0;
+        for (int n = 0; n < total; n++) {
+            int rest = n;
+            for (int k = 0; k < dimensions; k++) {
+                result[count * dimensions + k] = rest % width - granularity;
+                rest /= width;
+            }
+            int hr3Index = 0;
+            for (int k = 0; k < dimensions; k++) {
+                int offset = result[count * dimensions + k];
+                if (offset == 0) {
+                    hr3Index = 0;
+                    break;
+                }
+                hr3Index = hr3Index + (int) Math.pow(Math.abs(offset) - 1, dimensions);
+            }
+            if (hr3Index < alphaPowered) {
+                count++;
+            }
+        }
+        return Arrays.copyOf(result, count * dimensions);
+    }
+
+    private int find(long key) {
+        int slot = (int) key & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long hash(long[] block, int[] offsets, int offset) {
+        long h = 0;
+        for (int k = 0; k < block.length; k++) {
+            long c = offsets == null ? block[k] : block[k] + offsets[offset + k];
+            h = (h + c) * 0x9e3779b97f4a7c15L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Checks whether the rows are concentrated in few blocks, i.e. whether
+     * the mean size of the block of a row exceeds the mean size of the
+     * non-empty blocks by a given factor. Skewed grids compare many
+     * candidates which a tree would prune.
+     *
+     * @param factor
+     *            the factor
+     * @return true if the grid is skewed
+     */
+    public boolean isSkewed(double factor) {
+        double rows = starts[starts.length - 1];
+        return rows > 0 && squaredSizes * (double) blocks > factor * rows * rows;
+    }
+
+    @Override
+    public Probe newProbe() {
+        return new Probe(dimensions, 0);
+    }
+
+    @Override
+    public int getCandidates(PointMatrix source, int row, Probe probe) {
+        getBlock(source, row, probe.point, probe.block);
+        int size = 0;
+        for (int n = 0; n < getNeighbourCount(); n++) {
+            int slot = find(probe.block, n);
+            if (slot < 0) {
+                continue;
+            }
+            probe.ensureCapacity(size + starts[slot + 1] - starts[slot]);
+            for (int position = starts[slot]; position < starts[slot + 1]; position++) {
+                probe.candidates[size++] = members[position];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of dimensions of the blocking space
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return the number of blocks to compare with each block
+     */
+    public int getNeighbourCount() {
+        return offsets.length / Math.max(1, dimensions);
+    }
+
+    /**
+     * Computes the block id of a row.
+     *
+     * @param m
+     *            the matrix
+     * @param row
+     *            the row
+     * @param point
+     *            scratch array of length {@link #getDimensions()}
+     * @param block
+     *            receives the block id, of length {@link #getDimensions()}
+     */
+    public void getBlock(PointMatrix m, int row, double[] point, long[] block) {
+        distance.toBlockingSpace(m, row, point);
+        for (int k = 0; k < dimensions; k++) {
+            block[k] = (long) Math.floor((granularity * point[k]) / radius);
+        }
+    }
+
+    // slot of a block to compare with a block, -1 if it is empty
+    private int find(long[] block, int neighbour) {
+        long key = hash(block, offsets, neighbour * dimensions);
+        int slot = find(key);
+        return used[slot] ? slot : -1;
+    }
+}
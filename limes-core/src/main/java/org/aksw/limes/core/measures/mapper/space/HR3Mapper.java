@@ -26,23 +26,40 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
-import org.aksw.limes.core.measures.mapper.space.blocking.BlockingFactory;
-import org.aksw.limes.core.measures.mapper.space.blocking.IBlockingModule;
-import org.aksw.limes.core.measures.measure.space.ISpaceMeasure;
-import org.aksw.limes.core.measures.measure.space.SpaceMeasureFactory;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
+import org.aksw.limes.core.measures.mapper.ITopKMapper;
+import org.aksw.limes.core.measures.mapper.TopKLinkSink;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.TreeSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
- * Uses metric spaces to create blocks.
+ * Uses metric spaces to create blocks. The coordinates are read once into
+ * {@link PointMatrix primitive matrices}, the target rows are indexed by an
+ * {@link HR3Index} (or a {@link KdTreeIndex} for skewed data) and the source
+ * instances are compared in parallel.
  *
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  */
-public class HR3Mapper extends AMapper {
+public class HR3Mapper extends AMapper implements IStreamingMapper, ITopKMapper {
+
+    // see HR3Index#isSkewed
+    private static final double SKEW_FACTOR = 16;
 
     public int granularity = 4;
+    public int numberOfThreads = Runtime.getRuntime().availableProcessors();
+    public boolean treeForSkewedData = true;
 
     // this might only work for substraction. Need to create something that
     // transforms
@@ -74,14 +91,80 @@ public class HR3Mapper extends AMapper {
      */
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        // every chunk collects its links, merged in this thread
+        runChunks(source, target, expression, threshold, MappingFactory::createDefaultMapping, m -> m::add,
+                m -> {
+                    for (Map.Entry<String, HashMap<String, Double>> e : m.getMap().entrySet()) {
+                        mapping.add(e.getKey(), e.getValue());
+                    }
+                });
+        return mapping;
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                           double threshold, ILinkSink sink) {
+        ILinkSink synchronizedSink = new ILinkSink() {
+            @Override
+            public void add(String s, String t, double sim) {
+                synchronized (sink) {
+                    sink.add(s, t, sim);
+                }
+            }
 
-        AMapping mapping = MappingFactory.createDefaultMapping();
+            @Override
+            public double getThreshold(String s, double threshold) {
+                synchronized (sink) {
+                    return sink.getThreshold(s, threshold);
+                }
+            }
+        };
+        runChunks(source, target, expression, threshold, () -> synchronizedSink, Function.identity(), c -> {
+        });
+    }
 
-        // maps each block id to a set of instances. Actually one should
-        // integrate LIMES here
-        HashMap<ArrayList<Integer>, TreeSet<String>> targetBlocks = new HashMap<ArrayList<Integer>, TreeSet<String>>();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AMapping getTopKMapping(ACache source, ACache target, String sourceVar, String targetVar,
+                                   String expression, double threshold, int k) {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        // the chunks partition the source instances, so the best links of a
+        // chunk are the best links of its sources
+        runChunks(source, target, expression, threshold, () -> new TopKLinkSink(k, threshold), c -> c,
+                c -> {
+                    for (Map.Entry<String, HashMap<String, Double>> e : c.getMapping().getMap().entrySet()) {
+                        mapping.add(e.getKey(), e.getValue());
+                    }
+                });
+        return mapping;
+    }
 
+    /**
+     * Compares the source instances in parallel chunks.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param expression
+     *            Expression to process.
+     * @param threshold
+     *            Similarity threshold
+     * @param newChunk
+     *            creates the result of a chunk
+     * @param chunkSink
+     *            returns the sink of the links of a chunk result
+     * @param finished
+     *            receives the results of the chunks, in this thread
+     */
+    private <T> void runChunks(ACache source, ACache target, String expression, double threshold,
+                               Supplier<T> newChunk, Function<T, ILinkSink> chunkSink, Consumer<T> finished) {
         // 0. get properties
         String property1, property2;
         // get property labels
@@ -110,72 +193,110 @@ public class HR3Mapper extends AMapper {
             property2 = term2;
         }
 
-        // get number of dimensions we are dealing with
-        int dimensions = property2.split("\\|").length;
-        // important. The Blocking module takes care of the transformation from
-        // similarity to
-        // distance threshold. Central for finding the right blocks and might
-        // differ from blocker
-        // to blocker.
-        IBlockingModule generator = BlockingFactory.getBlockingModule(property2, p.getOperator(), threshold,
-                granularity);
-
-        // initialize the measure for similarity computation
-        ISpaceMeasure measure = SpaceMeasureFactory.getMeasure(p.getOperator(), dimensions);
-
-        // compute blockid for each of the elements of the target
-        // implement our simple yet efficient blocking approach
-        ArrayList<ArrayList<Integer>> blockIds;
-        for (String key : target.getAllUris()) {
-            blockIds = generator.getAllBlockIds(target.getInstance(key));
-            for (int ids = 0; ids < blockIds.size(); ids++) {
-                if (!targetBlocks.containsKey(blockIds.get(ids))) {
-                    targetBlocks.put(blockIds.get(ids), new TreeSet<String>());
-                }
-                targetBlocks.get(blockIds.get(ids)).add(key);
+        SpaceDistance distance = SpaceDistance.of(p.getOperator());
+        PointMatrix sourceMatrix = PointMatrix.of(source, distance.getColumns(property1));
+        PointMatrix targetMatrix = PointMatrix.of(target, distance.getColumns(property2));
+        if (sourceMatrix.getDimensions() != targetMatrix.getDimensions()) {
+            throw new IllegalArgumentException("Different number of source and target properties in " + expression);
+        }
+        // important. The distance takes care of the transformation from
+        // similarity to distance threshold, the index of the tiling of the
+        // target space into blocks of the distance threshold
+        ISpaceIndex index = createIndex(targetMatrix, distance, distance.getDistanceThreshold(threshold));
+
+        int chunk = Math.max(1, (sourceMatrix.size() + 4 * numberOfThreads - 1) / (4 * numberOfThreads));
+        ExecutorService exec = Executors.newFixedThreadPool(numberOfThreads);
+        List<Future<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < sourceMatrix.size(); from += chunk) {
+            int start = from, end = Math.min(sourceMatrix.size(), from + chunk);
+            chunks.add(exec.submit(() -> {
+                T result = newChunk.get();
+                run(sourceMatrix, start, end, targetMatrix, index, distance, threshold, chunkSink.apply(result));
+                return result;
+            }));
+        }
+        try {
+            for (Future<T> m : chunks) {
+                finished.accept(m.get());
             }
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            exec.shutdown();
         }
+    }
 
-        ArrayList<ArrayList<Integer>> blocksToCompare;
-        // comparison
-        TreeSet<String> uris;
-        double sim;
-        int counter = 0;
-        source.getAllUris().size();
-        for (String sourceInstanceUri : source.getAllUris()) {
-            counter++;
-            if (counter % 1000 == 0) {
-                // logger.info("Processed " + (counter * 100 / size) + "% of the
-                // links");
-                // get key
+    /**
+     * Indexes the target matrix. Uses the HR3 grid, unless the target rows
+     * are concentrated in few blocks and {@link #treeForSkewedData} is set,
+     * in which case a k-d tree gives a more predictable cost per query.
+     *
+     * @param target
+     *            Target matrix
+     * @param distance
+     *            Distance to compute
+     * @param threshold
+     *            Distance threshold
+     * @return the index
+     */
+    protected ISpaceIndex createIndex(PointMatrix target, SpaceDistance distance, double threshold) {
+        HR3Index grid = new HR3Index(target, distance, threshold, granularity);
+        if (treeForSkewedData && grid.isSkewed(SKEW_FACTOR)) {
+            return new KdTreeIndex(target, distance, threshold);
+        }
+        return grid;
+    }
 
-            }
-            // logger.info("Getting "+property1+" from "+sourceInstanceUri);
-            blockIds = generator.getAllSourceIds(source.getInstance(sourceInstanceUri), property1);
-            // logger.info("BlockId for "+sourceInstanceUri+" is "+blockId);
-            // for all blocks in [-1, +1] in each dimension compute similarities
-            // and store them
-            for (int ids = 0; ids < blockIds.size(); ids++) {
-                blocksToCompare = generator.getBlocksToCompare(blockIds.get(ids));
-
-                // logger.info(sourceInstanceUri+" is to compare with blocks
-                // "+blocksToCompare);
-                for (int index = 0; index < blocksToCompare.size(); index++) {
-                    if (targetBlocks.containsKey(blocksToCompare.get(index))) {
-                        uris = targetBlocks.get(blocksToCompare.get(index));
-                        for (String targetInstanceUri : uris) {
-                            sim = measure.getSimilarity(source.getInstance(sourceInstanceUri),
-                                    target.getInstance(targetInstanceUri), property1, property2);
-                            if (sim >= threshold) {
-                                mapping.add(sourceInstanceUri, targetInstanceUri, sim);
-                            }
-                        }
+    /**
+     * Compares a range of source instances with the candidates of their
+     * rows in the target index.
+     *
+     * @param source
+     *            Source matrix
+     * @param from
+     *            First source instance
+     * @param to
+     *            Source instance after the last one
+     * @param target
+     *            Target matrix
+     * @param index
+     *            Index of the target matrix
+     * @param distance
+     *            Distance to compute
+     * @param threshold
+     *            Similarity threshold
+     * @param sink
+     *            Receives the links of the source instances
+     */
+    protected void run(PointMatrix source, int from, int to, PointMatrix target, ISpaceIndex index,
+                       SpaceDistance distance, double threshold, ILinkSink sink) {
+        ISpaceIndex.Probe probe = index.newProbe();
+        // last source instance each target was compared with
+        int[] compared = new int[target.size()];
+        Arrays.fill(compared, -1);
+        for (int i = from; i < to; i++) {
+            // the sink may tighten the threshold of the source as it fills
+            double bound = sink.getThreshold(source.getUri(i), threshold);
+            for (int row = source.getFirstRow(i); row < source.getEndRow(i); row++) {
+                int candidates = index.getCandidates(source, row, probe);
+                for (int c = 0; c < candidates; c++) {
+                    int j = probe.getCandidate(c);
+                    if (compared[j] == i) {
+                        continue;
+                    }
+                    compared[j] = i;
+                    double sim = distance.getSimilarity(distance.getDistance(source, i, target, j));
+                    if (sim >= bound) {
+                        sink.add(source.getUri(i), target.getUri(j), sim);
+                        bound = sink.getThreshold(source.getUri(i), threshold);
                     }
                 }
             }
         }
-        // logger.info("Cmin = "+necessaryComparisons+"; C = "+comparisons);
-        return mapping;
     }
 
     // need to change this
@@ -0,0 +1,82 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.Arrays;
+
+/**
+ * Index of the rows of a target {@link PointMatrix} answering radius
+ * queries in the blocking space of a {@link SpaceDistance}. Indexes are
+ * immutable and can be queried concurrently with one {@link Probe} per
+ * thread.
+ */
+public interface ISpaceIndex {
+
+    /**
+     * @return fresh scratch space for queries
+     */
+    Probe newProbe();
+
+    /**
+     * Collects the target instances having a row that may lie within the
+     * distance threshold of a source row. The candidates still have to be
+     * verified and may contain duplicates.
+     *
+     * @param source
+     *            the source matrix
+     * @param row
+     *            the source row
+     * @param probe
+     *            scratch space of the calling thread, receives the
+     *            candidates
+     * @return the number of candidates
+     */
+    int getCandidates(PointMatrix source, int row, Probe probe);
+
+    /**
+     * Scratch space of the queries of one thread.
+     */
+    class Probe {
+
+        final double[] point;
+        final long[] block;
+        final int[] stack;
+        int[] candidates = new int[64];
+
+        Probe(int dimensions, int depth) {
+            point = new double[dimensions];
+            block = new long[dimensions];
+            stack = new int[depth];
+        }
+
+        /**
+         * @param i
+         *            index of a candidate
+         * @return the candidate
+         */
+        public int getCandidate(int i) {
+            return candidates[i];
+        }
+
+        void ensureCapacity(int size) {
+            if (size > candidates.length) {
+                candidates = Arrays.copyOf(candidates, Math.max(size, 2 * candidates.length));
+            }
+        }
+    }
+}
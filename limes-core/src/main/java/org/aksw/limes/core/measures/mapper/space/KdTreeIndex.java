@@ -0,0 +1,208 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+/**
+ * Bulk-loaded k-d tree over the rows of a {@link PointMatrix}, answering
+ * radius queries in the blocking space of a {@link SpaceDistance}. Nodes
+ * are split at the median of their widest dimension until they hold at most
+ * {@link #LEAF_SIZE} rows, so the tree is balanced whatever the
+ * distribution of the data, and the bounding box of each node is used to
+ * prune the queries. For geo points the blocking space is the one of the
+ * chords of the sphere, which makes the tree behave like a ball tree under
+ * the haversine distance. The tree is stored in primitive arrays, node
+ * <code>n</code> having the children <code>2n + 1</code> and
+ * <code>2n + 2</code>.
+ */
+public class KdTreeIndex implements ISpaceIndex {
+
+    public static final int LEAF_SIZE = 16;
+
+    private final SpaceDistance distance;
+    private final int dimensions;
+    private final double radius;
+    private final int depth;
+
+    // blocking space coordinates and instances of the rows in tree order
+    private final double[] points;
+    private final int[] instances;
+
+    // rows of node n are starts[n] to ends[n], its bounding box lower[n * d]
+    // to upper[n * d + d - 1]
+    private final int[] starts;
+    private final int[] ends;
+    private final double[] lower;
+    private final double[] upper;
+
+    /**
+     * Indexes the rows of a matrix.
+     *
+     * @param target
+     *            the matrix to index
+     * @param distance
+     *            the distance to compute
+     * @param threshold
+     *            the distance threshold
+     */
+    public KdTreeIndex(PointMatrix target, SpaceDistance distance, double threshold) {
+        this.distance = distance;
+        this.dimensions = distance.getBlockingDimensions(target.getDimensions());
+        // leaves room for the rounding of the squared distances
+        this.radius = distance.getBlockingRadius(threshold) * (1 + 1e-9);
+
+        int rows = target.getRowCount();
+        double[] coordinates = new double[rows * dimensions];
+        int[] rowInstances = new int[rows];
+        double[] point = new double[dimensions];
+        for (int i = 0; i < target.size(); i++) {
+            for (int row = target.getFirstRow(i); row < target.getEndRow(i); row++) {
+                distance.toBlockingSpace(target, row, point);
+                System.arraycopy(point, 0, coordinates, row * dimensions, dimensions);
+                rowInstances[row] = i;
+            }
+        }
+
+        int levels = 0;
+        for (int size = rows; size > LEAF_SIZE; size = (size + 1) / 2) {
+            levels++;
+        }
+        this.depth = levels + 1;
+        int nodes = (1 << depth) - 1;
+        this.starts = new int[nodes];
+        this.ends = new int[nodes];
+        this.lower = new double[nodes * dimensions];
+        this.upper = new double[nodes * dimensions];
+        int[] order = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            order[row] = row;
+        }
+        build(0, 0, rows, order, coordinates);
+
+        this.points = new double[rows * dimensions];
+        this.instances = new int[rows];
+        for (int n = 0; n < rows; n++) {
+            System.arraycopy(coordinates, order[n] * dimensions, points, n * dimensions, dimensions);
+            instances[n] = rowInstances[order[n]];
+        }
+    }
+
+    private void build(int node, int start, int end, int[] order, double[] coordinates) {
+        starts[node] = start;
+        ends[node] = end;
+        int widest = 0;
+        double width = -1;
+        for (int k = 0; k < dimensions; k++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int n = start; n < end; n++) {
+                double c = coordinates[order[n] * dimensions + k];
+                min = Math.min(min, c);
+                max = Math.max(max, c);
+            }
+            lower[node * dimensions + k] = min;
+            upper[node * dimensions + k] = max;
+            if (max - min > width) {
+                width = max - min;
+                widest = k;
+            }
+        }
+        if (end - start <= LEAF_SIZE) {
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        select(order, coordinates, widest, start, end - 1, mid);
+        build(2 * node + 1, start, mid, order, coordinates);
+        build(2 * node + 2, mid, end, order, coordinates);
+    }
+
+    // moves the row of rank k in the dimension into place (quickselect)
+    private void select(int[] order, double[] coordinates, int dimension, int left, int right, int k) {
+        while (left < right) {
+            double pivot = coordinates[order[(left + right) >>> 1] * dimensions + dimension];
+            int i = left, j = right;
+            while (i <= j) {
+                while (coordinates[order[i] * dimensions + dimension] < pivot) {
+                    i++;
+                }
+                while (coordinates[order[j] * dimensions + dimension] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Probe newProbe() {
+        return new Probe(dimensions, depth + 1);
+    }
+
+    @Override
+    public int getCandidates(PointMatrix source, int row, Probe probe) {
+        if (points.length == 0) {
+            return 0;
+        }
+        double[] q = probe.point;
+        distance.toBlockingSpace(source, row, q);
+        double r2 = radius * radius;
+        int size = 0;
+        int top = 0;
+        probe.stack[top++] = 0;
+        while (top > 0) {
+            int node = probe.stack[--top];
+            double d2 = 0;
+            for (int k = 0; k < dimensions && d2 <= r2; k++) {
+                double c = q[k];
+                double gap = Math.max(lower[node * dimensions + k] - c, c - upper[node * dimensions + k]);
+                if (gap > 0) {
+                    d2 += gap * gap;
+                }
+            }
+            if (d2 > r2) {
+                continue;
+            }
+            if (ends[node] - starts[node] > LEAF_SIZE) {
+                probe.stack[top++] = 2 * node + 2;
+                probe.stack[top++] = 2 * node + 1;
+                continue;
+            }
+            probe.ensureCapacity(size + ends[node] - starts[node]);
+            for (int n = starts[node]; n < ends[node]; n++) {
+                d2 = 0;
+                for (int k = 0; k < dimensions && d2 <= r2; k++) {
+                    double difference = points[n * dimensions + k] - q[k];
+                    d2 += difference * difference;
+                }
+                if (d2 <= r2) {
+                    probe.candidates[size++] = instances[n];
+                }
+            }
+        }
+        return size;
+    }
+}
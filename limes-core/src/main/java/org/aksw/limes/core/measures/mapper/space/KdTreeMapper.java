@@ -0,0 +1,36 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+/**
+ * Space mapper running radius queries on a {@link KdTreeIndex} of the target
+ * instead of the HR3 grid. Its cost per query does not depend on the
+ * distribution of the data, e.g. on cities clustered in few grid blocks.
+ */
+public class KdTreeMapper extends HR3Mapper {
+
+    @Override
+    public String getName() {
+        return "KdTreeMapper";
+    }
+
+    @Override
+    protected ISpaceIndex createIndex(PointMatrix target, SpaceDistance distance, double threshold) {
+        return new KdTreeIndex(target, distance, threshold);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive snapshot of the numeric properties of the instances of a cache,
+ * used by the space mappers instead of re-parsing the property values for
+ * each comparison. Each instance owns one or more rows of the
+ * <code>double[rows * dimensions]</code> coordinate matrix: one per
+ * combination of its values. Values that are not numbers are ignored, and
+ * instances that lack a value for some dimension are left out.
+ */
+public class PointMatrix {
+
+    private final int dimensions;
+    private final String[] uris;
+    // rows of instance i are rowOffsets[i] (inclusive) to rowOffsets[i + 1]
+    private final int[] rowOffsets;
+    private final double[] coordinates;
+
+    private PointMatrix(int dimensions, String[] uris, int[] rowOffsets, double[] coordinates) {
+        this.dimensions = dimensions;
+        this.uris = uris;
+        this.rowOffsets = rowOffsets;
+        this.coordinates = coordinates;
+    }
+
+    /**
+     * Reads the matrix of a cache.
+     *
+     * @param cache
+     *            the cache
+     * @param properties
+     *            the property of each dimension
+     * @return the matrix
+     */
+    public static PointMatrix of(ACache cache, String[] properties) {
+        int d = properties.length;
+        List<String> allUris = cache.getAllUris();
+        String[] uris = new String[allUris.size()];
+        int[] rowOffsets = new int[allUris.size() + 1];
+        double[] coordinates = new double[allUris.size() * d];
+        double[][] values = new double[d][];
+        int size = 0;
+        int rows = 0;
+        for (String uri : allUris) {
+            Instance instance = cache.getInstance(uri);
+            int combinations = 1;
+            for (int k = 0; k < d; k++) {
+                values[k] = parse(instance.getProperty(properties[k]));
+                combinations *= values[k].length;
+            }
+            if (combinations == 0) {
+                continue;
+            }
+            if ((rows + combinations) * d > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, Math.max(2 * coordinates.length, (rows + combinations) * d));
+            }
+            // row r takes value (r / stride_k) % length_k in dimension k
+            for (int r = 0; r < combinations; r++) {
+                int rest = r;
+                for (int k = d - 1; k >= 0; k--) {
+                    coordinates[(rows + r) * d + k] = values[k][rest % values[k].length];
+                    rest /= values[k].length;
+                }
+            }
+            uris[size] = uri;
+            rowOffsets[size] = rows;
+            rows += combinations;
+            size++;
+            rowOffsets[size] = rows;
+        }
+        return new PointMatrix(d, Arrays.copyOf(uris, size), Arrays.copyOf(rowOffsets, size + 1),
+                Arrays.copyOf(coordinates, rows * d));
+    }
+
+    private static double[] parse(Iterable<String> values) {
+        double[] result = new double[8];
+        int n = 0;
+        for (String value : values) {
+            try {
+                double v = Double.parseDouble(value);
+                if (n == result.length) {
+                    result = Arrays.copyOf(result, 2 * n);
+                }
+                result[n++] = v;
+            } catch (NumberFormatException e) {
+                // not a coordinate
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * @return the number of instances
+     */
+    public int size() {
+        return uris.length;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return rowOffsets[uris.length];
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public String getUri(int instance) {
+        return uris[instance];
+    }
+
+    public int getFirstRow(int instance) {
+        return rowOffsets[instance];
+    }
+
+    /**
+     * @param instance
+     *            the instance
+     * @return the row after the last row of the instance
+     */
+    public int getEndRow(int instance) {
+        return rowOffsets[instance + 1];
+    }
+
+    public double get(int row, int dimension) {
+        return coordinates[row * dimensions + dimension];
+    }
+}
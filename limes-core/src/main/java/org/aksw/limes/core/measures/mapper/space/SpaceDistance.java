@@ -0,0 +1,212 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import org.aksw.limes.core.measures.mapper.pointsets.OrthodromicDistance;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Distances of the space measures, computed on {@link PointMatrix} rows.
+ * The similarity of two instances is <code>1 / (1 + d)</code> as in the
+ * space measures, where <code>d</code> is the distance of the instances.
+ * Indexes work in a blocking space (see {@link #toBlockingSpace}) in which
+ * the euclidean distance of two points never exceeds their distance.
+ */
+public enum SpaceDistance {
+
+    EUCLIDEAN {
+        @Override
+        public double getDistance(PointMatrix a, int i, PointMatrix b, int j) {
+            return Math.sqrt(sumOfTerms(a, i, b, j, difference -> difference * difference));
+        }
+    },
+
+    MANHATTAN {
+        @Override
+        public double getDistance(PointMatrix a, int i, PointMatrix b, int j) {
+            return sumOfTerms(a, i, b, j, Math::abs);
+        }
+    },
+
+    /**
+     * Great circle distance in km of latitude/longitude points given in
+     * degrees, blocked on the chords of the sphere.
+     */
+    ORTHODROMIC {
+        @Override
+        public double getDistance(PointMatrix a, int i, PointMatrix b, int j) {
+            double min = Double.MAX_VALUE;
+            for (int r = a.getFirstRow(i); r < a.getEndRow(i); r++) {
+                for (int s = b.getFirstRow(j); s < b.getEndRow(j); s++) {
+                    min = Math.min(min, OrthodromicDistance.getDistanceInDegrees(a.get(r, 0), a.get(r, 1),
+                            b.get(s, 0), b.get(s, 1)));
+                }
+            }
+            return min;
+        }
+
+        @Override
+        public int getBlockingDimensions(int dimensions) {
+            return 3;
+        }
+
+        @Override
+        public void toBlockingSpace(PointMatrix m, int row, double[] point) {
+            double lat = Math.toRadians(m.get(row, 0));
+            double lon = Math.toRadians(m.get(row, 1));
+            double cosLat = Math.cos(lat);
+            point[0] = OrthodromicDistance.R * cosLat * Math.cos(lon);
+            point[1] = OrthodromicDistance.R * cosLat * Math.sin(lon);
+            point[2] = OrthodromicDistance.R * Math.sin(lat);
+        }
+
+        @Override
+        public double getBlockingRadius(double distance) {
+            // leaves room for the rounding of the chords
+            return distance * (1 + 1e-9);
+        }
+    };
+
+    /**
+     * @param operator
+     *            name of a space measure, e.g. euclidean or geo_orthodromic
+     * @return the distance of the measure
+     */
+    public static SpaceDistance of(String operator) {
+        String name = operator.toLowerCase();
+        if (name.startsWith("geo")) {
+            return ORTHODROMIC;
+        }
+        if (name.startsWith("manhattan")) {
+            return MANHATTAN;
+        }
+        return EUCLIDEAN;
+    }
+
+    /**
+     * Orders the properties of a measure as the columns of its point
+     * matrices, i.e. latitude before longitude for geo points.
+     *
+     * @param properties
+     *            the properties separated by |
+     * @return the columns
+     */
+    public String[] getColumns(String properties) {
+        String[] columns = properties.split("\\|");
+        if (this == ORTHODROMIC && columns.length == 2 && columns[0].toLowerCase().startsWith("lo")) {
+            return new String[]{columns[1], columns[0]};
+        }
+        return columns;
+    }
+
+    /**
+     * Distance of two instances.
+     *
+     * @param a
+     *            matrix of the first instance
+     * @param i
+     *            first instance
+     * @param b
+     *            matrix of the second instance
+     * @param j
+     *            second instance
+     * @return the distance
+     */
+    public abstract double getDistance(PointMatrix a, int i, PointMatrix b, int j);
+
+    /**
+     * Sum over the dimensions of the terms of the coordinate differences of
+     * two instances. For instances with several values, each dimension
+     * contributes its smallest term, as in the space measures.
+     */
+    private static double sumOfTerms(PointMatrix a, int i, PointMatrix b, int j, DoubleUnaryOperator term) {
+        int r0 = a.getFirstRow(i), r1 = a.getEndRow(i);
+        int s0 = b.getFirstRow(j), s1 = b.getEndRow(j);
+        double sum = 0;
+        if (r1 - r0 == 1 && s1 - s0 == 1) {
+            for (int k = 0; k < a.getDimensions(); k++) {
+                sum = sum + term.applyAsDouble(a.get(r0, k) - b.get(s0, k));
+            }
+        } else {
+            for (int k = 0; k < a.getDimensions(); k++) {
+                double min = Double.MAX_VALUE;
+                for (int r = r0; r < r1; r++) {
+                    for (int s = s0; s < s1; s++) {
+                        min = Math.min(min, term.applyAsDouble(a.get(r, k) - b.get(s, k)));
+                    }
+                }
+                sum = sum + min;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @param distance
+     *            a distance
+     * @return the corresponding similarity
+     */
+    public double getSimilarity(double distance) {
+        return 1.0 / (1.0 + distance);
+    }
+
+    /**
+     * @param threshold
+     *            a similarity threshold
+     * @return the largest distance reaching it
+     */
+    public double getDistanceThreshold(double threshold) {
+        return (1 - threshold) / threshold;
+    }
+
+    /**
+     * @param dimensions
+     *            the number of columns of the matrices
+     * @return the number of dimensions of the blocking space
+     */
+    public int getBlockingDimensions(int dimensions) {
+        return dimensions;
+    }
+
+    /**
+     * Maps a row to the blocking space.
+     *
+     * @param m
+     *            the matrix
+     * @param row
+     *            the row
+     * @param point
+     *            receives the coordinates in the blocking space
+     */
+    public void toBlockingSpace(PointMatrix m, int row, double[] point) {
+        for (int k = 0; k < m.getDimensions(); k++) {
+            point[k] = m.get(row, k);
+        }
+    }
+
+    /**
+     * @param distance
+     *            a distance threshold
+     * @return the euclidean radius around a point of the blocking space
+     *         holding all points within the distance
+     */
+    public double getBlockingRadius(double distance) {
+        return distance;
+    }
+}
@@ -28,6 +28,10 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
+import org.aksw.limes.core.measures.mapper.ITopKMapper;
+import org.aksw.limes.core.measures.mapper.TopKLinkSink;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,11 +42,10 @@ import java.util.*;
 /**
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  */
-public class EDJoinMapper extends AMapper {
+public class EDJoinMapper extends AMapper implements IStreamingMapper, ITopKMapper {
 
     static Logger logger = LoggerFactory.getLogger(EDJoinMapper.class);
     private static int Q = -1;
-    private static AMapping mapping = null;
     private static HashMap<Integer, String> sourceMap;
     private static HashMap<Integer, String> targetMap;
     @SuppressWarnings("unused")
@@ -83,42 +86,41 @@ public class EDJoinMapper extends AMapper {
     }
 
     private static int verification(Record currentRec, HashMap<Integer, Record> candidates, ArrayList<String> objects,
-                                    int q, int threshold) {
+                                    int q, int threshold, double similarityThreshold, ILinkSink sink) {
         int count = 0;
         String id1, id2;
         Iterator<Record> iter = candidates.values().iterator();
         while (iter.hasNext()) {
             Record y = iter.next();
-            compareQGramsResult compResult = compareQGrams(currentRec, y, threshold);
+            // get uris for ids
+            if ((sourceMap.containsKey(currentRec.id) && targetMap.containsKey(y.id))) {
+                id1 = sourceMap.get(currentRec.id);
+                id2 = targetMap.get(y.id);
+            } else if (targetMap.containsKey(currentRec.id) && sourceMap.containsKey(y.id)) {
+                id1 = sourceMap.get(y.id);
+                id2 = targetMap.get(currentRec.id);
+            } else {
+                continue;
+            }
+            int tau = getDistanceThreshold(sink, id1, similarityThreshold, threshold);
+            compareQGramsResult compResult = compareQGrams(currentRec, y, tau);
 
             /*
              * count fnoiltering
              */
-            if (compResult.e1 <= q * threshold) {
+            if (compResult.e1 <= q * tau) {
                 int e2 = minEditErrors(compResult.Q, q);
                 /*
                  * location-based mismatch filtering
                  */
-                if (e2 <= threshold) {
-                    int e3 = contentFilter(objects.get(currentRec.id), objects.get(y.id), compResult.Q, threshold, q);
-                    if (e3 <= 2 * threshold) {
+                if (e2 <= tau) {
+                    int e3 = contentFilter(objects.get(currentRec.id), objects.get(y.id), compResult.Q, tau, q);
+                    if (e3 <= 2 * tau) {
                         int ed = editDistance(objects.get(currentRec.id), objects.get(y.id));
-                        if (ed <= threshold) {
-                            if ((sourceMap.containsKey(currentRec.id) && targetMap.containsKey(y.id))) {
-                                id1 = sourceMap.get(currentRec.id);
-                                id2 = targetMap.get(y.id);
-                                // CORRECT
-                                mapping.add(id1, id2, 1.0 / (1 + (double) ed));
-                            } else if (targetMap.containsKey(currentRec.id) && sourceMap.containsKey(y.id)) {
-                                // get uris for ids
-                                {
-                                    id1 = sourceMap.get(y.id);
-                                    id2 = targetMap.get(currentRec.id);
-                                    // CORRECT
-                                    mapping.add(id1, id2, 1.0 / (1 + (double) ed));
-                                }
-                                count++;
-                            }
+                        if (ed <= tau) {
+                            // CORRECT
+                            sink.add(id1, id2, 1.0 / (1 + (double) ed));
+                            count++;
                         }
                     }
                 }
@@ -127,6 +129,20 @@ public class EDJoinMapper extends AMapper {
         return count;
     }
 
+    /**
+     * Returns the edit distance threshold of the links of a source that the
+     * sink still accepts, i.e. the given one unless the sink tightened the
+     * similarity threshold of the source.
+     */
+    private static int getDistanceThreshold(ILinkSink sink, String source, double similarityThreshold, int tau) {
+        double bound = sink.getThreshold(source, similarityThreshold);
+        if (bound <= similarityThreshold) {
+            return tau;
+        }
+        // 1 / (1 + ed) >= bound iff ed <= (1 - bound) / bound, up to rounding
+        return (int) Math.min(tau, Math.floor((1 - bound) / bound + 1e-9));
+    }
+
     private static int calcPrefixLen(Record x, int tau, int q) {
         if (x.qGrams.length <= tau + 1) {
             return x.qGrams.length;
@@ -379,18 +395,40 @@ public class EDJoinMapper extends AMapper {
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, mapping::add);
+        return mapping;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AMapping getTopKMapping(ACache source, ACache target, String sourceVar, String targetVar,
+                                   String expression, double threshold, int k) {
+        TopKLinkSink sink = new TopKLinkSink(k, threshold);
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, sink);
+        return sink.getMapping();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                           double threshold, ILinkSink sink) {
 
         if (Q <= 1) {
             Q = 3;
         }
+        double similarityThreshold = threshold;
         // convert similarity in distance threshold
         threshold = (1 - threshold) / threshold;
 
         this.comparisons = 0;
-        mapping = MappingFactory.createDefaultMapping();
         if (threshold < 0) {
             logger.info("Wrong threshold setting. Returning empty mapping.");
-            return mapping;
+            return;
         }
 
         // get property labels
@@ -471,29 +509,23 @@ public class EDJoinMapper extends AMapper {
 
                         // length filtering
                         if (Math.abs(x.length() - y.length()) <= threshold) {
+                            if ((sourceMap.containsKey(records[i].id) && targetMap.containsKey(records[j].id))) {
+                                id1 = sourceMap.get(records[i].id);
+                                id2 = targetMap.get(records[j].id);
+                            } else // should not be necessary
+                            {
+                                // get uris for ids
+                                id1 = sourceMap.get(records[j].id);
+                                id2 = targetMap.get(records[i].id);
+                            }
+                            int tau = getDistanceThreshold(sink, id1, similarityThreshold, (int) threshold);
+                            if (Math.abs(x.length() - y.length()) > tau) {
+                                continue;
+                            }
                             int ed = editDistance(x, y);
-                            if (ed <= threshold) {
-                                if ((sourceMap.containsKey(records[i].id) && targetMap.containsKey(records[j].id))) {
-                                    id1 = sourceMap.get(records[i].id);
-                                    id2 = targetMap.get(records[j].id);
-                                    // CORRECT
-                                    // if ((1.0 / (1 + (double) ed)) >=
-                                    // threshold)
-                                    mapping.add(id1, id2, 1.0 / (1 + (double) ed));
-                                } else // should not be necessary
-                                {
-                                    // get uris for ids
-                                    {
-                                        id1 = sourceMap.get(records[j].id);
-                                        id2 = targetMap.get(records[i].id);
-
-                                        // CORRECT
-                                        // if ((1.0 / (1 + (double) ed)) >=
-                                        // threshold)
-                                        mapping.add(id1, id2, 1.0 / (1 + (double) ed));
-                                        // mapping.add(id2, id1, similarity);
-                                    }
-                                }
+                            if (ed <= tau) {
+                                // CORRECT
+                                sink.add(id1, id2, 1.0 / (1 + (double) ed));
                                 count++;
                             }
                         } else {
@@ -530,7 +562,8 @@ public class EDJoinMapper extends AMapper {
                     }
                 }
                 if (candidates.size() > 0) {
-                    count = count + verification(currentRec, candidates, entries, Q, (int) threshold);
+                    count = count + verification(currentRec, candidates, entries, Q, (int) threshold,
+                            similarityThreshold, sink);
                 }
             }
         }
@@ -541,8 +574,6 @@ public class EDJoinMapper extends AMapper {
          * mapping.getConfidence(key, value); if (confidence < threshold) {
          * tempMapping.add(key, value, confidence); } } } mapping = tempMapping;
          */
-
-        return mapping;
     }
 
     @Override
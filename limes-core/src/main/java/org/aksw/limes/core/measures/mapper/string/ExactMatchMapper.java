@@ -22,20 +22,35 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.mapper.string.exactmatch.ValueHashTable;
+import org.aksw.limes.core.measures.mapper.string.exactmatch.ValueHashTable.Column;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MarkerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
+ * Mapper for exact matches. The (uri, value) pairs of the smaller side are
+ * put into a {@link ValueHashTable}, which is then probed in parallel with
+ * the pairs of the other side.
+ *
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  */
-public class ExactMatchMapper extends AMapper {
+public class ExactMatchMapper extends AMapper implements IStreamingMapper {
 
     private static Logger logger = LoggerFactory.getLogger(ExactMatchMapper.class);
 
+    // number of probing pairs per task
+    private static final int CHUNK_SIZE = 10000;
+
     /**
      * Computes a mapping between a source and a target.
      *
@@ -57,6 +72,17 @@ public class ExactMatchMapper extends AMapper {
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, m::add);
+        return m;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                           double threshold, ILinkSink sink) {
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
         }
@@ -66,32 +92,57 @@ public class ExactMatchMapper extends AMapper {
             logger.error(MarkerFactory.getMarker("FATAL"), "Property values could not be read. Exiting");
             throw new RuntimeException();
         }
-        Map<String, Set<String>> sourceIndex = getValueToUriMap(source, properties.get(0));
-        Map<String, Set<String>> targetIndex = getValueToUriMap(target, properties.get(1));
-        AMapping m = MappingFactory.createDefaultMapping();
-        boolean swapped = sourceIndex.keySet().size() > targetIndex.keySet().size();
-        (!swapped ? sourceIndex : targetIndex).keySet().stream().filter(!swapped ? targetIndex::containsKey : sourceIndex::containsKey).forEach(value -> {
-            for (String sourceUri : sourceIndex.get(value)) {
-                for (String targetUri : targetIndex.get(value)) {
-                    m.add(sourceUri, targetUri, 1d);
+        Column sourceColumn = Column.of(source, properties.get(0));
+        Column targetColumn = Column.of(target, properties.get(1));
+        // hash the smaller side, probe with the larger one
+        boolean swapped = sourceColumn.size() > targetColumn.size();
+        ValueHashTable table = new ValueHashTable(swapped ? targetColumn : sourceColumn);
+        Column probe = swapped ? sourceColumn : targetColumn;
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<?>> probes = new ArrayList<>();
+        for (int i = 0; i < probe.size(); i += CHUNK_SIZE) {
+            int from = i;
+            int to = Math.min(i + CHUNK_SIZE, probe.size());
+            probes.add(executor.submit(() -> {
+                List<String> links = new ArrayList<>();
+                // the pairs of a uri are adjacent, a chunk owns the uris starting in it
+                int j = from;
+                while (j > 0 && j < to && probe.getUri(j).equals(probe.getUri(j - 1))) {
+                    j++;
                 }
-            }
-        });
-        return m;
-    }
-
-    public Map<String, Set<String>> index(ACache c, String property) {
-        Map<String, Set<String>> index = new HashMap<>();
-        for (String uri : c.getAllUris()) {
-            TreeSet<String> values = c.getInstance(uri).getProperty(property);
-            for (String v : values) {
-                if (!index.containsKey(v)) {
-                    index.put(v, new HashSet<>());
+                Set<String> hits = new LinkedHashSet<>();
+                while (j < to) {
+                    String uri = probe.getUri(j);
+                    // uris sharing several values with the probe are linked once
+                    for (; j < probe.size() && probe.getUri(j).equals(uri); j++) {
+                        table.forEachUri(probe.getValue(j), hits::add);
+                    }
+                    for (String hit : hits) {
+                        links.add(swapped ? uri : hit);
+                        links.add(swapped ? hit : uri);
+                    }
+                    hits.clear();
                 }
-                index.get(v).add(uri);
+                synchronized (sink) {
+                    for (int k = 0; k < links.size(); k += 2) {
+                        sink.add(links.get(k), links.get(k + 1), 1d);
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> f : probes) {
+                f.get();
             }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException(e.getCause());
         }
-        return index;
     }
 
     @Override
@@ -23,6 +23,7 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.mapper.string.triefilter.TrieFilterJoin;
 import org.aksw.limes.core.measures.measure.string.JaroMeasure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,7 +64,28 @@ public class JaroMapper extends AMapper {
         List<String> properties = PropertyFetcher.getProperties(expression, threshold);
         Map<String, Set<String>> sourceMap = getValueToUriMap(source, properties.get(0));
         Map<String, Set<String>> targetMap = getValueToUriMap(target, properties.get(1));
-        return runWithoutPrefixFilter(sourceMap, targetMap, threshold);
+        return runTrieFilter(sourceMap, targetMap, threshold);
+    }
+
+    /**
+     * Computes the mapping by searching a trie over the sorted characters of
+     * the target values, pruning by length and by the number of common
+     * characters, in parallel.
+     *
+     * @param sourceMap
+     *            Map from source values to source URIs
+     * @param targetMap
+     *            Map from target values to target URIs
+     * @param threshold
+     *            Similarity threshold
+     * @return A mapping which contains links between the source instances and
+     *         the target instances
+     */
+    public AMapping runTrieFilter(Map<String, Set<String>> sourceMap, Map<String, Set<String>> targetMap,
+                                  double threshold) {
+        Map<String, Map<String, Double>> similarityBook = new TrieFilterJoin(JaroMeasure::new, threshold)
+                .run(sourceMap.keySet(), targetMap.keySet());
+        return getUriToUriMapping(similarityBook, sourceMap, targetMap);
     }
 
     @Override
@@ -20,22 +20,31 @@ package org.aksw.limes.core.measures.mapper.string;
 import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
-import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
-import org.aksw.limes.core.measures.measure.string.TrigramMeasure;
+import org.aksw.limes.core.measures.mapper.string.mongeelkan.MongeElkanProbe;
+import org.aksw.limes.core.measures.mapper.string.mongeelkan.TokenTrigramIndex;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
+ * Mapper for Monge-Elkan similarities with trigram token similarity. Target
+ * values are tokenized once into a {@link TokenTrigramIndex}, source values
+ * are probed against it in parallel.
+ *
  * @author Peggy Lucke
  */
 public class MongeElkanMapper extends AMapper {
 
     // Tokens are divide by space
     private String split = " ";
-    // underlying trigram measure provided
-    private TrigramMeasure trigram = new TrigramMeasure();
+    // number of source values probed per task
+    private static final int CHUNK_SIZE = 1000;
 
     // Token divide by another character as space
     public void setSplit(String split) {
@@ -57,82 +66,32 @@ public class MongeElkanMapper extends AMapper {
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
         }
-        Iterator<String> sit = sourceMap.keySet().iterator();
-        double resultDouble;
-        Map<String, Map<String, Double>> similarityBook = new HashMap<>();
-        while (sit.hasNext()) {
-            Iterator<String> tit = targetMap.keySet().iterator();
-            String sourceString = sit.next();
-            HashMap<String, Double> resultB = new HashMap<>();
-            while (tit.hasNext()) {
-                String targetString = tit.next();
-                resultDouble = oneMongeElkan(sourceString.split(split), targetString.split(split), threshold);
-                if (threshold <= resultDouble) {
-                    resultB.put(targetString, resultDouble);
-                }
-            }
-            similarityBook.put(sourceString, resultB);
-        }
+        // tokenize and index the target values once
+        TokenTrigramIndex index = new TokenTrigramIndex(targetMap.keySet(), split);
+        List<String> sources = new ArrayList<>(sourceMap.keySet());
 
-        AMapping result = MappingFactory.createDefaultMapping();
-        for (String s : similarityBook.keySet()) {
-            for (String t : similarityBook.get(s).keySet()) {
-                for (String sourceUri : sourceMap.get(s)) {
-                    for (String targetUri : targetMap.get(t)) {
-                        result.add(sourceUri, targetUri, similarityBook.get(s).get(t));
-                    }
-                }
-            }
+        // setting up parallel execution of probes
+        ConcurrentHashMap<String, Map<String, Double>> similarityBook = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<?>> probes = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i += CHUNK_SIZE) {
+            List<String> chunk = sources.subList(i, Math.min(i + CHUNK_SIZE, sources.size()));
+            probes.add(executor.submit(new MongeElkanProbe(chunk, index, split, threshold, similarityBook)));
         }
-        return result;
-    }
-
-    /*
-     * compare one text with another
-     */
-    private double oneMongeElkan(String[] sourceToken, String[] targetToken, double threshold) {
-        double simB = 0;
-        double result = 0;
-        float maxNumber = sourceToken.length;
-        /*
-         * the minimum of the result to reach the threshold
-         */
-        float treshMin = (float) (maxNumber * threshold);
-        for (String sourceString : sourceToken) {// ein a
-            double maxSim = 0;
-            for (String targetString : targetToken) {// ein b
-                double sim = tokenSim(sourceString, targetString);
-                if (maxSim < sim) {
-                    maxSim = sim;
-                }
-                if (maxSim == 1) {
-                    break;
-                }
-            }
-            maxNumber -= 1 - maxSim;
-            /*
-             * add 0.0001 for rounding errors. if the similarity of all source
-             * tokens with the target tokens don't reach the minimum threshold,
-             * there are no result, so break the algorithm.
-             */
-            if (treshMin > maxNumber + 0.0001) {
-                result = 0;
-                break;
+        executor.shutdown();
+        try {
+            for (Future<?> probe : probes) {
+                probe.get();
             }
-            simB += maxSim;
-        }
-        if (simB != 0) {
-            result = simB / sourceToken.length;
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException(e.getCause());
         }
-        return result;
-    }
-
-    /*
-     * use the Trigramm Algorithm to compare the tokens
-     */
-    private double tokenSim(String tokenA, String tokenB) {
-        double result = trigram.getSimilarity(tokenA, tokenB);
-        return result;
+        return getUriToUriMapping(similarityBook, sourceMap, targetMap);
     }
 
     @Override
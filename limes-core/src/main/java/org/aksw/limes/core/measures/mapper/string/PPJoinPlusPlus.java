@@ -31,6 +31,10 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
+import org.aksw.limes.core.measures.mapper.ITopKMapper;
+import org.aksw.limes.core.measures.mapper.TopKLinkSink;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
 import org.aksw.limes.core.measures.measure.MeasureType;
 import org.aksw.limes.core.measures.measure.string.IStringMeasure;
@@ -113,7 +117,7 @@ class PartitionResult {
  * @author Dawid Kotlarz
  * @version 1.0
  */
-public class PPJoinPlusPlus extends AMapper {
+public class PPJoinPlusPlus extends AMapper implements IStreamingMapper, ITopKMapper {
 
     static Logger logger = LoggerFactory.getLogger(PPJoinPlusPlus.class);
     private static final int MAX_DEPTH = 2;
@@ -348,15 +352,35 @@ public class PPJoinPlusPlus extends AMapper {
      */
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, mapping::add);
+        return mapping;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AMapping getTopKMapping(ACache source, ACache target, String sourceVar, String targetVar,
+                                   String expression, double threshold, int k) {
+        TopKLinkSink sink = new TopKLinkSink(k, threshold);
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, sink);
+        return sink.getMapping();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                           double threshold, ILinkSink sink) {
 
-        AMapping mapping;
         HashMap<Integer, String> sourceMap;
         HashMap<Integer, String> targetMap;
         IStringMeasure measure = null;
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
         }
-        mapping = MappingFactory.createDefaultMapping();
         // logger.info("Starting PPJoinPlus");
 
         String property1 = null, property2 = null;
@@ -545,25 +569,15 @@ public class PPJoinPlusPlus extends AMapper {
                     }
                 }
             }
-            verification(currentRec, candidates, mapping, sourceMap, targetMap, measure);
+            verification(currentRec, candidates, sink, sourceMap, targetMap, measure, threshold);
         }
         // logger.info("Mapping carried out using " + comparisons + "
         // comparisons.");
-        AMapping tempMapping = MappingFactory.createDefaultMapping();
-        for (String key : mapping.getMap().keySet()) {
-            for (String value : mapping.getMap().get(key).keySet()) {
-                double confidence = mapping.getConfidence(key, value);
-                if (confidence >= threshold) {
-                    tempMapping.add(key, value, confidence);
-                }
-            }
-        }
-        mapping = tempMapping;
-        return mapping;
     }
 
-    private int verification(Record currentRec, HashMap<Record, CandidateInfo> candidates, AMapping mapping,
-                             HashMap<Integer, String> sourceMap, HashMap<Integer, String> targetMap, IStringMeasure measure) {
+    private int verification(Record currentRec, HashMap<Record, CandidateInfo> candidates, ILinkSink sink,
+                             HashMap<Integer, String> sourceMap, HashMap<Integer, String> targetMap, IStringMeasure measure,
+                             double threshold) {
         int count = 0;
         String id1, id2;
 
@@ -572,6 +586,26 @@ public class PPJoinPlusPlus extends AMapper {
             CandidateInfo value = (CandidateInfo) e.getValue();
             if (value.currentOverlap > 0) {
                 Record key = (Record) e.getKey();
+                // get uris for ids
+                if (sourceMap.containsKey(currentRec.id) && targetMap.containsKey(key.id)) {
+                    id1 = sourceMap.get(currentRec.id);
+                    id2 = targetMap.get(key.id);
+                } else if (targetMap.containsKey(currentRec.id) && sourceMap.containsKey(key.id)) {
+                    id1 = sourceMap.get(key.id);
+                    id2 = targetMap.get(currentRec.id);
+                    count++;
+                } else {
+                    continue;
+                }
+                // the sink may only accept links above the threshold, e.g. the
+                // best ones of the source so far. One less than the tightened
+                // alpha guards against rounding in getAlpha
+                double bound = sink.getThreshold(id1, threshold);
+                int alpha = value.alpha;
+                if (bound > threshold) {
+                    alpha = Math.max(alpha,
+                            measure.getAlpha(currentRec.tokens.length, key.tokens.length, bound) - 1);
+                }
                 int overlap = value.currentOverlap;
                 Token wx = currentRec.tokens[currentRec.prefixLength - 1];
                 // Token wy = key.tokens[key.prefixLength - 1];
@@ -579,7 +613,7 @@ public class PPJoinPlusPlus extends AMapper {
                 int compRes = wx.compareTo(wy);
                 if (compRes < 0) {
                     int ubound = value.currentOverlap + currentRec.tokens.length - currentRec.prefixLength;
-                    if (ubound >= value.alpha) {
+                    if (ubound >= alpha) {
                         overlap += overlap(currentRec, currentRec.prefixLength, key, value.currentOverlap);
                     }
                 } else if (compRes > 0) {
@@ -587,7 +621,7 @@ public class PPJoinPlusPlus extends AMapper {
                             - /*
                      * key.prefixLength
                      */ key.midPrefix;
-                    if (ubound >= value.alpha) {
+                    if (ubound >= alpha) {
                         overlap += overlap(currentRec, value.currentOverlap, key,
                                 /*
                                  * key.prefixLength
@@ -599,34 +633,17 @@ public class PPJoinPlusPlus extends AMapper {
                             key.tokens.length - /*
                              * key.prefixLength
                              */ key.midPrefix);
-                    if (ubound >= value.alpha) {
+                    if (ubound >= alpha) {
                         overlap += overlap(currentRec, currentRec.prefixLength, key,
                                 /*
                                  * key.prefixLength
                                  */ key.midPrefix);
                     }
                 }
-                if (overlap >= value.alpha) {
-                    double similarity = measure.getSimilarity(overlap, currentRec.tokens.length, key.tokens.length);
-                    // use border here instead. faster!
-                    if ((sourceMap.containsKey(currentRec.id) && targetMap.containsKey(key.id))) {
-                        id1 = sourceMap.get(currentRec.id);
-                        id2 = targetMap.get(key.id);
-                        // CORRECT
-                        mapping.add(id1, id2, similarity);
-                        // mapping.add(id2, id1, similarity);
-                    } else if (targetMap.containsKey(currentRec.id) && sourceMap.containsKey(key.id)) {
-                        // get uris for ids
-                        {
-                            id1 = sourceMap.get(key.id);
-                            id2 = targetMap.get(currentRec.id);
-
-                            // CORRECT
-                            mapping.add(id1, id2, similarity);
-                            // mapping.add(id2, id1, similarity);
-                        }
-                        count++;
-                    }
+                double similarity = overlap >= alpha
+                        ? measure.getSimilarity(overlap, currentRec.tokens.length, key.tokens.length) : 0;
+                if (similarity >= bound) {
+                    sink.add(id1, id2, similarity);
                 }
                 // count++;
             }
@@ -0,0 +1,170 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string.exactmatch;
+
+import org.aksw.limes.core.io.cache.ACache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Open addressing hash table from 64-bit value hashes to the (uri, value)
+ * pairs of a property of a cache. Pairs sharing a hash are chained through a
+ * primitive array, and every hit is verified on the value itself, so hash
+ * collisions never produce wrong matches. The table is immutable once built
+ * and can be probed concurrently.
+ */
+public class ValueHashTable {
+
+    private final String[] uris;
+    private final String[] values;
+    // next pair with the same hash, -1 terminates the chain
+    private final int[] next;
+    private final long[] keys;
+    // first pair of the slot, -1 for empty slots
+    private final int[] heads;
+    private final int mask;
+
+    /**
+     * Builds the table.
+     *
+     * @param column
+     *            the (uri, value) pairs to index
+     */
+    public ValueHashTable(Column column) {
+        this.uris = column.uris;
+        this.values = column.values;
+        int size = column.size;
+        this.next = new int[size];
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.heads = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(heads, -1);
+        for (int i = 0; i < size; i++) {
+            long hash = hash(values[i]);
+            int slot = find(hash);
+            keys[slot] = hash;
+            next[i] = heads[slot];
+            heads[slot] = i;
+        }
+    }
+
+    private int find(long hash) {
+        int slot = (int) hash & mask;
+        while (heads[slot] != -1 && keys[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Passes the uris of all indexed pairs with the given value to the
+     * consumer.
+     *
+     * @param value
+     *            the value to look up
+     * @param consumer
+     *            receives the uris
+     */
+    public void forEachUri(String value, Consumer<String> consumer) {
+        int slot = find(hash(value));
+        for (int i = heads[slot]; i != -1; i = next[i]) {
+            if (values[i].equals(value)) {
+                consumer.accept(uris[i]);
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters, followed by the MurmurHash3
+     * finalizer to spread it over the low bits used for addressing.
+     *
+     * @param value
+     *            the value
+     * @return the hash
+     */
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * The (uri, value) pairs of a property of a cache, stored column-wise.
+     */
+    public static class Column {
+
+        final String[] uris;
+        final String[] values;
+        final int size;
+
+        private Column(String[] uris, String[] values, int size) {
+            this.uris = uris;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * @param cache
+         *            the cache
+         * @param property
+         *            the property to read
+         * @return the (uri, value) pairs of the property
+         */
+        public static Column of(ACache cache, String property) {
+            List<String> allUris = cache.getAllUris();
+            String[] uris = new String[allUris.size()];
+            String[] values = new String[allUris.size()];
+            int size = 0;
+            for (String uri : allUris) {
+                for (String value : cache.getInstance(uri).getProperty(property)) {
+                    if (size == uris.length) {
+                        uris = Arrays.copyOf(uris, size * 2);
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    uris[size] = uri;
+                    values[size] = value;
+                    size++;
+                }
+            }
+            return new Column(uris, values, size);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String getUri(int i) {
+            return uris[i];
+        }
+
+        public String getValue(int i) {
+            return values[i];
+        }
+    }
+}
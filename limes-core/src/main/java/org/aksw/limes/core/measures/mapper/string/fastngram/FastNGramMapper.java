@@ -28,6 +28,8 @@ import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.mapper.IStreamingMapper;
 import org.aksw.limes.core.measures.measure.string.QGramSimilarityMeasure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,18 +40,38 @@ import java.util.*;
 /**
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  */
-public class FastNGramMapper extends AMapper {
+public class FastNGramMapper extends AMapper implements IStreamingMapper {
 
     static Logger logger = LoggerFactory.getLogger(FastNGramMapper.class);
     static int q = 3;
 
     public static AMapping compute(Set<String> source, Set<String> target, int q, double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        compute(source, target, q, threshold, result::add);
+        return result;
+    }
+
+    /**
+     * Computes the pairs of strings whose q-gram similarity is at least the
+     * threshold, and passes them to the sink.
+     *
+     * @param source
+     *            Source strings
+     * @param target
+     *            Target strings
+     * @param q
+     *            Length of the q-grams
+     * @param threshold
+     *            Similarity threshold
+     * @param sink
+     *            Receives the pairs of strings
+     */
+    public static void compute(Set<String> source, Set<String> target, int q, double threshold, ILinkSink sink) {
         Index index = new Index(q);
         double kappa = (1 + threshold) / threshold;
         QGramSimilarityMeasure sim = new QGramSimilarityMeasure(q);
         ITokenizer tokenizer = new NGramTokenizer();
         Map<String, Set<String>> targetTokens = new HashMap<String, Set<String>>();
-        AMapping result = MappingFactory.createDefaultMapping();
         // index target
         for (String t : target) {
             targetTokens.put(t, index.addString(t));
@@ -84,7 +106,7 @@ public class FastNGramMapper extends AMapper {
                         if (kappa * count >= (sourceSize + size)) {
                             double similarity = sim.getSimilarity(targetTokens.get(candidate), sourceTokens);
                             if (similarity >= threshold) {
-                                result.add(s, candidate, similarity);
+                                sink.add(s, candidate, similarity);
                             }
                         }
                     }
@@ -92,17 +114,6 @@ public class FastNGramMapper extends AMapper {
             }
 
         }
-        AMapping tempMapping = MappingFactory.createDefaultMapping();
-        for (String key : result.getMap().keySet()) {
-            for (String value : result.getMap().get(key).keySet()) {
-                double confidence = result.getConfidence(key, value);
-                if (confidence >= threshold) {
-                    tempMapping.add(key, value, confidence);
-                }
-            }
-        }
-        result = tempMapping;
-        return result;
     }
 
     public String getName() {
@@ -129,6 +140,17 @@ public class FastNGramMapper extends AMapper {
      */
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, result::add);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                           double threshold, ILinkSink sink) {
 
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
@@ -229,20 +251,8 @@ public class FastNGramMapper extends AMapper {
 
         // run the algorithm
         // logger.info("Computing mappings");
-        AMapping m = FastNGramMapper.compute(sourceMap.keySet(), targetMap.keySet(), q, threshold);
-        AMapping result = MappingFactory.createDefaultMapping();
-        for (String s : m.getMap().keySet()) {
-            for (String t : m.getMap().get(s).keySet()) {
-                for (String sourceUri : sourceMap.get(s)) {
-                    for (String targetUri : targetMap.get(t)) {
-                        result.add(sourceUri, targetUri, m.getConfidence(s, t));
-                    }
-                }
-            }
-        }
-
-        return result;
-
+        FastNGramMapper.compute(sourceMap.keySet(), targetMap.keySet(), q, threshold,
+                getUriToUriSink(sourceMap, targetMap, false, sink));
     }
 
     public double getRuntimeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
@@ -0,0 +1,187 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string.mongeelkan;
+
+import org.aksw.limes.core.measures.mapper.string.mongeelkan.TokenTrigramIndex.TokenSimilarities;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runnable worker probing a {@link TokenTrigramIndex} with a chunk of source
+ * values.
+ * <p>
+ * For a source value with k tokens, the Monge-Elkan similarity to a target is
+ * bounded by the sum of the best trigram similarities each source token
+ * reaches against the whole index, divided by k. Sources whose bound is below
+ * the threshold are skipped. Tokens are then visited by decreasing bound, and
+ * a target is only admitted as a candidate while the bounds of the tokens not
+ * yet visited can still reach the threshold on their own, and only through
+ * token similarities high enough to close the gap left by them. Candidates are
+ * verified exactly, summing token similarities in source token order.
+ */
+public class MongeElkanProbe implements Runnable {
+
+    // tolerance for the different summation order of the bounds
+    private static final double EPSILON = 1e-9;
+    // token similarities memoized per worker, cleared when full
+    private static final int MAX_MEMO_SIZE = 10000;
+
+    private final List<String> sources;
+    private final TokenTrigramIndex index;
+    private final String split;
+    private final double threshold;
+    private final ConcurrentMap<String, Map<String, Double>> result;
+
+    private final Map<String, TokenSimilarities> memo = new HashMap<>();
+    private int[] overlap;
+    private int[] touched;
+    private int[] seen;
+    private int stamp = 0;
+
+    /**
+     * Construct a worker
+     *
+     * @param sources
+     *            source values to probe with
+     * @param index
+     *            index over the target values
+     * @param split
+     *            regular expression used to split values into tokens
+     * @param threshold
+     *            the similarity threshold value
+     * @param result
+     *            concurrent map for returning results
+     */
+    public MongeElkanProbe(List<String> sources, TokenTrigramIndex index, String split, double threshold,
+                           ConcurrentMap<String, Map<String, Double>> result) {
+        this.sources = sources;
+        this.index = index;
+        this.split = split;
+        this.threshold = threshold;
+        this.result = result;
+    }
+
+    @Override
+    public void run() {
+        overlap = new int[index.getTokenCount()];
+        touched = new int[index.getTokenCount()];
+        seen = new int[index.getValueCount()];
+        for (String source : sources) {
+            Map<String, Double> matches = probe(source);
+            if (!matches.isEmpty()) {
+                result.put(source, matches);
+            }
+        }
+    }
+
+    private Map<String, Double> probe(String source) {
+        String[] tokens = source.split(split);
+        int k = tokens.length;
+        if (k == 0) {
+            return Collections.emptyMap();
+        }
+        // distinct tokens and their multiplicities
+        Map<String, Integer> distinct = new LinkedHashMap<>();
+        int[] occurrences = new int[k];
+        for (int i = 0; i < k; i++) {
+            Integer d = distinct.get(tokens[i]);
+            if (d == null) {
+                d = distinct.size();
+                distinct.put(tokens[i], d);
+            }
+            occurrences[i] = d;
+        }
+        TokenSimilarities[] similarities = new TokenSimilarities[distinct.size()];
+        double[] weights = new double[distinct.size()];
+        int[] multiplicities = new int[distinct.size()];
+        for (Map.Entry<String, Integer> e : distinct.entrySet()) {
+            similarities[e.getValue()] = similarities(e.getKey());
+        }
+        // per-source upper bound, summed in token order
+        double[] suffixBound = new double[k + 1];
+        for (int i = k - 1; i >= 0; i--) {
+            suffixBound[i] = suffixBound[i + 1] + similarities[occurrences[i]].max;
+        }
+        if (suffixBound[0] / k + EPSILON < threshold) {
+            return Collections.emptyMap();
+        }
+        for (int i = 0; i < k; i++) {
+            weights[occurrences[i]] += similarities[occurrences[i]].max;
+            multiplicities[occurrences[i]]++;
+        }
+        Integer[] order = new Integer[distinct.size()];
+        for (int d = 0; d < order.length; d++) {
+            order[d] = d;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(weights[b], weights[a]));
+        double remaining = suffixBound[0];
+        List<Integer> candidates = new ArrayList<>();
+        stamp++;
+        for (int d : order) {
+            if (remaining / k + EPSILON < threshold) {
+                break;
+            }
+            remaining -= weights[d];
+            // a target first reached through this token has to make up for
+            // the bounds of the tokens not visited yet
+            double minSimilarity = (k * threshold - remaining) / multiplicities[d] - EPSILON;
+            TokenSimilarities sims = similarities[d];
+            for (int i = 0; i < sims.tokens.length; i++) {
+                if (sims.similarities[i] < minSimilarity) {
+                    continue;
+                }
+                for (int v : index.getValuesOfToken(sims.tokens[i])) {
+                    if (seen[v] != stamp) {
+                        seen[v] = stamp;
+                        candidates.add(v);
+                    }
+                }
+            }
+        }
+        Map<String, Double> matches = new HashMap<>();
+        for (int v : candidates) {
+            int[] valueTokens = index.getValueTokens(v);
+            double simB = 0;
+            for (int i = 0; i < k; i++) {
+                if ((simB + suffixBound[i]) / k + EPSILON < threshold) {
+                    simB = 0;
+                    break;
+                }
+                simB += similarities[occurrences[i]].best(valueTokens);
+            }
+            double sim = simB == 0 ? 0 : simB / k;
+            if (threshold <= sim) {
+                matches.put(index.getValue(v), sim);
+            }
+        }
+        return matches;
+    }
+
+    private TokenSimilarities similarities(String token) {
+        TokenSimilarities sims = memo.get(token);
+        if (sims == null) {
+            sims = index.probe(token, overlap, touched);
+            if (memo.size() >= MAX_MEMO_SIZE) {
+                memo.clear();
+            }
+            memo.put(token, sims);
+        }
+        return sims;
+    }
+}
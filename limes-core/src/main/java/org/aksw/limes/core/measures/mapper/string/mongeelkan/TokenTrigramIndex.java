@@ -0,0 +1,251 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string.mongeelkan;
+
+import org.aksw.limes.core.measures.measure.string.TrigramMeasure;
+
+import java.util.*;
+
+/**
+ * Inverted index over the token trigrams of a set of (target) values. Every
+ * value is tokenized exactly once, distinct tokens are interned to int ids and
+ * each trigram points to the tokens containing it. Probing the index with a
+ * token returns the trigram similarity to every indexed token sharing at least
+ * one trigram with it, all other tokens having similarity 0.
+ */
+public class TokenTrigramIndex {
+
+    private final TrigramMeasure trigram = new TrigramMeasure();
+    private final Map<String, Integer> trigramIds = new HashMap<>();
+    private final String[] values;
+    // distinct token ids of each value
+    private final int[][] valueTokens;
+    // number of distinct trigrams of each token
+    private final int[] tokenSizes;
+    // trigram id -> tokens containing it
+    private final int[][] trigramPostings;
+    // token id -> values containing it
+    private final int[][] tokenPostings;
+    // id of the empty token, which only matches itself
+    private int emptyToken = -1;
+
+    /**
+     * Builds the index.
+     *
+     * @param values
+     *            values to index
+     * @param split
+     *            regular expression used to split values into tokens
+     */
+    public TokenTrigramIndex(Collection<String> values, String split) {
+        this.values = values.toArray(new String[0]);
+        this.valueTokens = new int[this.values.length][];
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<int[]> tokenTrigrams = new ArrayList<>();
+        for (int v = 0; v < this.values.length; v++) {
+            String[] tokens = this.values[v].split(split);
+            int[] ids = new int[tokens.length];
+            int n = 0;
+            for (String token : tokens) {
+                Integer id = tokenIds.get(token);
+                if (id == null) {
+                    id = tokenIds.size();
+                    tokenIds.put(token, id);
+                    if (token.isEmpty()) {
+                        emptyToken = id;
+                        tokenTrigrams.add(new int[0]);
+                    } else {
+                        tokenTrigrams.add(internTrigrams(token));
+                    }
+                }
+                if (!contains(ids, n, id)) {
+                    ids[n++] = id;
+                }
+            }
+            valueTokens[v] = Arrays.copyOf(ids, n);
+        }
+        int tokenCount = tokenTrigrams.size();
+        tokenSizes = new int[tokenCount];
+        int[] trigramCounts = new int[trigramIds.size()];
+        for (int t = 0; t < tokenCount; t++) {
+            tokenSizes[t] = tokenTrigrams.get(t).length;
+            for (int g : tokenTrigrams.get(t)) {
+                trigramCounts[g]++;
+            }
+        }
+        trigramPostings = new int[trigramCounts.length][];
+        for (int g = 0; g < trigramCounts.length; g++) {
+            trigramPostings[g] = new int[trigramCounts[g]];
+            trigramCounts[g] = 0;
+        }
+        for (int t = 0; t < tokenCount; t++) {
+            for (int g : tokenTrigrams.get(t)) {
+                trigramPostings[g][trigramCounts[g]++] = t;
+            }
+        }
+        int[] tokenCounts = new int[tokenCount];
+        for (int[] ids : valueTokens) {
+            for (int t : ids) {
+                tokenCounts[t]++;
+            }
+        }
+        tokenPostings = new int[tokenCount][];
+        for (int t = 0; t < tokenCount; t++) {
+            tokenPostings[t] = new int[tokenCounts[t]];
+            tokenCounts[t] = 0;
+        }
+        for (int v = 0; v < valueTokens.length; v++) {
+            for (int t : valueTokens[v]) {
+                tokenPostings[t][tokenCounts[t]++] = v;
+            }
+        }
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] internTrigrams(String token) {
+        Set<String> grams = trigram.getTrigrams("  " + token + "  ");
+        int[] ids = new int[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            Integer id = trigramIds.get(gram);
+            if (id == null) {
+                id = trigramIds.size();
+                trigramIds.put(gram, id);
+            }
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Computes the trigram similarity of a token to all indexed tokens it
+     * shares at least one trigram with. The scratch arrays must have at least
+     * {@link #getTokenCount()} entries, and overlap must be all zeros; it is
+     * left all zeros on return.
+     *
+     * @param token
+     *            token to probe with
+     * @param overlap
+     *            scratch array counting shared trigrams per indexed token
+     * @param touched
+     *            scratch array collecting the indexed tokens seen
+     * @return similarities, sorted by indexed token id
+     */
+    public TokenSimilarities probe(String token, int[] overlap, int[] touched) {
+        if (token.isEmpty()) {
+            if (emptyToken < 0) {
+                return TokenSimilarities.NONE;
+            }
+            return new TokenSimilarities(new int[]{emptyToken}, new double[]{1d});
+        }
+        Set<String> grams = trigram.getTrigrams("  " + token + "  ");
+        int size = grams.size();
+        int n = 0;
+        for (String gram : grams) {
+            Integer g = trigramIds.get(gram);
+            if (g != null) {
+                for (int t : trigramPostings[g]) {
+                    if (overlap[t]++ == 0) {
+                        touched[n++] = t;
+                    }
+                }
+            }
+        }
+        if (n == 0) {
+            return TokenSimilarities.NONE;
+        }
+        Arrays.sort(touched, 0, n);
+        int[] tokens = Arrays.copyOf(touched, n);
+        double[] similarities = new double[n];
+        for (int i = 0; i < n; i++) {
+            int t = tokens[i];
+            double counter = overlap[t];
+            similarities[i] = counter / (size + tokenSizes[t] - counter);
+            overlap[t] = 0;
+        }
+        return new TokenSimilarities(tokens, similarities);
+    }
+
+    public int getTokenCount() {
+        return tokenSizes.length;
+    }
+
+    public int getValueCount() {
+        return values.length;
+    }
+
+    public String getValue(int value) {
+        return values[value];
+    }
+
+    public int[] getValueTokens(int value) {
+        return valueTokens[value];
+    }
+
+    public int[] getValuesOfToken(int token) {
+        return tokenPostings[token];
+    }
+
+    /**
+     * Sparse similarities of one probe token to the indexed tokens.
+     */
+    public static class TokenSimilarities {
+
+        static final TokenSimilarities NONE = new TokenSimilarities(new int[0], new double[0]);
+
+        final int[] tokens;
+        final double[] similarities;
+        final double max;
+
+        TokenSimilarities(int[] tokens, double[] similarities) {
+            this.tokens = tokens;
+            this.similarities = similarities;
+            double m = 0;
+            for (double sim : similarities) {
+                if (m < sim) {
+                    m = sim;
+                }
+            }
+            this.max = m;
+        }
+
+        /**
+         * @param valueTokens
+         *            distinct token ids of an indexed value
+         * @return the best similarity of the probe token to any of the tokens
+         */
+        double best(int[] valueTokens) {
+            double result = 0;
+            for (int t : valueTokens) {
+                int i = Arrays.binarySearch(tokens, t);
+                if (i >= 0 && result < similarities[i]) {
+                    result = similarities[i];
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string.triefilter;
+
+import org.aksw.limes.core.measures.measure.string.ITrieFilterableStringMeasure;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact, array-based trie over the sorted characters of a set of strings.
+ * <p>
+ * Nodes are laid out in preorder, so the subtree of a node is the contiguous
+ * range of node ids up to {@code end[node]}: its first child (if any) is
+ * {@code node + 1} and the next sibling of a child {@code c} is
+ * {@code end[c]}. Every node stores the minimum and maximum length of the
+ * strings in its subtree, which lets a single trie serve all length
+ * partitions. The trie is immutable once built and can be searched
+ * concurrently.
+ */
+public class CharTrie {
+
+    private final int[] ids;
+    private char[] key;
+    private int[] depth;
+    private int[] end;
+    private int[] minLength;
+    private int[] maxLength;
+    private int[] dataStart;
+    private int[] dataEnd;
+    private int size = 0;
+
+    /**
+     * Builds the trie.
+     *
+     * @param keys
+     *            sorted character arrays of the strings to index, empty keys
+     *            are ignored
+     */
+    public CharTrie(char[][] keys) {
+        Integer[] order = new Integer[keys.length];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].length > 0) {
+                order[n++] = i;
+            }
+        }
+        order = Arrays.copyOf(order, n);
+        Arrays.sort(order, (a, b) -> compare(keys[a], keys[b]));
+        ids = new int[n];
+        int capacity = 16;
+        key = new char[capacity];
+        depth = new int[capacity];
+        end = new int[capacity];
+        minLength = new int[capacity];
+        maxLength = new int[capacity];
+        dataStart = new int[capacity];
+        dataEnd = new int[capacity];
+        // root
+        int[] path = new int[16];
+        path[0] = newNode(' ', 0);
+        int pathLength = 1;
+        char[] previous = new char[0];
+        for (int i = 0; i < n; i++) {
+            char[] current = keys[order[i]];
+            ids[i] = order[i];
+            int lcp = 0;
+            while (lcp < previous.length && lcp < current.length && previous[lcp] == current[lcp]) {
+                lcp++;
+            }
+            // close the nodes below the common prefix
+            while (pathLength > lcp + 1) {
+                close(path[--pathLength]);
+            }
+            if (path.length < current.length + 1) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, current.length + 1));
+            }
+            for (int d = lcp; d < current.length; d++) {
+                path[pathLength++] = newNode(current[d], d + 1);
+            }
+            int leaf = path[pathLength - 1];
+            if (dataStart[leaf] < 0) {
+                dataStart[leaf] = i;
+            }
+            dataEnd[leaf] = i + 1;
+            previous = current;
+        }
+        while (pathLength > 0) {
+            close(path[--pathLength]);
+        }
+    }
+
+    private static int compare(char[] a, char[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            if (a[i] != b[i]) {
+                return a[i] - b[i];
+            }
+        }
+        return a.length - b.length;
+    }
+
+    private int newNode(char c, int d) {
+        if (size == key.length) {
+            int capacity = size * 2;
+            key = Arrays.copyOf(key, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            end = Arrays.copyOf(end, capacity);
+            minLength = Arrays.copyOf(minLength, capacity);
+            maxLength = Arrays.copyOf(maxLength, capacity);
+            dataStart = Arrays.copyOf(dataStart, capacity);
+            dataEnd = Arrays.copyOf(dataEnd, capacity);
+        }
+        key[size] = c;
+        depth[size] = d;
+        dataStart[size] = -1;
+        dataEnd[size] = -1;
+        return size++;
+    }
+
+    private void close(int node) {
+        end[node] = size;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        if (dataStart[node] >= 0) {
+            min = max = depth[node];
+        }
+        for (int c = node + 1; c < end[node]; c = end[c]) {
+            min = Math.min(min, minLength[c]);
+            max = Math.max(max, maxLength[c]);
+        }
+        minLength[node] = min;
+        maxLength[node] = max;
+    }
+
+    /**
+     * Collects the ids of all indexed strings whose length lies within the
+     * given bounds and whose character multiset intersection with the query
+     * is large enough to possibly reach the threshold.
+     *
+     * @param query
+     *            sorted characters of the query string
+     * @param lowerLength
+     *            minimum length of matching strings
+     * @param upperLength
+     *            maximum length of matching strings
+     * @param metric
+     *            measure providing the character match bounds
+     * @param threshold
+     *            the similarity threshold value
+     * @param candidates
+     *            receives the ids (indexes into the keys given at
+     *            construction) of the candidates
+     */
+    public void search(char[] query, int lowerLength, int upperLength, ITrieFilterableStringMeasure metric,
+                       double threshold, IntConsumer candidates) {
+        int queryLength = query.length;
+        if (size == 0 || maxLength[0] < lowerLength || minLength[0] > upperLength) {
+            return;
+        }
+        // explicit stack of (node, query position, matches)
+        int[] stack = new int[3 * 64];
+        int top = 0;
+        for (int c = 1; c < end[0]; c = end[c]) {
+            stack = push(stack, top, c, 0, 0);
+            top += 3;
+        }
+        while (top > 0) {
+            top -= 3;
+            int node = stack[top];
+            int position = stack[top + 1];
+            int matches = stack[top + 2];
+            int min = Math.max(minLength[node], lowerLength);
+            int max = Math.min(maxLength[node], upperLength);
+            if (min > max) {
+                continue;
+            }
+            // merge the node character into the query multiset intersection
+            char c = key[node];
+            while (position < queryLength && query[position] < c) {
+                position++;
+            }
+            if (position < queryLength && query[position] == c) {
+                position++;
+                matches++;
+            }
+            int d = depth[node];
+            int maxMatches = matches + Math.min(queryLength - position, max - d);
+            if (maxMatches < metric.characterMatchLowerBound(queryLength, min, threshold)) {
+                continue;
+            }
+            if (dataStart[node] >= 0 && d >= lowerLength && d <= upperLength
+                    && matches >= metric.characterMatchLowerBound(queryLength, d, threshold)
+                    && metric.characterFrequencyUpperBound(d, queryLength, matches) >= threshold) {
+                for (int i = dataStart[node]; i < dataEnd[node]; i++) {
+                    candidates.accept(ids[i]);
+                }
+            }
+            for (int child = node + 1; child < end[node]; child = end[child]) {
+                stack = push(stack, top, child, position, matches);
+                top += 3;
+            }
+        }
+    }
+
+    private static int[] push(int[] stack, int top, int node, int position, int matches) {
+        if (top + 3 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = node;
+        stack[top + 1] = position;
+        stack[top + 2] = matches;
+        return stack;
+    }
+
+    /**
+     * @return number of nodes, including the root
+     */
+    public int size() {
+        return size;
+    }
+}
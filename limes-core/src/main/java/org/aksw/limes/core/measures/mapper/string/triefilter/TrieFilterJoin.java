@@ -0,0 +1,231 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string.triefilter;
+
+import org.aksw.limes.core.measures.mapper.ILinkSink;
+import org.aksw.limes.core.measures.measure.string.ITrieFilterableStringMeasure;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Similarity join for measures bounded by the number of matching characters.
+ * <p>
+ * The target strings are indexed once in a single {@link CharTrie} over their
+ * sorted characters. Source strings are grouped by their sorted characters,
+ * and every group searches the trie with the length bounds and character
+ * match bounds of the measure. The groups are processed by a work-stealing
+ * pool, so that skewed length distributions do not leave threads idle.
+ * Candidates are verified on the measure's char array representation,
+ * closest lengths first, so that a sink raising the threshold of a source
+ * (see {@link ILinkSink#getThreshold(String, double)}) prunes the remaining
+ * candidates by their length.
+ */
+public class TrieFilterJoin {
+
+    // maximal number of source groups processed without splitting a task
+    private static final int GRAIN = 64;
+
+    private final Supplier<? extends ITrieFilterableStringMeasure> measureFactory;
+    private final double threshold;
+    private final int parallelism;
+
+    private char[][] sourceArrays;
+    private char[][] targetArrays;
+    private String[] sources;
+    private String[] targets;
+    private CharTrie trie;
+    private List<int[]> groups;
+    private ThreadLocal<ITrieFilterableStringMeasure> measures;
+    private ILinkSink sink;
+
+    /**
+     * @param measureFactory
+     *            creates the measure instances, one per worker thread
+     * @param threshold
+     *            the similarity threshold value
+     */
+    public TrieFilterJoin(Supplier<? extends ITrieFilterableStringMeasure> measureFactory, double threshold) {
+        this(measureFactory, threshold, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param measureFactory
+     *            creates the measure instances, one per worker thread
+     * @param threshold
+     *            the similarity threshold value
+     * @param parallelism
+     *            number of worker threads
+     */
+    public TrieFilterJoin(Supplier<? extends ITrieFilterableStringMeasure> measureFactory, double threshold,
+                          int parallelism) {
+        this.measureFactory = measureFactory;
+        this.threshold = threshold;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes all pairs of source and target strings whose similarity is at
+     * least the threshold.
+     *
+     * @param sourceStrings
+     *            source strings
+     * @param targetStrings
+     *            target strings
+     * @return map from source strings to target strings and their similarity
+     */
+    public Map<String, Map<String, Double>> run(Collection<String> sourceStrings, Collection<String> targetStrings) {
+        ConcurrentHashMap<String, Map<String, Double>> result = new ConcurrentHashMap<>();
+        // every source string is searched by a single thread
+        run(sourceStrings, targetStrings, (s, t, sim) -> result.computeIfAbsent(s, k -> new HashMap<>()).put(t, sim));
+        return result;
+    }
+
+    /**
+     * Passes all pairs of source and target strings whose similarity is at
+     * least the threshold to the sink. The sink is called concurrently, but
+     * the pairs of each source string are passed by a single thread.
+     *
+     * @param sourceStrings
+     *            source strings
+     * @param targetStrings
+     *            target strings
+     * @param sink
+     *            receives the pairs
+     */
+    public void run(Collection<String> sourceStrings, Collection<String> targetStrings, ILinkSink sink) {
+        ITrieFilterableStringMeasure metric = measureFactory.get();
+        measures = ThreadLocal.withInitial(measureFactory::get);
+        this.sink = sink;
+        sources = sourceStrings.toArray(new String[0]);
+        targets = targetStrings.toArray(new String[0]);
+        sourceArrays = new char[sources.length][];
+        for (int i = 0; i < sources.length; i++) {
+            sourceArrays[i] = metric.getArrayRepresentation(sources[i]);
+        }
+        targetArrays = new char[targets.length][];
+        char[][] targetKeys = new char[targets.length][];
+        for (int i = 0; i < targets.length; i++) {
+            targetArrays[i] = metric.getArrayRepresentation(targets[i]);
+            targetKeys[i] = sortedCopy(targetArrays[i]);
+        }
+        trie = new CharTrie(targetKeys);
+        // group sources sharing the same sorted characters, they share the
+        // trie search
+        Map<String, List<Integer>> sourceGroups = new HashMap<>();
+        for (int i = 0; i < sources.length; i++) {
+            if (sourceArrays[i].length > 0) {
+                sourceGroups.computeIfAbsent(String.valueOf(sortedCopy(sourceArrays[i])), k -> new ArrayList<>())
+                        .add(i);
+            }
+        }
+        groups = new ArrayList<>(sourceGroups.size());
+        for (List<Integer> group : sourceGroups.values()) {
+            groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SearchTask(0, groups.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static char[] sortedCopy(char[] array) {
+        char[] copy = Arrays.copyOf(array, array.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private void search(int[] group) {
+        ITrieFilterableStringMeasure metric = measures.get();
+        char[] query = sortedCopy(sourceArrays[group[0]]);
+        int lowerLength = Math.max(1, metric.lengthLowerBound(query.length, threshold));
+        int upperLength = metric.lengthUpperBound(query.length, threshold);
+        if (upperLength == -1) {
+            upperLength = Integer.MAX_VALUE;
+        }
+        List<Integer> candidates = new ArrayList<>();
+        trie.search(query, lowerLength, upperLength, metric, threshold, candidates::add);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        int length = query.length;
+        candidates.sort(Comparator.comparingInt(t -> Math.abs(targetArrays[t].length - length)));
+        for (int s : group) {
+            double bound = threshold;
+            int lower = lowerLength;
+            int upper = upperLength;
+            for (int t : candidates) {
+                double current = sink.getThreshold(sources[s], threshold);
+                if (current > bound) {
+                    bound = current;
+                    // widened by one against rounding, ties have to be kept
+                    lower = Math.max(lowerLength, metric.lengthLowerBound(length, bound) - 1);
+                    int tightened = metric.lengthUpperBound(length, bound);
+                    if (tightened != -1) {
+                        upper = Math.min(upperLength, tightened + 1);
+                    }
+                }
+                int targetLength = targetArrays[t].length;
+                if (targetLength < lower || targetLength > upper) {
+                    if (Math.abs(targetLength - length) > Math.max(length - lower, upper - length)) {
+                        // so are all remaining candidates
+                        break;
+                    }
+                    continue;
+                }
+                double sim = metric.proximity(sourceArrays[s], targetArrays[t]);
+                if (sim >= bound) {
+                    sink.add(sources[s], targets[t], sim);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes a range of source groups, splitting it while it is large.
+     */
+    private class SearchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        SearchTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SearchTask(from, middle), new SearchTask(middle, to));
+            } else {
+                for (int i = from; i < to; i++) {
+                    search(groups.get(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.temporal;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.DerivedCache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.util.datetime.DateTimeFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Epochs of a temporal property of the instances of a cache, parsed once with
+ * {@link DateTimeFormat#getEpoch(String)} and shared by the temporal mappers.
+ * Instance <code>i</code> is the i-th instance of
+ * {@link ACache#getAllInstances()}, and its epochs, in the order of its
+ * values, are stored from <code>offsets[i]</code> to
+ * <code>offsets[i + 1] - 1</code> of a single array. Values that cannot be
+ * parsed are skipped.
+ * <p>
+ * Columns are kept per cache (by identity) and property as long as the cache
+ * is reachable and its version has not changed since they were parsed (see
+ * {@link ACache#getVersion()}). Columns are immutable.
+ */
+public class EpochColumn {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpochColumn.class);
+
+    private static final DerivedCache<String, EpochColumn> columns = new DerivedCache<>(c -> c.epochs.length,
+            Long.MAX_VALUE);
+
+    private final Instance[] instances;
+    private final int[] offsets;
+    private final long[] epochs;
+
+    private EpochColumn(ACache cache, String property) {
+        List<Instance> all = cache.getAllInstances();
+        this.instances = all.toArray(new Instance[0]);
+        this.offsets = new int[instances.length + 1];
+        long[] epochs = new long[instances.length];
+        int size = 0;
+        int skipped = 0;
+        for (int i = 0; i < instances.length; i++) {
+            for (String value : instances[i].getProperty(property)) {
+                try {
+                    long epoch = DateTimeFormat.getEpoch(value);
+                    if (size == epochs.length) {
+                        epochs = Arrays.copyOf(epochs, Math.max(1, size * 2));
+                    }
+                    epochs[size++] = epoch;
+                } catch (IllegalArgumentException e) {
+                    if (skipped++ == 0) {
+                        logger.warn(e.getMessage() + ", skipping it");
+                    }
+                }
+            }
+            offsets[i + 1] = size;
+        }
+        if (skipped > 1) {
+            logger.warn("Skipped " + skipped + " unparsable values of " + property);
+        }
+        this.epochs = Arrays.copyOf(epochs, size);
+    }
+
+    /**
+     * Returns the column of a property of a cache, parsing it if it is not
+     * kept or no longer valid.
+     *
+     * @param cache
+     *            the cache
+     * @param property
+     *            the temporal property
+     * @return the column
+     */
+    public static EpochColumn get(ACache cache, String property) {
+        return columns.get(cache, property, EpochColumn::new);
+    }
+
+    /**
+     * Removes all kept columns.
+     */
+    public static void clear() {
+        columns.clear();
+    }
+
+    /**
+     * @return the number of instances
+     */
+    public int size() {
+        return instances.length;
+    }
+
+    public Instance getInstance(int i) {
+        return instances[i];
+    }
+
+    /**
+     * @param i
+     *            the instance id
+     * @return the number of parsed values of the instance
+     */
+    public int getValueCount(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    /**
+     * @param i
+     *            the instance id
+     * @param k
+     *            the index of the value among the parsed values of the
+     *            instance
+     * @return the epoch in milliseconds
+     */
+    public long getEpoch(int i, int k) {
+        return epochs[offsets[i] + k];
+    }
+}
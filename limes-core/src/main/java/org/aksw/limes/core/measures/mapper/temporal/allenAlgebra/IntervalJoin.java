@@ -0,0 +1,423 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.temporal.allenAlgebra;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.temporal.EpochColumn;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Interval join for Allen's temporal relations. The target intervals are
+ * sorted by (begin, end) and by (end, begin) into primitive arrays. Each of
+ * the 13 relations then reduces, for a source interval, to a contiguous range
+ * of one of the orders, found by binary search, that is either emitted as a
+ * whole or filtered by a second bound through a range maximum tree. Hence
+ * only qualifying pairs are visited, instead of materializing the atomic
+ * relations of {@link AllenAlgebraMapper} for all pairs.
+ * <p>
+ * As in the temporal measures, the interval of an instance is given by the
+ * first values of its begin and end properties, read from the shared
+ * {@link EpochColumn}s of the caches. Instances lacking one of them are
+ * ignored. The join is immutable once built and can be probed
+ * concurrently.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Allen's_interval_algebra">
+ *      Allen's interval algebra</a>
+ */
+public class IntervalJoin {
+
+    /**
+     * Allen's relations, from the point of view of the source interval s
+     * and the target interval t.
+     */
+    public enum Relation {
+        /** e(s) &lt; b(t) */
+        BEFORE,
+        /** e(t) &lt; b(s) */
+        AFTER,
+        /** e(s) = b(t) */
+        MEETS,
+        /** e(t) = b(s) */
+        IS_MET_BY,
+        /** b(s) &lt; b(t) &lt; e(s) &lt; e(t) */
+        OVERLAPS,
+        /** b(t) &lt; b(s) &lt; e(t) &lt; e(s) */
+        IS_OVERLAPPED_BY,
+        /** b(s) = b(t) and e(s) &lt; e(t) */
+        STARTS,
+        /** b(s) = b(t) and e(t) &lt; e(s) */
+        IS_STARTED_BY,
+        /** b(t) &lt; b(s) and e(s) &lt; e(t) */
+        DURING,
+        /** b(s) &lt; b(t) and e(t) &lt; e(s) */
+        DURING_REVERSE,
+        /** e(s) = e(t) and b(t) &lt; b(s) */
+        FINISHES,
+        /** e(s) = e(t) and b(s) &lt; b(t) */
+        IS_FINISHED_BY,
+        /** b(s) = b(t) and e(s) = e(t) */
+        EQUALS
+    }
+
+    private final Intervals targets;
+    // target ids sorted by (begin, end), with their begins and ends
+    private final int[] byBegin;
+    private final long[] beginOrderBegins;
+    private final long[] beginOrderEnds;
+    // target ids sorted by (end, begin), with their ends and begins
+    private final int[] byEnd;
+    private final long[] endOrderEnds;
+    private final long[] endOrderBegins;
+    private final MaxTree maxEndByBegin;
+    // minima are kept as maxima of the negated values
+    private final MaxTree minEndByBegin;
+    private final MaxTree minBeginByEnd;
+
+    /**
+     * Builds the join over the target intervals.
+     *
+     * @param targets
+     *            the target intervals
+     */
+    public IntervalJoin(Intervals targets) {
+        this.targets = targets;
+        int n = targets.size;
+        Integer[] ids = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        Arrays.parallelSort(ids, Comparator.<Integer>comparingLong(i -> targets.begins[i])
+                .thenComparingLong(i -> targets.ends[i]));
+        byBegin = new int[n];
+        beginOrderBegins = new long[n];
+        beginOrderEnds = new long[n];
+        long[] negatedEnds = new long[n];
+        for (int i = 0; i < n; i++) {
+            byBegin[i] = ids[i];
+            beginOrderBegins[i] = targets.begins[ids[i]];
+            beginOrderEnds[i] = targets.ends[ids[i]];
+            negatedEnds[i] = -beginOrderEnds[i];
+        }
+        Arrays.parallelSort(ids, Comparator.<Integer>comparingLong(i -> targets.ends[i])
+                .thenComparingLong(i -> targets.begins[i]));
+        byEnd = new int[n];
+        endOrderEnds = new long[n];
+        endOrderBegins = new long[n];
+        long[] negatedBegins = new long[n];
+        for (int i = 0; i < n; i++) {
+            byEnd[i] = ids[i];
+            endOrderEnds[i] = targets.ends[ids[i]];
+            endOrderBegins[i] = targets.begins[ids[i]];
+            negatedBegins[i] = -endOrderBegins[i];
+        }
+        maxEndByBegin = new MaxTree(beginOrderEnds);
+        minEndByBegin = new MaxTree(negatedEnds);
+        minBeginByEnd = new MaxTree(negatedBegins);
+    }
+
+    /**
+     * Computes the mapping of a relation between the intervals of two caches.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param expression
+     *            Metric expression, e.g.
+     *            <code>tmp_during(x.begin|end, y.begin|end)</code>
+     * @param relation
+     *            the relation
+     * @return the pairs in relation, with a similarity of 1
+     */
+    public static AMapping getMapping(ACache source, ACache target, String expression, Relation relation) {
+        Parser p = new Parser(expression, 1.0d);
+        String[] sourceProperties = getProperties(p.getLeftTerm());
+        String[] targetProperties = getProperties(p.getRightTerm());
+        IntervalJoin join = new IntervalJoin(Intervals.of(target, targetProperties[0], targetProperties[1]));
+        return join.getMapping(Intervals.of(source, sourceProperties[0], sourceProperties[1]), relation);
+    }
+
+    /**
+     * @param term
+     *            a term of the expression, e.g. <code>x.begin|end</code>
+     * @return the begin and end property of the term
+     * @throws IllegalArgumentException
+     *             if the end property is not declared
+     */
+    private static String[] getProperties(String term) {
+        String[] properties = term.substring(term.indexOf(".") + 1).split("\\|");
+        if (properties.length != 2) {
+            throw new IllegalArgumentException("Expected begin and end properties, found " + term);
+        }
+        return properties;
+    }
+
+    /**
+     * @param sources
+     *            the source intervals
+     * @param relation
+     *            the relation
+     * @return the pairs in relation, with a similarity of 1
+     */
+    public AMapping getMapping(Intervals sources, Relation relation) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        join(sources, relation, (s, t) -> m.add(s, t, 1d));
+        return m;
+    }
+
+    /**
+     * Passes the uris of all pairs of source and target intervals in the
+     * given relation to the consumer.
+     *
+     * @param sources
+     *            the source intervals
+     * @param relation
+     *            the relation
+     * @param consumer
+     *            receives the source and target uri of each pair
+     */
+    public void join(Intervals sources, Relation relation, BiConsumer<String, String> consumer) {
+        for (int i = 0; i < sources.size; i++) {
+            String uri = sources.uris[i];
+            join(sources.begins[i], sources.ends[i], relation, t -> consumer.accept(uri, targets.uris[t]));
+        }
+    }
+
+    /**
+     * Passes the ids of the target intervals in the given relation with the
+     * source interval to the consumer.
+     *
+     * @param begin
+     *            begin of the source interval
+     * @param end
+     *            end of the source interval
+     * @param relation
+     *            the relation
+     * @param consumer
+     *            receives the target ids
+     */
+    public void join(long begin, long end, Relation relation, IntConsumer consumer) {
+        int n = byBegin.length;
+        switch (relation) {
+            case BEFORE:
+                emit(byBegin, upper(beginOrderBegins, end), n, consumer);
+                break;
+            case AFTER:
+                emit(byEnd, 0, lower(endOrderEnds, begin), consumer);
+                break;
+            case MEETS:
+                emit(byBegin, lower(beginOrderBegins, end), upper(beginOrderBegins, end), consumer);
+                break;
+            case IS_MET_BY:
+                emit(byEnd, lower(endOrderEnds, begin), upper(endOrderEnds, begin), consumer);
+                break;
+            case OVERLAPS:
+                maxEndByBegin.forEachAbove(upper(beginOrderBegins, begin), lower(beginOrderBegins, end), end,
+                        i -> consumer.accept(byBegin[i]));
+                break;
+            case IS_OVERLAPPED_BY:
+                minBeginByEnd.forEachAbove(upper(endOrderEnds, begin), lower(endOrderEnds, end), -begin,
+                        i -> consumer.accept(byEnd[i]));
+                break;
+            case STARTS:
+                emit(byBegin, lowerBound(beginOrderBegins, beginOrderEnds, begin, end + 1),
+                        upper(beginOrderBegins, begin), consumer);
+                break;
+            case IS_STARTED_BY:
+                emit(byBegin, lower(beginOrderBegins, begin),
+                        lowerBound(beginOrderBegins, beginOrderEnds, begin, end), consumer);
+                break;
+            case DURING:
+                maxEndByBegin.forEachAbove(0, lower(beginOrderBegins, begin), end, i -> consumer.accept(byBegin[i]));
+                break;
+            case DURING_REVERSE:
+                minEndByBegin.forEachAbove(upper(beginOrderBegins, begin), n, -end, i -> consumer.accept(byBegin[i]));
+                break;
+            case FINISHES:
+                emit(byEnd, lower(endOrderEnds, end), lowerBound(endOrderEnds, endOrderBegins, end, begin),
+                        consumer);
+                break;
+            case IS_FINISHED_BY:
+                emit(byEnd, lowerBound(endOrderEnds, endOrderBegins, end, begin + 1), upper(endOrderEnds, end),
+                        consumer);
+                break;
+            case EQUALS:
+                emit(byBegin, lowerBound(beginOrderBegins, beginOrderEnds, begin, end),
+                        lowerBound(beginOrderBegins, beginOrderEnds, begin, end + 1), consumer);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown relation " + relation);
+        }
+    }
+
+    private static void emit(int[] ids, int from, int to, IntConsumer consumer) {
+        for (int i = from; i < to; i++) {
+            consumer.accept(ids[i]);
+        }
+    }
+
+    // first position whose primary value is at least the given one
+    private static int lower(long[] primary, long value) {
+        return lowerBound(primary, null, value, Long.MIN_VALUE);
+    }
+
+    // first position whose primary value is larger than the given one
+    private static int upper(long[] primary, long value) {
+        return value == Long.MAX_VALUE ? primary.length : lowerBound(primary, null, value + 1, Long.MIN_VALUE);
+    }
+
+    /**
+     * @return the first position whose (primary, secondary) pair is at least
+     *         the given one
+     */
+    private static int lowerBound(long[] primary, long[] secondary, long p, long s) {
+        int low = 0;
+        int high = primary.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (primary[mid] < p || primary[mid] == p && secondary != null && secondary[mid] < s) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Range maximum tree over an array, stored as an implicit binary tree with
+     * the leaves at the end.
+     */
+    private static class MaxTree {
+
+        private final int leaves;
+        private final long[] max;
+
+        MaxTree(long[] values) {
+            int size = 1;
+            while (size < values.length) {
+                size <<= 1;
+            }
+            leaves = size;
+            max = new long[2 * size];
+            Arrays.fill(max, Long.MIN_VALUE);
+            System.arraycopy(values, 0, max, size, values.length);
+            for (int i = size - 1; i > 0; i--) {
+                max[i] = Math.max(max[2 * i], max[2 * i + 1]);
+            }
+        }
+
+        /**
+         * Passes the positions in [from, to) whose value is larger than the
+         * bound to the consumer, in ascending order.
+         */
+        void forEachAbove(int from, int to, long bound, IntConsumer consumer) {
+            if (from < to) {
+                forEachAbove(1, 0, leaves, from, to, bound, consumer);
+            }
+        }
+
+        private void forEachAbove(int node, int low, int high, int from, int to, long bound, IntConsumer consumer) {
+            if (high <= from || to <= low || max[node] <= bound) {
+                return;
+            }
+            if (node >= leaves) {
+                consumer.accept(node - leaves);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            forEachAbove(2 * node, low, mid, from, to, bound, consumer);
+            forEachAbove(2 * node + 1, mid, high, from, to, bound, consumer);
+        }
+    }
+
+    /**
+     * The intervals of the instances of a cache, stored column-wise as epochs
+     * in milliseconds.
+     */
+    public static class Intervals {
+
+        final String[] uris;
+        final long[] begins;
+        final long[] ends;
+        final int size;
+
+        public Intervals(String[] uris, long[] begins, long[] ends) {
+            if (uris.length != begins.length || uris.length != ends.length) {
+                throw new IllegalArgumentException("Uris, begins and ends must have the same length");
+            }
+            this.uris = uris;
+            this.begins = begins;
+            this.ends = ends;
+            this.size = uris.length;
+        }
+
+        /**
+         * @param cache
+         *            the cache
+         * @param beginProperty
+         *            the property holding the begin of the intervals
+         * @param endProperty
+         *            the property holding the end of the intervals
+         * @return the intervals of the instances having both properties
+         */
+        public static Intervals of(ACache cache, String beginProperty, String endProperty) {
+            EpochColumn begins = EpochColumn.get(cache, beginProperty);
+            EpochColumn ends = EpochColumn.get(cache, endProperty);
+            int n = begins.size();
+            String[] uris = new String[n];
+            long[] firstBegins = new long[n];
+            long[] firstEnds = new long[n];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                if (begins.getValueCount(i) == 0 || ends.getValueCount(i) == 0) {
+                    continue;
+                }
+                uris[size] = begins.getInstance(i).getUri();
+                firstBegins[size] = begins.getEpoch(i, 0);
+                firstEnds[size] = ends.getEpoch(i, 0);
+                size++;
+            }
+            return new Intervals(Arrays.copyOf(uris, size), Arrays.copyOf(firstBegins, size),
+                    Arrays.copyOf(firstEnds, size));
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String getUri(int i) {
+            return uris[i];
+        }
+
+        public long getBegin(int i) {
+            return begins[i];
+        }
+
+        public long getEnd(int i) {
+            return ends[i];
+        }
+    }
+}
@@ -18,14 +18,12 @@
 package org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic;
 
 import org.aksw.limes.core.io.cache.ACache;
-import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.temporal.EpochColumn;
 import org.aksw.limes.core.util.datetime.DateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 /**
@@ -102,18 +100,13 @@ public abstract class AAtomicAllenAlgebraMapper {
      * @return the epoch value of the corresponding time stamp
      */
     protected static long getEpoch(String timeStamp) {
-
-        Date date = DateTimeFormat.getDate(timeStamp);
-        long epoch = date.getTime();
-
-        return epoch;
-
+        return DateTimeFormat.getEpoch(timeStamp);
     }
 
     /**
      * Orders a cache of instances based on their begin date property. For each
      * instance, it retrieves its begin date property, converts its value to an
-     * epoch (string) using the SimpleDateFormat function and places the
+     * epoch using the shared {@link EpochColumn} of the cache and places the
      * instance inside the corresponding set("bucket") of instances.
      *
      *
@@ -128,38 +121,19 @@ public abstract class AAtomicAllenAlgebraMapper {
      *         instances (string representation) as values
      */
     protected static TreeMap<Long, Set<String>> orderByBeginDate(ACache cache, String expression, String kbType) {
-        TreeMap<Long, Set<String>> blocks = new TreeMap<Long, Set<String>>();
         Parser p = new Parser(expression, 1.0d);
         String property = null;
         if (kbType.equalsIgnoreCase("source"))
             property = getBeginProperty(p.getLeftTerm());
         else
             property = getBeginProperty(p.getRightTerm());
-
-        for (Instance instance : cache.getAllInstances()) {
-            TreeSet<String> time = instance.getProperty(property);
-
-            for (String value : time) {
-                // 2015-04-22T11:29:51+02:00
-                Date date = DateTimeFormat.getDate(value);
-                long epoch = date.getTime();
-                if (!blocks.containsKey(epoch)) {
-                    Set<String> l = new HashSet<String>();
-                    l.add(instance.getUri());
-                    blocks.put(epoch, l);
-                } else {
-                    blocks.get(epoch).add(instance.getUri());
-                }
-            }
-
-        }
-        return blocks;
+        return order(EpochColumn.get(cache, property));
     }
 
     /**
      * Orders a cache of instances based on their end date property. For each
      * instance, it retrieves its end date property, converts its value to an
-     * epoch (string) using the SimpleDateFormat function and places the
+     * epoch using the shared {@link EpochColumn} of the cache and places the
      * instance inside the corresponding set("bucket") of instances.
      *
      * @param kbType
@@ -176,35 +150,31 @@ public abstract class AAtomicAllenAlgebraMapper {
      *         instances (string representation) as values
      */
     protected static TreeMap<Long, Set<String>> orderByEndDate(ACache cache, String expression, String kbType) {
-        TreeMap<Long, Set<String>> blocks = new TreeMap<Long, Set<String>>();
         Parser p = new Parser(expression, 1.0d);
         String property = null;
         if (kbType.equalsIgnoreCase("source"))
             property = getEndProperty(p.getLeftTerm());
         else
             property = getEndProperty(p.getRightTerm());
+        return order(EpochColumn.get(cache, property));
+    }
 
-        for (Instance instance : cache.getAllInstances()) {
-            TreeSet<String> time = instance.getProperty(property);
-
-            for (String value : time) {
-                try {
-                    // 2015-04-22T11:29:51+02:00
-                    SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
-                    Date date = df.parse(value);
-                    long epoch = date.getTime();
-                    if (!blocks.containsKey(epoch)) {
-                        Set<String> l = new HashSet<String>();
-                        l.add(instance.getUri());
-                        blocks.put(epoch, l);
-                    } else {
-                        blocks.get(epoch).add(instance.getUri());
-                    }
-                } catch (ParseException e) {
-                    e.printStackTrace();
-                }
+    /**
+     * Places the instances of a column into the sets ("buckets") of their
+     * epochs.
+     *
+     * @param column,
+     *            The parsed dates
+     * @return blocks, a map of sets with unique dates as keys and set of
+     *         instances (string representation) as values
+     */
+    private static TreeMap<Long, Set<String>> order(EpochColumn column) {
+        TreeMap<Long, Set<String>> blocks = new TreeMap<Long, Set<String>>();
+        for (int i = 0; i < column.size(); i++) {
+            for (int k = 0; k < column.getValueCount(i); k++) {
+                blocks.computeIfAbsent(column.getEpoch(i, k), e -> new HashSet<String>())
+                        .add(column.getInstance(i).getUri());
             }
-
         }
         return blocks;
     }
@@ -21,8 +21,7 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.AllenAlgebraMapper;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginBegin;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.IntervalJoin;
 
 import java.util.*;
 
@@ -97,24 +96,15 @@ public class DuringReverseMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that occurred
-     * during the aforementioned source instance, using the BeginBegin and
-     * EndEnd atomic Allen relations.
+     * during the aforementioned source instance, by an interval join over
+     * the begin and end dates, see {@link IntervalJoin}.
      *
      * @return a mapping, the resulting mapping
      */
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
-        ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        // BB1 \\ (EE0 U EE1)
-        maps.add(bb.getPredecessorEvents(source, target, expression));
-        maps.add(ee.getConcurrentEvents(source, target, expression));
-        maps.add(ee.getPredecessorEvents(source, target, expression));
-
-        AMapping m = getMapping(maps);
-        return m;
+        return IntervalJoin.getMapping(source, target, expression, IntervalJoin.Relation.DURING_REVERSE);
     }
 
     /**
@@ -21,8 +21,7 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.AllenAlgebraMapper;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginBegin;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.IntervalJoin;
 
 import java.util.*;
 
@@ -54,8 +53,8 @@ public class FinishesMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that began before
-     * the aforementioned source instance but finished at the same time, using
-     * the BeginBegin and EndEnd atomic Allen relations. The mapping contains
+     * the aforementioned source instance but finished at the same time, by an
+     * interval join over the begin and end dates, see {@link IntervalJoin}. The mapping contains
      * 1-to-m relations. A source event is linked to a target event if the begin
      * date of the source event is higher than the begin date of the target
      * event and if the end date of the source event is the same as the end date
@@ -99,24 +98,15 @@ public class FinishesMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that began before
-     * the aforementioned source instance but finished at the same time, using
-     * the BeginBegin and EndEnd atomic Allen relations.
+     * the aforementioned source instance but finished at the same time, by an
+     * interval join over the begin and end dates, see {@link IntervalJoin}.
      *
      * @return a mapping, the resulting mapping
      */
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
-        ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        // EE0 \\ (BB0 U BB1)
-        maps.add(ee.getConcurrentEvents(source, target, expression));
-        maps.add(bb.getConcurrentEvents(source, target, expression));
-        maps.add(bb.getPredecessorEvents(source, target, expression));
-
-        AMapping m = getMapping(maps);
-        return m;
+        return IntervalJoin.getMapping(source, target, expression, IntervalJoin.Relation.FINISHES);
     }
 
     /**
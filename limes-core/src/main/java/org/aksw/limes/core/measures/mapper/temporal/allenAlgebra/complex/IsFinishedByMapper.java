@@ -21,8 +21,7 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.AllenAlgebraMapper;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginBegin;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.IntervalJoin;
 
 import java.util.*;
 
@@ -53,8 +52,8 @@ public class IsFinishedByMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that began after
-     * the aforementioned source instance but finished at the same time, using
-     * the BeginBegin and EndEnd atomic Allen relations. The mapping contains
+     * the aforementioned source instance but finished at the same time, by an
+     * interval join over the begin and end dates, see {@link IntervalJoin}. The mapping contains
      * 1-to-m relations. A source event is linked to a target event if the begin
      * date of the source event is lower than the begin date of the target event
      * and if the end date of the source event is the same as the end date of
@@ -90,23 +89,15 @@ public class IsFinishedByMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that began after
-     * the aforementioned source instance but finished at the same time, using
-     * the BeginBegin and EndEnd atomic Allen relations.
+     * the aforementioned source instance but finished at the same time, by an
+     * interval join over the begin and end dates, see {@link IntervalJoin}.
      *
      * @return a mapping, the resulting mapping
      */
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
-        ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        // BB1 & EE0
-        maps.add(bb.getPredecessorEvents(source, target, expression));
-        maps.add(ee.getConcurrentEvents(source, target, expression));
-
-        AMapping m = getMapping(maps);
-        return m;
+        return IntervalJoin.getMapping(source, target, expression, IntervalJoin.Relation.IS_FINISHED_BY);
     }
 
     /**
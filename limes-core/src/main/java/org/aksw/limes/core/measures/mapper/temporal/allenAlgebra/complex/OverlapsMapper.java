@@ -21,9 +21,7 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.AllenAlgebraMapper;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginBegin;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndBegin;
-import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.IntervalJoin;
 
 import java.util.*;
 
@@ -101,27 +99,15 @@ public class OverlapsMapper extends AllenAlgebraMapper {
 
     /**
      * Maps each source instance to a set of target instances that is overlapped
-     * by the aforementioned source instance, using the EndBegin, BeginBegin and
-     * EndEnd Allen relations.
+     * by the aforementioned source instance, by an interval join over
+     * the begin and end dates, see {@link IntervalJoin}.
      *
      * @return a mapping, the resulting mapping
      */
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
                                double threshold) {
-        ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        EndBegin eb = new EndBegin();
-        // (BB1 & EE1) \ (EB0 U EB1)
-        maps.add(bb.getPredecessorEvents(source, target, expression));
-        maps.add(ee.getPredecessorEvents(source, target, expression));
-
-        maps.add(eb.getConcurrentEvents(source, target, expression));
-        maps.add(eb.getPredecessorEvents(source, target, expression));
-
-        AMapping m = getMapping(maps);
-        return m;
+        return IntervalJoin.getMapping(source, target, expression, IntervalJoin.Relation.OVERLAPS);
     }
 
     /**
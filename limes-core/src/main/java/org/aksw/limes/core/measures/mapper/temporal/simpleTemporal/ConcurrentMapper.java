@@ -22,12 +22,15 @@ import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.temporal.EpochColumn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 /**
  * Implements the concurrent mapper class.
@@ -43,7 +46,9 @@ public class ConcurrentMapper extends SimpleTemporalMapper {
      * Maps a set of source instances to their concurrent target instances. The
      * mapping contains 1-to-m relations. Each source instance takes as
      * concurrent events the set of target instances with the same begin date
-     * property and the same machine id property of the source instance.
+     * property and the same machine id property of the source instance. The
+     * target instances are hashed by their (begin date, machine id) pairs, so
+     * that every source instance is matched by a single lookup.
      *
      * @return a mapping, the resulting mapping
      */
@@ -53,22 +58,28 @@ public class ConcurrentMapper extends SimpleTemporalMapper {
         AMapping m = MappingFactory.createDefaultMapping();
         Parser p = new Parser(expression, threshold);
 
-        TreeMap<String, Set<Instance>> sources = this.orderByBeginDate(source, expression, "source");
-        TreeMap<String, Set<Instance>> targets = this.orderByBeginDate(target, expression, "target");
+        EpochColumn sources = this.getBeginDates(source, expression, "source");
+        EpochColumn targets = this.getBeginDates(target, expression, "target");
         String machineIDSource = this.getSecondProperty(p.getLeftTerm());
         String machineIDTarget = this.getSecondProperty(p.getRightTerm());
 
-
-        for (Map.Entry<String, Set<Instance>> sourceEntry : sources.entrySet()) {
-            String epochSource = sourceEntry.getKey();
-
-            Set<Instance> targetInstances = targets.get(epochSource);
-            if (targetInstances != null) {
-                Set<Instance> sourceInstances = sourceEntry.getValue();
-                for (Instance i : sourceInstances) {
-                    for (Instance j : targetInstances) {
-                        if (i.getProperty(machineIDSource).equals(j.getProperty(machineIDTarget)))
-                            m.add(i.getUri(), j.getUri(), 1);
+        Map<Event, List<String>> index = new HashMap<>();
+        for (int j = 0; j < targets.size(); j++) {
+            Instance instance = targets.getInstance(j);
+            Set<String> machineID = instance.getProperty(machineIDTarget);
+            for (int k = 0; k < targets.getValueCount(j); k++) {
+                index.computeIfAbsent(new Event(targets.getEpoch(j, k), machineID), e -> new ArrayList<>())
+                        .add(instance.getUri());
+            }
+        }
+        for (int i = 0; i < sources.size(); i++) {
+            Instance instance = sources.getInstance(i);
+            Set<String> machineID = instance.getProperty(machineIDSource);
+            for (int k = 0; k < sources.getValueCount(i); k++) {
+                List<String> uris = index.get(new Event(sources.getEpoch(i, k), machineID));
+                if (uris != null) {
+                    for (String uri : uris) {
+                        m.add(instance.getUri(), uri, 1);
                     }
                 }
             }
@@ -77,6 +88,34 @@ public class ConcurrentMapper extends SimpleTemporalMapper {
         return m;
     }
 
+    // begin date and machine id of an instance, the key of the hash join
+    private static class Event {
+
+        private final long epoch;
+        private final Set<String> machineID;
+        private final int hash;
+
+        Event(long epoch, Set<String> machineID) {
+            this.epoch = epoch;
+            this.machineID = machineID;
+            this.hash = 31 * Long.hashCode(epoch) + machineID.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Event)) {
+                return false;
+            }
+            Event other = (Event) obj;
+            return epoch == other.epoch && machineID.equals(other.machineID);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -21,10 +21,14 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.temporal.EpochColumn;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Abstract class of simple temporal relations mapper.
@@ -71,8 +75,9 @@ public abstract class SimpleTemporalMapper extends AMapper implements ISimpleTem
     /**
      * Orders a cache of instances based on their begin date property. For each
      * instance, it retrieves its begin date property, converts its value to an
-     * epoch (string) using the SimpleDateFormat function and places the
-     * instance inside the corresponding set("bucket") of instances.
+     * epoch using the shared {@link EpochColumn} of the cache and places the
+     * instance inside the corresponding set("bucket") of instances. The blocks
+     * are ordered by their epochs.
      *
      * @param cache,
      *            the cache of instances
@@ -84,38 +89,131 @@ public abstract class SimpleTemporalMapper extends AMapper implements ISimpleTem
      * @return blocks, a map of sets with unique begin dates as keys and set of
      *         instances as values
      */
-    protected TreeMap<String, Set<Instance>> orderByBeginDate(ACache cache, String expression, String kbType) {
+    protected TreeMap<Long, Set<Instance>> orderByBeginDate(ACache cache, String expression, String kbType) {
+        TreeMap<Long, Set<Instance>> blocks = new TreeMap<Long, Set<Instance>>();
+        EpochColumn column = getBeginDates(cache, expression, kbType);
+        for (int i = 0; i < column.size(); i++) {
+            for (int k = 0; k < column.getValueCount(i); k++) {
+                blocks.computeIfAbsent(column.getEpoch(i, k), e -> new HashSet<Instance>()).add(column.getInstance(i));
+            }
+        }
+        return blocks;
+    }
 
-        TreeMap<String, Set<Instance>> blocks = new TreeMap<String, Set<Instance>>();
+    /**
+     * Returns the shared {@link EpochColumn} of the begin date property of a
+     * cache.
+     *
+     * @param cache,
+     *            the cache of instances
+     * @param expression,
+     *            the metric expression
+     * @param kbType,
+     *            source or target
+     *
+     * @return the epochs of the begin dates of the instances
+     */
+    protected EpochColumn getBeginDates(ACache cache, String expression, String kbType) {
         Parser p = new Parser(expression, 0.0d);
         String property = null;
         if (kbType.equalsIgnoreCase("source"))
             property = getFirstProperty(p.getLeftTerm());
         else
             property = getFirstProperty(p.getRightTerm());
-        for (Instance instance : cache.getAllInstances()) {
-            TreeSet<String> time = instance.getProperty(property);
-            for (String value : time) {
-                try {
-                    // 2015-04-22T11:29:51+02:00
-                    SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
-                    Date date = df.parse(value);
-                    long epoch = date.getTime();
-                    if (!blocks.containsKey(String.valueOf(epoch))) {
-                        Set<Instance> l = new HashSet<Instance>();
-                        l.add(instance);
-                        blocks.put(String.valueOf(epoch), l);
-                    } else {
-                        blocks.get(String.valueOf(epoch)).add(instance);
-                    }
-                } catch (ParseException e) {
-                    e.printStackTrace();
+        return EpochColumn.get(cache, property);
+    }
+
+    /**
+     * Distinct begin dates of a cache in ascending order, each with the uris
+     * of the instances that begin at it, stored in flat arrays so that the
+     * closest begin date to an epoch can be found by binary search.
+     */
+    protected static class SortedEpochs {
+
+        private final long[] epochs;
+        // the uris of the i-th epoch are uris[starts[i]] to uris[starts[i + 1] - 1]
+        private final int[] starts;
+        private final String[] uris;
+
+        protected SortedEpochs(EpochColumn column) {
+            int n = 0;
+            for (int i = 0; i < column.size(); i++) {
+                n += column.getValueCount(i);
+            }
+            long[] all = new long[n];
+            int[] owners = new int[n];
+            n = 0;
+            for (int i = 0; i < column.size(); i++) {
+                for (int k = 0; k < column.getValueCount(i); k++) {
+                    all[n] = column.getEpoch(i, k);
+                    owners[n++] = i;
+                }
+            }
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> all[i]));
+            long[] epochs = new long[n];
+            int[] starts = new int[n + 1];
+            this.uris = new String[n];
+            int groups = 0;
+            for (int j = 0; j < n; j++) {
+                long epoch = all[order[j]];
+                if (groups == 0 || epochs[groups - 1] != epoch) {
+                    epochs[groups] = epoch;
+                    starts[groups++] = j;
                 }
+                uris[j] = column.getInstance(owners[order[j]]).getUri();
             }
+            starts[groups] = n;
+            this.epochs = Arrays.copyOf(epochs, groups);
+            this.starts = Arrays.copyOf(starts, groups + 1);
+        }
 
+        /**
+         * @return the number of distinct epochs
+         */
+        protected int size() {
+            return epochs.length;
+        }
+
+        /**
+         * @param epoch
+         *            an epoch
+         * @return the index of the highest epoch lower than the given one, or
+         *         -1 if there is none
+         */
+        protected int lower(long epoch) {
+            int i = Arrays.binarySearch(epochs, epoch);
+            return (i >= 0 ? i : -i - 1) - 1;
         }
-        return blocks;
 
+        /**
+         * @param epoch
+         *            an epoch
+         * @return the index of the lowest epoch higher than the given one, or
+         *         {@link #size()} if there is none
+         */
+        protected int higher(long epoch) {
+            int i = Arrays.binarySearch(epochs, epoch);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+
+        /**
+         * Passes the uris of the instances beginning at the i-th epoch to the
+         * consumer.
+         *
+         * @param i
+         *            the index of an epoch
+         * @param consumer
+         *            receives the uris
+         */
+        protected void forEachUri(int i, Consumer<String> consumer) {
+            for (int j = starts[i]; j < starts[i + 1]; j++) {
+                consumer.accept(uris[j]);
+            }
+        }
     }
 
 }
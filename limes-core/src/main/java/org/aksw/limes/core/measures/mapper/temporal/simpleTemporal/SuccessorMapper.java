@@ -18,13 +18,9 @@
 package org.aksw.limes.core.measures.mapper.temporal.simpleTemporal;
 
 import org.aksw.limes.core.io.cache.ACache;
-import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
-
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import org.aksw.limes.core.measures.mapper.temporal.EpochColumn;
 
 /**
  * Implements the successor mapper class.
@@ -38,7 +34,9 @@ public class SuccessorMapper extends SimpleTemporalMapper {
      * Maps a set of source instances to their successor target instances. The
      * mapping contains 1-to-m relations. Each source instance takes as
      * successors the set of target instances with the lowest begin date that is
-     * higher than the begin date of the source instance.
+     * higher than the begin date of the source instance. The distinct target
+     * begin dates are sorted once and searched by binary search for every
+     * source begin date.
      *
      * @return a mapping, the resulting mapping
      */
@@ -47,20 +45,15 @@ public class SuccessorMapper extends SimpleTemporalMapper {
                                double threshold) {
         AMapping m = MappingFactory.createDefaultMapping();
 
-        TreeMap<String, Set<Instance>> sources = this.orderByBeginDate(source, expression, "source");
-        TreeMap<String, Set<Instance>> targets = this.orderByBeginDate(target, expression, "target");
-
-        for (Map.Entry<String, Set<Instance>> sourceEntry : sources.entrySet()) {
-            String epochSource = sourceEntry.getKey();
+        EpochColumn sources = this.getBeginDates(source, expression, "source");
+        SortedEpochs targets = new SortedEpochs(this.getBeginDates(target, expression, "target"));
 
-            String higherEpoch = targets.higherKey(epochSource);
-            if (higherEpoch != null) {
-                Set<Instance> sourceInstances = sourceEntry.getValue();
-                Set<Instance> targetInstances = targets.get(higherEpoch);
-                for (Instance i : sourceInstances) {
-                    for (Instance j : targetInstances) {
-                        m.add(i.getUri(), j.getUri(), 1);
-                    }
+        for (int i = 0; i < sources.size(); i++) {
+            String uri = sources.getInstance(i).getUri();
+            for (int k = 0; k < sources.getValueCount(i); k++) {
+                int g = targets.higher(sources.getEpoch(i, k));
+                if (g < targets.size()) {
+                    targets.forEachUri(g, t -> m.add(uri, t, 1));
                 }
             }
         }
@@ -21,19 +21,26 @@ import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.GeometryCache;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
-import org.aksw.limes.core.util.LimesWktReader;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.locationtech.jts.io.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  *
@@ -47,8 +54,22 @@ public class RADON {
         public final static String MIN = "min";
         public final static String MAX = "max";
         public final static String MED = "median";
+        public final static String SAMPLE = "sample";
         public static boolean swap = false;
 
+        // number of envelopes kept for the sampled cost model
+        static final int SAMPLE_SIZE = 1000;
+        // the candidate cell sizes are the average extents times 2^k, |k| <= 4
+        private static final int MAX_SCALE_STEPS = 4;
+        // relative cost of a relate() call compared to visiting a pair or a cell
+        private static final double RELATE_COST = 10;
+        // resolutions needing more cells or pair visits on the samples are skipped
+        private static final long MAX_SAMPLE_CELLS = 1L << 18;
+        private static final long MAX_SAMPLE_VISITS = 1L << 22;
+        // ratio between the largest and the median extent of the geometries
+        // above which the data is considered to be of mixed scale
+        private static final double MIXED_SCALE_RATIO = 64;
+
         public static double[] decideForTheta(GridSizeHeuristics s, GridSizeHeuristics t, String measure) {
             double[] stats;
             switch (measure) {
@@ -61,6 +82,9 @@ public class RADON {
                 case MED:
                     stats = new double[] { s.medX, s.medY, t.medX, t.medY };
                     break;
+                case SAMPLE:
+                    stats = new double[] { s.avgX, s.avgY, t.avgX, t.avgY };
+                    break;
                 case MIN:
                 default:
                     stats = new double[] { s.minX, s.minY, t.minX, t.minY };
@@ -70,9 +94,127 @@ public class RADON {
             // we want to swap towards the smallest area coverage to optimizethe
             // number of comparisons
             swap = estAreaS > estAreaT;
+            if (measure.equals(SAMPLE)) {
+                return sampleTheta(s, t);
+            }
             return new double[] { (2.0d) / (stats[0] + stats[2]), (2.0d) / (stats[1] + stats[3]) };
         }
 
+        /**
+         * Chooses the grid resolution minimizing the cost estimated on the
+         * samples of both datasets. The candidate cell sizes are multiples of
+         * the average extents by powers of 2. The cost of a resolution is the
+         * number of index entries and pair visits plus the weighted number of
+         * distinct candidate pairs, i.e. relate() calls, each scaled from the
+         * samples to the full datasets.
+         */
+        private static double[] sampleTheta(GridSizeHeuristics s, GridSizeHeuristics t) {
+            double cellX = (s.avgX + t.avgX) / 2.0d;
+            double cellY = (s.avgY + t.avgY) / 2.0d;
+            // points or lines have no extent in one or both dimensions
+            if (!(cellX > 0)) {
+                cellX = fallbackCellSize(s.spanX, t.spanX, s.size + t.size);
+            }
+            if (!(cellY > 0)) {
+                cellY = fallbackCellSize(s.spanY, t.spanY, s.size + t.size);
+            }
+            double[] best = new double[] { 1.0d / cellX, 1.0d / cellY };
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int k = -MAX_SCALE_STEPS; k <= MAX_SCALE_STEPS; k++) {
+                double thetaX = 1.0d / (cellX * Math.pow(2, k));
+                double thetaY = 1.0d / (cellY * Math.pow(2, k));
+                double cost = estimateCost(s, t, thetaX, thetaY);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = new double[] { thetaX, thetaY };
+                }
+            }
+            return best;
+        }
+
+        private static double fallbackCellSize(double spanS, double spanT, double size) {
+            double span = Math.max(spanS, spanT);
+            return span > 0 ? span / Math.sqrt(size) : 1.0d;
+        }
+
+        /**
+         * Estimates the cost of matching on a grid by replaying the indexing
+         * and the scheduling loop of RADON on the samples.
+         *
+         * @return the estimated cost, infinite if the resolution is too fine
+         *         to be evaluated on the samples
+         */
+        static double estimateCost(GridSizeHeuristics s, GridSizeHeuristics t, double thetaX, double thetaY) {
+            double cellsS = cellCount(s.sample, thetaX, thetaY);
+            double cellsT = cellCount(t.sample, thetaX, thetaY);
+            if (cellsS > MAX_SAMPLE_CELLS || cellsT > MAX_SAMPLE_CELLS) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double scaleS = s.size / s.sample.length;
+            double scaleT = t.size / t.sample.length;
+            Map<Long, List<Integer>> cells = new HashMap<>();
+            for (int i = 0; i < s.sample.length; i++) {
+                int[] r = cellRange(s.sample[i], thetaX, thetaY);
+                for (int lat = r[0]; lat <= r[1]; lat++) {
+                    for (int lon = r[2]; lon <= r[3]; lon++) {
+                        cells.computeIfAbsent(cellKey(lat, lon), k -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+            Set<Long> pairs = new HashSet<>();
+            long entries = 0;
+            long visits = 0;
+            for (int j = 0; j < t.sample.length; j++) {
+                int[] r = cellRange(t.sample[j], thetaX, thetaY);
+                for (int lat = r[0]; lat <= r[1]; lat++) {
+                    for (int lon = r[2]; lon <= r[3]; lon++) {
+                        List<Integer> members = cells.get(cellKey(lat, lon));
+                        if (members == null) {
+                            continue;
+                        }
+                        entries++;
+                        visits += members.size();
+                        if (visits > MAX_SAMPLE_VISITS) {
+                            return Double.POSITIVE_INFINITY;
+                        }
+                        for (int i : members) {
+                            pairs.add((long) i * t.sample.length + j);
+                        }
+                    }
+                }
+            }
+            return cellsS * scaleS + (cellsT + entries) * scaleT
+                    + (visits + RELATE_COST * pairs.size()) * scaleS * scaleT;
+        }
+
+        private static int[] cellRange(Envelope e, double thetaX, double thetaY) {
+            return new int[] { (int) Math.floor(e.getMinY() * thetaY), (int) Math.ceil(e.getMaxY() * thetaY),
+                    (int) Math.floor(e.getMinX() * thetaX), (int) Math.ceil(e.getMaxX() * thetaX) };
+        }
+
+        private static long cellKey(int lat, int lon) {
+            return ((long) lat << 32) ^ (lon & 0xffffffffL);
+        }
+
+        private static double cellCount(Envelope[] sample, double thetaX, double thetaY) {
+            double count = 0;
+            for (Envelope e : sample) {
+                count += (Math.ceil(e.getMaxY() * thetaY) - Math.floor(e.getMinY() * thetaY) + 1)
+                        * (Math.ceil(e.getMaxX() * thetaX) - Math.floor(e.getMinX() * thetaX) + 1);
+            }
+            return count;
+        }
+
+        /**
+         * @return true if the extents of the geometries of both datasets vary
+         *         so much that no single grid resolution fits them
+         */
+        public static boolean isMixedScale(GridSizeHeuristics s, GridSizeHeuristics t) {
+            double low = Math.min(s.lowScale, t.lowScale);
+            double high = Math.max(s.highScale, t.highScale);
+            return low > 0 && high / low > MIXED_SCALE_RATIO;
+        }
+
         private double size;
         private double minX;
         private double maxX;
@@ -82,18 +224,44 @@ public class RADON {
         private double maxY;
         private double avgY;
         private double medY;
+        private double spanX;
+        private double spanY;
+        // median of the positive and maximum of the larger extent of the
+        // envelopes
+        private double lowScale;
+        private double highScale;
+        private Envelope[] sample;
 
         public GridSizeHeuristics(Collection<Geometry> input) {
             double[] x = new double[input.size()];
             double[] y = new double[input.size()];
+            double[] scales = new double[input.size()];
+            // every step-th envelope is sampled
+            int step = Math.max(1, input.size() / SAMPLE_SIZE);
+            this.sample = new Envelope[(input.size() + step - 1) / step];
+            Envelope bounds = new Envelope();
             int i = 0;
             for (Geometry geometry : input) {
                 Envelope e = geometry.getEnvelopeInternal();
                 y[i] = e.getHeight();
                 x[i] = e.getWidth();
+                scales[i] = Math.max(x[i], y[i]);
+                if (i % step == 0) {
+                    sample[i / step] = e;
+                }
+                bounds.expandToInclude(e);
                 i++;
             }
             this.size = input.size();
+            this.spanX = bounds.getWidth();
+            this.spanY = bounds.getHeight();
+            Arrays.sort(scales);
+            int positive = scales.length;
+            while (positive > 0 && scales[scales.length - positive] <= 0) {
+                positive--;
+            }
+            this.lowScale = positive == 0 ? 0 : scales[scales.length - positive + positive / 2];
+            this.highScale = scales[scales.length - 1];
             Arrays.sort(x);
             this.minX = x[0];
             this.maxX = x[x.length - 1];
@@ -151,12 +319,73 @@ public class RADON {
 
     }
 
+    /**
+     * Source and target geometries to be matched on a grid of the given
+     * resolution.
+     */
+    static class Grid {
+
+        final Map<String, Geometry> source;
+        final Map<String, Geometry> target;
+        final double thetaX;
+        final double thetaY;
+
+        Grid(Map<String, Geometry> source, Map<String, Geometry> target, double thetaX, double thetaY) {
+            this.source = source;
+            this.target = target;
+            this.thetaX = thetaX;
+            this.thetaY = thetaY;
+        }
+    }
+
+    /**
+     * Splits the matching into grids. Usually, this is a single grid with the
+     * given resolution. If {@link #hierarchicalGrids} is set and the data is
+     * of mixed scale (see {@link GridSizeHeuristics#isMixedScale}), the
+     * geometries are assigned to levels by their extent instead, the cell
+     * size growing by 4 from one level to the next like in a quadtree, and
+     * each pair of a source and a target level is matched on the grid of the
+     * coarser level. Thus small geometries are not indexed in a grid sized
+     * for large ones, nor large ones in myriads of small cells.
+     *
+     * @return the grids, each pair of geometries is in at most one of them
+     */
+    static List<Grid> getGrids(Map<String, Geometry> sourceData, Map<String, Geometry> targetData,
+                               GridSizeHeuristics s, GridSizeHeuristics t, double[] theta) {
+        if (!hierarchicalGrids || !GridSizeHeuristics.isMixedScale(s, t)) {
+            return Collections.singletonList(new Grid(sourceData, targetData, theta[0], theta[1]));
+        }
+        double base = Math.min(s.lowScale, t.lowScale);
+        TreeMap<Integer, Map<String, Geometry>> sourceLevels = getLevels(sourceData, base);
+        TreeMap<Integer, Map<String, Geometry>> targetLevels = getLevels(targetData, base);
+        List<Grid> grids = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Geometry>> sourceLevel : sourceLevels.entrySet()) {
+            for (Map.Entry<Integer, Map<String, Geometry>> targetLevel : targetLevels.entrySet()) {
+                double cell = base * Math.pow(4, Math.max(sourceLevel.getKey(), targetLevel.getKey()));
+                grids.add(new Grid(sourceLevel.getValue(), targetLevel.getValue(), 1.0d / cell, 1.0d / cell));
+            }
+        }
+        return grids;
+    }
+
+    private static TreeMap<Integer, Map<String, Geometry>> getLevels(Map<String, Geometry> data, double base) {
+        TreeMap<Integer, Map<String, Geometry>> levels = new TreeMap<>();
+        for (Map.Entry<String, Geometry> e : data.entrySet()) {
+            Envelope envelope = e.getValue().getEnvelopeInternal();
+            double scale = Math.max(envelope.getWidth(), envelope.getHeight());
+            int level = scale <= base ? 0 : (int) Math.ceil(Math.log(scale / base) / Math.log(4));
+            levels.computeIfAbsent(level, k -> new HashMap<>()).put(e.getKey(), e.getValue());
+        }
+        return levels;
+    }
+
     public static class MBBIndex {
 
         public int lat1, lat2, lon1, lon2;
         public Geometry polygon;
         private String uri;
         private String origin_uri;
+        private volatile PreparedGeometry prepared;
 
         public MBBIndex(int lat1, int lon1, int lat2, int lon2, Geometry polygon, String uri) {
             this.lat1 = lat1;
@@ -178,6 +407,19 @@ public class RADON {
             this.origin_uri = origin_uri;
         }
 
+        /**
+         * @return the polygon, prepared on first use for repeated predicate
+         *         evaluation
+         */
+        public PreparedGeometry getPrepared() {
+            PreparedGeometry p = prepared;
+            if (p == null) {
+                p = PreparedGeometryFactory.prepare(polygon);
+                prepared = p;
+            }
+            return p;
+        }
+
         public boolean contains(MBBIndex i) {
             return this.lat1 <= i.lat1 && this.lon1 <= i.lon1 && this.lon2 >= i.lon2 && this.lat2 >= i.lat2;
         }
@@ -253,7 +495,7 @@ public class RADON {
             for (int i = 0; i < scheduled.size(); i += 2) {
                 MBBIndex s = scheduled.get(i);
                 MBBIndex t = scheduled.get(i + 1);
-                if (relate(s.polygon, t.polygon, relation)) {
+                if (relate(s, t, relation)) {
                     if (!temp.containsKey(s.origin_uri)) {
                         temp.put(s.origin_uri, new HashSet<>());
                     }
@@ -274,6 +516,31 @@ public class RADON {
             return scheduled.size();
         }
 
+        /**
+         * Evaluates a relation on two indexed geometries. If
+         * {@link RADON#usePreparedGeometries} is set, intersects, contains,
+         * covers, within and coveredby are evaluated on the prepared
+         * geometry of the side that is queried repeatedly, all other
+         * relations on the full DE-9IM matrix.
+         */
+        private static boolean relate(MBBIndex a, MBBIndex b, String relation) {
+            if (usePreparedGeometries) {
+                switch (relation) {
+                    case INTERSECTS:
+                        return a.getPrepared().intersects(b.polygon);
+                    case CONTAINS:
+                        return a.getPrepared().contains(b.polygon);
+                    case COVERS:
+                        return a.getPrepared().covers(b.polygon);
+                    case WITHIN:
+                        return b.getPrepared().contains(a.polygon);
+                    case COVEREDBY:
+                        return b.getPrepared().covers(a.polygon);
+                }
+            }
+            return relate(a.polygon, b.polygon, relation);
+        }
+
         private static Boolean relate(Geometry geometry1, Geometry geometry2, String relation) {
             switch (relation) {
                 case EQUALS:
@@ -344,26 +611,18 @@ public class RADON {
     public static final String OVERLAPS = "overlaps";
     public static final String COVERS = "covers";
     public static final String COVEREDBY = "coveredby";
-    // best measure according to our evaluation in the RADON paper
-    public static String heuristicStatMeasure = "avg";
+    // "avg" was the best statistic in the evaluation of the RADON paper, the
+    // sampled cost model refines it per dataset
+    public static String heuristicStatMeasure = GridSizeHeuristics.SAMPLE;
+    // match data of mixed scale level by level on several grids
+    public static boolean hierarchicalGrids = true;
+    // evaluate the common relations on prepared geometries
+    public static boolean usePreparedGeometries = true;
 
     private static final Logger logger = LoggerFactory.getLogger(RADON.class);
 
     public static Map<String, Geometry> getGeometryMapFromCache(ACache c, String property) {
-        LimesWktReader wktReader = new LimesWktReader();
-        Map<String, Geometry> gMap = new HashMap<>();
-        for (String uri : c.getAllUris()) {
-            Set<String> values = c.getInstance(uri).getProperty(property);
-            if (values.size() > 0) {
-                String wkt = values.iterator().next();
-                try {
-                    gMap.put(uri, wktReader.read(wkt));
-                } catch (ParseException e) {
-                    logger.warn("Skipping malformed geometry at " + uri + "...");
-                }
-            }
-        }
-        return gMap;
+        return GeometryCache.getGeometries(c, property);
     }
 
     public static AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar,
@@ -400,8 +659,7 @@ public class RADON {
 
     public static AMapping getMapping(Map<String, Geometry> sourceData, Map<String, Geometry> targetData,
                                       String relation) {
-        double thetaX, thetaY;
-        int numThreads = new Double(Math.ceil((double) Runtime.getRuntime().availableProcessors() / 2.0d)).intValue();
+        int numThreads = (int) Math.ceil(Runtime.getRuntime().availableProcessors() / 2.0);
         // Relation thats actually used for computation.
         // Might differ from input relation when swapping occurs or the input
         // relation is 'disjoint'.
@@ -417,8 +675,6 @@ public class RADON {
         GridSizeHeuristics heuristicsS = new GridSizeHeuristics(sourceData.values());
         GridSizeHeuristics heuristicsT = new GridSizeHeuristics(targetData.values());
         double[] theta = GridSizeHeuristics.decideForTheta(heuristicsS, heuristicsT, heuristicStatMeasure);
-        thetaX = theta[0];
-        thetaY = theta[1];
         // swap smaller dataset to source
         // if swap is necessary is decided in Stats.decideForTheta([...])!
         Map<String, Geometry> swap;
@@ -443,50 +699,60 @@ public class RADON {
             }
         }
 
-        // set up indexes
-        SquareIndex sourceIndex = index(sourceData, null, thetaX, thetaY);
-        SquareIndex targetIndex = index(targetData, sourceIndex, thetaX, thetaY);
-
         // execute matching
         ExecutorService matchExec = Executors.newFixedThreadPool(numThreads);
-        ExecutorService mergerExec = Executors.newFixedThreadPool(1);
+        CompletionService<Void> completion = new ExecutorCompletionService<>(matchExec);
+        int pending = 0;
         AMapping m = MappingFactory.createDefaultMapping();
         List<Map<String, Set<String>>> results = Collections.synchronizedList(new ArrayList<>());
         Map<String, Set<String>> computed = new HashMap<>();
         Matcher matcher = new Matcher(rel, results);
 
-        for (Integer lat : sourceIndex.map.keySet()) {
-            for (Integer lon : sourceIndex.map.get(lat).keySet()) {
-                List<MBBIndex> source = sourceIndex.getSquare(lat, lon);
-                List<MBBIndex> target = targetIndex.getSquare(lat, lon);
-                if (target != null && target.size() > 0) {
-                    for (MBBIndex a : source) {
-                        if (!computed.containsKey(a.uri))
-                            computed.put(a.uri, new HashSet<>());
-                        for (MBBIndex b : target) {
-                            if (!computed.get(a.uri).contains(b.uri)) {
-                                computed.get(a.uri).add(b.uri);
-                                boolean compute = (rel.equals(COVERS) && a.covers(b))
-                                        || (rel.equals(COVEREDBY) && b.covers(a))
-                                        || (rel.equals(CONTAINS) && a.contains(b))
-                                        || (rel.equals(WITHIN) && b.contains(a)) || (rel.equals(EQUALS) && a.equals(b))
-                                        || rel.equals(INTERSECTS) || rel.equals(CROSSES) || rel.equals(TOUCHES)
-                                        || rel.equals(OVERLAPS);
-                                if (compute) {
-                                    if (numThreads == 1) {
-                                        if (Matcher.relate(a.polygon, b.polygon, rel)) {
-                                            if (swapped)
-                                                m.add(b.origin_uri, a.origin_uri, 1.0);
-                                            else
-                                                m.add(a.origin_uri, b.origin_uri, 1.0);
-                                        }
-                                    } else {
-                                        matcher.schedule(a, b);
-                                        if (matcher.size() == Matcher.maxSize) {
-                                            matchExec.execute(matcher);
-                                            matcher = new Matcher(rel, results);
-                                            if (results.size() > 0) {
-                                                mergerExec.execute(new Merger(results, m));
+        for (Grid grid : getGrids(sourceData, targetData, heuristicsS, heuristicsT, theta)) {
+            // set up indexes
+            SquareIndex sourceIndex = index(grid.source, null, grid.thetaX, grid.thetaY);
+            SquareIndex targetIndex = index(grid.target, sourceIndex, grid.thetaX, grid.thetaY);
+
+            for (Integer lat : sourceIndex.map.keySet()) {
+                for (Integer lon : sourceIndex.map.get(lat).keySet()) {
+                    List<MBBIndex> source = sourceIndex.getSquare(lat, lon);
+                    List<MBBIndex> target = targetIndex.getSquare(lat, lon);
+                    if (target != null && target.size() > 0) {
+                        for (MBBIndex a : source) {
+                            if (!computed.containsKey(a.uri))
+                                computed.put(a.uri, new HashSet<>());
+                            for (MBBIndex b : target) {
+                                if (!computed.get(a.uri).contains(b.uri)) {
+                                    computed.get(a.uri).add(b.uri);
+                                    boolean compute = (rel.equals(COVERS) && a.covers(b))
+                                            || (rel.equals(COVEREDBY) && b.covers(a))
+                                            || (rel.equals(CONTAINS) && a.contains(b))
+                                            || (rel.equals(WITHIN) && b.contains(a))
+                                            || (rel.equals(EQUALS) && a.equals(b))
+                                            || rel.equals(INTERSECTS) || rel.equals(CROSSES) || rel.equals(TOUCHES)
+                                            || rel.equals(OVERLAPS);
+                                    if (compute) {
+                                        if (numThreads == 1) {
+                                            if (Matcher.relate(a, b, rel)) {
+                                                if (swapped)
+                                                    m.add(b.origin_uri, a.origin_uri, 1.0);
+                                                else
+                                                    m.add(a.origin_uri, b.origin_uri, 1.0);
+                                            }
+                                        } else {
+                                            matcher.schedule(a, b);
+                                            if (matcher.size() == Matcher.maxSize) {
+                                                completion.submit(matcher, null);
+                                                pending++;
+                                                matcher = new Matcher(rel, results);
+                                                // merge the results of the finished matchers
+                                                Future<Void> done;
+                                                for (; (done = completion.poll()) != null; pending--) {
+                                                    await(done, matchExec);
+                                                }
+                                                if (results.size() > 0) {
+                                                    new Merger(results, m).run();
+                                                }
                                             }
                                         }
                                     }
@@ -497,33 +763,23 @@ public class RADON {
                 }
             }
         }
-        if (numThreads > 1) {
-            if (matcher.size() > 0) {
-                matchExec.execute(matcher);
-            }
-            matchExec.shutdown();
-            while (!matchExec.isTerminated()) {
-                try {
-                    if (results.size() > 0) {
-                        mergerExec.execute(new Merger(results, m));
-                    }
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-            if (results.size() > 0) {
-                mergerExec.execute(new Merger(results, m));
-            }
-            mergerExec.shutdown();
-            while (!mergerExec.isTerminated()) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+        if (matcher.size() > 0) {
+            completion.submit(matcher, null);
+            pending++;
+        }
+        for (; pending > 0; pending--) {
+            try {
+                await(completion.take(), matchExec);
+            } catch (InterruptedException e) {
+                matchExec.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
             }
         }
+        matchExec.shutdown();
+        if (results.size() > 0) {
+            new Merger(results, m).run();
+        }
 
         // Compute M = (S x T) \ M' for disjoint relation
         if (disjointStrategy) {
@@ -546,6 +802,220 @@ public class RADON {
         return m;
     }
 
+    public static Map<String, AMapping> getMappings(ACache source, ACache target, String sourceVar,
+                                                    String targetVar, String expression, double threshold,
+                                                    Collection<String> relations) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        Map<String, Geometry> sourceMap = getGeometryMapFromCache(source, properties.get(0));
+        Map<String, Geometry> targetMap = getGeometryMapFromCache(target, properties.get(1));
+        return getMappings(sourceMap, targetMap, relations);
+    }
+
+    /**
+     * Computes the mappings of several relations in a single pass. The
+     * geometries are indexed once, and the DE-9IM matrix of every candidate
+     * pair is computed once and tested against all requested relations.
+     * Disjoint is computed as the complement of intersects.
+     *
+     * @param sourceData
+     *            source geometries by uri
+     * @param targetData
+     *            target geometries by uri
+     * @param relations
+     *            the relations to compute
+     * @return the mapping of each relation
+     */
+    public static Map<String, AMapping> getMappings(Map<String, Geometry> sourceData,
+                                                    Map<String, Geometry> targetData, Collection<String> relations) {
+        List<String> rels = new ArrayList<>(new LinkedHashSet<>(relations));
+        // disjoint needs the intersects mapping
+        List<String> matched = new ArrayList<>(rels);
+        matched.remove(DISJOINT);
+        if (rels.contains(DISJOINT) && !matched.contains(INTERSECTS)) {
+            matched.add(INTERSECTS);
+        }
+        int numThreads = (int) Math.ceil(Runtime.getRuntime().availableProcessors() / 2.0);
+
+        GridSizeHeuristics heuristicsS = new GridSizeHeuristics(sourceData.values());
+        GridSizeHeuristics heuristicsT = new GridSizeHeuristics(targetData.values());
+        double[] theta = GridSizeHeuristics.decideForTheta(heuristicsS, heuristicsT, heuristicStatMeasure);
+
+        // collect the candidate pairs whose boxes allow one of the relations
+        List<MBBIndex> candidates = new ArrayList<>();
+        Map<String, Set<String>> computed = new HashMap<>();
+        for (Grid grid : getGrids(sourceData, targetData, heuristicsS, heuristicsT, theta)) {
+            SquareIndex sourceIndex = index(grid.source, null, grid.thetaX, grid.thetaY);
+            SquareIndex targetIndex = index(grid.target, sourceIndex, grid.thetaX, grid.thetaY);
+            for (Integer lat : sourceIndex.map.keySet()) {
+                for (Integer lon : sourceIndex.map.get(lat).keySet()) {
+                    List<MBBIndex> target = targetIndex.getSquare(lat, lon);
+                    if (target == null) {
+                        continue;
+                    }
+                    for (MBBIndex a : sourceIndex.getSquare(lat, lon)) {
+                        Set<String> seen = computed.computeIfAbsent(a.uri, k -> new HashSet<>());
+                        for (MBBIndex b : target) {
+                            if (seen.add(b.uri) && isCandidate(a, b, matched)) {
+                                candidates.add(a);
+                                candidates.add(b);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        int pairs = candidates.size() / 2;
+        int chunk = Math.max(1, (int) Math.ceil(pairs / (4.0 * numThreads)));
+        ExecutorService exec = Executors.newFixedThreadPool(numThreads);
+        Map<String, AMapping> result = new HashMap<>();
+        for (String rel : matched) {
+            result.put(rel, MappingFactory.createDefaultMapping());
+        }
+        try {
+            List<Future<Map<String, AMapping>>> futures = new ArrayList<>();
+            for (int start = 0; start < pairs; start += chunk) {
+                int from = start;
+                int to = Math.min(pairs, start + chunk);
+                futures.add(exec.submit(() -> relate(candidates, from, to, matched)));
+            }
+            for (Future<Map<String, AMapping>> future : futures) {
+                for (Map.Entry<String, AMapping> part : future.get().entrySet()) {
+                    AMapping m = result.get(part.getKey());
+                    for (Map.Entry<String, HashMap<String, Double>> e : part.getValue().getMap().entrySet()) {
+                        m.add(e.getKey(), e.getValue());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            exec.shutdown();
+        }
+
+        if (rels.contains(DISJOINT)) {
+            AMapping intersects = result.get(INTERSECTS);
+            AMapping disjoint = MappingFactory.createDefaultMapping();
+            for (String s : sourceData.keySet()) {
+                for (String t : targetData.keySet()) {
+                    if (!intersects.contains(s, t)) {
+                        disjoint.add(s, t, 1.0d);
+                    }
+                }
+            }
+            result.put(DISJOINT, disjoint);
+        }
+        result.keySet().retainAll(rels);
+        return result;
+    }
+
+    private static boolean isCandidate(MBBIndex a, MBBIndex b, List<String> relations) {
+        for (String rel : relations) {
+            switch (rel) {
+                case COVERS:
+                    if (a.covers(b))
+                        return true;
+                    break;
+                case COVEREDBY:
+                    if (b.covers(a))
+                        return true;
+                    break;
+                case CONTAINS:
+                    if (a.contains(b))
+                        return true;
+                    break;
+                case WITHIN:
+                    if (b.contains(a))
+                        return true;
+                    break;
+                case EQUALS:
+                    if (a.equals(b))
+                        return true;
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, AMapping> relate(List<MBBIndex> candidates, int from, int to,
+                                                List<String> relations) {
+        Map<String, AMapping> result = new HashMap<>();
+        for (String rel : relations) {
+            result.put(rel, MappingFactory.createDefaultMapping());
+        }
+        for (int i = from; i < to; i++) {
+            MBBIndex a = candidates.get(2 * i);
+            MBBIndex b = candidates.get(2 * i + 1);
+            IntersectionMatrix im = a.polygon.relate(b.polygon);
+            int dimA = a.polygon.getDimension();
+            int dimB = b.polygon.getDimension();
+            for (String rel : relations) {
+                if (holds(im, rel, dimA, dimB)) {
+                    result.get(rel).add(a.origin_uri, b.origin_uri, 1.0d);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param im
+     *            DE-9IM matrix of two geometries
+     * @param relation
+     *            a relation or a DE-9IM pattern
+     * @param dimA
+     *            dimension of the first geometry
+     * @param dimB
+     *            dimension of the second geometry
+     * @return true if the geometries are in the relation
+     */
+    public static boolean holds(IntersectionMatrix im, String relation, int dimA, int dimB) {
+        switch (relation) {
+            case EQUALS:
+                return im.isEquals(dimA, dimB);
+            case INTERSECTS:
+                return im.isIntersects();
+            case TOUCHES:
+                return im.isTouches(dimA, dimB);
+            case CROSSES:
+                return im.isCrosses(dimA, dimB);
+            case WITHIN:
+                return im.isWithin();
+            case CONTAINS:
+                return im.isContains();
+            case COVERS:
+                return im.isCovers();
+            case COVEREDBY:
+                return im.isCoveredBy();
+            case OVERLAPS:
+                return im.isOverlaps(dimA, dimB);
+            default:
+                return im.matches(relation);
+        }
+    }
+
+    private static void await(Future<?> future, ExecutorService exec) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            exec.shutdownNow();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     public static SquareIndex index(Map<String, Geometry> input, SquareIndex extIndex, double thetaX, double thetaY) {
         SquareIndex result = new SquareIndex();
 
@@ -0,0 +1,146 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.topology;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapper that checks for several topological relations in a single pass of
+ * {@link RADON}, and links every pair that is in at least one of them. The
+ * relations are part of the measure name, e.g.
+ * <code>top_relations_contains_within(x.geom,y.geom)</code>, using the names
+ * of the {@link RADON} constants. The planners rewrite disjunctions of
+ * topological measures over the same properties into this measure.
+ *
+ * @see RADON#getMappings(Map, Map, Collection)
+ */
+public class TopologicalRelationsMapper extends AMapper {
+
+    private static final String PREFIX = MeasureFactory.TOP_RELATIONS + "_";
+
+    private static final Map<String, String> RELATIONS = new HashMap<>();
+
+    static {
+        RELATIONS.put(MeasureFactory.TOP_CONTAINS, RADON.CONTAINS);
+        RELATIONS.put(MeasureFactory.TOP_COVERED_BY, RADON.COVEREDBY);
+        RELATIONS.put(MeasureFactory.TOP_COVERS, RADON.COVERS);
+        RELATIONS.put(MeasureFactory.TOP_CROSSES, RADON.CROSSES);
+        RELATIONS.put(MeasureFactory.TOP_DISJOINT, RADON.DISJOINT);
+        RELATIONS.put(MeasureFactory.TOP_EQUALS, RADON.EQUALS);
+        RELATIONS.put(MeasureFactory.TOP_INTERSECTS, RADON.INTERSECTS);
+        RELATIONS.put(MeasureFactory.TOP_OVERLAPS, RADON.OVERLAPS);
+        RELATIONS.put(MeasureFactory.TOP_TOUCHES, RADON.TOUCHES);
+        RELATIONS.put(MeasureFactory.TOP_WITHIN, RADON.WITHIN);
+    }
+
+    /**
+     * @param measure
+     *            name of a measure, e.g. <code>top_contains</code> or
+     *            <code>top_relations_contains_within</code>
+     * @return the {@link RADON} relations checked by the measure, or null if
+     *         it is not a topological measure computed by RADON
+     */
+    public static List<String> getRelations(String measure) {
+        measure = measure.toLowerCase();
+        if (measure.startsWith(PREFIX)) {
+            List<String> relations = Arrays.asList(measure.substring(PREFIX.length()).split("_"));
+            return RELATIONS.values().containsAll(relations) ? relations : null;
+        }
+        String relation = RELATIONS.get(measure);
+        return relation == null ? null : Arrays.asList(relation);
+    }
+
+    /**
+     * @param relations
+     *            {@link RADON} relations
+     * @return the name of the measure checking for all of them
+     */
+    public static String getMeasureName(Collection<String> relations) {
+        return PREFIX + String.join("_", relations);
+    }
+
+    /**
+     * Computes the mapping of each relation of the expression.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Source variable
+     * @param targetVar
+     *            Target variable
+     * @param expression
+     *            Expression, e.g.
+     *            <code>top_relations_contains_within(x.geom,y.geom)</code>
+     * @param threshold
+     *            Similarity threshold
+     * @return the mapping of each relation
+     */
+    public Map<String, AMapping> getMappings(ACache source, ACache target, String sourceVar, String targetVar,
+                                             String expression, double threshold) {
+        List<String> relations = getRelations(expression.substring(0, expression.indexOf("(")).trim());
+        if (relations == null) {
+            throw new IllegalArgumentException("No topological relations in " + expression);
+        }
+        return RADON.getMappings(source, target, sourceVar, targetVar, expression, threshold, relations);
+    }
+
+    @Override
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+                               double threshold) {
+        List<AMapping> mappings = new ArrayList<>(
+                getMappings(source, target, sourceVar, targetVar, expression, threshold).values());
+        if (mappings.size() == 1) {
+            return mappings.get(0);
+        }
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (AMapping m : mappings) {
+            for (Map.Entry<String, HashMap<String, Double>> e : m.getMap().entrySet()) {
+                result.add(e.getKey(), e.getValue());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public double getRuntimeApproximation(int sourceSize, int targetSize, double theta, Language language) {
+        return 1000d;
+    }
+
+    @Override
+    public double getMappingSizeApproximation(int sourceSize, int targetSize, double theta, Language language) {
+        return 1000d;
+    }
+
+    @Override
+    public String getName() {
+        return MeasureFactory.TOP_RELATIONS;
+    }
+}
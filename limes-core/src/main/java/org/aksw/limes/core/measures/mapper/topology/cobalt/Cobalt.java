@@ -4,13 +4,13 @@ import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.GeometryCache;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
 import org.aksw.limes.core.measures.mapper.topology.cobalt.matcher.ICobaltMatcher;
 import org.aksw.limes.core.measures.mapper.topology.cobalt.splitting.CobaltSplitMatcher;
 import org.aksw.limes.core.measures.mapper.topology.cobalt.splitting.CobaltSplitter;
 import org.aksw.limes.core.measures.mapper.topology.cobalt.splitting.FittingSplitter;
-import org.aksw.limes.core.util.LimesWktReader;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.ParseException;
@@ -18,10 +18,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
 
 import static org.aksw.limes.core.measures.mapper.topology.cobalt.CobaltMeasures.*;
 
@@ -34,22 +35,11 @@ public class Cobalt {
 
     private static final Logger logger = LoggerFactory.getLogger(Cobalt.class);
     public static CobaltSplitter DEFAULT_SPLITTER = new FittingSplitter();
+    public static int NUM_THREADS = Runtime.getRuntime().availableProcessors();
+    public static int FANOUT = FlatRTree.DEFAULT_FANOUT;
 
     public static Map<String, Geometry> getGeometryMapFromCache(ACache c, String property) {
-        LimesWktReader wktReader = new LimesWktReader();
-        Map<String, Geometry> gMap = new HashMap<>();
-        for (String uri : c.getAllUris()) {
-            Set<String> values = c.getInstance(uri).getProperty(property);
-            if (values.size() > 0) {
-                String wkt = values.iterator().next();
-                try {
-                    gMap.put(uri, wktReader.read(wkt));
-                } catch (ParseException e) {
-                    logger.warn("Skipping malformed geometry at " + uri + "...");
-                }
-            }
-        }
-        return gMap;
+        return GeometryCache.getGeometries(c, property);
     }
 
     public static AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar,
@@ -113,144 +103,80 @@ public class Cobalt {
     }
 
     private static AMapping getMappingEnvelope(Map<String, Envelope> sourceData, Map<String, Envelope> targetData, String relation, ICobaltMatcher matcher) {
-        int numThreads = 1;
         List<RTree.Entry> entries = new ArrayList<>(sourceData.size());
         sourceData.forEach((s, geometry) -> {
             entries.add(new RTree.Entry(s, geometry, null));
         });
-
-        AMapping m = MappingFactory.createDefaultMapping();
-        RTree rTree = RTree.buildSTR(entries);
-
-        ExecutorService exec = Executors.newFixedThreadPool(numThreads);
-        Map<String, Set<String>> results = new HashMap<>(); //Target -> Source Mappings
-
-        for (Map.Entry<String, Envelope> entry : targetData.entrySet()) {
-            String uri = entry.getKey();
-            Envelope envelope = entry.getValue();
-
-            if (numThreads > 1) {
-                HashSet<String> value = new HashSet<>();
-                results.put(uri, value);
-                String finalRelation = relation;
-
-                exec.submit(() -> {
-                    List<RTree.Entry> search = rTree.search(envelope);
-                    search.stream()
-                            .filter(x -> {
-                                        Envelope abb = x.getEnvelope();
-                                        Envelope bbb = envelope;
-                                        return matcher.relate(abb, bbb, finalRelation);
-                                    }
-                            ).forEach(x -> value.add(x.getUri()));
-                    if (relation.equals(DISJOINT)) {
-                        value.addAll(rTree.searchExcept(envelope).stream().map(RTree.Entry::getUri).collect(Collectors.toList()));
-                    }
-                });
-            } else {
-                String finalRelation = relation;
-                AMapping finalM = m;
-                List<RTree.Entry> search = rTree.search(envelope);
-
-                search.stream()
-                        .filter(x -> {
-                                    Envelope abb = x.getEnvelope();
-                                    Envelope bbb = envelope;
-                                    return matcher.relate(abb, bbb, finalRelation);
-                                }
-                        ).forEach(x -> finalM.add(x.getUri(), uri, 1.0));
-                if (relation.equals(DISJOINT)) {
-                    rTree.searchExcept(envelope).stream().map(RTree.Entry::getUri).forEach(sourceUri -> finalM.add(sourceUri, uri, 1.0));
-                }
-            }
-        }
-        if (numThreads > 1) {
-            exec.shutdown();
-            try {
-                exec.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-            for (Map.Entry<String, Set<String>> entry : results.entrySet()) {
-                String t = entry.getKey();
-                for (String s : entry.getValue()) {
-                    m.add(s, t, 1.0);
-                }
-            }
-        }
-
-        return m;
+        List<RTree.Entry> targets = new ArrayList<>(targetData.size());
+        targetData.forEach((t, envelope) -> targets.add(new RTree.Entry(t, envelope, null)));
+        return match(entries, targets, relation,
+                (x, y) -> matcher.relate(x.getEnvelope(), y.getEnvelope(), relation));
     }
 
     private static AMapping getMappingSplits(Map<String, Geometry> sourceData, Map<String, Geometry> targetData, String relation, ICobaltMatcher matcher, int splits) {
-        int numThreads = 1;
         CobaltSplitMatcher splitMatcher = new CobaltSplitMatcher(splits, DEFAULT_SPLITTER, matcher);
         List<RTree.Entry> entries = new ArrayList<>(sourceData.size());
         sourceData.forEach((s, geometry) -> {
             entries.add(new RTree.Entry(s, geometry.getEnvelopeInternal(), geometry));
         });
+        List<RTree.Entry> targets = new ArrayList<>(targetData.size());
+        targetData.forEach((t, geometry) -> targets.add(new RTree.Entry(t, geometry.getEnvelopeInternal(), geometry)));
+        return match(entries, targets, relation,
+                (x, y) -> splitMatcher.relate(x.getUri(), x.getGeometry(), y.getUri(), y.getGeometry(), relation));
+    }
 
-        AMapping m = MappingFactory.createDefaultMapping();
-        RTree rTree = RTree.buildSTR(entries);
-
+    /**
+     * Matches the targets against an RTree of the sources, in parallel
+     * batches of targets with one result mapping each.
+     */
+    private static AMapping match(List<RTree.Entry> sources, List<RTree.Entry> targets, String relation,
+                                  BiPredicate<RTree.Entry, RTree.Entry> matcher) {
+        FlatRTree rTree = new FlatRTree(sources, FANOUT);
+        int numThreads = Math.max(1, NUM_THREADS);
+        if (numThreads == 1) {
+            return match(rTree, targets, 0, targets.size(), relation, matcher);
+        }
+        int batch = Math.max(1, (targets.size() + 4 * numThreads - 1) / (4 * numThreads));
         ExecutorService exec = Executors.newFixedThreadPool(numThreads);
-        Map<String, Set<String>> results = new HashMap<>(); //Target -> Source Mappings
-
-        for (Map.Entry<String, Geometry> entry : targetData.entrySet()) {
-            String uri = entry.getKey();
-            Geometry geoEntry = entry.getValue();
-            Envelope envelope = geoEntry.getEnvelopeInternal();
-
-            if (numThreads > 1) {
-                HashSet<String> value = new HashSet<>();
-                results.put(uri, value);
-                String finalRelation = relation;
-
-                exec.submit(() -> {
-                    List<RTree.Entry> search = rTree.search(envelope);
-                    search.stream()
-                            .filter(x -> {
-                                        Envelope abb = x.getEnvelope();
-                                        Envelope bbb = envelope;
-                                        return splitMatcher.relate(x.getUri(), x.getGeometry(), uri, geoEntry, finalRelation);
-                                    }
-                            ).forEach(x -> value.add(x.getUri()));
-                    if (relation.equals(DISJOINT)) {
-                        value.addAll(rTree.searchExcept(envelope).stream().map(RTree.Entry::getUri).collect(Collectors.toList()));
-                    }
-                });
-            } else {
-                String finalRelation = relation;
-                AMapping finalM = m;
-                List<RTree.Entry> search = rTree.search(envelope);
-
-                search.stream()
-                        .filter(x -> {
-                                    Envelope abb = x.getEnvelope();
-                                    Envelope bbb = envelope;
-                                    return splitMatcher.relate(x.getUri(), x.getGeometry(), uri, geoEntry, finalRelation);
-                                }
-                        ).forEach(x -> finalM.add(x.getUri(), uri, 1.0));
-                if (relation.equals(DISJOINT)) {
-                    rTree.searchExcept(envelope).stream().map(RTree.Entry::getUri).forEach(sourceUri -> finalM.add(sourceUri, uri, 1.0));
+        List<Future<AMapping>> batches = new ArrayList<>();
+        for (int from = 0; from < targets.size(); from += batch) {
+            int start = from, end = Math.min(targets.size(), from + batch);
+            batches.add(exec.submit(() -> match(rTree, targets, start, end, relation, matcher)));
+        }
+        AMapping m = MappingFactory.createDefaultMapping();
+        try {
+            for (Future<AMapping> result : batches) {
+                for (Map.Entry<String, HashMap<String, Double>> e : result.get().getMap().entrySet()) {
+                    m.add(e.getKey(), e.getValue());
                 }
             }
-        }
-        if (numThreads > 1) {
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
             exec.shutdown();
-            try {
-                exec.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-            for (Map.Entry<String, Set<String>> entry : results.entrySet()) {
-                String t = entry.getKey();
-                for (String s : entry.getValue()) {
-                    m.add(s, t, 1.0);
+        }
+        return m;
+    }
+
+    private static AMapping match(FlatRTree rTree, List<RTree.Entry> targets, int from, int to, String relation,
+                                  BiPredicate<RTree.Entry, RTree.Entry> matcher) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (RTree.Entry target : targets.subList(from, to)) {
+            String uri = target.getUri();
+            rTree.search(target.getEnvelope(), i -> {
+                RTree.Entry x = rTree.getEntry(i);
+                if (matcher.test(x, target)) {
+                    m.add(x.getUri(), uri, 1.0);
                 }
+            });
+            if (relation.equals(DISJOINT)) {
+                rTree.searchExcept(target.getEnvelope(), i -> m.add(rTree.getEntry(i).getUri(), uri, 1.0));
             }
         }
-
         return m;
     }
 
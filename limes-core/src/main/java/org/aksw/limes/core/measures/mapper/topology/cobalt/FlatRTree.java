@@ -0,0 +1,214 @@
+package org.aksw.limes.core.measures.mapper.topology.cobalt;
+
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * RTree packed with the sort tile recursive algorithm and stored in flat
+ * arrays. The entries are sorted into vertical slices by the center of
+ * their envelopes (in parallel), then each slice by the center y, and the
+ * levels above are packed in that order. Hence every node covers a
+ * contiguous range of entries: node <code>i</code> of level <code>l</code>
+ * (the leaves being level 0) holds the entries
+ * <code>i * fanout^(l + 1)</code> to <code>(i + 1) * fanout^(l + 1)</code>.
+ * The tree is immutable and can be searched concurrently.
+ *
+ * @see RTree
+ */
+public class FlatRTree {
+
+    public static final int DEFAULT_FANOUT = 16;
+
+    private final int fanout;
+    private final RTree.Entry[] entries;
+    private final double[] entryBounds;
+    // bounds of the nodes of all levels, leaves first, 4 values per node
+    private final double[] nodeBounds;
+    private final int[] levelStarts;
+    private final int[] levelSizes;
+
+    /**
+     * Builds the tree.
+     *
+     * @param entries
+     *            the entries to index
+     * @param fanout
+     *            the maximal number of children of a node
+     */
+    public FlatRTree(List<RTree.Entry> entries, int fanout) {
+        if (fanout < 2) {
+            throw new IllegalArgumentException("The fanout of an RTree must be at least 2, not " + fanout);
+        }
+        this.fanout = fanout;
+        this.entries = entries.toArray(new RTree.Entry[0]);
+        int n = this.entries.length;
+
+        int leaves = (n + fanout - 1) / fanout;
+        int sliceAmount = (int) Math.ceil(Math.sqrt(leaves));
+        int entriesPerSlice = sliceAmount == 0 ? 0 : ((leaves + sliceAmount - 1) / sliceAmount) * fanout;
+        Arrays.parallelSort(this.entries,
+                Comparator.comparingDouble(o -> o.getEnvelope().getMinX() + o.getEnvelope().getMaxX()));
+        if (entriesPerSlice > 0) {
+            IntStream.range(0, (n + entriesPerSlice - 1) / entriesPerSlice).parallel()
+                    .forEach(i -> Arrays.sort(this.entries, i * entriesPerSlice, Math.min(n, (i + 1) * entriesPerSlice),
+                            Comparator.comparingDouble(o -> o.getEnvelope().getMinY() + o.getEnvelope().getMaxY())));
+        }
+
+        this.entryBounds = new double[4 * n];
+        for (int i = 0; i < n; i++) {
+            Envelope envelope = this.entries[i].getEnvelope();
+            if (envelope.isNull()) {
+                // intersects nothing, and leaves the bounds of its nodes alone
+                entryBounds[4 * i] = entryBounds[4 * i + 1] = Double.POSITIVE_INFINITY;
+                entryBounds[4 * i + 2] = entryBounds[4 * i + 3] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            entryBounds[4 * i] = envelope.getMinX();
+            entryBounds[4 * i + 1] = envelope.getMinY();
+            entryBounds[4 * i + 2] = envelope.getMaxX();
+            entryBounds[4 * i + 3] = envelope.getMaxY();
+        }
+
+        int levels = 0;
+        int total = 0;
+        for (int size = leaves; size > 0; size = size == 1 ? 0 : (size + fanout - 1) / fanout) {
+            levels++;
+            total += size;
+        }
+        this.levelStarts = new int[levels];
+        this.levelSizes = new int[levels];
+        this.nodeBounds = new double[4 * total];
+        int start = 0;
+        int size = leaves;
+        double[] children = entryBounds;
+        int childStart = 0;
+        int childCount = n;
+        for (int level = 0; level < levels; level++) {
+            levelStarts[level] = start;
+            levelSizes[level] = size;
+            for (int i = 0; i < size; i++) {
+                double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+                for (int c = i * fanout; c < Math.min(childCount, (i + 1) * fanout); c++) {
+                    int b = 4 * (childStart + c);
+                    minX = Math.min(minX, children[b]);
+                    minY = Math.min(minY, children[b + 1]);
+                    maxX = Math.max(maxX, children[b + 2]);
+                    maxY = Math.max(maxY, children[b + 3]);
+                }
+                int b = 4 * (start + i);
+                nodeBounds[b] = minX;
+                nodeBounds[b + 1] = minY;
+                nodeBounds[b + 2] = maxX;
+                nodeBounds[b + 3] = maxY;
+            }
+            children = nodeBounds;
+            childStart = start;
+            childCount = size;
+            start += size;
+            size = (size + fanout - 1) / fanout;
+        }
+    }
+
+    /**
+     * Builds the tree with the {@link #DEFAULT_FANOUT}.
+     *
+     * @param entries
+     *            the entries to index
+     */
+    public FlatRTree(List<RTree.Entry> entries) {
+        this(entries, DEFAULT_FANOUT);
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @param i
+     *            the index of an entry
+     * @return the entry
+     */
+    public RTree.Entry getEntry(int i) {
+        return entries[i];
+    }
+
+    /**
+     * Passes the indexes of all entries whose envelope intersects the given
+     * envelope to the consumer.
+     *
+     * @param envelope
+     *            the query
+     * @param consumer
+     *            receives the entry indexes
+     */
+    public void search(Envelope envelope, IntConsumer consumer) {
+        search(envelope, consumer, false);
+    }
+
+    /**
+     * Passes the indexes of all entries whose envelope does not intersect the
+     * given envelope to the consumer.
+     *
+     * @param envelope
+     *            the query
+     * @param consumer
+     *            receives the entry indexes
+     */
+    public void searchExcept(Envelope envelope, IntConsumer consumer) {
+        search(envelope, consumer, true);
+    }
+
+    private void search(Envelope envelope, IntConsumer consumer, boolean except) {
+        if (entries.length == 0) {
+            return;
+        }
+        if (envelope.isNull()) {
+            if (except) {
+                for (int i = 0; i < entries.length; i++) {
+                    consumer.accept(i);
+                }
+            }
+            return;
+        }
+        int root = levelStarts.length - 1;
+        search(root, 0, envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY(), consumer,
+                except);
+    }
+
+    private void search(int level, int node, double minX, double minY, double maxX, double maxY,
+                        IntConsumer consumer, boolean except) {
+        double[] bounds = level < 0 ? entryBounds : nodeBounds;
+        int b = 4 * (level < 0 ? node : levelStarts[level] + node);
+        boolean intersects = bounds[b] <= maxX && bounds[b + 2] >= minX && bounds[b + 1] <= maxY
+                && bounds[b + 3] >= minY;
+        if (level < 0) {
+            if (intersects != except) {
+                consumer.accept(node);
+            }
+            return;
+        }
+        if (!intersects) {
+            if (except) {
+                long span = (long) Math.pow(fanout, level + 1);
+                int end = (int) Math.min(entries.length, (node + 1) * span);
+                for (int i = (int) (node * span); i < end; i++) {
+                    consumer.accept(i);
+                }
+            }
+            return;
+        }
+        int childCount = level == 0 ? entries.length : levelSizes[level - 1];
+        for (int c = node * fanout; c < Math.min(childCount, (node + 1) * fanout); c++) {
+            search(level - 1, c, minX, minY, maxX, maxY, consumer, except);
+        }
+    }
+}
@@ -34,7 +34,7 @@ import org.aksw.limes.core.measures.measure.pointsets.surjection.FairSurjectionM
 import org.aksw.limes.core.measures.measure.pointsets.surjection.NaiveSurjectionMeasure;
 import org.aksw.limes.core.measures.measure.resourcesets.SetJaccardMeasure;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
-import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.memory.MemoryIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.mapped.MappedIndex;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LCHMeasure;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LiMeasure;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.ShortestPathMeasure;
@@ -98,6 +98,10 @@ public class MeasureFactory {
     public static final String MANHATTAN = "manhattan";
     public static final String GEO_ORTHODROMIC = "geo_orthodromic";
     public static final String GEO_GREAT_ELLIPTIC = "geo_great_elliptic";
+    // the same, computed with a k-d tree instead of the HR3 grid
+    public static final String EUCLIDEAN_TREE = "euclidean_tree";
+    public static final String MANHATTAN_TREE = "manhattan_tree";
+    public static final String GEO_ORTHODROMIC_TREE = "geo_orthodromic_tree";
 
     // Point-set measures
     public static final String GEO_CENTROID_INDEXED_HAUSDORFF = "geo_centroid_indexed_hausdorff";
@@ -148,6 +152,7 @@ public class MeasureFactory {
     public static final String TOP_OVERLAPS = "top_overlaps";
     public static final String TOP_TOUCHES = "top_touches";
     public static final String TOP_WITHIN = "top_within";
+    public static final String TOP_RELATIONS = "top_relations";
 
     // Topological measures of cobalt
     public static final String TOP_COBALT_AREA_CONTAINS = "top_cobalt_area_contains";
@@ -268,6 +273,15 @@ public class MeasureFactory {
             return MeasureType.TRIGRAM;
         }
         ////////////////////////////
+        if (measure.startsWith(EUCLIDEAN_TREE)) {
+            return MeasureType.EUCLIDEAN_TREE;
+        }
+        if (measure.startsWith(MANHATTAN_TREE)) {
+            return MeasureType.MANHATTAN_TREE;
+        }
+        if (measure.startsWith(GEO_ORTHODROMIC_TREE)) {
+            return MeasureType.GEO_ORTHODROMIC_TREE;
+        }
         if (measure.startsWith(EUCLIDEAN)) {
             return MeasureType.EUCLIDEAN;
         }
@@ -417,6 +431,9 @@ public class MeasureFactory {
         if (measure.startsWith(TOP_WITHIN)) {
             return MeasureType.TOP_WITHIN;
         }
+        if (measure.startsWith(TOP_RELATIONS)) {
+            return MeasureType.TOP_RELATIONS;
+        }
 
         ////////////////////////////////////////////////////
         if (measure.startsWith(TOP_COBALT_AREA_CONTAINS)) {
@@ -571,12 +588,15 @@ public class MeasureFactory {
             ////////////////////////////////////////////
 
             case EUCLIDEAN:
+            case EUCLIDEAN_TREE:
                 return new EuclideanMeasure();
             case MANHATTAN:
+            case MANHATTAN_TREE:
                 return new ManhattanMeasure();
             case GEO_GREAT_ELLIPTIC:
                 return new GeoGreatEllipticMeasure();
             case GEO_ORTHODROMIC:
+            case GEO_ORTHODROMIC_TREE:
                 return new GeoOrthodromicMeasure();
             ///////////////////////
             case GEO_CENTROID_INDEXED_HAUSDORFF:
@@ -667,6 +687,8 @@ public class MeasureFactory {
                 return new TouchesMeasure();
             case TOP_WITHIN:
                 return new WithinMeasure();
+            case TOP_RELATIONS:
+                return new TopologicalRelationsMeasure();
 
             ///////////////////////
             case TOP_COBALT_AREA_CONTAINS:
@@ -762,7 +784,7 @@ public class MeasureFactory {
     }
 
     public static AIndex createIndexer() {
-        AIndex Indexer = new MemoryIndex();
+        AIndex Indexer = new MappedIndex();
         Indexer.preIndex();
         return Indexer;
     }
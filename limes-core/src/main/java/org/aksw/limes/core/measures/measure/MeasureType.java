@@ -33,8 +33,8 @@ public enum MeasureType {
     TMP_FINISHES, TMP_IS_MET_BY, TMP_MEETS, TMP_AFTER,
     TMP_BEFORE, TMP_CONCURRENT, TMP_PREDECESSOR, TMP_SUCCESSOR,
     COSINE,LESS_THAN, EXACTMATCH, JACCARD, JARO, LEVENSHTEIN, OVERLAP,
-    TRIGRAM, QGRAMS, SOUNDEX, DOUBLEMETA, KOELN, EUCLIDEAN, MANHATTAN, JAROWINKLER, MONGEELKAN, RATCLIFF,
-    TOP_EQUALS, TOP_DISJOINT, TOP_INTERSECTS, TOP_OVERLAPS, TOP_CROSSES, TOP_CONTAINS, TOP_WITHIN, TOP_TOUCHES, TOP_COVERS, TOP_COVERED_BY,
+    TRIGRAM, QGRAMS, SOUNDEX, DOUBLEMETA, KOELN, EUCLIDEAN, MANHATTAN, EUCLIDEAN_TREE, MANHATTAN_TREE, GEO_ORTHODROMIC_TREE, JAROWINKLER, MONGEELKAN, RATCLIFF,
+    TOP_EQUALS, TOP_DISJOINT, TOP_INTERSECTS, TOP_OVERLAPS, TOP_CROSSES, TOP_CONTAINS, TOP_WITHIN, TOP_TOUCHES, TOP_COVERS, TOP_COVERED_BY, TOP_RELATIONS,
     TOP_COBALT_AREA_EQUALS, TOP_COBALT_AREA_DISJOINT, TOP_COBALT_AREA_INTERSECTS, TOP_COBALT_AREA_OVERLAPS, TOP_COBALT_AREA_CONTAINS, TOP_COBALT_AREA_WITHIN, TOP_COBALT_AREA_TOUCHES, TOP_COBALT_AREA_COVERS, TOP_COBALT_AREA_COVERED_BY,
     TOP_COBALT_DIAGONAL_EQUALS, TOP_COBALT_DIAGONAL_DISJOINT, TOP_COBALT_DIAGONAL_INTERSECTS, TOP_COBALT_DIAGONAL_OVERLAPS, TOP_COBALT_DIAGONAL_CONTAINS, TOP_COBALT_DIAGONAL_WITHIN, TOP_COBALT_DIAGONAL_TOUCHES, TOP_COBALT_DIAGONAL_COVERS, TOP_COBALT_DIAGONAL_COVERED_BY,
     TOP_COBALT_MIXED_EQUALS, TOP_COBALT_MIXED_DISJOINT, TOP_COBALT_MIXED_INTERSECTS, TOP_COBALT_MIXED_OVERLAPS, TOP_COBALT_MIXED_CONTAINS, TOP_COBALT_MIXED_WITHIN, TOP_COBALT_MIXED_TOUCHES, TOP_COBALT_MIXED_COVERS, TOP_COBALT_MIXED_COVERED_BY,
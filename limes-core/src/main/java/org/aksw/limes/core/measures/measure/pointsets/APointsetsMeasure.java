@@ -20,6 +20,7 @@ package org.aksw.limes.core.measures.measure.pointsets;
 import org.aksw.limes.core.datastrutures.Point;
 import org.aksw.limes.core.measures.mapper.pointsets.OrchidMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.OrthodromicDistance;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.measure.AMeasure;
 import org.aksw.limes.core.measures.measure.space.GeoGreatEllipticMeasure;
@@ -43,11 +44,57 @@ public abstract class APointsetsMeasure extends AMeasure implements IPointsetsMe
     public static double pointToPointDistance(Point x, Point y) {
         computations++;
         if (USE_GREAT_ELLIPTIC_DISTANCE) {
-            return GeoGreatEllipticMeasure.getDistanceInDegrees(x, y);
+            return greatEllipticDistance(x.coordinates.get(0), x.coordinates.get(1), y.coordinates.get(0),
+                    y.coordinates.get(1));
         }
         return OrthodromicDistance.getDistanceInDegrees(x, y);
     }
 
+    /**
+     * @param x
+     *            Packed polygon x
+     * @param i
+     *            Index of the point in x
+     * @param y
+     *            Packed polygon y
+     * @param j
+     *            Index of the point in y
+     * @return Point-to-point distance between point i of x and point j of y
+     */
+    public static double pointToPointDistance(PackedPolygon x, int i, PackedPolygon y, int j) {
+        computations++;
+        if (USE_GREAT_ELLIPTIC_DISTANCE) {
+            return greatEllipticDistance(x.getLatitude(i), x.getLongitude(i), y.getLatitude(j), y.getLongitude(j));
+        }
+        return OrthodromicDistance.getDistance(x, i, y, j);
+    }
+
+    /**
+     * @param lat1
+     *            Latitude of the first point
+     * @param long1
+     *            Longitude of the first point
+     * @param lat2
+     *            Latitude of the second point
+     * @param long2
+     *            Longitude of the second point
+     * @return Point-to-point distance between both points
+     */
+    public static double pointToPointDistance(double lat1, double long1, double lat2, double long2) {
+        computations++;
+        if (USE_GREAT_ELLIPTIC_DISTANCE) {
+            return greatEllipticDistance(lat1, long1, lat2, long2);
+        }
+        return OrthodromicDistance.getDistanceInDegrees(lat1, long1, lat2, long2);
+    }
+
+    // GeoGreatEllipticMeasure is deprecated without a replacement, it is only
+    // used if USE_GREAT_ELLIPTIC_DISTANCE is set
+    @SuppressWarnings("deprecation")
+    private static double greatEllipticDistance(double lat1, double long1, double lat2, double long2) {
+        return GeoGreatEllipticMeasure.getDistanceInDegrees(lat1, long1, lat2, long2);
+    }
+
     /*
      * (non-Javadoc)
      *
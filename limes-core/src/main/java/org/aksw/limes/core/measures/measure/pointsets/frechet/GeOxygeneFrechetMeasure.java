@@ -24,6 +24,7 @@ import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.pointsets.OrchidMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.measure.pointsets.APointsetsMeasure;
 
@@ -49,17 +50,14 @@ public class GeOxygeneFrechetMeasure extends APointsetsMeasure {
      */
     public static ILineSegment toLineSegment(Polygon poly) {
         // assume a polygon as a curve starting at point p and end at point q
-        double pLat = poly.points.get(0).coordinates.get(0);
-        double pLong = poly.points.get(0).coordinates.get(1);
-        double qLat = poly.points.get(poly.points.size() - 1).coordinates.get(0);
-        double qLong = poly.points.get(poly.points.size() - 1).coordinates.get(1);
-        GM_LineSegment lineSegment = new GM_LineSegment(new DirectPosition(pLat, pLong),
-                new DirectPosition(qLat, qLong));
-
-        for (int i = 1; i < (poly.points.size() - 1); i++) {
-            double lat = poly.points.get(i).coordinates.get(0);
-            double lon = poly.points.get(i).coordinates.get(1);
-            lineSegment.addControlPoint(new DirectPosition(lat, lon));
+        PackedPolygon packed = poly.getPacked();
+        int last = packed.size() - 1;
+        GM_LineSegment lineSegment = new GM_LineSegment(
+                new DirectPosition(packed.getLatitude(0), packed.getLongitude(0)),
+                new DirectPosition(packed.getLatitude(last), packed.getLongitude(last)));
+
+        for (int i = 1; i < last; i++) {
+            lineSegment.addControlPoint(new DirectPosition(packed.getLatitude(i), packed.getLongitude(i)));
         }
 
         return lineSegment;
@@ -22,6 +22,7 @@ package org.aksw.limes.core.measures.measure.pointsets.frechet;
 
 import org.aksw.limes.core.datastrutures.Point;
 import org.aksw.limes.core.measures.mapper.pointsets.OrthodromicDistance;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.util.GeometricShapeFactory;
@@ -40,6 +41,7 @@ public class PolygonFrechetDistance {
     static double delta = 0.01;
     public double[][] a, b, c, d;
     Polygon poly1, poly2;
+    PackedPolygon packed1, packed2;
 
     /**
      * Constructor
@@ -52,6 +54,8 @@ public class PolygonFrechetDistance {
     public PolygonFrechetDistance(Polygon p1, Polygon p2) {
         poly1 = p1;
         poly2 = p2;
+        packed1 = p1.getPacked();
+        packed2 = p2.getPacked();
         a = new double[poly1.points.size()][poly2.points.size()];
         b = new double[poly1.points.size()][poly2.points.size()];
         c = new double[poly1.points.size()][poly2.points.size()];
@@ -86,19 +90,23 @@ public class PolygonFrechetDistance {
      */
     public double getFrechetPointToPolygonDistance(Point p, Polygon poly) {
         ArrayList<Double> list = new ArrayList<Double>();
+        PackedPolygon packed = poly.getPacked();
+        double lat = p.coordinates.get(0);
+        double lon = p.coordinates.get(1);
 
         // (1) distances between the point and all the polygon points
-        for (Point q : poly.points) {
-            list.add(OrthodromicDistance.getDistanceInDegrees(p, q));
+        for (int i = 0; i < packed.size(); i++) {
+            list.add(OrthodromicDistance.getDistanceInDegrees(lat, lon, packed.getLatitude(i),
+                    packed.getLongitude(i)));
         }
 
         // (2) distances between the point and all the polygon edges
-        for (int i = 0; i < poly.points.size() - 1; i++) {
+        for (int i = 0; i < packed.size() - 1; i++) {
             double d = (double) Line2D.ptSegDist( // TODO alter to (double)
                     // OrthodromicDistance.getPoint2LineDistanceInDegrees(a,b)
-                    poly.points.get(i).coordinates.get(0), poly.points.get(i).coordinates.get(1),
-                    poly.points.get(i + 1).coordinates.get(0), poly.points.get(i + 1).coordinates.get(1),
-                    p.coordinates.get(0), p.coordinates.get(1));
+                    packed.getLatitude(i), packed.getLongitude(i),
+                    packed.getLatitude(i + 1), packed.getLongitude(i + 1),
+                    lat, lon);
             list.add(d);
         }
 
@@ -119,43 +127,39 @@ public class PolygonFrechetDistance {
         ArrayList<Double> list = new ArrayList<Double>();
 
         // (1) distances between starting and ending points
-        list.add((double) OrthodromicDistance.getDistanceInDegrees(poly1.points.get(0), poly2.points.get(0)));
-        list.add((double) OrthodromicDistance.getDistanceInDegrees(poly1.points.get(poly1.points.size() - 1),
-                poly2.points.get(poly2.points.size() - 1)));
+        list.add(OrthodromicDistance.getDistance(packed1, 0, packed2, 0));
+        list.add(OrthodromicDistance.getDistance(packed1, packed1.size() - 1, packed2, packed2.size() - 1));
 
         // (2) distances between vertices of one polygon and edges of the other
         // polygon
-        for (int i = 0; i < poly1.points.size(); i++) {
-            for (int j = 0; j < poly2.points.size() - 1; j++) {
+        for (int i = 0; i < packed1.size(); i++) {
+            for (int j = 0; j < packed2.size() - 1; j++) {
                 double d = Line2D.ptSegDist( // TODO alter to (double)
                         // OrthodromicDistance.getPoint2LineDistanceInDegrees(a,b)
-                        poly2.points.get(j).coordinates.get(0), poly2.points.get(j).coordinates.get(1),
-                        poly2.points.get(j + 1).coordinates.get(0), poly2.points.get(j + 1).coordinates.get(1),
-                        poly1.points.get(i).coordinates.get(0), poly1.points.get(i).coordinates.get(1));
+                        packed2.getLatitude(j), packed2.getLongitude(j),
+                        packed2.getLatitude(j + 1), packed2.getLongitude(j + 1),
+                        packed1.getLatitude(i), packed1.getLongitude(i));
                 list.add(d);
             }
         }
 
-        for (int j = 0; j < poly2.points.size(); j++) {
-            for (int i = 0; i < poly1.points.size() - 1; i++) {
-                double d = Line2D.ptSegDist(poly1.points.get(i).coordinates.get(0),
-                        poly1.points.get(i).coordinates.get(1), poly1.points.get(i + 1).coordinates.get(0),
-                        poly1.points.get(i + 1).coordinates.get(1), poly2.points.get(j).coordinates.get(0),
-                        poly2.points.get(j).coordinates.get(1));
+        for (int j = 0; j < packed2.size(); j++) {
+            for (int i = 0; i < packed1.size() - 1; i++) {
+                double d = Line2D.ptSegDist(packed1.getLatitude(i), packed1.getLongitude(i),
+                        packed1.getLatitude(i + 1), packed1.getLongitude(i + 1),
+                        packed2.getLatitude(j), packed2.getLongitude(j));
                 list.add(d);
             }
         }
 
         // convert into coordinate array
-        Coordinate[] poly1Curve = new Coordinate[poly1.points.size()];
-        Coordinate[] poly2Curve = new Coordinate[poly2.points.size()];
-        for (int i = 0; i < poly1.points.size(); i++) {
-            poly1Curve[i] = new Coordinate(poly1.points.get(i).coordinates.get(0),
-                    poly1.points.get(i).coordinates.get(1));
+        Coordinate[] poly1Curve = new Coordinate[packed1.size()];
+        Coordinate[] poly2Curve = new Coordinate[packed2.size()];
+        for (int i = 0; i < packed1.size(); i++) {
+            poly1Curve[i] = new Coordinate(packed1.getLatitude(i), packed1.getLongitude(i));
         }
-        for (int i = 0; i < poly2.points.size(); i++) {
-            poly2Curve[i] = new Coordinate(poly2.points.get(i).coordinates.get(0),
-                    poly2.points.get(i).coordinates.get(1));
+        for (int i = 0; i < packed2.size(); i++) {
+            poly2Curve[i] = new Coordinate(packed2.getLatitude(i), packed2.getLongitude(i));
         }
 
         // (3) common distance of two vertices of one polygon to the
@@ -166,8 +170,8 @@ public class PolygonFrechetDistance {
         LineSegment lseg;
         Coordinate c1, midPoint, c2;
         Coordinate intersect = null;
-        for (int i = 0; i < poly1.points.size() - 2; i++) {
-            for (int j = i + 2; j < poly1.points.size(); j++) {
+        for (int i = 0; i < packed1.size() - 2; i++) {
+            for (int j = i + 2; j < packed1.size(); j++) {
                 // compute seg between i and j
                 // compute bisector and intersection point with q
                 // compute the distance
@@ -207,8 +211,8 @@ public class PolygonFrechetDistance {
             }
         }
 
-        for (int i = 0; i < poly2.points.size() - 2; i++) {
-            for (int j = i + 2; j < poly2.points.size(); j++) {
+        for (int i = 0; i < packed2.size() - 2; i++) {
+            for (int j = i + 2; j < packed2.size(); j++) {
                 lseg = new LineSegment(poly2Curve[i], poly2Curve[j]);
                 midPoint = lseg.midPoint();
                 double origSlope = getSlope(poly2Curve[i].x, poly2Curve[i].y, poly2Curve[j].x, poly2Curve[j].y);
@@ -286,58 +290,58 @@ public class PolygonFrechetDistance {
             return false;
 
         // check first pair of segments
-        if (Line2D.ptSegDist(poly1.points.get(0).coordinates.get(0), poly1.points.get(0).coordinates.get(1),
-                poly1.points.get(1).coordinates.get(0), poly1.points.get(1).coordinates.get(1),
-                poly2.points.get(0).coordinates.get(0), poly2.points.get(0).coordinates.get(1)) > epsilon &&
+        if (Line2D.ptSegDist(packed1.getLatitude(0), packed1.getLongitude(0),
+                packed1.getLatitude(1), packed1.getLongitude(1),
+                packed2.getLatitude(0), packed2.getLongitude(0)) > epsilon &&
 
-                Line2D.ptSegDist(poly1.points.get(0).coordinates.get(0), poly1.points.get(0).coordinates.get(1),
-                        poly1.points.get(1).coordinates.get(0), poly1.points.get(1).coordinates.get(1),
-                        poly2.points.get(1).coordinates.get(0), poly2.points.get(1).coordinates.get(1)) > epsilon) {
+                Line2D.ptSegDist(packed1.getLatitude(0), packed1.getLongitude(0),
+                        packed1.getLatitude(1), packed1.getLongitude(1),
+                        packed2.getLatitude(1), packed2.getLongitude(1)) > epsilon) {
 
             return false;
         }
 
-        if (Line2D.ptSegDist(poly2.points.get(0).coordinates.get(0), poly2.points.get(0).coordinates.get(1),
-                poly2.points.get(1).coordinates.get(0), poly2.points.get(1).coordinates.get(1),
-                poly1.points.get(0).coordinates.get(0), poly1.points.get(0).coordinates.get(1)) > epsilon &&
+        if (Line2D.ptSegDist(packed2.getLatitude(0), packed2.getLongitude(0),
+                packed2.getLatitude(1), packed2.getLongitude(1),
+                packed1.getLatitude(0), packed1.getLongitude(0)) > epsilon &&
 
-                Line2D.ptSegDist(poly2.points.get(0).coordinates.get(0), poly2.points.get(0).coordinates.get(1),
-                        poly2.points.get(1).coordinates.get(0), poly2.points.get(1).coordinates.get(1),
-                        poly1.points.get(1).coordinates.get(0), poly1.points.get(1).coordinates.get(1)) > epsilon) {
+                Line2D.ptSegDist(packed2.getLatitude(0), packed2.getLongitude(0),
+                        packed2.getLatitude(1), packed2.getLongitude(1),
+                        packed1.getLatitude(1), packed1.getLongitude(1)) > epsilon) {
 
             return false;
         }
 
         // check last pair of segments
-        if (Line2D.ptSegDist(poly1.points.get(poly1.points.size() - 2).coordinates.get(0),
-                poly1.points.get(poly1.points.size() - 2).coordinates.get(1),
-                poly1.points.get(poly1.points.size() - 1).coordinates.get(0),
-                poly1.points.get(poly1.points.size() - 1).coordinates.get(1),
-                poly2.points.get(poly2.points.size() - 1).coordinates.get(0),
-                poly2.points.get(poly2.points.size() - 1).coordinates.get(1)) > epsilon &&
-
-                Line2D.ptSegDist(poly1.points.get(poly1.points.size() - 2).coordinates.get(0),
-                        poly1.points.get(poly1.points.size() - 2).coordinates.get(1),
-                        poly1.points.get(poly1.points.size() - 1).coordinates.get(0),
-                        poly1.points.get(poly1.points.size() - 1).coordinates.get(1),
-                        poly2.points.get(poly2.points.size() - 2).coordinates.get(0),
-                        poly2.points.get(poly2.points.size() - 2).coordinates.get(1)) > epsilon) {
+        if (Line2D.ptSegDist(packed1.getLatitude(packed1.size() - 2),
+                packed1.getLongitude(packed1.size() - 2),
+                packed1.getLatitude(packed1.size() - 1),
+                packed1.getLongitude(packed1.size() - 1),
+                packed2.getLatitude(packed2.size() - 1),
+                packed2.getLongitude(packed2.size() - 1)) > epsilon &&
+
+                Line2D.ptSegDist(packed1.getLatitude(packed1.size() - 2),
+                        packed1.getLongitude(packed1.size() - 2),
+                        packed1.getLatitude(packed1.size() - 1),
+                        packed1.getLongitude(packed1.size() - 1),
+                        packed2.getLatitude(packed2.size() - 2),
+                        packed2.getLongitude(packed2.size() - 2)) > epsilon) {
 
             return false;
         }
-        if (Line2D.ptSegDist(poly2.points.get(poly2.points.size() - 2).coordinates.get(0),
-                poly2.points.get(poly2.points.size() - 2).coordinates.get(1),
-                poly2.points.get(poly2.points.size() - 1).coordinates.get(0),
-                poly2.points.get(poly2.points.size() - 1).coordinates.get(1),
-                poly1.points.get(poly1.points.size() - 2).coordinates.get(0),
-                poly1.points.get(poly1.points.size() - 2).coordinates.get(1)) > epsilon &&
-
-                Line2D.ptSegDist(poly2.points.get(poly2.points.size() - 2).coordinates.get(0),
-                        poly2.points.get(poly2.points.size() - 2).coordinates.get(1),
-                        poly2.points.get(poly2.points.size() - 1).coordinates.get(0),
-                        poly2.points.get(poly2.points.size() - 1).coordinates.get(1),
-                        poly1.points.get(poly1.points.size() - 1).coordinates.get(0),
-                        poly1.points.get(poly1.points.size() - 1).coordinates.get(1)) > epsilon) {
+        if (Line2D.ptSegDist(packed2.getLatitude(packed2.size() - 2),
+                packed2.getLongitude(packed2.size() - 2),
+                packed2.getLatitude(packed2.size() - 1),
+                packed2.getLongitude(packed2.size() - 1),
+                packed1.getLatitude(packed1.size() - 2),
+                packed1.getLongitude(packed1.size() - 2)) > epsilon &&
+
+                Line2D.ptSegDist(packed2.getLatitude(packed2.size() - 2),
+                        packed2.getLongitude(packed2.size() - 2),
+                        packed2.getLatitude(packed2.size() - 1),
+                        packed2.getLongitude(packed2.size() - 1),
+                        packed1.getLatitude(packed1.size() - 1),
+                        packed1.getLongitude(packed1.size() - 1)) > epsilon) {
 
             return false;
         }
@@ -348,19 +352,17 @@ public class PolygonFrechetDistance {
         org.locationtech.jts.geom.Polygon tempCircle;
         Geometry tempGeom;
 
-        for (int i = 0; i < poly1.points.size() - 1; i++) {
-            for (int j = 0; j < poly2.points.size() - 1; j++) {
+        for (int i = 0; i < packed1.size() - 1; i++) {
+            for (int j = 0; j < packed2.size() - 1; j++) {
 
-                p1 = new Coordinate(poly1.points.get(i).coordinates.get(0), poly1.points.get(i).coordinates.get(1));
-                p2 = new Coordinate(poly1.points.get(i + 1).coordinates.get(0),
-                        poly1.points.get(i + 1).coordinates.get(1));
-                q1 = new Coordinate(poly2.points.get(j).coordinates.get(0), poly2.points.get(j).coordinates.get(1));
-                q2 = new Coordinate(poly2.points.get(j + 1).coordinates.get(0),
-                        poly2.points.get(j + 1).coordinates.get(1));
+                p1 = new Coordinate(packed1.getLatitude(i), packed1.getLongitude(i));
+                p2 = new Coordinate(packed1.getLatitude(i + 1), packed1.getLongitude(i + 1));
+                q1 = new Coordinate(packed2.getLatitude(j), packed2.getLongitude(j));
+                q2 = new Coordinate(packed2.getLatitude(j + 1), packed2.getLongitude(j + 1));
 
-                if (Line2D.ptSegDist(poly2.points.get(j).coordinates.get(0), poly2.points.get(j).coordinates.get(1),
-                        poly2.points.get(j + 1).coordinates.get(0), poly2.points.get(j + 1).coordinates.get(1),
-                        poly1.points.get(i).coordinates.get(0), poly1.points.get(i).coordinates.get(1)) > epsilon) {
+                if (Line2D.ptSegDist(packed2.getLatitude(j), packed2.getLongitude(j),
+                        packed2.getLatitude(j + 1), packed2.getLongitude(j + 1),
+                        packed1.getLatitude(i), packed1.getLongitude(i)) > epsilon) {
 
                     a[i][j] = b[i][j] = -1;
 
@@ -401,10 +403,9 @@ public class PolygonFrechetDistance {
                 }
 
                 // fill up c_ij and d_ij
-                double val1 = Line2D.ptSegDist(poly1.points.get(i).coordinates.get(0),
-                        poly1.points.get(i).coordinates.get(1), poly1.points.get(i + 1).coordinates.get(0),
-                        poly1.points.get(i + 1).coordinates.get(1), poly2.points.get(j).coordinates.get(0),
-                        poly2.points.get(j).coordinates.get(1));
+                double val1 = Line2D.ptSegDist(packed1.getLatitude(i), packed1.getLongitude(i),
+                        packed1.getLatitude(i + 1), packed1.getLongitude(i + 1),
+                        packed2.getLatitude(j), packed2.getLongitude(j));
 
                 if (val1 > epsilon) {
                     c[i][j] = d[i][j] = -1;
@@ -448,7 +449,7 @@ public class PolygonFrechetDistance {
 
         // determine B^R_i,1
         boolean flag = true;
-        for (int i = 0; i < poly1.points.size(); i++) {
+        for (int i = 0; i < packed1.size(); i++) {
             if (flag && c[i][0] == -1 && d[i][0] == -1) {
                 flag = false;
             } else if (!flag) {
@@ -458,7 +459,7 @@ public class PolygonFrechetDistance {
 
         flag = true;
         // determine L^R_1,j
-        for (int j = 1; j < poly2.points.size(); j++) {
+        for (int j = 1; j < packed2.size(); j++) {
             if (flag && a[0][j] == -1 && b[0][j] == -1) {
                 flag = false;
             } else if (!flag) {
@@ -470,10 +471,10 @@ public class PolygonFrechetDistance {
         boolean retVal = true;
 
         // cannot enter the upper right cell
-        if (a[poly1.points.size() - 1][poly2.points.size() - 1] == -1
-                && b[poly1.points.size() - 1][poly2.points.size() - 1] == -1
-                && c[poly1.points.size() - 1][poly2.points.size() - 1] == -1
-                && d[poly1.points.size() - 1][poly2.points.size() - 1] == -1) {
+        if (a[packed1.size() - 1][packed2.size() - 1] == -1
+                && b[packed1.size() - 1][packed2.size() - 1] == -1
+                && c[packed1.size() - 1][packed2.size() - 1] == -1
+                && d[packed1.size() - 1][packed2.size() - 1] == -1) {
             retVal = false;
         }
 
@@ -21,7 +21,7 @@
  */
 package org.aksw.limes.core.measures.measure.pointsets.hausdorff;
 
-import org.aksw.limes.core.datastrutures.Point;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 
 /**
@@ -51,10 +51,12 @@ public class FastHausdorffMeasure extends NaiveHausdorffMeasure {
         double max = 0f;
         double d;
         double min;
-        for (Point x : X.points) {
-            min = Float.POSITIVE_INFINITY;
-            for (Point y : Y.points) {
-                d = pointToPointDistance(x, y);
+        PackedPolygon x = X.getPacked();
+        PackedPolygon y = Y.getPacked();
+        for (int i = 0; i < x.size(); i++) {
+            min = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < y.size(); j++) {
+                d = pointToPointDistance(x, i, y, j);
                 if (min > d) {
                     min = d;
                 }
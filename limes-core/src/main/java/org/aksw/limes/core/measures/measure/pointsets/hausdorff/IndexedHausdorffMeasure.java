@@ -25,10 +25,12 @@ import org.aksw.limes.core.datastrutures.Point;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.mapper.pointsets.PolygonIndex;
 import org.aksw.limes.core.measures.measure.pointsets.APointsetsMeasure;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -100,28 +102,35 @@ public class IndexedHausdorffMeasure extends APointsetsMeasure {
 
         Map<String, Map<String, Double>> map = new HashMap<String, Map<String, Double>>();
         Map<String, Double> mapping;
-        Map<Point, Map<Point, Double>> distances;
-        Map<Point, Map<Point, Double>> exemplars;
+        double[] distances;
+        // distances from points of s to points of t, NaN if not computed
+        double[][] exemplars;
+        int[] exemplarIndexes;
+        int exemplarCount;
         double min, max, d;
         boolean approximationWorked;
         for (Polygon s : source) {
-            distances = getInnerDistances(s);
+            PackedPolygon x = s.getPacked();
+            int n = x.size();
+            distances = PolygonIndex.getInnerDistances(x);
             // now run approximation
             mapping = new HashMap<String, Double>();
             for (Polygon t : target) {
+                PackedPolygon y = t.getPacked();
                 max = 0f;
-                exemplars = new HashMap<Point, Map<Point, Double>>();
-                for (Point x : s.points) {
+                exemplars = new double[n][];
+                exemplarIndexes = new int[n];
+                exemplarCount = 0;
+                for (int i = 0; i < n; i++) {
                     // no exemplars yet, then simply compute distance to all
                     // points y
-                    if (exemplars.isEmpty()) {
+                    if (exemplarCount == 0) {
                         min = Double.POSITIVE_INFINITY;
-                        for (Point y : t.points) {
-                            d = pointToPointDistance(x, y);
-                            if (!exemplars.containsKey(x)) {
-                                exemplars.put(x, new HashMap<Point, Double>());
-                            }
-                            exemplars.get(x).put(y, d);
+                        exemplars[i] = new double[y.size()];
+                        exemplarIndexes[exemplarCount++] = i;
+                        for (int j = 0; j < y.size(); j++) {
+                            d = pointToPointDistance(x, i, y, j);
+                            exemplars[i][j] = d;
                             if (d < min) {
                                 min = d;
                             }
@@ -131,18 +140,16 @@ public class IndexedHausdorffMeasure extends APointsetsMeasure {
                     else {
                         // try each exemplar to point combination
                         min = Double.POSITIVE_INFINITY;
-                        for (Point y : t.points) {
+                        for (int j = 0; j < y.size(); j++) {
                             approximationWorked = false;
-                            for (Point e : exemplars.keySet()) {
+                            for (int k = 0; k < exemplarCount; k++) {
+                                int e = exemplarIndexes[k];
                                 double approximation = 0;
                                 // check whether distance from y to examplar was
                                 // actually computed
-                                if (exemplars.get(e).containsKey(y)) {
-                                    if (s.points.indexOf(x) < s.points.indexOf(e)) {
-                                        approximation = Math.abs(distances.get(x).get(e) - exemplars.get(e).get(y));
-                                    } else {
-                                        approximation = Math.abs(distances.get(e).get(x) - exemplars.get(e).get(y));
-                                    }
+                                if (e != i && !Double.isNaN(exemplars[e][j])) {
+                                    approximation = Math.abs(distances[PolygonIndex.getOffset(n, Math.min(e, i),
+                                            Math.max(e, i))] - exemplars[e][j]);
                                 }
                                 if (approximation > threshold) {
                                     approximationWorked = true;
@@ -150,12 +157,14 @@ public class IndexedHausdorffMeasure extends APointsetsMeasure {
                                 }
                             }
                             if (!approximationWorked) {
-                                d = pointToPointDistance(x, y);
+                                d = pointToPointDistance(x, i, y, j);
                                 // update exemplars
-                                if (!exemplars.containsKey(x)) {
-                                    exemplars.put(x, new HashMap<Point, Double>());
+                                if (exemplars[i] == null) {
+                                    exemplars[i] = new double[y.size()];
+                                    Arrays.fill(exemplars[i], Double.NaN);
+                                    exemplarIndexes[exemplarCount++] = i;
                                 }
-                                exemplars.get(x).put(y, d);
+                                exemplars[i][j] = d;
                                 if (min > d) {
                                     min = d;
                                 }
@@ -197,26 +206,33 @@ public class IndexedHausdorffMeasure extends APointsetsMeasure {
         }
         double max = 0f;
         double d;
-        Map<Point, Double> distances;
+        PackedPolygon x = X.getPacked();
+        PackedPolygon y = Y.getPacked();
+        // points of Y whose distance to the current point of X was computed
+        int[] exemplars = new int[y.size()];
+        double[] distances = new double[y.size()];
+        int exemplarCount;
         double min = 0, approx;
-        for (Point x : X.points) {
-            distances = new HashMap<Point, Double>();
-            for (Point y : Y.points) {
-                if (distances.isEmpty()) {
-                    min = pointToPointDistance(x, y);
-                    distances.put(y, min);
+        for (int i = 0; i < x.size(); i++) {
+            exemplarCount = 0;
+            for (int j = 0; j < y.size(); j++) {
+                if (exemplarCount == 0) {
+                    min = pointToPointDistance(x, i, y, j);
+                    exemplars[0] = j;
+                    distances[0] = min;
+                    exemplarCount = 1;
                 } else {
                     // first try examplars
                     double dist, minDist = Double.POSITIVE_INFINITY;
-                    Point exemplar = null;
-                    for (Point e : distances.keySet()) {
-                        dist = targetIndex.getDistance(Y.uri, e, y);
+                    int exemplar = -1;
+                    for (int k = 0; k < exemplarCount; k++) {
+                        dist = targetIndex.getDistance(Y.uri, exemplars[k], j);
                         if (dist < minDist) {
                             minDist = dist;
-                            exemplar = e;
+                            exemplar = k;
                         }
                     }
-                    approx = Math.abs(distances.get(exemplar) - minDist);
+                    approx = Math.abs(distances[exemplar] - minDist);
                     if (approx > threshold) {
                         // no need to compute d as it is larger than the
                         // threshold anyway
@@ -224,14 +240,15 @@ public class IndexedHausdorffMeasure extends APointsetsMeasure {
                         // the point
                         // being discarded anyway
                         d = threshold + 1;
-                        // distances.put(y, d);
                         if (min > d) {
                             min = d;
                         }
                     } else if (approx < min) {
                         // approximation does not give us any information
-                        d = pointToPointDistance(x, y);
-                        distances.put(y, d);
+                        d = pointToPointDistance(x, i, y, j);
+                        exemplars[exemplarCount] = j;
+                        distances[exemplarCount] = d;
+                        exemplarCount++;
                         if (min > d) {
                             min = d;
                         }
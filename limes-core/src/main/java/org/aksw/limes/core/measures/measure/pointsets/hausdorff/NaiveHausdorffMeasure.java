@@ -21,11 +21,11 @@
  */
 package org.aksw.limes.core.measures.measure.pointsets.hausdorff;
 
-import org.aksw.limes.core.datastrutures.Point;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.pointsets.OrchidMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PackedPolygon;
 import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
 import org.aksw.limes.core.measures.measure.pointsets.APointsetsMeasure;
 
@@ -54,10 +54,12 @@ public class NaiveHausdorffMeasure extends APointsetsMeasure {
         double max = 0;
         double d;
         double min;
-        for (Point x : X.points) {
+        PackedPolygon x = X.getPacked();
+        PackedPolygon y = Y.getPacked();
+        for (int i = 0; i < x.size(); i++) {
             min = Double.POSITIVE_INFINITY;
-            for (Point y : Y.points) {
-                d = pointToPointDistance(x, y);
+            for (int j = 0; j < y.size(); j++) {
+                d = pointToPointDistance(x, i, y, j);
                 if (min > d) {
                     min = d;
                 }
@@ -73,10 +75,12 @@ public class NaiveHausdorffMeasure extends APointsetsMeasure {
         double max = 0;
         double d;
         double min;
-        for (Point x : X.points) {
+        PackedPolygon x = X.getPacked();
+        PackedPolygon y = Y.getPacked();
+        for (int i = 0; i < x.size(); i++) {
             min = Double.POSITIVE_INFINITY;
-            for (Point y : Y.points) {
-                d = pointToPointDistance(x, y);
+            for (int j = 0; j < y.size(); j++) {
+                d = pointToPointDistance(x, i, y, j);
                 if (min > d) {
                     min = d;
                 }
@@ -22,6 +22,7 @@ import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.measures.measure.AMeasure;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.LcaIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import weka.core.Stopwords;
@@ -29,8 +30,13 @@ import weka.core.tokenizers.Tokenizer;
 import weka.core.tokenizers.WordTokenizer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Implements the edge-counting semantic string similarity abstract class.
@@ -48,9 +54,26 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
     protected static final int ADJECTIVE_DEPTH = 1;
     protected static final int ADVERB_DEPTH = 1;
 
+    // bound of the number of memoized token similarities
+    protected static final int MAX_MEMOIZED_SIMILARITIES = 1 << 20;
+
     protected AIndex Indexer = null;
     protected SemanticDictionary dictionary = null;
 
+    // senses of the tokens resolved so far
+    protected final ConcurrentHashMap<String, Sense> senses = new ConcurrentHashMap<String, Sense>();
+    // similarities of the token pairs computed so far, least recently used
+    // pairs are evicted first
+    protected final Map<String, Double> tokenSimilarities = Collections.synchronizedMap(
+            new LinkedHashMap<String, Double>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                    return size() > MAX_MEMOIZED_SIMILARITIES;
+                }
+            });
+
     public AEdgeCountingSemanticMeasure(AIndex indexer) {
         dictionary = new SemanticDictionary();
         dictionary.exportDictionaryToFile();
@@ -59,6 +82,20 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
 
     }
 
+    /**
+     * Creates a measure over an already opened dictionary, e.g. to share one
+     * dictionary between several measures.
+     *
+     * @param indexer,
+     *            the index of the hypernym paths
+     * @param dictionary,
+     *            the opened semantic dictionary
+     */
+    public AEdgeCountingSemanticMeasure(AIndex indexer, SemanticDictionary dictionary) {
+        this.dictionary = dictionary;
+        Indexer = indexer;
+    }
+
     public SemanticDictionary getSemanticDictionary() {
         return dictionary;
     }
@@ -146,6 +183,50 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
         return paths;
     }
 
+    /**
+     * Retrieves the lowest common ancestor index of the hierarchy of two
+     * concepts, which answers least common subsumer and shortest path queries
+     * without intersecting their hypernym paths.
+     *
+     * @param synset1,
+     *            the first input concept
+     * @param synset2,
+     *            the second input concept
+     * @return the index, or null if the concepts have different POS or the
+     *         index instance cannot provide one
+     */
+    protected LcaIndex getLcaIndex(ISynset synset1, ISynset synset2) {
+        if (synset1 == null || synset2 == null || synset1.getPOS() != synset2.getPOS())
+            return null;
+        return Indexer.getLcaIndex(synset1.getPOS());
+    }
+
+    /**
+     * Computes the similarity between two concepts with the lowest common
+     * ancestor index of their hierarchy. Concepts missing from the index or
+     * of different types have similarity 0.
+     *
+     * @param synset1,
+     *            the first input concept
+     * @param synset2,
+     *            the second input concept
+     * @param similarity,
+     *            computes the similarity of the concepts from the index
+     * @return the similarity between synset1 and synset2, or NaN if there is
+     *         no index and their hypernym paths have to be compared instead
+     */
+    protected double getSimilarityFromLcaIndex(ISynset synset1, ISynset synset2,
+                                               ToDoubleFunction<LcaIndex> similarity) {
+        LcaIndex lca = getLcaIndex(synset1, synset2);
+        if (lca == null)
+            return Double.NaN;
+        if (!lca.contains(synset1.getOffset()) || !lca.contains(synset2.getOffset()))
+            return 0;
+        if (synset1.getType() != synset2.getType())
+            return 0;
+        return similarity.applyAsDouble(lca);
+    }
+
     /**
      * Calculates the semantic similarity between two concepts.
      *
@@ -229,6 +310,149 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
         return maxSim;
     }
 
+    /**
+     * Retrieves the senses of a token, i.e. the synsets of its IIndexWord,
+     * resolving them only the first time the token is seen.
+     *
+     * @param token,
+     *            the input token
+     * @return the senses of the token, empty if it is not in the dictionary
+     */
+    public Sense getSense(String token) {
+        return senses.computeIfAbsent(token, t -> {
+            IIndexWord w = getIIndexWord(t);
+            if (w == null || getWordIDs(w) == null)
+                return Sense.NONE;
+            List<ISynset> synsets = new ArrayList<ISynset>();
+            int minDepth = Integer.MAX_VALUE, maxDepth = -1;
+            for (IWordID wordID : getWordIDs(w)) {
+                ISynset synset = getSynset(getIWord(wordID));
+                if (synset != null) {
+                    synsets.add(synset);
+                    int min = Indexer.getMinDepth(synset);
+                    if (min != -1) {
+                        minDepth = Math.min(minDepth, min);
+                        maxDepth = Math.max(maxDepth, Indexer.getMaxDepth(synset));
+                    }
+                }
+            }
+            if (synsets.isEmpty())
+                return Sense.NONE;
+            return new Sense(w.getPOS().getNumber(), synsets, maxDepth == -1 ? -1 : minDepth, maxDepth);
+        });
+    }
+
+    /**
+     * Calculates the semantic similarity between the senses of two tokens, as
+     * {@link #getSimilarity(IIndexWord, IIndexWord)} does for their
+     * IIndexWords.
+     *
+     * @param sense1,
+     *            the first input senses
+     * @param sense2,
+     *            the second input senses
+     * @return the maximal similarity of a synset of sense1 and a synset of
+     *         sense2
+     */
+    public double getSimilarity(Sense sense1, Sense sense2) {
+        double maxSim = 0.0d;
+        if (sense1.pos != sense2.pos)
+            return maxSim;
+        for (ISynset synset1 : sense1.synsets) {
+            for (ISynset synset2 : sense2.synsets) {
+                double sim = this.getSimilarity(synset1, synset2);
+                if (sim > maxSim) {
+                    maxSim = sim;
+                }
+                if (maxSim == 1.0d) {
+                    return maxSim;
+                }
+            }
+        }
+        return maxSim;
+    }
+
+    /**
+     * Bounds the semantic similarity between the senses of two tokens from
+     * above, using only the lengths of the hypernym paths of their synsets.
+     *
+     * @param sense1,
+     *            the first input senses
+     * @param sense2,
+     *            the second input senses
+     * @return an upper bound of {@link #getSimilarity(Sense, Sense)}
+     */
+    public double getSimilarityUpperBound(Sense sense1, Sense sense2) {
+        if (sense1.pos != sense2.pos || sense1.synsets.isEmpty() || sense2.synsets.isEmpty())
+            return 0.0d;
+        // no synset has any hypernym path
+        if (sense1.minDepth == -1 || sense2.minDepth == -1)
+            return 0.0d;
+        return getSimilarityUpperBound(sense1.pos, sense1.minDepth, sense1.maxDepth, sense2.minDepth,
+                sense2.maxDepth);
+    }
+
+    /**
+     * Bounds the similarity between two concepts of the given POS from above,
+     * given the ranges of the lengths of their hypernym paths. Measures that
+     * cannot bound their similarity return 1.
+     *
+     * @param posNumber,
+     *            the POS number id of the concepts
+     * @param minDepth1,
+     *            the length of the shortest path of the first concept
+     * @param maxDepth1,
+     *            the length of the longest path of the first concept
+     * @param minDepth2,
+     *            the length of the shortest path of the second concept
+     * @param maxDepth2,
+     *            the length of the longest path of the second concept
+     * @return an upper bound of the similarity
+     */
+    protected double getSimilarityUpperBound(int posNumber, int minDepth1, int maxDepth1, int minDepth2,
+                                             int maxDepth2) {
+        return 1.0d;
+    }
+
+    /**
+     * Calculates the semantic similarity between two tokens. Equal tokens have
+     * similarity 1, other pairs are memoized in a least recently used cache
+     * bounded by {@link #MAX_MEMOIZED_SIMILARITIES}.
+     *
+     * @param sourceToken,
+     *            the source input token
+     * @param targetToken,
+     *            the target input token
+     * @return the similarity of the tokens
+     */
+    public double getTokenSimilarity(String sourceToken, String targetToken) {
+        if (sourceToken.equals(targetToken))
+            return 1.0d;
+        String together = sourceToken.compareTo(targetToken) < 0 ? sourceToken + "||" + targetToken
+                : targetToken + "||" + sourceToken;
+        Double similarity = tokenSimilarities.get(together);
+        if (similarity == null) {
+            similarity = getSimilarity(getSense(sourceToken), getSense(targetToken));
+            tokenSimilarities.put(together, similarity);
+        }
+        return similarity;
+    }
+
+    /**
+     * Bounds the semantic similarity between two tokens from above.
+     *
+     * @param sourceToken,
+     *            the source input token
+     * @param targetToken,
+     *            the target input token
+     * @return an upper bound of {@link #getTokenSimilarity(String, String)}
+     */
+    public double getTokenSimilarityUpperBound(String sourceToken, String targetToken) {
+        if (sourceToken.equals(targetToken))
+            return 1.0d;
+        return getSimilarityUpperBound(getSense(sourceToken), getSense(targetToken));
+    }
+
     /**
      * Tokenizes an array of strings
      *
@@ -301,9 +525,6 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
             targetInTokens.add(tempTokens);
         }
 
-        ///////////////////////////////////////////////////////////////////
-        HashMap<String, Double> similaritiesMap = new HashMap<String, Double>();
-
         for (String sourceValue : instance1.getProperty(property1)) {
             if (sourceValue.equals(""))
                 continue;
@@ -331,16 +552,7 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
 
                             if (!flagTarget) {
 
-                                double targetTokenSim = 0.0d;
-
-                                double tempSim = checkSimilarity(similaritiesMap, sourceToken, targetToken);
-                                if (tempSim == Double.MAX_VALUE) {
-                                    targetTokenSim = (sourceToken.equals(targetToken) == true) ? 1d
-                                            : getSimilarity(sourceToken, targetToken);
-                                    similaritiesMap.put(sourceToken + "||" + targetToken, targetTokenSim);
-                                } else {
-                                    targetTokenSim = tempSim;
-                                }
+                                double targetTokenSim = getTokenSimilarity(sourceToken, targetToken);
                                 if (targetTokenSim > maxTargetTokenSim) {
                                     maxTargetTokenSim = targetTokenSim;
                                 }
@@ -439,4 +651,29 @@ public abstract class AEdgeCountingSemanticMeasure extends AMeasure implements I
         return idxWord1;
     }
 
+    /**
+     * The synsets of a token, with their POS and the range of the lengths of
+     * their hypernym paths.
+     */
+    public static class Sense {
+
+        public static final Sense NONE = new Sense(0, Collections.<ISynset>emptyList(), -1, -1);
+
+        protected final int pos;
+        protected final List<ISynset> synsets;
+        protected final int minDepth;
+        protected final int maxDepth;
+
+        public Sense(int pos, List<ISynset> synsets, int minDepth, int maxDepth) {
+            this.pos = pos;
+            this.synsets = synsets;
+            this.minDepth = minDepth;
+            this.maxDepth = maxDepth;
+        }
+
+        public List<ISynset> getSynsets() {
+            return synsets;
+        }
+    }
+
 }
@@ -44,6 +44,24 @@ public class SemanticDictionary {
     private String exFile = wordNetFolder + "JWI_Export_.wn";
     private static final Logger logger = LoggerFactory.getLogger(SemanticDictionary.class);
 
+    /**
+     * Retrieves the folder of the wordnet database files.
+     *
+     * @return the wordnet folder
+     */
+    public File getWordNetFolder() {
+        return new File(wordNetFolder);
+    }
+
+    /**
+     * Retrieves the file the wordnet database files are exported to.
+     *
+     * @return the exported wordnet file
+     */
+    public File getExportFile() {
+        return new File(exFile);
+    }
+
     /**
      * Exports the wordnet database files into one file.
      *
@@ -19,8 +19,10 @@ package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing;
 
 import edu.mit.jwi.item.ISynset;
 import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
 
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implements the Index interface.
@@ -30,6 +32,9 @@ import java.util.ArrayList;
  */
 public abstract class AIndex {
 
+    // lowest common ancestor indexes, built on first use
+    private final ConcurrentHashMap<POS, LcaIndex> lcaIndexes = new ConcurrentHashMap<POS, LcaIndex>();
+
     /**
      * Stores all necessary information into memory
      *
@@ -58,4 +63,90 @@ public abstract class AIndex {
      *
      */
     public abstract ArrayList<ArrayList<ISynsetID>> getHypernymPaths(ISynset synset);
+
+    /**
+     * Retrieves the length of the shortest hypernym path of a synset
+     *
+     * @param synset,
+     *            the input synset
+     *
+     * @return the minimal path length, or -1 if the synset has no paths
+     *
+     */
+    public int getMinDepth(ISynset synset) {
+        ArrayList<ArrayList<ISynsetID>> paths = getHypernymPaths(synset);
+        if (paths == null || paths.isEmpty())
+            return -1;
+        int depth = Integer.MAX_VALUE;
+        for (ArrayList<ISynsetID> path : paths)
+            depth = Math.min(depth, path.size());
+        return depth;
+    }
+
+    /**
+     * Retrieves the length of the longest hypernym path of a synset
+     *
+     * @param synset,
+     *            the input synset
+     *
+     * @return the maximal path length, or -1 if the synset has no paths
+     *
+     */
+    public int getMaxDepth(ISynset synset) {
+        ArrayList<ArrayList<ISynsetID>> paths = getHypernymPaths(synset);
+        if (paths == null || paths.isEmpty())
+            return -1;
+        int depth = 0;
+        for (ArrayList<ISynsetID> path : paths)
+            depth = Math.max(depth, path.size());
+        return depth;
+    }
+
+    /**
+     * Retrieves the offsets of all indexed synsets of a POS
+     *
+     * @param pos,
+     *            the input POS
+     *
+     * @return the synset offsets, or null if the index cannot enumerate its
+     *         synsets
+     *
+     */
+    public int[] getSynsetOffsets(POS pos) {
+        return null;
+    }
+
+    /**
+     * Retrieves all hypernym paths of a synset from memory
+     *
+     * @param pos,
+     *            the POS of the synset
+     * @param offset,
+     *            the offset of the synset
+     *
+     * @return a list of all hypernym paths
+     *
+     */
+    public abstract ArrayList<ArrayList<ISynsetID>> getHypernymPaths(POS pos, int offset);
+
+    /**
+     * Retrieves the lowest common ancestor index of the hypernym hierarchy of
+     * a POS, building it on first use
+     *
+     * @param pos,
+     *            the input POS
+     *
+     * @return the index, or null if the index cannot enumerate its synsets
+     *
+     */
+    public LcaIndex getLcaIndex(POS pos) {
+        LcaIndex index = lcaIndexes.get(pos);
+        if (index == null) {
+            int[] offsets = getSynsetOffsets(pos);
+            if (offsets == null)
+                return null;
+            index = lcaIndexes.computeIfAbsent(pos, p -> new LcaIndex(offsets, o -> getHypernymPaths(p, o)));
+        }
+        return index;
+    }
 }
@@ -0,0 +1,404 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing;
+
+import edu.mit.jwi.item.ISynsetID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Lowest common ancestor index over the hypernym hierarchy of one POS. It
+ * answers the least common subsumer and shortest path queries of
+ * {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder}
+ * and
+ * {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.ShortestPathFinder}
+ * with the same results, without intersecting hypernym path lists.
+ * <p>
+ * The synsets that have a single hypernym path form a forest, whose roots are
+ * joined under a virtual root. Pairs of such synsets are answered in constant
+ * time by an Euler tour of the forest and a sparse table of range minima over
+ * the depths of the tour. Every synset also stores its ancestors, sorted, with
+ * the shortest distance down to the synset and the length of the longest path
+ * of the ancestor. Pairs involving a synset with several paths (multiple
+ * inheritance) are answered by merging these ancestor lists.
+ * <p>
+ * Depths and lengths are counted as by the finders: the depth of a subsumer is
+ * the number of synsets on its longest path from a root, and the length
+ * between two synsets the number of edges between them. Synsets without a
+ * common ancestor are joined through the virtual root. The index is immutable
+ * and can be queried concurrently.
+ */
+public class LcaIndex {
+
+    // sorted synset offsets, the position of an offset is the id of its synset
+    private final int[] offsets;
+    // open addressing table from offsets to ids + 1 (0 marks empty slots)
+    private final int[] slotOffsets;
+    private final int[] slotIds;
+    private final int shift;
+    private final int[] minDepths;
+    private final int[] maxDepths;
+
+    // ancestors of every synset (itself included): ids, sorted, and the
+    // shortest distances down to the synset
+    private final int[] ancestorStarts;
+    private final int[] ancestors;
+    private final int[] distances;
+
+    // position of every synset with a single path in the euler tour, or -1
+    private final int[] firstVisits;
+    // synset ids of the euler tour, -1 for the virtual root
+    private final int[] tour;
+    private final int[] tourDepths;
+    // sparse[k][i] is the position of the minimal depth within tour[i, i + 2^k)
+    private final int[][] sparse;
+
+    /**
+     * Builds the index.
+     *
+     * @param synsetOffsets,
+     *            the offsets of all synsets of the POS
+     * @param paths,
+     *            returns the hypernym paths of a synset given its offset
+     */
+    public LcaIndex(int[] synsetOffsets, IntFunction<List<? extends List<ISynsetID>>> paths) {
+        int[] sorted = synsetOffsets.clone();
+        Arrays.sort(sorted);
+        this.offsets = sorted;
+        int n = offsets.length;
+        int capacity = Integer.highestOneBit(Math.max(1, n) * 2) * 2;
+        this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        this.slotOffsets = new int[capacity];
+        this.slotIds = new int[capacity];
+        for (int i = 0; i < n; i++) {
+            int slot = slot(offsets[i]);
+            while (slotIds[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotOffsets[slot] = offsets[i];
+            slotIds[slot] = i + 1;
+        }
+        this.minDepths = new int[n];
+        this.maxDepths = new int[n];
+        int[] parents = new int[n];
+        Arrays.fill(parents, -2);
+
+        List<int[]> nodeAncestors = new ArrayList<int[]>(n);
+        List<int[]> nodeDistances = new ArrayList<int[]>(n);
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            List<? extends List<ISynsetID>> trees = paths.apply(offsets[i]);
+            if (trees == null || trees.isEmpty()) {
+                minDepths[i] = maxDepths[i] = -1;
+                nodeAncestors.add(new int[0]);
+                nodeDistances.add(new int[0]);
+                continue;
+            }
+            int min = Integer.MAX_VALUE, max = 0;
+            int length = 0;
+            for (List<ISynsetID> tree : trees) {
+                min = Math.min(min, tree.size());
+                max = Math.max(max, tree.size());
+                length += tree.size();
+            }
+            minDepths[i] = min;
+            maxDepths[i] = max;
+            // pack (ancestor, distance) to keep the shortest distance per ancestor
+            long[] pairs = new long[length];
+            int size = 0;
+            for (List<ISynsetID> tree : trees) {
+                for (int k = 0; k < tree.size(); k++) {
+                    int id = Arrays.binarySearch(offsets, tree.get(k).getOffset());
+                    if (id >= 0) {
+                        pairs[size++] = ((long) id << 32) | (tree.size() - 1 - k);
+                    }
+                }
+            }
+            Arrays.sort(pairs, 0, size);
+            int[] ids = new int[size];
+            int[] dists = new int[size];
+            int m = 0;
+            for (int k = 0; k < size; k++) {
+                int id = (int) (pairs[k] >>> 32);
+                if (m == 0 || ids[m - 1] != id) {
+                    ids[m] = id;
+                    dists[m++] = (int) pairs[k];
+                }
+            }
+            nodeAncestors.add(Arrays.copyOf(ids, m));
+            nodeDistances.add(Arrays.copyOf(dists, m));
+            total += m;
+            if (trees.size() == 1) {
+                List<ISynsetID> tree = trees.get(0);
+                if (tree.size() < 2) {
+                    parents[i] = -1;
+                } else {
+                    int parent = Arrays.binarySearch(offsets, tree.get(tree.size() - 2).getOffset());
+                    // a parent outside of the index leaves the synset out of the forest
+                    parents[i] = parent < 0 ? -2 : parent;
+                }
+            }
+        }
+        this.ancestorStarts = new int[n + 1];
+        this.ancestors = new int[total];
+        this.distances = new int[total];
+        for (int i = 0, position = 0; i < n; i++) {
+            ancestorStarts[i] = position;
+            System.arraycopy(nodeAncestors.get(i), 0, ancestors, position, nodeAncestors.get(i).length);
+            System.arraycopy(nodeDistances.get(i), 0, distances, position, nodeDistances.get(i).length);
+            position += nodeAncestors.get(i).length;
+            ancestorStarts[i + 1] = position;
+        }
+
+        // children lists of the single path forest, -1 being the virtual root
+        int[] childCounts = new int[n + 1];
+        int treeSize = 1;
+        for (int i = 0; i < n; i++) {
+            if (parents[i] >= -1) {
+                childCounts[parents[i] + 1]++;
+                treeSize++;
+            }
+        }
+        int[] childStarts = new int[n + 2];
+        for (int i = 0; i <= n; i++) {
+            childStarts[i + 1] = childStarts[i] + childCounts[i];
+        }
+        int[] children = new int[childStarts[n + 1]];
+        int[] fill = Arrays.copyOf(childStarts, n + 1);
+        for (int i = 0; i < n; i++) {
+            if (parents[i] >= -1) {
+                children[fill[parents[i] + 1]++] = i;
+            }
+        }
+
+        // iterative euler tour from the virtual root
+        this.firstVisits = new int[n];
+        Arrays.fill(firstVisits, -1);
+        // at most, as synsets below a synset left out of the forest are not reached
+        int length = 2 * treeSize - 1;
+        int[] tour = new int[length];
+        int[] tourDepths = new int[length];
+        int[] stack = new int[treeSize + 1];
+        int[] next = new int[n + 1];
+        int top = 0, position = 0;
+        stack[0] = -1;
+        tour[position] = -1;
+        tourDepths[position++] = 0;
+        while (top >= 0) {
+            int node = stack[top];
+            int c = childStarts[node + 1] + next[node + 1];
+            if (c < childStarts[node + 2]) {
+                next[node + 1]++;
+                int child = children[c];
+                stack[++top] = child;
+                firstVisits[child] = position;
+                tour[position] = child;
+                tourDepths[position++] = top;
+            } else if (--top >= 0) {
+                tour[position] = stack[top];
+                tourDepths[position++] = top;
+            }
+        }
+
+        length = position;
+        this.tour = Arrays.copyOf(tour, length);
+        this.tourDepths = Arrays.copyOf(tourDepths, length);
+
+        int levels = 32 - Integer.numberOfLeadingZeros(length);
+        this.sparse = new int[levels][];
+        sparse[0] = new int[length];
+        for (int i = 0; i < length; i++) {
+            sparse[0][i] = i;
+        }
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int[] previous = sparse[k - 1];
+            int[] level = new int[length - (1 << k) + 1];
+            for (int i = 0; i < level.length; i++) {
+                int a = previous[i], b = previous[i + half];
+                level[i] = tourDepths[a] <= tourDepths[b] ? a : b;
+            }
+            sparse[k] = level;
+        }
+    }
+
+    /**
+     * @return the number of synsets
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Checks whether a synset is indexed and has hypernym paths.
+     *
+     * @param offset,
+     *            the offset of the synset
+     * @return true if the synset has paths
+     */
+    public boolean contains(int offset) {
+        return id(offset) != -1;
+    }
+
+    /**
+     * Retrieves the depth of the least common subsumer of two synsets, as
+     * {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder#getDepth()}
+     * does.
+     *
+     * @param offset1,
+     *            the offset of the first synset
+     * @param offset2,
+     *            the offset of the second synset
+     * @return the depth of the subsumer, or -1 if a synset has no paths
+     */
+    public int getDepth(int offset1, int offset2) {
+        long subsumer = getSubsumer(offset1, offset2);
+        return subsumer == -1 ? -1 : (int) (subsumer >>> 32);
+    }
+
+    /**
+     * Retrieves the distance between two synsets through their least common
+     * subsumer, as
+     * {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder#getSynsetsDistance()}
+     * does.
+     *
+     * @param offset1,
+     *            the offset of the first synset
+     * @param offset2,
+     *            the offset of the second synset
+     * @return the distance, or -1 if a synset has no paths
+     */
+    public int getSynsetsDistance(int offset1, int offset2) {
+        long subsumer = getSubsumer(offset1, offset2);
+        return subsumer == -1 ? -1 : (int) subsumer;
+    }
+
+    /**
+     * Retrieves the depth of the least common subsumer of two synsets and
+     * their distance through it.
+     *
+     * @param offset1,
+     *            the offset of the first synset
+     * @param offset2,
+     *            the offset of the second synset
+     * @return the depth in the upper and the distance in the lower 32 bits, or
+     *         -1 if a synset has no paths
+     */
+    public long getSubsumer(int offset1, int offset2) {
+        int i = id(offset1), j = id(offset2);
+        if (i == -1 || j == -1)
+            return -1;
+        int lca = treeLca(i, j);
+        if (lca != -2) {
+            int depth = lca == -1 ? 0 : minDepths[lca];
+            return ((long) depth << 32) | (minDepths[i] + minDepths[j] - 2 * depth);
+        }
+        int depth = 0;
+        int distance = minDepths[i] + minDepths[j];
+        int a = ancestorStarts[i], aEnd = ancestorStarts[i + 1];
+        int b = ancestorStarts[j], bEnd = ancestorStarts[j + 1];
+        while (a < aEnd && b < bEnd) {
+            if (ancestors[a] < ancestors[b]) {
+                a++;
+            } else if (ancestors[a] > ancestors[b]) {
+                b++;
+            } else {
+                int d = maxDepths[ancestors[a]];
+                int length = distances[a] + distances[b];
+                if (d > depth || (d == depth && length < distance)) {
+                    depth = d;
+                    distance = length;
+                }
+                a++;
+                b++;
+            }
+        }
+        return ((long) depth << 32) | distance;
+    }
+
+    /**
+     * Retrieves the length of the shortest path between two synsets, as
+     * {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.ShortestPathFinder#shortestPath(ArrayList, ArrayList)}
+     * does.
+     *
+     * @param offset1,
+     *            the offset of the first synset
+     * @param offset2,
+     *            the offset of the second synset
+     * @return the number of edges of the path, or -1 if a synset has no paths
+     */
+    public int getShortestPath(int offset1, int offset2) {
+        int i = id(offset1), j = id(offset2);
+        if (i == -1 || j == -1)
+            return -1;
+        int lca = treeLca(i, j);
+        if (lca != -2) {
+            int depth = lca == -1 ? 0 : minDepths[lca];
+            return minDepths[i] + minDepths[j] - 2 * depth;
+        }
+        int path = minDepths[i] + minDepths[j];
+        int a = ancestorStarts[i], aEnd = ancestorStarts[i + 1];
+        int b = ancestorStarts[j], bEnd = ancestorStarts[j + 1];
+        while (a < aEnd && b < bEnd) {
+            if (ancestors[a] < ancestors[b]) {
+                a++;
+            } else if (ancestors[a] > ancestors[b]) {
+                b++;
+            } else {
+                path = Math.min(path, distances[a] + distances[b]);
+                a++;
+                b++;
+            }
+        }
+        return path;
+    }
+
+    private int slot(int offset) {
+        return (offset * 0x9E3779B9) >>> shift;
+    }
+
+    // id of a synset with paths, or -1
+    private int id(int offset) {
+        for (int slot = slot(offset); slotIds[slot] != 0; slot = (slot + 1) & (slotIds.length - 1)) {
+            if (slotOffsets[slot] == offset) {
+                int id = slotIds[slot] - 1;
+                return minDepths[id] == -1 ? -1 : id;
+            }
+        }
+        return -1;
+    }
+
+    // lowest common ancestor in the single path forest, -1 for the virtual
+    // root, or -2 if one of the synsets has several paths
+    private int treeLca(int i, int j) {
+        int from = firstVisits[i], to = firstVisits[j];
+        if (from == -1 || to == -1)
+            return -2;
+        if (from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+        int a = sparse[k][from], b = sparse[k][to - (1 << k) + 1];
+        return tour[tourDepths[a] <= tourDepths[b] ? a : b];
+    }
+}
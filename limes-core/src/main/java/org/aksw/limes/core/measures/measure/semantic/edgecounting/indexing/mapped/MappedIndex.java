@@ -0,0 +1,394 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.mapped;
+
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.SynsetID;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.HypernymPathsFinder;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implements an index that computes the hypernym paths of every synset in
+ * wordnet once, stores them in a binary file next to the wordnet database and
+ * memory-maps that file on subsequent runs, instead of recomputing all paths
+ * on the heap as {@link org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.memory.MemoryIndex}
+ * does.
+ * <p>
+ * The file holds one section per POS. A section stores the synset offsets in
+ * ascending order, their minimal and maximal path lengths, the index of the
+ * first path of every synset, the start of every path and the synset offsets
+ * of all paths, all as ints. Paths are looked up by binary search over the
+ * offsets. The file is rebuilt if it is missing, has an unknown format or is
+ * older than the exported wordnet file.
+ */
+public class MappedIndex extends AIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MappedIndex.class);
+
+    public static final String FILE_NAME = "JWI_Hypernym_Paths_.idx";
+
+    private static final int MAGIC = 0x4c4d4850;
+    private static final int VERSION = 1;
+
+    protected File file = null;
+    protected File exportFile = null;
+
+    private IntBuffer buffer = null;
+    // start of the section of each POS in the buffer, by POS number
+    private final int[] sections = new int[POS.values().length + 1];
+
+    /**
+     * Creates an index stored in the wordnet folder.
+     */
+    public MappedIndex() {
+        SemanticDictionary dictionary = new SemanticDictionary();
+        this.file = new File(dictionary.getWordNetFolder(), FILE_NAME);
+        this.exportFile = dictionary.getExportFile();
+    }
+
+    /**
+     * Creates an index stored in the given file.
+     *
+     * @param file,
+     *            the index file
+     */
+    public MappedIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void init(boolean f) {
+        if (f || !isValid()) {
+            build();
+        }
+        map();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Maps the index file, building it first if it is not valid.
+     */
+    @Override
+    public void preIndex() {
+        init(false);
+    }
+
+    /**
+     * Checks whether the index file exists, has the current format and is not
+     * older than the exported wordnet file.
+     *
+     * @return true if the file can be mapped
+     */
+    public boolean isValid() {
+        if (!file.isFile())
+            return false;
+        if (exportFile != null && exportFile.isFile() && exportFile.lastModified() > file.lastModified())
+            return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the hypernym paths of all synsets of wordnet and writes them to
+     * the index file.
+     */
+    public void build() {
+        SemanticDictionary dictionary = new SemanticDictionary();
+        dictionary.exportDictionaryToFile();
+        dictionary.openDictionaryFromFile();
+        logger.info("Indexing begins.");
+        Map<POS, TreeMap<Integer, List<int[]>>> paths = new TreeMap<POS, TreeMap<Integer, List<int[]>>>();
+        try {
+            for (POS pos : POS.values()) {
+                TreeMap<Integer, List<int[]>> synsets = new TreeMap<Integer, List<int[]>>();
+                Iterator<ISynset> iterator = dictionary.getDictionary().getSynsetIterator(pos);
+                while (iterator.hasNext()) {
+                    ISynset synset = iterator.next();
+                    List<int[]> trees = new ArrayList<int[]>();
+                    for (ArrayList<ISynsetID> tree : HypernymPathsFinder.getHypernymPaths(dictionary, synset)) {
+                        int[] offsets = new int[tree.size()];
+                        for (int i = 0; i < offsets.length; i++) {
+                            offsets[i] = tree.get(i).getOffset();
+                        }
+                        trees.add(offsets);
+                    }
+                    synsets.put(synset.getOffset(), trees);
+                }
+                paths.put(pos, synsets);
+            }
+        } finally {
+            dictionary.removeDictionary();
+        }
+        write(file, paths);
+        logger.info("Indexing done.");
+    }
+
+    /**
+     * Writes hypernym paths to an index file. The file is replaced atomically,
+     * so that concurrent readers see either the old or the new index.
+     *
+     * @param file,
+     *            the index file
+     * @param paths,
+     *            for each POS, the paths of the synsets by synset offset, each
+     *            path given by the offsets of its synsets from the root
+     */
+    public static void write(File file, Map<POS, TreeMap<Integer, List<int[]>>> paths) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        try {
+            File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                for (POS pos : POS.values()) {
+                    TreeMap<Integer, List<int[]>> synsets = paths.get(pos);
+                    if (synsets == null)
+                        synsets = new TreeMap<Integer, List<int[]>>();
+                    writeSection(out, synsets);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp.toPath());
+                throw e;
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Couldn't write the hypernym paths index " + file);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, TreeMap<Integer, List<int[]>> synsets)
+            throws IOException {
+        int pathCount = 0, idCount = 0;
+        for (List<int[]> trees : synsets.values()) {
+            pathCount += trees.size();
+            for (int[] tree : trees)
+                idCount += tree.length;
+        }
+        out.writeInt(synsets.size());
+        out.writeInt(pathCount);
+        out.writeInt(idCount);
+        for (int offset : synsets.keySet())
+            out.writeInt(offset);
+        for (List<int[]> trees : synsets.values()) {
+            int min = trees.isEmpty() ? -1 : Integer.MAX_VALUE;
+            for (int[] tree : trees)
+                min = Math.min(min, tree.length);
+            out.writeInt(min);
+        }
+        for (List<int[]> trees : synsets.values()) {
+            int max = -1;
+            for (int[] tree : trees)
+                max = Math.max(max, tree.length);
+            out.writeInt(max);
+        }
+        int first = 0;
+        for (List<int[]> trees : synsets.values()) {
+            out.writeInt(first);
+            first += trees.size();
+        }
+        out.writeInt(first);
+        int start = 0;
+        for (List<int[]> trees : synsets.values()) {
+            for (int[] tree : trees) {
+                out.writeInt(start);
+                start += tree.length;
+            }
+        }
+        out.writeInt(start);
+        for (List<int[]> trees : synsets.values())
+            for (int[] tree : trees)
+                for (int id : tree)
+                    out.writeInt(id);
+    }
+
+    /**
+     * Memory-maps the index file.
+     */
+    public void map() {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+                throw new IOException("Unknown format");
+            }
+            int position = 2;
+            for (POS pos : POS.values()) {
+                sections[pos.getNumber()] = position;
+                int n = ints.get(position), pathCount = ints.get(position + 1), idCount = ints.get(position + 2);
+                position += 3 + 4 * n + 1 + pathCount + 1 + idCount;
+            }
+            buffer = ints;
+        } catch (IOException e) {
+            logger.error("Couldn't map the hypernym paths index " + file);
+            throw new RuntimeException(e);
+        }
+    }
+
+    // position of the synset in its section, or -1 if it is not indexed
+    private int find(int section, int offset) {
+        int low = 0, high = buffer.get(section) - 1;
+        int offsets = section + 3;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.get(offsets + mid);
+            if (value < offset)
+                low = mid + 1;
+            else if (value > offset)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getSynsetOffsets(POS pos) {
+        int section = sections[pos.getNumber()];
+        int[] offsets = new int[buffer.get(section)];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.get(section + 3 + i);
+        }
+        return offsets;
+    }
+
+    /**
+     * Retrieves all hypernym paths of a synset from the mapped file
+     *
+     * @param pos,
+     *            the POS of the synset
+     * @param offset,
+     *            the offset of the synset
+     * @return a list of all hypernym paths, empty if the synset is unknown
+     */
+    @Override
+    public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(POS pos, int offset) {
+        ArrayList<ArrayList<ISynsetID>> paths = new ArrayList<ArrayList<ISynsetID>>();
+        int section = sections[pos.getNumber()];
+        int i = find(section, offset);
+        if (i == -1)
+            return paths;
+        int n = buffer.get(section), pathCount = buffer.get(section + 1);
+        int firstPaths = section + 3 + 3 * n;
+        int pathStarts = firstPaths + n + 1;
+        int ids = pathStarts + pathCount + 1;
+        for (int p = buffer.get(firstPaths + i); p < buffer.get(firstPaths + i + 1); p++) {
+            int end = buffer.get(pathStarts + p + 1);
+            ArrayList<ISynsetID> path = new ArrayList<ISynsetID>(end - buffer.get(pathStarts + p));
+            for (int k = buffer.get(pathStarts + p); k < end; k++) {
+                path.add(new SynsetID(buffer.get(ids + k), pos));
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(ISynset synset) {
+        return getHypernymPaths(synset.getPOS(), synset.getOffset());
+    }
+
+    /**
+     * Retrieves the length of the shortest hypernym path of a synset
+     *
+     * @param pos,
+     *            the POS of the synset
+     * @param offset,
+     *            the offset of the synset
+     * @return the minimal path length, or -1 if the synset has no paths
+     */
+    public int getMinDepth(POS pos, int offset) {
+        int section = sections[pos.getNumber()];
+        int i = find(section, offset);
+        return i == -1 ? -1 : buffer.get(section + 3 + buffer.get(section) + i);
+    }
+
+    /**
+     * Retrieves the length of the longest hypernym path of a synset
+     *
+     * @param pos,
+     *            the POS of the synset
+     * @param offset,
+     *            the offset of the synset
+     * @return the maximal path length, or -1 if the synset has no paths
+     */
+    public int getMaxDepth(POS pos, int offset) {
+        int section = sections[pos.getNumber()];
+        int i = find(section, offset);
+        return i == -1 ? -1 : buffer.get(section + 3 + 2 * buffer.get(section) + i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMinDepth(ISynset synset) {
+        return getMinDepth(synset.getPOS(), synset.getOffset());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxDepth(ISynset synset) {
+        return getMaxDepth(synset.getPOS(), synset.getOffset());
+    }
+
+}
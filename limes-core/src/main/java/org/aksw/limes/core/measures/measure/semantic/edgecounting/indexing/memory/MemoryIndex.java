@@ -72,7 +72,7 @@ public class MemoryIndex extends AIndex {
 
     /**
      * Stores in memory all possible hypernym paths of a wordnet's synset from
-     * the root(s).
+     * the root(s), and the lengths of its shortest and longest path.
      *
      *
      */
@@ -84,6 +84,8 @@ public class MemoryIndex extends AIndex {
         logger.info("Indexing begins.");
         for (POS pos : POS.values()) {
             paths.put(pos.toString(), new HashMap<Integer, ArrayList<ArrayList<ISynsetID>>>());
+            minDepths.put(pos.toString(), new HashMap<Integer, Integer>());
+            maxDepths.put(pos.toString(), new HashMap<Integer, Integer>());
             Iterator<ISynset> iterator = dictionary.getDictionary().getSynsetIterator(pos);
             while (iterator.hasNext()) {
                 ISynset synset = iterator.next();
@@ -92,6 +94,15 @@ public class MemoryIndex extends AIndex {
                 HashMap<Integer, ArrayList<ArrayList<ISynsetID>>> temp = paths.get(pos.toString());
                 temp.put(synset.getOffset(), trees);
                 paths.put(pos.toString(), temp);
+                if (!trees.isEmpty()) {
+                    int min = Integer.MAX_VALUE, max = 0;
+                    for (ArrayList<ISynsetID> tree : trees) {
+                        min = Math.min(min, tree.size());
+                        max = Math.max(max, tree.size());
+                    }
+                    minDepths.get(pos.toString()).put(synset.getOffset(), min);
+                    maxDepths.get(pos.toString()).put(synset.getOffset(), max);
+                }
             }
         }
         logger.info("Indexing done.");
@@ -107,4 +118,45 @@ public class MemoryIndex extends AIndex {
         return paths.get(synset.getPOS().toString()).get(synset.getOffset());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getSynsetOffsets(POS pos) {
+        HashMap<Integer, ArrayList<ArrayList<ISynsetID>>> synsets = paths.get(pos.toString());
+        if (synsets == null)
+            return null;
+        int[] offsets = new int[synsets.size()];
+        int i = 0;
+        for (int offset : synsets.keySet())
+            offsets[i++] = offset;
+        return offsets;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(POS pos, int offset) {
+        return paths.get(pos.toString()).get(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMinDepth(ISynset synset) {
+        Integer depth = minDepths.get(synset.getPOS().toString()).get(synset.getOffset());
+        return depth == null ? -1 : depth;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxDepth(ISynset synset) {
+        Integer depth = maxDepths.get(synset.getPOS().toString()).get(synset.getOffset());
+        return depth == null ? -1 : depth;
+    }
+
 }
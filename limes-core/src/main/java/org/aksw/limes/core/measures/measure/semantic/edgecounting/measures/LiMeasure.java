@@ -20,8 +20,10 @@ package org.aksw.limes.core.measures.measure.semantic.edgecounting.measures;
 import edu.mit.jwi.item.ISynset;
 import edu.mit.jwi.item.ISynsetID;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.LcaIndex;
 
 import java.util.ArrayList;
 
@@ -41,6 +43,10 @@ public class LiMeasure extends AEdgeCountingSemanticMeasure {
         super(Indexer);
     }
 
+    public LiMeasure(AIndex Indexer, SemanticDictionary dictionary) {
+        super(Indexer, dictionary);
+    }
+
     /**
      * Calculates the actual LI similarity.
      *
@@ -67,6 +73,20 @@ public class LiMeasure extends AEdgeCountingSemanticMeasure {
             return 0.0d;
         }
 
+        return calculate(depth, length);
+    }
+
+    /**
+     * Calculates the actual LI similarity.
+     *
+     * @param depth,
+     *            the depth of the least common subsumer of two concepts
+     * @param length,
+     *            the length of the path between the concepts via their least
+     *            common subsumer
+     * @return the LI similarity between two concepts
+     */
+    public double calculate(double depth, double length) {
         double s1 = Math.pow(Math.E, -(a * length));
         double s2 = Math.pow(Math.E, (b * depth));
         double s3 = Math.pow(Math.E, -(b * depth));
@@ -90,6 +110,13 @@ public class LiMeasure extends AEdgeCountingSemanticMeasure {
      */
     @Override
     public double getSimilarityBetweenConcepts(ISynset synset1, ISynset synset2) {
+        double sim = getSimilarityFromLcaIndex(synset1, synset2,
+                lca -> {
+                    long subsumer = lca.getSubsumer(synset1.getOffset(), synset2.getOffset());
+                    return calculate((double) (subsumer >>> 32), (double) (int) subsumer);
+                });
+        if (!Double.isNaN(sim))
+            return sim;
         ArrayList<ArrayList<ISynsetID>> paths1 = getPaths(synset1);
         ArrayList<ArrayList<ISynsetID>> paths2 = getPaths(synset2);
 
@@ -103,6 +130,21 @@ public class LiMeasure extends AEdgeCountingSemanticMeasure {
         return calculate(paths1, paths2);
     }
 
+    /**
+     * The least common subsumer of two concepts is at most as deep as the
+     * shorter of their hypernym paths, and their distance is at least the
+     * difference of the lengths of their paths.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected double getSimilarityUpperBound(int posNumber, int minDepth1, int maxDepth1, int minDepth2,
+                                             int maxDepth2) {
+        int gap = Math.max(0, Math.max(minDepth1 - maxDepth2, minDepth2 - maxDepth1));
+        int depth = Math.min(maxDepth1, maxDepth2);
+        return Math.pow(Math.E, -(a * gap)) * Math.tanh(b * depth);
+    }
+
     @Override
     public double getRuntimeApproximation(double mappingSize) {
         return mappingSize / 1000d;
@@ -20,8 +20,10 @@ package org.aksw.limes.core.measures.measure.semantic.edgecounting.measures;
 import edu.mit.jwi.item.ISynset;
 import edu.mit.jwi.item.ISynsetID;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.ShortestPathFinder;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.LcaIndex;
 
 import java.util.ArrayList;
 
@@ -41,6 +43,10 @@ public class ShortestPathMeasure extends AEdgeCountingSemanticMeasure {
         super(Indexer);
     }
 
+    public ShortestPathMeasure(AIndex Indexer, SemanticDictionary dictionary) {
+        super(Indexer, dictionary);
+    }
+
     /**
      * Calculates the actual Shortest Path similarity.
      *
@@ -75,6 +81,11 @@ public class ShortestPathMeasure extends AEdgeCountingSemanticMeasure {
      */
     @Override
     public double getSimilarityBetweenConcepts(ISynset synset1, ISynset synset2) {
+        double sim = getSimilarityFromLcaIndex(synset1, synset2,
+                lca -> synset1.getOffset() == synset2.getOffset() ? maxValue
+                        : calculate(synset1, lca.getShortestPath(synset1.getOffset(), synset2.getOffset())));
+        if (!Double.isNaN(sim))
+            return sim;
         ArrayList<ArrayList<ISynsetID>> paths1 = getPaths(synset1);
         ArrayList<ArrayList<ISynsetID>> paths2 = getPaths(synset2);
 
@@ -96,6 +107,20 @@ public class ShortestPathMeasure extends AEdgeCountingSemanticMeasure {
 
     }
 
+    /**
+     * The shortest path between two concepts is at least as long as the
+     * difference of the lengths of their hypernym paths.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected double getSimilarityUpperBound(int posNumber, int minDepth1, int maxDepth1, int minDepth2,
+                                             int maxDepth2) {
+        int gap = Math.max(0, Math.max(minDepth1 - maxDepth2, minDepth2 - maxDepth1));
+        double D = (double) getHierarchyDepth(posNumber);
+        return ((2.0 * D) - gap) / (2.0 * D);
+    }
+
     @Override
     public double getRuntimeApproximation(double mappingSize) {
         return mappingSize / 1000d;
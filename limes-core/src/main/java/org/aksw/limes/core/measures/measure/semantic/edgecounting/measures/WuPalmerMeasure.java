@@ -20,8 +20,10 @@ package org.aksw.limes.core.measures.measure.semantic.edgecounting.measures;
 import edu.mit.jwi.item.ISynset;
 import edu.mit.jwi.item.ISynsetID;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder;
 import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.LcaIndex;
 
 import java.util.ArrayList;
 
@@ -40,6 +42,10 @@ public class WuPalmerMeasure extends AEdgeCountingSemanticMeasure {
         super(Indexer);
     }
 
+    public WuPalmerMeasure(AIndex Indexer, SemanticDictionary dictionary) {
+        super(Indexer, dictionary);
+    }
+
     /**
      * Calculates the actual WuPalmer similarity.
      *
@@ -50,8 +56,6 @@ public class WuPalmerMeasure extends AEdgeCountingSemanticMeasure {
      * @return the LI similarity between two concepts
      */
     public double calculate(ArrayList<ArrayList<ISynsetID>> synset1Tree, ArrayList<ArrayList<ISynsetID>> synset2Tree) {
-        double sim = 0;
-
         LeastCommonSubsumerFinder finder = new LeastCommonSubsumerFinder();
         finder.getLeastCommonSubsumer(synset1Tree, synset2Tree);
 
@@ -67,9 +71,21 @@ public class WuPalmerMeasure extends AEdgeCountingSemanticMeasure {
             return 0.0d;
         }
 
-        sim = (double) (2.0 * (double) depth) / (double) (length + (2.0 * depth));
+        return calculate(depth, length);
+    }
 
-        return sim;
+    /**
+     * Calculates the actual WuPalmer similarity.
+     *
+     * @param depth,
+     *            the depth of the least common subsumer of two concepts
+     * @param length,
+     *            the length of the path between the concepts via their least
+     *            common subsumer
+     * @return the WuPalmer similarity between two concepts
+     */
+    public double calculate(double depth, double length) {
+        return (double) (2.0 * (double) depth) / (double) (length + (2.0 * depth));
     }
 
     /**
@@ -86,6 +102,15 @@ public class WuPalmerMeasure extends AEdgeCountingSemanticMeasure {
      */
     @Override
     public double getSimilarityBetweenConcepts(ISynset synset1, ISynset synset2) {
+        double sim = getSimilarityFromLcaIndex(synset1, synset2,
+                lca -> {
+                    if (synset1.getOffset() == synset2.getOffset())
+                        return maxValue;
+                    long subsumer = lca.getSubsumer(synset1.getOffset(), synset2.getOffset());
+                    return calculate((double) (subsumer >>> 32), (double) (int) subsumer);
+                });
+        if (!Double.isNaN(sim))
+            return sim;
         ArrayList<ArrayList<ISynsetID>> paths1 = getPaths(synset1);
         ArrayList<ArrayList<ISynsetID>> paths2 = getPaths(synset2);
 
@@ -104,6 +129,23 @@ public class WuPalmerMeasure extends AEdgeCountingSemanticMeasure {
 
     }
 
+    /**
+     * The least common subsumer of two concepts is at most as deep as the
+     * shorter of their hypernym paths, hence their similarity is at most
+     * 2 * min(l1, l2) / (l1 + l2) for path lengths l1 and l2.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected double getSimilarityUpperBound(int posNumber, int minDepth1, int maxDepth1, int minDepth2,
+                                             int maxDepth2) {
+        if (maxDepth1 < minDepth2)
+            return (2.0 * maxDepth1) / (maxDepth1 + minDepth2);
+        if (maxDepth2 < minDepth1)
+            return (2.0 * maxDepth2) / (maxDepth2 + minDepth1);
+        return 1.0d;
+    }
+
     @Override
     public double getRuntimeApproximation(double mappingSize) {
         return mappingSize / 1000d;
@@ -22,6 +22,7 @@
 package org.aksw.limes.core.measures.measure.space;
 
 import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.measures.mapper.pointsets.OrthodromicDistance;
 
 /**
  * Computes a similarity based on the geo distance of two points. Assumes that
@@ -46,7 +47,7 @@ public class GeoOrthodromicMeasure extends ASpaceMeasure {
 
         double lat1 = Double.parseDouble(p1[0]);
         double lon1 = Double.parseDouble(p1[1]);
-        double lat2 = Double.parseDouble(p1[0]);
+        double lat2 = Double.parseDouble(p2[0]);
         double lon2 = Double.parseDouble(p2[1]);
 
         double d = distance(lat1, lon1, lat2, lon2);
@@ -54,11 +55,7 @@ public class GeoOrthodromicMeasure extends ASpaceMeasure {
     }
 
     public static double distance(double lat1, double lon1, double lat2, double lon2) {
-        double value1 = Math.pow(Math.sin((lat1 - lat2) / 2.0)* D2R, 2)
-                + Math.cos(lat1 * D2R) * Math.cos(lat2 * D2R) * Math.pow(Math.sin((lon1 - lon2) / 2.0)* D2R, 2);
-        double c = 2 * Math.atan2(Math.sqrt(value1), Math.sqrt(1 - value1));
-        double d = radius * c;
-        return d;
+        return OrthodromicDistance.getDistanceInDegrees(lat1, lon1, lat2, lon2);
     }
 
     public String getType() {
@@ -67,7 +64,7 @@ public class GeoOrthodromicMeasure extends ASpaceMeasure {
 
     public double getSimilarity(Instance instance1, Instance instance2, String property1, String property2) {
         String p1[] = property1.split("\\|");
-        String p2[] = property1.split("\\|");
+        String p2[] = property2.split("\\|");
         double lon1, lon2, lat1, lat2;
 
         if (p1[0].toLowerCase().startsWith("lo")) {
@@ -79,11 +76,11 @@ public class GeoOrthodromicMeasure extends ASpaceMeasure {
         }
 
         if (p2[0].toLowerCase().startsWith("lo")) {
-            lon2 = Double.parseDouble(instance1.getProperty(p2[0]).first());
-            lat2 = Double.parseDouble(instance1.getProperty(p2[1]).first());
+            lon2 = Double.parseDouble(instance2.getProperty(p2[0]).first());
+            lat2 = Double.parseDouble(instance2.getProperty(p2[1]).first());
         } else {
-            lat2 = Double.parseDouble(instance1.getProperty(p2[0]).first());
-            lon2 = Double.parseDouble(instance1.getProperty(p2[1]).first());
+            lat2 = Double.parseDouble(instance2.getProperty(p2[0]).first());
+            lon2 = Double.parseDouble(instance2.getProperty(p2[1]).first());
         }
 
         double d = distance(lat1, lon1, lat2, lon2);
@@ -37,4 +37,24 @@ public interface ITrieFilterableStringMeasure extends IStringMeasure {
     LinkedList<ImmutableTriple<Integer, Integer, Integer>> getPartitionBounds(int maxSize, double threshold);
 
     double proximity(String a, String b);
+
+    /**
+     * Returns the characters the measure actually compares, e.g. after case
+     * normalization. Character based filters have to work on this
+     * representation to be exact.
+     *
+     * @param s
+     *         input string
+     * @return the compared characters of s
+     */
+    char[] getArrayRepresentation(String s);
+
+    /**
+     * @param a
+     *         array representation of the first string
+     * @param b
+     *         array representation of the second string
+     * @return the proximity of both strings
+     */
+    double proximity(char[] a, char[] b);
 }
@@ -22,14 +22,16 @@
 package org.aksw.limes.core.measures.measure.string;
 
 import org.aksw.limes.core.io.cache.Instance;
+import org.apache.commons.lang3.tuple.ImmutableTriple;
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 
 /**
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  */
-public class JaroMeasure extends StringMeasure {
+public class JaroMeasure extends StringMeasure implements ITrieFilterableStringMeasure {
     public static int getTranspositions(List<Character> source, List<Character> target) {
         if (source.isEmpty() || target.isEmpty() || (source.size() != target.size())) {
             return -1;
@@ -114,6 +116,99 @@ public class JaroMeasure extends StringMeasure {
                 + (common1.size() - transpositions) / ((float) common1.size())) / 3.0f;
     }
 
+    @Override
+    public double proximity(String a, String b) {
+        return getSimilarity(a, b);
+    }
+
+    @Override
+    public char[] getArrayRepresentation(String s) {
+        return s.toCharArray();
+    }
+
+    /**
+     * Array based variant of {@link #getSimilarity(String, String)} returning
+     * the same values without boxing the common characters.
+     *
+     * @param string1
+     *            the first input string
+     * @param string2
+     *            the second input string
+     * @return a value between 0-1 of the similarity
+     */
+    @Override
+    public double proximity(char[] string1, char[] string2) {
+        int halflen = Math.min(string1.length, string2.length) / 2;
+        char[] common1 = new char[string1.length];
+        char[] common2 = new char[string2.length];
+        int size1 = getCommonCharacters(string1, string2, halflen, common1);
+        int size2 = getCommonCharacters(string2, string1, halflen, common2);
+        if (size1 == 0 || size2 == 0 || size1 != size2) {
+            return 0f;
+        }
+        int transpositions = 0;
+        for (int i = 0; i < size1; i++) {
+            if (common1[i] != common2[i])
+                transpositions++;
+        }
+        transpositions /= 2;
+        return (size1 / ((float) string1.length) + size2 / ((float) string2.length)
+                + (size1 - transpositions) / ((float) size1)) / 3.0f;
+    }
+
+    private static int getCommonCharacters(char[] string1, char[] string2, int distanceSep, char[] commons) {
+        char[] copy = string2.clone();
+        int n = string1.length;
+        int m = string2.length;
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            char ch = string1[i];
+            for (int j = Math.max(0, i - distanceSep); j < Math.min(i + distanceSep, m); j++) {
+                if (copy[j] == ch) {
+                    commons[size++] = ch;
+                    copy[j] = (char) 0;
+                    break;
+                }
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public double characterFrequencyUpperBound(int l1, int l2, int m) {
+        return (((double) m / (double) l1) + ((double) m / (double) l2) + 1.0d) / 3.0d;
+    }
+
+    @Override
+    public int characterMatchLowerBound(int l1, int l2, double threshold) {
+        // tolerance against rounding up exact bounds
+        return (int) Math.ceil((3.0d * threshold - 1.0d) * (double) l1 * (double) l2 / (double) (l1 + l2) - 1e-9);
+    }
+
+    @Override
+    public int lengthUpperBound(int l1, double threshold) {
+        // no finite bound unless the threshold is over 2/3
+        if (3.0d * threshold - 2.0d <= 0d)
+            return -1;
+        else
+            return (int) Math.ceil((double) l1 / (3.0d * threshold - 2.0d));
+    }
+
+    @Override
+    public int lengthLowerBound(int l1, double threshold) {
+        return (int) Math.floor((double) l1 * (3.0d * threshold - 2.0d));
+    }
+
+    @Override
+    public LinkedList<ImmutableTriple<Integer, Integer, Integer>> getPartitionBounds(int maxSize, double threshold) {
+        LinkedList<ImmutableTriple<Integer, Integer, Integer>> sliceBoundaries = new LinkedList<>();
+        for (int t = 1; t <= maxSize; t++) {
+            sliceBoundaries
+                    .add(new ImmutableTriple<>(t, lengthLowerBound(t, threshold), lengthUpperBound(t, threshold)));
+        }
+        return sliceBoundaries;
+    }
+
     public double getSimilarity(Object object1, Object object2) {
         throw new UnsupportedOperationException("Not supported yet.");
     }
@@ -77,6 +77,16 @@ public class RatcliffObershelpMeasure extends StringMeasure implements ITrieFilt
         return (double) score / (s1.length() + s2.length());
     }
 
+    @Override
+    public char[] getArrayRepresentation(String s) {
+        return s.toLowerCase().toCharArray();
+    }
+
+    @Override
+    public double proximity(char[] a, char[] b) {
+        return proximity(String.valueOf(a), String.valueOf(b));
+    }
+
     /**
      * processes the ratcliff/obershelp-algorithm recursivcely. this method is
      * faster than the iterative option (ca. 5-10%).
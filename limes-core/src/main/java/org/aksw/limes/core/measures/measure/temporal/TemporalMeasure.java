@@ -18,6 +18,7 @@
 package org.aksw.limes.core.measures.measure.temporal;
 
 import org.aksw.limes.core.measures.measure.AMeasure;
+import org.aksw.limes.core.util.datetime.DateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 /**
@@ -62,4 +63,21 @@ public abstract class TemporalMeasure extends AMeasure implements ITemporalMeasu
             throw new IllegalArgumentException();
         }
     }
+
+    /**
+     * Returns the epoch value of a time stamp, see
+     * {@link DateTimeFormat#getEpoch(String)}.
+     *
+     * @param timeStamp,
+     *         the time stamp
+     * @return the epoch value of the time stamp, 0 if it cannot be parsed
+     */
+    protected static long getEpoch(String timeStamp) {
+        try {
+            return DateTimeFormat.getEpoch(timeStamp);
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            return 0;
+        }
+    }
 }
@@ -20,10 +20,6 @@ package org.aksw.limes.core.measures.measure.temporal.allenAlgebra;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.measures.measure.temporal.TemporalMeasure;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
  * Implements the temporal after measure class.
  *
@@ -40,23 +36,9 @@ public class AfterMeasure extends TemporalMeasure {
         double sim = 0;
         String split1[] = ((String) object1).split("\\|");
         String split2[] = ((String) object2).split("\\|");
-
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
-        Date date1, date2;
         long beginDate1 = 0, endDate2 = 0;
-        try {
-            date1 = df.parse(split1[0]);
-            beginDate1 = date1.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        }
-        try {
-            date2 = df.parse(split2[1]);
-            endDate2 = date2.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-
-        }
+        beginDate1 = getEpoch(split1[0]);
+        endDate2 = getEpoch(split2[1]);
 
         if (beginDate1 > endDate2)
             sim = 1;
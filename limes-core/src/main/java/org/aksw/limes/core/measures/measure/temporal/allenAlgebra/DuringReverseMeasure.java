@@ -20,10 +20,6 @@ package org.aksw.limes.core.measures.measure.temporal.allenAlgebra;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.measures.measure.temporal.TemporalMeasure;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
  * Implements the temporal during reverse measure class.
  *
@@ -42,33 +38,11 @@ public class DuringReverseMeasure extends TemporalMeasure {
         double sim = 0;
         String split1[] = ((String) object1).split("\\|");
         String split2[] = ((String) object2).split("\\|");
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
-        Date date1, date2;
         long beginDate1 = 0, endDate1 = 0, beginDate2 = 0, endDate2 = 0;
-        try {
-            date1 = df.parse(split1[0]);
-            beginDate1 = date1.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        }
-        try {
-            date1 = df.parse(split1[1]);
-            endDate1 = date1.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        } //////////////////
-        try {
-            date2 = df.parse(split2[0]);
-            beginDate2 = date2.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        }
-        try {
-            date2 = df.parse(split2[1]);
-            endDate2 = date2.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        }
+        beginDate1 = getEpoch(split1[0]);
+        endDate1 = getEpoch(split1[1]);
+        beginDate2 = getEpoch(split2[0]);
+        endDate2 = getEpoch(split2[1]);
         if ((endDate1 > endDate2) && (beginDate1 < beginDate2))
             sim = 1;
         else
@@ -20,10 +20,6 @@ package org.aksw.limes.core.measures.measure.temporal.simpleTemporal;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.measures.measure.temporal.TemporalMeasure;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
  * Implements the temporal predecessor measure class.
  *
@@ -40,22 +36,9 @@ public class PredecessorMeasure extends TemporalMeasure {
         double sim = 0;
         String split1[] = ((String) object1).split("\\|");
         String split2[] = ((String) object2).split("\\|");
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
-        Date date1, date2;
         long epoch1 = 0, epoch2 = 0;
-        try {
-            date1 = df.parse(split1[0]);
-            epoch1 = date1.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-        }
-        try {
-            date2 = df.parse(split2[0]);
-            epoch2 = date2.getTime();
-        } catch (ParseException e) {
-            System.err.println("Exiting..");
-
-        }
+        epoch1 = getEpoch(split1[0]);
+        epoch2 = getEpoch(split2[0]);
 
         if (epoch1 > epoch2)
             sim = 1;
@@ -18,8 +18,8 @@
 package org.aksw.limes.core.measures.measure.topology;
 
 import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.measures.mapper.GeometryCache;
 import org.aksw.limes.core.measures.measure.AMeasure;
-import org.aksw.limes.core.util.LimesWktReader;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.ParseException;
 
@@ -36,10 +36,9 @@ public class CrossesMeasure extends AMeasure {
         Geometry sGeo, tGeo;
         sWKT = object1.toString();
         tWKT = object2.toString();
-        LimesWktReader reader = new LimesWktReader();
         try {
-            sGeo = reader.read(sWKT);
-            tGeo = reader.read(tWKT);
+            sGeo = GeometryCache.read(sWKT);
+            tGeo = GeometryCache.read(tWKT);
         } catch (ParseException e) {
             e.printStackTrace();
             return 0d;
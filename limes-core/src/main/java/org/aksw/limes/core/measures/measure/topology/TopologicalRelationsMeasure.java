@@ -0,0 +1,107 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.topology;
+
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.measures.mapper.GeometryCache;
+import org.aksw.limes.core.measures.mapper.topology.RADON;
+import org.aksw.limes.core.measures.measure.AMeasure;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.io.ParseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measure that checks whether two geometries are in at least one of several
+ * topological relations, computing their DE-9IM matrix once. The relations
+ * are part of the measure name, thus instances created by
+ * {@link MeasureFactory#createMeasure} check for none and only serve for
+ * runtime approximations.
+ *
+ * @see org.aksw.limes.core.measures.mapper.topology.TopologicalRelationsMapper
+ */
+public class TopologicalRelationsMeasure extends AMeasure {
+
+    private final List<String> relations;
+
+    public TopologicalRelationsMeasure() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * @param relations
+     *            {@link RADON} relations to check for
+     */
+    public TopologicalRelationsMeasure(Collection<String> relations) {
+        this.relations = new ArrayList<>(relations);
+    }
+
+    @Override
+    public double getSimilarity(Object object1, Object object2) {
+        // expects WKT Strings
+        Geometry sGeo, tGeo;
+        try {
+            sGeo = GeometryCache.read(object1.toString());
+            tGeo = GeometryCache.read(object2.toString());
+        } catch (ParseException e) {
+            e.printStackTrace();
+            return 0d;
+        }
+        if (relations.isEmpty()) {
+            return 0d;
+        }
+        IntersectionMatrix im = sGeo.relate(tGeo);
+        for (String relation : relations) {
+            if (RADON.holds(im, relation, sGeo.getDimension(), tGeo.getDimension())) {
+                return 1d;
+            }
+        }
+        return 0d;
+    }
+
+    @Override
+    public double getSimilarity(Instance instance1, Instance instance2, String property1, String property2) {
+        double value = 0;
+        for (String source : instance1.getProperty(property1)) {
+            for (String target : instance2.getProperty(property2)) {
+                value = Math.max(value, getSimilarity(source, target));
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public double getRuntimeApproximation(double mappingSize) {
+        return mappingSize / 1000d;
+    }
+
+    @Override
+    public String getName() {
+        return MeasureFactory.TOP_RELATIONS;
+    }
+
+    @Override
+    public String getType() {
+        return "topology";
+    }
+}
@@ -22,6 +22,7 @@ import org.aksw.limes.core.io.cache.MemoryCache;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
@@ -32,9 +33,28 @@ public class RandomStringGenerator implements DataGenerator {
     double mean = 0d;
     double stdDev = 0d;
 
+    private final Random random;
+
     public RandomStringGenerator(int minLength, int maxLength) {
+        this(minLength, maxLength, new Random());
+    }
+
+    /**
+     * @param minLength
+     *         Minimal length of the strings
+     * @param maxLength
+     *         Maximal length of the strings
+     * @param seed
+     *         Seed of the generator, for reproducible corpora
+     */
+    public RandomStringGenerator(int minLength, int maxLength, long seed) {
+        this(minLength, maxLength, new Random(seed));
+    }
+
+    private RandomStringGenerator(int minLength, int maxLength, Random random) {
         this.minLength = minLength;
         this.maxLength = maxLength;
+        this.random = random;
     }
 
     /**
@@ -61,9 +81,9 @@ public class RandomStringGenerator implements DataGenerator {
 
     public String generateString() {
         String s = "";
-        int length = minLength + (int) (Math.random() * (maxLength - minLength));
+        int length = minLength + (int) (random.nextDouble() * (maxLength - minLength));
         for (int j = 0; j < length; j++) {
-            s = s + (char) (97 + (int) 26 * Math.random());
+            s = s + (char) (97 + (int) 26 * random.nextDouble());
         }
         return s;
     }
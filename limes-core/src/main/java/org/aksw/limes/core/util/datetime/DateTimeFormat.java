@@ -20,9 +20,19 @@ package org.aksw.limes.core.util.datetime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
+import java.util.Locale;
 
 /**
  * Enum class of the allowed date and time formats. Allowed formats are devised
@@ -66,6 +76,55 @@ public enum DateTimeFormat {
         return this.pattern;
     }
 
+    /**
+     * Accepts all formats of the enum in a single pass, each field after the
+     * year being optional. Missing fields default to their minimum, a missing
+     * offset to the default time zone. Text after a parsed prefix is ignored,
+     * as by {@link SimpleDateFormat#parse(String)}. Formatters are immutable,
+     * hence the parser is thread safe.
+     */
+    private static final DateTimeFormatter PARSER = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR, 4, 10, SignStyle.NORMAL)
+            .optionalStart().appendLiteral('-').appendValue(ChronoField.MONTH_OF_YEAR, 2)
+            .optionalStart().appendLiteral('-').appendValue(ChronoField.DAY_OF_MONTH, 2)
+            .optionalStart().appendLiteral('T').appendValue(ChronoField.HOUR_OF_DAY, 2)
+            .appendLiteral(':').appendValue(ChronoField.MINUTE_OF_HOUR, 2)
+            .optionalStart().appendLiteral(':').appendValue(ChronoField.SECOND_OF_MINUTE, 2)
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, true).optionalEnd()
+            .optionalEnd()
+            .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+            .optionalEnd().optionalEnd().optionalEnd()
+            .parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+            .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter(Locale.ROOT);
+
+    /**
+     * Returns the epoch value of a time stamp in any of the allowed formats
+     *
+     * @param timeStamp,
+     *            the input time stamp
+     * @return the milliseconds since the epoch
+     * @throws IllegalArgumentException
+     *             if the time stamp is in none of the allowed formats
+     */
+    public static long getEpoch(String timeStamp) {
+        TemporalAccessor parsed;
+        try {
+            parsed = PARSER.parse(timeStamp, new ParsePosition(0));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Couldn't parse date: " + timeStamp, e);
+        }
+        LocalDateTime dateTime = LocalDateTime.from(parsed);
+        if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+            return dateTime.toInstant(ZoneOffset.ofTotalSeconds(parsed.get(ChronoField.OFFSET_SECONDS)))
+                    .toEpochMilli();
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     /**
      * Returns the Date value of a time stamp
      *
@@ -75,27 +134,12 @@ public enum DateTimeFormat {
      *
      */
     public static Date getDate(String timeStamp) {
-        SimpleDateFormat df = null;
-        Date date = null;
-
-        for (DateTimeFormat pat : DateTimeFormat.values()) {
-            try {
-                logger.info("Before: " + date);
-                df = new SimpleDateFormat(pat.getPattern());
-                // exception -> date remains null
-                date = df.parse(timeStamp);
-                logger.info("After: " + date.toString());
-                // no exception -> date gets a value
-                break;
-            } catch (ParseException ignored) {
-            }
-        }
-        if (date == null) {
-            logger.error("Couldn't parse date: " + timeStamp);
-            throw new RuntimeException();
+        try {
+            return new Date(getEpoch(timeStamp));
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            throw new RuntimeException(e);
         }
-
-        return date;
     }
 
 }
@@ -34,6 +34,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SimpleExecutionEngineTest {
@@ -704,4 +710,51 @@ public class SimpleExecutionEngineTest {
 
     }
 
+    @Test
+    public void streaming() {
+        System.out.println("streaming");
+        String[] specs = {"trigrams(x.name,y.name)", "jaccard(x.name,y.name)", "levenshtein(x.surname,y.surname)",
+                "exactmatch(x.surname,y.surname)", "euclidean(x.age,y.age)",
+                "AND(trigrams(x.name,y.name)|0.3,levenshtein(x.surname,y.surname)|0.3)"};
+        for (String expression : specs) {
+            LinkSpecification ls = new LinkSpecification(expression, 0.3);
+            SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+            AMapping expected = ee.execute(ls, new CanonicalPlanner());
+            AMapping streamed = MappingFactory.createDefaultMapping();
+            ee.execute(ls, new CanonicalPlanner(), streamed::add);
+            assertEquals(expression, expected, streamed);
+            assertTrue(expression, expected.size() > 0);
+        }
+        System.out.println("---------------------------------");
+    }
+
+    @Test
+    public void topK() {
+        System.out.println("topK");
+        String[] specs = {"trigrams(x.name,y.name)", "levenshtein(x.surname,y.surname)",
+                "jarowinkler(x.name,y.name)", "euclidean(x.age,y.age)",
+                "AND(trigrams(x.name,y.name)|0.3,levenshtein(x.surname,y.surname)|0.3)"};
+        for (String expression : specs) {
+            LinkSpecification ls = new LinkSpecification(expression, 0.3);
+            SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+            AMapping all = ee.execute(ls, new CanonicalPlanner());
+            assertTrue(expression, all.size() > 0);
+            assertEquals(expression, all.getBestOneToNMapping(), ee.executeTopK(ls, new CanonicalPlanner(), 1));
+            for (int k = 2; k <= 3; k++) {
+                AMapping topK = ee.executeTopK(ls, new CanonicalPlanner(), k);
+                assertEquals(expression, all.getMap().keySet(), topK.getMap().keySet());
+                for (String s : all.getMap().keySet()) {
+                    // the k-th highest similarity of the source
+                    List<Double> sims = new ArrayList<>(all.getMap().get(s).values());
+                    sims.sort(Collections.reverseOrder());
+                    double bound = sims.get(Math.min(k, sims.size()) - 1);
+                    for (Map.Entry<String, Double> t : all.getMap().get(s).entrySet()) {
+                        assertEquals(expression, t.getValue() >= bound, topK.contains(s, t.getKey()));
+                    }
+                }
+            }
+        }
+        System.out.println("---------------------------------");
+    }
+
 }
@@ -189,4 +189,38 @@ public class CanonicalPlannerTest {
         assertTrue(plan.equals(planNew));
     }
 
+    @Test
+    public void MergeTopologicalRelations() {
+        System.out.println("MergeTopologicalRelations");
+
+        CanonicalPlanner p = new CanonicalPlanner();
+        LinkSpecification ls = new LinkSpecification(
+                "AND(OR(top_contains(x.geom,y.geom)|1.0,OR(top_within(x.geom,y.geom)|0.5,top_covered_by(x.geom,y.geom)|1.0)|0.5)|1.0,jaccard(x.name,y.name)|0.8)",
+                0.8);
+        LinkSpecification normalized = p.normalize(ls);
+        assertTrue(normalized.getChildren().get(0).isAtomic());
+        assertTrue(normalized.getChildren().get(0).getFullExpression()
+                .equals("top_relations_contains_within_coveredby(x.geom,y.geom)"));
+        assertTrue(normalized.getChildren().get(1).equals(ls.getChildren().get(1)));
+        assertTrue(p.plan(normalized).getInstructionList().size() == 2);
+
+        // different properties, non topological measures and thresholds
+        // above 1 are left alone
+        for (String expression : new String[]{
+                "OR(top_contains(x.geom,y.geom)|1.0,top_within(x.geom,y.shape)|1.0)",
+                "OR(top_contains(x.geom,y.geom)|1.0,jaccard(x.name,y.name)|0.8)",
+                "OR(top_contains(x.geom,y.geom)|1.0,top_within(x.geom,y.geom)|1.5)"}) {
+            ls = new LinkSpecification(expression, 0.8);
+            assertTrue(p.normalize(ls) == ls);
+        }
+
+        Planner.mergeTopologicalRelations = false;
+        try {
+            ls = new LinkSpecification("OR(top_contains(x.geom,y.geom)|1.0,top_within(x.geom,y.geom)|1.0)", 0.8);
+            assertTrue(p.normalize(ls) == ls);
+        } finally {
+            Planner.mergeTopologicalRelations = true;
+        }
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.execution.planning.planner;
+
+import org.aksw.limes.core.execution.planning.plan.NestedPlan;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.space.HR3Mapper;
+import org.aksw.limes.core.measures.mapper.string.EDJoinMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingCostEstimatorTest {
+
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        SamplingCostEstimator.clear();
+        Random random = new Random(7);
+        source = new MemoryCache();
+        target = new MemoryCache();
+        for (int i = 0; i < 400; i++) {
+            source.addTriple("S" + i, "name", word(random));
+            source.addTriple("S" + i, "age", "" + random.nextInt(80));
+            target.addTriple("T" + i, "name", word(random));
+            target.addTriple("T" + i, "age", "" + random.nextInt(80));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        SamplingCostEstimator.clear();
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 3 + random.nextInt(5); i > 0; i--) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    @Test
+    public void testWholeCaches() {
+        // the samples cover the caches, so the mapping size is exact
+        SamplingCostEstimator estimator = new SamplingCostEstimator(source, target, 400, 1);
+        String expression = "levenshtein(x.name,y.name)";
+        AMapping mapping = new EDJoinMapper().getMapping(source, target, "?x", "?y", expression, 0.5);
+        SamplingCostEstimator.Estimate estimate = estimator.estimate(expression, 0.5);
+        assertEquals(mapping.size(), estimate.getMappingSize(), 1e-6);
+        assertEquals(mapping.size() / (400d * 400), estimate.getSelectivity(), 1e-9);
+        assertTrue(estimate.getRuntime() > 0);
+    }
+
+    @Test
+    public void testExtrapolation() {
+        SamplingCostEstimator estimator = new SamplingCostEstimator(source, target, 100, 1);
+        String expression = "euclidean(x.age,y.age)";
+        AMapping mapping = new HR3Mapper().getMapping(source, target, "?x", "?y", expression, 0.5);
+        SamplingCostEstimator.Estimate estimate = estimator.estimate(expression, 0.5);
+        assertNotNull(estimate);
+        // ages are uniform, so the sample selectivity is close to the real one
+        double selectivity = mapping.size() / (400d * 400);
+        assertEquals(selectivity, estimate.getSelectivity(), selectivity / 2);
+        assertEquals(estimate.getSelectivity() * 400 * 400, estimate.getMappingSize(), 1e-6);
+    }
+
+    @Test
+    public void testCaching() {
+        String expression = "trigrams(x.name,y.name)";
+        SamplingCostEstimator.Estimate estimate = new SamplingCostEstimator(source, target, 100, 1)
+                .estimate(expression, 0.5);
+        // shared by estimators over the same data
+        assertSame(estimate, new SamplingCostEstimator(source, target, 100, 1).estimate(expression, 0.5));
+        assertSame(estimate, new SamplingCostEstimator(source.clone(), target, 100, 1).estimate(expression, 0.5));
+        assertNotSame(estimate, new SamplingCostEstimator(source, target, 100, 1).estimate(expression, 0.6));
+        // but not once the values of the property changed
+        SamplingCostEstimator estimator = new SamplingCostEstimator(source, target, 100, 1);
+        source.addTriple("S400", "name", "abc");
+        assertNotSame(estimate, estimator.estimate(expression, 0.5));
+        // unlike other properties
+        SamplingCostEstimator.Estimate ages = estimator.estimate("euclidean(x.age,y.age)", 0.5);
+        source.addTriple("S0", "name", "dcba");
+        assertSame(ages, estimator.estimate("euclidean(x.age,y.age)", 0.5));
+    }
+
+    @Test
+    public void testNoRefingerprinting() {
+        SamplingCostEstimator estimator = new SamplingCostEstimator(source, target, 100, 1);
+        long sourceVersion = source.getVersion();
+        long targetVersion = target.getVersion();
+        estimator.estimate("trigrams(x.name,y.name)", 0.5);
+        long fingerprinted = SamplingCostEstimator.fingerprinted.get();
+        // building the samples does not modify the sampled caches
+        assertEquals(sourceVersion, source.getVersion());
+        assertEquals(targetVersion, target.getVersion());
+        estimator.estimate("trigrams(x.name,y.name)", 0.6);
+        estimator.estimate("levenshtein(x.name,y.name)", 0.5);
+        assertEquals(fingerprinted, SamplingCostEstimator.fingerprinted.get());
+    }
+
+    @Test
+    public void testPlanners() {
+        SamplingCostEstimator estimator = new SamplingCostEstimator(source, target, 100, 1);
+        LinkSpecification spec = new LinkSpecification("jaccard(x.name,y.name)", 0.4);
+        SamplingCostEstimator.Estimate estimate = estimator.estimate(spec.getFilterExpression(), 0.4);
+
+        HeliosPlanner helios = new HeliosPlanner(source, target);
+        helios.setCostEstimator(estimator);
+        NestedPlan plan = helios.plan(spec);
+        assertEquals(estimate.getRuntime(), plan.getRuntimeCost(), 0);
+        assertEquals(estimate.getMappingSize(), plan.getMappingSize(), 0);
+
+        DynamicPlanner dynamic = new DynamicPlanner(source, target);
+        dynamic.setCostEstimator(estimator);
+        plan = dynamic.plan(dynamic.normalize(spec));
+        assertEquals(estimate.getRuntime(), plan.getRuntimeCost(), 0);
+        assertEquals(estimate.getMappingSize(), plan.getMappingSize(), 0);
+
+        // without an estimator the approximations of the mappers are used
+        helios.setCostEstimator(null);
+        assertEquals(helios.getAtomicRuntimeCosts("jaccard", 0.4), helios.plan(spec).getRuntimeCost(), 0);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.io.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class DerivedCacheTest {
+
+    private ACache cache;
+    private AtomicInteger builds;
+    private DerivedCache<String, String> derived;
+
+    @Before
+    public void setUp() {
+        cache = new MemoryCache();
+        cache.addTriple("ex:a", "rdfs:label", "berlin");
+        builds = new AtomicInteger();
+        derived = new DerivedCache<>(String::length, 100);
+    }
+
+    private String build(ACache c, String property) {
+        builds.incrementAndGet();
+        return property + c.size();
+    }
+
+    @Test
+    public void testReuse() {
+        assertEquals("rdfs:label1", derived.get(cache, "rdfs:label", this::build));
+        assertEquals("rdfs:label1", derived.get(cache, "rdfs:label", this::build));
+        assertEquals(1, builds.get());
+        derived.get(cache, "rdfs:comment", this::build);
+        derived.get(cache.clone(), "rdfs:label", this::build);
+        assertEquals(3, builds.get());
+    }
+
+    @Test
+    public void testInvalidation() {
+        derived.get(cache, "rdfs:label", this::build);
+        new MemoryCache().addTriple("ex:b", "rdfs:label", "paris");
+        derived.get(cache, "rdfs:label", this::build);
+        assertEquals(1, builds.get());
+        cache.getInstance("ex:a").addProperty("rdfs:label", "BERLIN");
+        derived.get(cache, "rdfs:label", this::build);
+        assertEquals(2, builds.get());
+        cache.addTriple("ex:b", "rdfs:label", "paris");
+        assertEquals("rdfs:label2", derived.get(cache, "rdfs:label", this::build));
+        assertEquals(3, builds.get());
+    }
+
+    @Test
+    public void testEviction() {
+        derived.setMaxWeight(15);
+        derived.get(cache, "rdfs:label", this::build);
+        derived.get(cache, "rdfs:comment", this::build);
+        derived.get(cache, "rdfs:label", this::build);
+        assertEquals(3, builds.get());
+        derived.setMaxWeight(0);
+        derived.get(cache, "rdfs:label", this::build);
+        derived.get(cache, "rdfs:label", this::build);
+        assertEquals(5, builds.get());
+    }
+}
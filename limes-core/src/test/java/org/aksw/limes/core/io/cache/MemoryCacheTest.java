@@ -22,7 +22,11 @@ import org.aksw.limes.core.evaluation.evaluationDataLoader.DataSetChooser.DataSe
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.TreeSet;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class MemoryCacheTest {
@@ -44,4 +48,26 @@ public class MemoryCacheTest {
         assertTrue(cloned.getAllInstances() != cache.getAllInstances());
         assertEquals(cache, cloned);
     }
+
+    @Test
+    public void testVersion() {
+        MemoryCache other = cache.clone();
+        MemoryCache sample = new MemoryCache();
+        Instance shared = cache.getAllInstances().get(0);
+        sample.addInstance(shared);
+        long version = cache.getVersion();
+        long otherVersion = other.getVersion();
+        long sampleVersion = sample.getVersion();
+
+        // modifying an instance only changes the caches holding it
+        shared.replaceProperty("ex:p", new TreeSet<>(Arrays.asList("v")));
+        assertNotEquals(version, cache.getVersion());
+        assertNotEquals(sampleVersion, sample.getVersion());
+        assertEquals(otherVersion, other.getVersion());
+
+        version = cache.getVersion();
+        other.addTriple("ex:new", "ex:p", "v");
+        assertNotEquals(otherVersion, other.getVersion());
+        assertEquals(version, cache.getVersion());
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BoundedLinkSinkTest {
+
+    @Test
+    public void testPassOn() {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        try (BoundedLinkSink sink = new BoundedLinkSink(mapping::add, 4)) {
+            for (int i = 0; i < 1000; i++) {
+                sink.add("s" + i, "t" + i, 1d);
+            }
+        }
+        assertEquals(1000, mapping.size());
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        BoundedLinkSink sink = new BoundedLinkSink((s, t, sim) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            consumed.incrementAndGet();
+        }, 2);
+        AtomicInteger produced = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                sink.add("s", "t" + i, 1d);
+                produced.incrementAndGet();
+            }
+        });
+        producer.start();
+        // wait until the producer blocks on the full queue
+        long deadline = System.currentTimeMillis() + 10000;
+        while (producer.getState() != Thread.State.WAITING && producer.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue("producer did not block", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+        // at most one link held by the consumer and two in the queue
+        assertTrue(produced.get() <= 2 + 1);
+        release.countDown();
+        producer.join();
+        sink.close();
+        assertEquals(10, consumed.get());
+    }
+
+    @Test
+    public void testFailure() {
+        BoundedLinkSink sink = new BoundedLinkSink((s, t, sim) -> {
+            throw new IllegalStateException("disk full");
+        }, 2);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                sink.add("s", "t" + i, 1d);
+            }
+            sink.close();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
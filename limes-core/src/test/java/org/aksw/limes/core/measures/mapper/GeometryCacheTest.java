@@ -0,0 +1,131 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class GeometryCacheTest {
+
+    private static final String WKT = "POLYGON ((30 10, 40 40, 20 40, 10 20, 30 10))";
+
+    private ACache cache;
+
+    @Before
+    public void setUp() {
+        GeometryCache.clear();
+        cache = new MemoryCache();
+        cache.addTriple("ex:a", "geo:wkt", WKT);
+        cache.addTriple("ex:b", "geo:wkt", "POINT(-79.116667 -3.2)");
+        cache.addTriple("ex:c", "geo:wkt", "POINT(-79.116667");
+    }
+
+    @After
+    public void tearDown() {
+        GeometryCache.setMaxCoordinates(Runtime.getRuntime().maxMemory() / 8 / 64);
+        GeometryCache.clear();
+    }
+
+    @Test
+    public void testRead() throws ParseException {
+        Geometry geometry = GeometryCache.read(WKT);
+        assertEquals(5, geometry.getNumPoints());
+        assertSame(geometry, GeometryCache.read(WKT));
+        assertEquals(geometry, GeometryCache.read("<http://www.opengis.net/def/crs/EPSG/0/4326> " + WKT));
+    }
+
+    @Test
+    public void testGeometries() {
+        Map<String, Geometry> geometries = GeometryCache.getGeometries(cache, "geo:wkt");
+        assertEquals(2, geometries.size());
+        assertFalse(geometries.containsKey("ex:c"));
+        assertSame(geometries, GeometryCache.getGeometries(cache, "geo:wkt"));
+        // literals are shared between caches
+        ACache other = new MemoryCache();
+        other.addTriple("ex:z", "geo:wkt", WKT);
+        assertSame(geometries.get("ex:a"), GeometryCache.getGeometries(other, "geo:wkt").get("ex:z"));
+        cache.addTriple("ex:d", "geo:wkt", "POINT(1 2)");
+        assertEquals(3, GeometryCache.getGeometries(cache, "geo:wkt").size());
+    }
+
+    @Test
+    public void testPolygons() {
+        Set<Polygon> polygons = GeometryCache.getPolygons(cache, "geo:wkt");
+        assertEquals(2, polygons.size());
+        for (Polygon p : polygons) {
+            assertEquals(p.uri.equals("ex:a") ? 5 : 1, p.size());
+        }
+        assertSame(polygons, GeometryCache.getPolygons(cache, "geo:wkt"));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        List<String> wkts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            wkts.add("POINT(" + i + " " + (i % 7) + ")");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Geometry>>> reads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                reads.add(executor.submit(() -> {
+                    List<Geometry> geometries = new ArrayList<>();
+                    for (String wkt : wkts) {
+                        geometries.add(GeometryCache.read(wkt));
+                    }
+                    return geometries;
+                }));
+            }
+            for (Future<List<Geometry>> read : reads) {
+                List<Geometry> geometries = read.get();
+                for (int i = 0; i < wkts.size(); i++) {
+                    assertEquals(GeometryCache.read(wkts.get(i)), geometries.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // every literal is cached once all threads are done
+        for (String wkt : wkts) {
+            assertSame(GeometryCache.read(wkt), GeometryCache.read(wkt));
+        }
+    }
+
+    @Test
+    public void testEviction() throws ParseException {
+        GeometryCache.setMaxCoordinates(0);
+        assertNotSame(GeometryCache.read(WKT), GeometryCache.read(WKT));
+        assertNotSame(GeometryCache.getGeometries(cache, "geo:wkt"), GeometryCache.getGeometries(cache, "geo:wkt"));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TopKLinkSinkTest {
+
+    @Test
+    public void testTies() {
+        TopKLinkSink sink = new TopKLinkSink(2, 0.5);
+        sink.add("s", "a", 0.9);
+        sink.add("s", "b", 0.7);
+        sink.add("s", "c", 0.7);
+        sink.add("s", "d", 0.6);
+        sink.add("s", "e", 0.4);
+        sink.add("s", "b", 0.6);
+        sink.add("t", "a", 0.8);
+        AMapping mapping = sink.getMapping();
+        assertEquals(4, mapping.size());
+        assertTrue(mapping.contains("s", "b"));
+        assertTrue(mapping.contains("s", "c"));
+        assertFalse(mapping.contains("s", "d"));
+        assertEquals(0.7, mapping.getConfidence("s", "b"), 0);
+        assertTrue(mapping.contains("t", "a"));
+    }
+
+    @Test
+    public void testThreshold() {
+        TopKLinkSink sink = new TopKLinkSink(2, 0.5);
+        assertEquals(0.5, sink.getThreshold("s", 0.3), 0);
+        sink.add("s", "a", 0.9);
+        assertEquals(0.5, sink.getThreshold("s", 0.3), 0);
+        sink.add("s", "b", 0.7);
+        assertEquals(0.7, sink.getThreshold("s", 0.3), 0);
+        sink.add("s", "a", 0.95);
+        sink.add("s", "c", 0.8);
+        sink.add("s", "d", 0.85);
+        sink.add("s", "e", 0.9);
+        // never lowered, and raised at least once the targets have doubled
+        assertTrue(sink.getThreshold("s", 0.3) >= 0.85);
+        assertEquals(0.5, sink.getThreshold("t", 0.3), 0);
+    }
+
+    @Test
+    public void testRandomLinks() {
+        Random random = new Random(42);
+        for (int k = 1; k <= 4; k++) {
+            AMapping all = MappingFactory.createDefaultMapping();
+            TopKLinkSink sink = new TopKLinkSink(k, 0);
+            for (int i = 0; i < 2000; i++) {
+                String s = "s" + random.nextInt(20);
+                String t = "t" + random.nextInt(50);
+                // few distinct values, to get ties
+                double sim = random.nextInt(10) / 10d;
+                all.add(s, t, sim);
+                sink.add(s, t, sim);
+            }
+            AMapping topK = sink.getMapping();
+            if (k == 1) {
+                assertEquals(all.getBestOneToNMapping(), topK);
+            }
+            for (String s : all.getMap().keySet()) {
+                double[] sims = all.getMap().get(s).values().stream().mapToDouble(Double::doubleValue)
+                        .map(d -> -d).sorted().map(d -> -d).toArray();
+                double bound = sims[Math.min(k, sims.length) - 1];
+                for (String t : all.getMap().get(s).keySet()) {
+                    assertEquals(all.getConfidence(s, t) >= bound, topK.contains(s, t));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class ValueToUriMapCacheTest {
+
+    private ACache cache;
+
+    @Before
+    public void setUp() {
+        ValueToUriMapCache.clear();
+        cache = new MemoryCache();
+        cache.addTriple("ex:a", "rdfs:label", "berlin");
+        cache.addTriple("ex:b", "rdfs:label", "berlin");
+        cache.addTriple("ex:c", "rdfs:label", "paris");
+    }
+
+    @After
+    public void tearDown() {
+        ValueToUriMapCache.setMaxPairs(Runtime.getRuntime().maxMemory() / 8 / 128);
+        ValueToUriMapCache.clear();
+    }
+
+    @Test
+    public void testReuse() {
+        Map<String, Set<String>> map = ValueToUriMapCache.get(cache, "rdfs:label");
+        assertEquals(new HashSet<>(Arrays.asList("ex:a", "ex:b")), map.get("berlin"));
+        assertEquals(new HashSet<>(Arrays.asList("ex:c")), map.get("paris"));
+        assertSame(map, ValueToUriMapCache.get(cache, "rdfs:label"));
+        assertNotSame(map, ValueToUriMapCache.get(cache, "rdfs:comment"));
+        assertNotSame(map, ValueToUriMapCache.get(cache.clone(), "rdfs:label"));
+    }
+
+    @Test
+    public void testInvalidation() {
+        Map<String, Set<String>> map = ValueToUriMapCache.get(cache, "rdfs:label");
+        cache.addTriple("ex:d", "rdfs:label", "rome");
+        Map<String, Set<String>> updated = ValueToUriMapCache.get(cache, "rdfs:label");
+        assertNotSame(map, updated);
+        assertEquals(new HashSet<>(Arrays.asList("ex:d")), updated.get("rome"));
+        // in place modification of an instance, as done by preprocessing
+        cache.getInstance("ex:a").replaceProperty("rdfs:label", new TreeSet<>(Arrays.asList("BERLIN")));
+        updated = ValueToUriMapCache.get(cache, "rdfs:label");
+        assertEquals(new HashSet<>(Arrays.asList("ex:a")), updated.get("BERLIN"));
+        assertEquals(new HashSet<>(Arrays.asList("ex:b")), updated.get("berlin"));
+        // modifications of other caches keep the entry
+        new MemoryCache().addTriple("ex:e", "rdfs:label", "oslo");
+        assertSame(updated, ValueToUriMapCache.get(cache, "rdfs:label"));
+    }
+
+    @Test
+    public void testEviction() {
+        ValueToUriMapCache.setMaxPairs(0);
+        Map<String, Set<String>> map = ValueToUriMapCache.get(cache, "rdfs:label");
+        assertEquals(2, map.size());
+        assertNotSame(map, ValueToUriMapCache.get(cache, "rdfs:label"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        ValueToUriMapCache.get(cache, "rdfs:label").get("berlin").add("ex:z");
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.phonetic;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.phoneticmeasure.KoelnPhoneticMeasure;
+import org.aksw.limes.core.measures.measure.phoneticmeasure.MetaphoneMeasure;
+import org.aksw.limes.core.measures.measure.phoneticmeasure.RefinedSoundexMeasure;
+import org.aksw.limes.core.measures.measure.phoneticmeasure.SoundexMeasure;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class PhoneticMapperTest {
+
+    private static final String[] NAMES = {"Abdullah", "Ahmed", "Ali", "Mohammed", "Robert", "Rupert", "Rubin",
+            "Ashcraft", "Tymczak", "Pfister", "Schmidt", "Smith", "Smyth", "Meyer", "Maier", "Mayer", "Jackson",
+            "Jaxen", "Thompson", "Thomas", "Tom", "Müller", "Mueller", "Lee", "Washington", "", "123"};
+
+    @Test
+    public void testExactCodes() {
+        Map<String, Set<String>> sourceMap = generateMap("s", new String[]{"Robert", "Smith"});
+        Map<String, Set<String>> targetMap = generateMap("t", new String[]{"Rupert", "Smyth", "Meyer"});
+        AMapping m = new SoundexMapper().getMapping(sourceMap, targetMap, 1.0d);
+        assertEquals(2, m.getNumberofMappings());
+        assertEquals(1.0d, m.getConfidence("sRobert", "tRupert"), 0d);
+        assertEquals(1.0d, m.getConfidence("sSmith", "tSmyth"), 0d);
+    }
+
+    @Test
+    public void testLegacyStringMappers() {
+        // Koeln codes: Schmidt 862, Schmidtke 8624, Schmitz 868, Peter 127, Petersen 12786
+        Map<String, Set<String>> sourceMap = generateMap("s", new String[]{"Schmidt", "Schmidtke", "Petersen"});
+        Map<String, Set<String>> targetMap = generateMap("t", new String[]{"Schmitz", "Peter", "Petersen"});
+        AMapping m = new org.aksw.limes.core.measures.mapper.string.KoelnPhoneticMapper()
+                .getMapping(sourceMap, targetMap, 0.75d);
+        // the former trie search normalized by the length of the source value
+        // (1 - 1/7 and 1 - 1/9) and only reported target codes that were not
+        // the prefix of another target code, so it missed Petersen -> Peter
+        assertEquals(4, m.getNumberofMappings());
+        assertEquals(0.75d, m.getConfidence("sSchmidt", "tSchmitz"), 0d);
+        assertEquals(0.75d, m.getConfidence("sSchmidtke", "tSchmitz"), 0d);
+        assertEquals(1.0d, m.getConfidence("sPetersen", "tPetersen"), 0d);
+        assertEquals(1.0d, m.getConfidence("sPetersen", "tPeter"), 0d);
+
+        // double metaphone codes: Smith SM0/XMT, Schmidt XMT/SMT, Schmitz XMTS/SMTS
+        sourceMap = generateMap("s", new String[]{"Smith"});
+        targetMap = generateMap("t", new String[]{"Schmidt", "Schmitz"});
+        m = new org.aksw.limes.core.measures.mapper.string.DoubleMetaphoneMapper()
+                .getMapping(sourceMap, targetMap, 0.5d);
+        // alternate codes match as before, mismatches are still not admitted
+        assertEquals(1, m.getNumberofMappings());
+        assertEquals(1.0d, m.getConfidence("sSmith", "tSchmidt"), 0d);
+    }
+
+    @Test
+    public void testAgainstBruteForce() {
+        Map<String, Set<String>> sourceMap = generateRandomMap("s", 300, new Random(1));
+        Map<String, Set<String>> targetMap = generateRandomMap("t", 300, new Random(2));
+        for (double threshold : new double[]{0.3d, 0.5d, 0.75d, 1.0d}) {
+            check(new SoundexMapper(), SoundexMeasure::getCode, 4, 4, sourceMap, targetMap, threshold);
+            check(new RefinedSoundexMapper(), RefinedSoundexMeasure::getCode, 20, 4, sourceMap, targetMap,
+                    threshold);
+            check(new MetaPhoneMapper(), MetaphoneMeasure::getCode, 4, 4, sourceMap, targetMap, threshold);
+            check(new KoelnPhoneticMapper(), KoelnPhoneticMeasure::getCode, 4, 10, sourceMap, targetMap,
+                    threshold);
+        }
+    }
+
+    private void check(APhoneticMapper mapper, Function<String, String> encoder, double codeLength,
+                       double distanceFactor, Map<String, Set<String>> sourceMap, Map<String, Set<String>> targetMap,
+                       double threshold) {
+        AMapping expected = bruteForce(encoder, codeLength, distanceFactor, sourceMap, targetMap, threshold);
+        AMapping actual = mapper.getMapping(sourceMap, targetMap, threshold);
+        assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+        for (String s : expected.getMap().keySet()) {
+            for (String t : expected.getMap().get(s).keySet()) {
+                assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 0d);
+            }
+        }
+    }
+
+    private AMapping bruteForce(Function<String, String> encoder, double codeLength, double distanceFactor,
+                                Map<String, Set<String>> sourceMap, Map<String, Set<String>> targetMap,
+                                double threshold) {
+        int maxDistance = (int) Math.floor(distanceFactor * (1 - threshold));
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (String s : sourceMap.keySet()) {
+            String a = encoder.apply(s);
+            for (String t : targetMap.keySet()) {
+                String b = encoder.apply(t);
+                if (a == null || b == null || a.isEmpty() || b.isEmpty() || b.length() > a.length()) {
+                    continue;
+                }
+                int distance = 0;
+                for (int i = 0; i < b.length(); i++) {
+                    if (a.charAt(i) != b.charAt(i)) {
+                        distance++;
+                    }
+                }
+                if (distance <= maxDistance) {
+                    for (String sourceUri : sourceMap.get(s)) {
+                        for (String targetUri : targetMap.get(t)) {
+                            m.add(sourceUri, targetUri, 1.0d - distance / codeLength);
+                        }
+                    }
+                }
+            }
+        }
+        return m;
+    }
+
+    private Map<String, Set<String>> generateRandomMap(String prefix, int size, Random random) {
+        // concatenations of names to get varying code lengths
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = NAMES[random.nextInt(NAMES.length)] + (random.nextBoolean() ? "" : NAMES[random.nextInt(
+                    NAMES.length)].toLowerCase());
+        }
+        return generateMap(prefix, values);
+    }
+
+    private Map<String, Set<String>> generateMap(String prefix, String[] values) {
+        Map<String, Set<String>> map = new HashMap<>();
+        for (String value : values) {
+            map.computeIfAbsent(value, k -> new HashSet<>()).add(prefix + value);
+        }
+        return map;
+    }
+}
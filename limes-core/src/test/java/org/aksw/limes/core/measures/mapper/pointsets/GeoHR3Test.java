@@ -0,0 +1,138 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.pointsets;
+
+import org.aksw.limes.core.datastrutures.Point;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.pointsets.hausdorff.IndexedHausdorffMeasure;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GeoHR3Test {
+
+    @Test
+    public void testParallelRun() {
+        Random random = new Random(7);
+        // clusters around a few places, including the antimeridian
+        double[][] centers = {{51.3, 12.4}, {-33.9, 151.2}, {64.1, -179.8}, {64.1, 179.8}};
+        Set<Polygon> source = RandomPolygons.create("s", 300, 6, random, centers);
+        Set<Polygon> target = RandomPolygons.create("t", 300, 6, random, centers);
+        for (MeasureType type : new MeasureType[]{MeasureType.GEO_NAIVE_HAUSDORFF,
+                MeasureType.GEO_INDEXED_HAUSDORFF}) {
+            GeoHR3 reference = new GeoHR3(50f, GeoHR3.DEFAULT_GRANULARITY, type);
+            AMapping expected = runWithUriDeduplication(reference, source, target);
+            assertTrue(expected.getNumberofMappings() > 0);
+            for (int threads : new int[]{1, 4}) {
+                GeoHR3 orchid = new GeoHR3(50f, GeoHR3.DEFAULT_GRANULARITY, type);
+                orchid.numberOfThreads = threads;
+                assertEquals(expected.getMap(), orchid.run(source, target).getMap());
+            }
+        }
+    }
+
+    @Test
+    public void testSimplificationFilter() {
+        Random random = new Random(11);
+        Set<Polygon> source = densePolygons("s", 30, random);
+        Set<Polygon> target = densePolygons("t", 30, random);
+        for (MeasureType type : new MeasureType[]{MeasureType.GEO_NAIVE_HAUSDORFF,
+                MeasureType.GEO_INDEXED_HAUSDORFF}) {
+            boolean filter = GeoHR3.simplificationFilter;
+            try {
+                GeoHR3.simplificationFilter = false;
+                AMapping expected = new GeoHR3(2f, GeoHR3.DEFAULT_GRANULARITY, type).run(source, target);
+                assertTrue(expected.getNumberofMappings() > 0);
+                GeoHR3.simplificationFilter = true;
+                int[] rejected = new int[1];
+                GeoHR3 orchid = new GeoHR3(2f, GeoHR3.DEFAULT_GRANULARITY, type) {
+                    @Override
+                    protected boolean isBeyondThreshold(Polygon a, Polygon b) {
+                        boolean beyond = super.isBeyondThreshold(a, b);
+                        if (beyond) {
+                            synchronized (rejected) {
+                                rejected[0]++;
+                            }
+                        }
+                        return beyond;
+                    }
+                };
+                assertEquals(expected.getMap(), orchid.run(source, target).getMap());
+                assertTrue(rejected[0] > 0);
+            } finally {
+                GeoHR3.simplificationFilter = filter;
+            }
+        }
+    }
+
+    // circles of 60 points around close centers
+    private Set<Polygon> densePolygons(String prefix, int count, Random random) {
+        Set<Polygon> polygons = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            Polygon p = new Polygon(prefix + i);
+            double lat = 51.3 + random.nextDouble() * 0.05;
+            double lon = 12.4 + random.nextDouble() * 0.05;
+            double radius = 0.01 + random.nextDouble() * 0.01;
+            for (int j = 0; j < 60; j++) {
+                double angle = 2 * Math.PI * j / 60;
+                p.add(new Point(prefix + i + "_" + j, Arrays.asList(lat + radius * Math.sin(angle),
+                        lon + radius * Math.cos(angle))));
+            }
+            polygons.add(p);
+        }
+        return polygons;
+    }
+
+    // sequential loop over the source squares, deduplicating compared pairs by
+    // their uris
+    private AMapping runWithUriDeduplication(GeoHR3 orchid, Set<Polygon> sourceData, Set<Polygon> targetData) {
+        GeoIndex source = orchid.assignSquares(sourceData);
+        GeoIndex target = orchid.assignSquares(targetData);
+        Map<String, Set<String>> computed = new HashMap<>();
+        AMapping m = MappingFactory.createDefaultMapping();
+        if (orchid.setMeasure instanceof IndexedHausdorffMeasure) {
+            PolygonIndex targetIndex = new PolygonIndex();
+            targetIndex.index(targetData);
+            ((IndexedHausdorffMeasure) orchid.setMeasure).targetIndex = targetIndex;
+        }
+        for (Integer latIndex : source.squares.keySet()) {
+            for (Integer longIndex : source.squares.get(latIndex).keySet()) {
+                GeoSquare g1 = source.getSquare(latIndex, longIndex);
+                for (List<Integer> squareIndex : orchid.getSquaresToCompare(latIndex, longIndex, target)) {
+                    GeoSquare g2 = target.getSquare(squareIndex.get(0), squareIndex.get(1));
+                    for (Polygon a : g1.elements) {
+                        for (Polygon b : g2.elements) {
+                            if (computed.computeIfAbsent(a.uri, k -> new HashSet<>()).add(b.uri)) {
+                                double d = orchid.setMeasure.computeDistance(a, b, orchid.distanceThreshold);
+                                if (d <= orchid.distanceThreshold) {
+                                    m.add(a.uri, b.uri, 1 / (1 + d));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return m;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.pointsets;
+
+import org.aksw.limes.core.datastrutures.Point;
+import org.aksw.limes.core.measures.measure.pointsets.hausdorff.FastHausdorffMeasure;
+import org.aksw.limes.core.measures.measure.pointsets.hausdorff.IndexedHausdorffMeasure;
+import org.aksw.limes.core.measures.measure.pointsets.hausdorff.NaiveHausdorffMeasure;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PackedPolygonTest {
+
+    @Test
+    public void testPacking() {
+        Polygon p = new Polygon("p");
+        p.add(new Point("a", asList(10.0, 20.0)));
+        p.add(new Point("b", asList(12.0, 18.0)));
+        PackedPolygon packed = p.getPacked();
+        assertSame(packed, p.getPacked());
+        assertEquals(2, packed.size());
+        assertEquals(12.0, packed.getLatitude(1), 0d);
+        assertEquals(18.0, packed.getLongitude(1), 0d);
+        assertEquals(10.0, packed.minLatitude, 0d);
+        assertEquals(12.0, packed.maxLatitude, 0d);
+        assertEquals(18.0, packed.minLongitude, 0d);
+        assertEquals(20.0, packed.maxLongitude, 0d);
+        assertEquals(11.0, packed.centroidLatitude, 0d);
+        assertEquals(19.0, packed.centroidLongitude, 0d);
+        assertEquals(OrthodromicDistance.getDistanceInDegrees(10.0, 20.0, 12.0, 18.0),
+                OrthodromicDistance.getDistance(packed, 0, packed, 1), 0d);
+
+        // changes to the points invalidate the packed representation
+        p.add(new Point("c", asList(14.0, 16.0)));
+        assertEquals(3, p.getPacked().size());
+        p.points = new ArrayList<>(p.points.subList(0, 1));
+        assertEquals(1, p.getPacked().size());
+    }
+
+    @Test
+    public void testHausdorffAgainstPoints() {
+        Random random = new Random(42);
+        Set<Polygon> source = RandomPolygons.create("s", 20, 10, random, new double[]{50.5, 10.5});
+        Set<Polygon> target = RandomPolygons.create("t", 20, 10, random, new double[]{50.5, 10.5});
+        IndexedHausdorffMeasure indexed = new IndexedHausdorffMeasure();
+        indexed.targetIndex = new PolygonIndex();
+        indexed.targetIndex.index(target);
+        double threshold = 150;
+        for (Polygon s : source) {
+            for (Polygon t : target) {
+                double expected = hausdorff(s, t);
+                assertEquals(expected, NaiveHausdorffMeasure.distance(s, t, threshold), 0d);
+                assertEquals(expected <= threshold, new FastHausdorffMeasure().computeDistance(s, t,
+                        threshold) <= threshold);
+                double d = indexed.computeDistance(s, t, threshold);
+                if (expected <= threshold) {
+                    assertEquals(expected, d, 0d);
+                } else {
+                    assertTrue(d > threshold);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSimplification() {
+        // a straight line keeps its end points only
+        Polygon line = new Polygon("line");
+        for (int i = 0; i <= 10; i++) {
+            line.add(new Point("l" + i, asList(50.0, 10.0 + i * 0.01)));
+        }
+        SimplifiedPolygon simplified = line.getSimplified(0.001);
+        assertSame(simplified, line.getSimplified(0.001));
+        assertEquals(2, simplified.size());
+        assertEquals(10.1, simplified.points.getLongitude(1), 1e-12);
+
+        // the error bounds the distance of every point to the kept points,
+        // and so the Hausdorff distances of the simplified polygons
+        Random random = new Random(3);
+        Polygon[] polygons = new Polygon[10];
+        for (int k = 0; k < polygons.length; k++) {
+            Polygon p = new Polygon("p" + k);
+            double lat = 50 + random.nextDouble() * 0.2, lon = 10 + random.nextDouble() * 0.2;
+            for (int i = 0; i < 200; i++) {
+                double angle = 2 * Math.PI * i / 200;
+                double radius = 0.05 + random.nextDouble() * 0.002;
+                p.add(new Point("p" + k + "_" + i, asList(lat + radius * Math.sin(angle),
+                        lon + radius * Math.cos(angle))));
+            }
+            polygons[k] = p;
+        }
+        for (Polygon x : polygons) {
+            SimplifiedPolygon s = x.getSimplified(0.005);
+            assertTrue(s.size() < x.points.size() / 4);
+            Polygon kept = new Polygon("kept", new ArrayList<>(s.points.points));
+            assertTrue(hausdorff(x, kept) <= s.error);
+            for (Polygon y : polygons) {
+                SimplifiedPolygon t = y.getSimplified(0.005);
+                Polygon keptY = new Polygon("keptY", new ArrayList<>(t.points.points));
+                double h = hausdorff(x, y);
+                double simplifiedH = hausdorff(kept, keptY);
+                assertTrue(simplifiedH - t.error <= h + 1e-9);
+                assertTrue(h <= simplifiedH + s.error + 1e-9);
+            }
+        }
+    }
+
+    private double hausdorff(Polygon x, Polygon y) {
+        double max = 0;
+        for (Point a : x.points) {
+            double min = Double.POSITIVE_INFINITY;
+            for (Point b : y.points) {
+                min = Math.min(min, OrthodromicDistance.getDistanceInDegrees(a, b));
+            }
+            max = Math.max(max, min);
+        }
+        return max;
+    }
+
+    private static java.util.List<Double> asList(double lat, double lon) {
+        java.util.List<Double> coordinates = new ArrayList<>();
+        coordinates.add(lat);
+        coordinates.add(lon);
+        return coordinates;
+    }
+}
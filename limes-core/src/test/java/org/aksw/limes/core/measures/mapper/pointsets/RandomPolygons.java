@@ -0,0 +1,67 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.pointsets;
+
+import org.aksw.limes.core.datastrutures.Point;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random polygons for the pointsets tests.
+ */
+final class RandomPolygons {
+
+    private RandomPolygons() {
+    }
+
+    /**
+     * Generates polygons clustered around the given places, with longitudes
+     * clamped to [-180, 180).
+     *
+     * @param prefix
+     *            prefix of the polygon and point uris
+     * @param count
+     *            number of polygons
+     * @param maxSize
+     *            maximal number of points per polygon
+     * @param random
+     *            source of randomness
+     * @param centers
+     *            latitude and longitude of the places
+     * @return the polygons
+     */
+    static Set<Polygon> create(String prefix, int count, int maxSize, Random random, double[]... centers) {
+        Set<Polygon> polygons = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            double[] center = centers[random.nextInt(centers.length)];
+            Polygon p = new Polygon(prefix + i);
+            double lat = center[0] + random.nextGaussian();
+            double lon = center[1] + random.nextGaussian() * 0.1;
+            int size = 1 + random.nextInt(maxSize);
+            for (int j = 0; j < size; j++) {
+                p.add(new Point(prefix + i + "_" + j, Arrays.asList(lat + random.nextDouble() * 0.3,
+                        Math.max(-180, Math.min(179.99, lon + random.nextDouble() * 0.3)))));
+            }
+            polygons.add(p);
+        }
+        return polygons;
+    }
+}
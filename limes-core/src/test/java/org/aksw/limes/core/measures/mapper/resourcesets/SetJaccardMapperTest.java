@@ -21,8 +21,11 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.resourcesets.SetJaccardMeasure;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -47,4 +50,44 @@ public class SetJaccardMapperTest {
         mapping2.add("spielberg", "spilberg", 0.5d);
         assertEquals(mapping2, mapping1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRandomSets() {
+        Random random = new Random(42);
+        SetJaccardMapper mapper = new SetJaccardMapper();
+        SetJaccardMeasure measure = new SetJaccardMeasure();
+        // more source than target sets, and skewed element frequencies
+        ACache s = randomSets(random, "s", 300);
+        ACache t = randomSets(random, "t", 200);
+        for (double threshold : new double[]{0.1, 0.3, 0.5, 0.7, 1.0}) {
+            AMapping expected = MappingFactory.createDefaultMapping();
+            for (String x : s.getAllUris()) {
+                for (String y : t.getAllUris()) {
+                    if (s.getInstance(x).getProperty("links").isEmpty()
+                            || t.getInstance(y).getProperty("links").isEmpty()) {
+                        continue;
+                    }
+                    double sim = measure.getSimilarity(s.getInstance(x), t.getInstance(y), "links", "links");
+                    if (sim >= threshold) {
+                        expected.add(x, y, sim);
+                    }
+                }
+            }
+            AMapping mapping = mapper.getMapping(s, t, "?x", "?y", "set_jaccard(x.links, y.links)", threshold);
+            assertEquals("threshold " + threshold, expected, mapping);
+        }
+    }
+
+    private ACache randomSets(Random random, String prefix, int size) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            cache.addTriple(prefix + i, "label", prefix + i);
+            int elements = random.nextInt(12);
+            for (int j = 0; j < elements; j++) {
+                int element = (int) (40 * Math.pow(random.nextDouble(), 3));
+                cache.addTriple(prefix + i, "links", "e" + element);
+            }
+        }
+        return cache;
+    }
+}
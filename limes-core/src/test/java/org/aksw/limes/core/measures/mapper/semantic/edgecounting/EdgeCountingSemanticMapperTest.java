@@ -0,0 +1,265 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.semantic.edgecounting;
+
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.SynsetID;
+import edu.mit.jwi.item.WordID;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure.Sense;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.factory.SemanticFactory;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.AIndex;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LCHMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LiMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.ShortestPathMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.WuPalmerMeasure;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EdgeCountingSemanticMapperTest {
+
+    private static final double[] THRESHOLDS = { 0.3, 0.5, 0.7, 0.9, 0.95 };
+
+    private int[] offsets;
+    private Map<Integer, ArrayList<ArrayList<ISynsetID>>> paths;
+    private Map<Integer, ISynset> synsets;
+    private Map<String, IIndexWord> words;
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        // random hypernym hierarchy as in LcaIndexTest
+        Random random = new Random(11);
+        int n = 60;
+        offsets = new int[n];
+        paths = new HashMap<>();
+        synsets = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            offsets[i] = 1000 + 7 * i;
+            synsets.put(offsets[i], synset(offsets[i]));
+            ArrayList<ArrayList<ISynsetID>> trees = new ArrayList<>();
+            if (i == 0 || random.nextDouble() < 0.05) {
+                ArrayList<ISynsetID> tree = new ArrayList<>();
+                tree.add(new SynsetID(offsets[i], POS.NOUN));
+                trees.add(tree);
+            } else {
+                int parents = random.nextDouble() < 0.15 ? 2 : 1;
+                for (int p = 0; p < parents; p++) {
+                    for (ArrayList<ISynsetID> parentTree : paths.get(offsets[random.nextInt(i)])) {
+                        ArrayList<ISynsetID> tree = new ArrayList<>(parentTree);
+                        tree.add(new SynsetID(offsets[i], POS.NOUN));
+                        trees.add(tree);
+                    }
+                }
+            }
+            paths.put(offsets[i], trees);
+        }
+        // tokens with one to three senses
+        words = new HashMap<>();
+        for (int t = 0; t < 40; t++) {
+            List<IWordID> ids = new ArrayList<>();
+            for (int k = 1 + random.nextInt(3); k > 0; k--) {
+                ids.add(new WordID(new SynsetID(offsets[random.nextInt(n)], POS.NOUN), ids.size() + 1));
+            }
+            words.put("w" + t, indexWord(ids));
+        }
+        source = new MemoryCache();
+        target = new MemoryCache();
+        for (int i = 0; i < 30; i++) {
+            source.addTriple("ex:s" + i, "rdfs:label", label(random));
+            target.addTriple("ex:t" + i, "rdfs:label", label(random));
+            if (i % 5 == 0) {
+                target.addTriple("ex:t" + i, "rdfs:label", label(random));
+            }
+        }
+    }
+
+    private static String label(Random random) {
+        StringBuilder label = new StringBuilder("w" + random.nextInt(40));
+        for (int k = random.nextInt(3); k > 0; k--) {
+            label.append(" w").append(random.nextInt(40));
+        }
+        return label.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> {
+            switch (method.getName()) {
+            case "equals":
+                return p == args[0];
+            case "hashCode":
+                return System.identityHashCode(p);
+            case "toString":
+                return type.getSimpleName() + answers;
+            default:
+                if (!answers.containsKey(method.getName()))
+                    throw new UnsupportedOperationException(method.getName());
+                return answers.get(method.getName());
+            }
+        });
+    }
+
+    private static ISynset synset(int offset) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getOffset", offset);
+        answers.put("getPOS", POS.NOUN);
+        answers.put("getType", 1);
+        answers.put("getID", new SynsetID(offset, POS.NOUN));
+        return proxy(ISynset.class, answers);
+    }
+
+    private static IIndexWord indexWord(List<IWordID> ids) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getPOS", POS.NOUN);
+        answers.put("getWordIDs", ids);
+        return proxy(IIndexWord.class, answers);
+    }
+
+    private class StubDictionary extends SemanticDictionary {
+
+        @Override
+        public IIndexWord getIndexWord(String str, POS pos) {
+            return pos == POS.NOUN ? words.get(str) : null;
+        }
+
+        @Override
+        public IWord getWord(IWordID wordID) {
+            Map<String, Object> answers = new HashMap<>();
+            answers.put("getSynset", synsets.get(wordID.getSynsetID().getOffset()));
+            return proxy(IWord.class, answers);
+        }
+    }
+
+    private class StubIndex extends AIndex {
+
+        @Override
+        public void preIndex() {
+        }
+
+        @Override
+        public void init(boolean f) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(ISynset synset) {
+            return paths.get(synset.getOffset());
+        }
+
+        @Override
+        public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(POS pos, int offset) {
+            return paths.get(offset);
+        }
+
+        @Override
+        public int[] getSynsetOffsets(POS pos) {
+            return pos == POS.NOUN ? offsets : null;
+        }
+    }
+
+    private Map<String, AEdgeCountingSemanticMeasure> measures() {
+        SemanticDictionary dictionary = new StubDictionary();
+        Map<String, AEdgeCountingSemanticMeasure> measures = new LinkedHashMap<>();
+        measures.put(SemanticFactory.LCH, new LCHMeasure(new StubIndex(), dictionary));
+        measures.put(SemanticFactory.LI, new LiMeasure(new StubIndex(), dictionary));
+        measures.put(SemanticFactory.SHORTEST_PATH, new ShortestPathMeasure(new StubIndex(), dictionary));
+        measures.put(SemanticFactory.WUPALMER, new WuPalmerMeasure(new StubIndex(), dictionary));
+        return measures;
+    }
+
+    @Test
+    public void testAgainstBruteForce() {
+        for (Map.Entry<String, AEdgeCountingSemanticMeasure> e : measures().entrySet()) {
+            AEdgeCountingSemanticMeasure measure = e.getValue();
+            for (double threshold : THRESHOLDS) {
+                String expression = e.getKey() + "(x.rdfs:label,y.rdfs:label)";
+                AMapping mapping = new EdgeCountingSemanticMapper(measure).getMapping(source, target, "?x", "?y",
+                        expression, threshold);
+                int links = 0;
+                for (Instance s : source.getAllInstances()) {
+                    for (Instance t : target.getAllInstances()) {
+                        double similarity = measure.getSimilarity(s, t, "rdfs:label", "rdfs:label");
+                        String pair = measure.getName() + " " + threshold + " " + s.getUri() + " " + t.getUri();
+                        if (similarity >= threshold) {
+                            links++;
+                            assertEquals(pair, similarity, mapping.getConfidence(s.getUri(), t.getUri()), 1e-9);
+                        } else {
+                            assertFalse(pair, mapping.contains(s.getUri(), t.getUri()));
+                        }
+                    }
+                }
+                assertEquals(links, mapping.size());
+            }
+        }
+    }
+
+    @Test
+    public void testUpperBounds() {
+        for (AEdgeCountingSemanticMeasure measure : measures().values()) {
+            StubIndex index = new StubIndex();
+            // single concepts, bounded by the lengths of their paths
+            for (int offset1 : offsets) {
+                ISynset synset1 = synsets.get(offset1);
+                Sense sense1 = new Sense(1, Arrays.asList(synset1), index.getMinDepth(synset1),
+                        index.getMaxDepth(synset1));
+                for (int offset2 : offsets) {
+                    ISynset synset2 = synsets.get(offset2);
+                    Sense sense2 = new Sense(1, Arrays.asList(synset2), index.getMinDepth(synset2),
+                            index.getMaxDepth(synset2));
+                    assertTrue(measure.getName() + " " + offset1 + " " + offset2,
+                            measure.getSimilarityUpperBound(sense1, sense2) >= measure.getSimilarity(synset1,
+                                    synset2) - 1e-9);
+                }
+            }
+            // tokens with several senses
+            for (String token1 : words.keySet()) {
+                for (String token2 : words.keySet()) {
+                    assertTrue(measure.getName() + " " + token1 + " " + token2,
+                            measure.getTokenSimilarityUpperBound(token1, token2) >= measure
+                                    .getTokenSimilarity(token1, token2) - 1e-9);
+                }
+            }
+        }
+    }
+}
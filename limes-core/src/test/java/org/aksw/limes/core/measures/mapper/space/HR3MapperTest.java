@@ -0,0 +1,152 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.space.blocking.HR3Blocker;
+import org.aksw.limes.core.measures.measure.space.EuclideanMeasure;
+import org.aksw.limes.core.measures.measure.space.GeoOrthodromicMeasure;
+import org.aksw.limes.core.measures.measure.space.ISpaceMeasure;
+import org.aksw.limes.core.measures.measure.space.ManhattanMeasure;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HR3MapperTest {
+
+    @Test
+    public void testOffsets() {
+        for (int granularity = 1; granularity <= 4; granularity++) {
+            for (int dimensions = 1; dimensions <= 3; dimensions++) {
+                ArrayList<Integer> origin = new ArrayList<>();
+                for (int k = 0; k < dimensions; k++) {
+                    origin.add(0);
+                }
+                int[] offsets = HR3Index.getOffsets(granularity, dimensions);
+                ArrayList<ArrayList<Integer>> expected = new HR3Blocker(granularity, dimensions)
+                        .getBlocksToCompare(origin);
+                assertEquals(expected.size() * dimensions, offsets.length);
+                for (int n = 0; n < expected.size(); n++) {
+                    boolean found = false;
+                    for (int m = 0; m < offsets.length && !found; m += dimensions) {
+                        found = true;
+                        for (int k = 0; k < dimensions; k++) {
+                            found = found && offsets[m + k] == expected.get(n).get(k);
+                        }
+                    }
+                    assertEquals(expected.get(n).toString(), true, found);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEuclidean() {
+        Random random = new Random(1);
+        ACache source = generateCache("s", 300, 100, random);
+        ACache target = generateCache("t", 300, 100, random);
+        for (double threshold : new double[]{0.05, 0.1, 0.3, 1}) {
+            check("euclidean(x.a|b, y.a|b)", new EuclideanMeasure(), source, target, "a|b", threshold);
+            check("euclidean(x.a, y.b)", new EuclideanMeasure(), source, target, "a", "b", threshold);
+        }
+    }
+
+    @Test
+    public void testManhattan() {
+        Random random = new Random(2);
+        ACache source = generateCache("s", 300, 100, random);
+        ACache target = generateCache("t", 300, 100, random);
+        for (double threshold : new double[]{0.05, 0.1, 0.3}) {
+            check("manhattan(x.a|b, y.a|b)", new ManhattanMeasure(), source, target, "a|b", threshold);
+        }
+    }
+
+    @Test
+    public void testOrthodromic() {
+        Random random = new Random(3);
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        for (int i = 0; i < 400; i++) {
+            // clustered around the poles and the antimeridian
+            double lat = i % 4 == 0 ? 89 + random.nextDouble() : 180 * random.nextDouble() - 90;
+            double lon = i % 3 == 0 ? 179.5 + random.nextDouble() : 360 * random.nextDouble() - 180;
+            ACache cache = i % 2 == 0 ? source : target;
+            cache.addTriple("ex:" + i, "lat", Double.toString(lat));
+            cache.addTriple("ex:" + i, "long", Double.toString(lon > 180 ? lon - 360 : lon));
+        }
+        for (double threshold : new double[]{0.0005, 0.001, 0.01}) {
+            check("geo_orthodromic(x.lat|long, y.lat|long)", new GeoOrthodromicMeasure(), source, target,
+                    "lat|long", threshold);
+            check("geo_orthodromic(x.lat|long, y.long|lat)", new GeoOrthodromicMeasure(), source, target,
+                    "lat|long", "long|lat", threshold);
+        }
+    }
+
+    private void check(String expression, ISpaceMeasure measure, ACache source, ACache target, String properties,
+                       double threshold) {
+        check(expression, measure, source, target, properties, properties, threshold);
+    }
+
+    private void check(String expression, ISpaceMeasure measure, ACache source, ACache target, String properties1,
+                       String properties2, double threshold) {
+        AMapping expected = MappingFactory.createDefaultMapping();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                double sim = measure.getSimilarity(source.getInstance(s), target.getInstance(t), properties1,
+                        properties2);
+                if (sim >= threshold) {
+                    expected.add(s, t, sim);
+                }
+            }
+        }
+        assertTrue(expected.getNumberofMappings() > 0);
+        for (int threads : new int[]{1, 4}) {
+            HR3Mapper mapper = new HR3Mapper();
+            mapper.numberOfThreads = threads;
+            AMapping actual = mapper.getMapping(source, target, "?x", "?y", expression, threshold);
+            assertEquals(expression + " " + threshold, expected.getNumberofMappings(), actual.getNumberofMappings());
+            for (String s : expected.getMap().keySet()) {
+                for (String t : expected.getMap().get(s).keySet()) {
+                    assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 1e-12);
+                }
+            }
+        }
+    }
+
+    private ACache generateCache(String prefix, int size, int range, Random random) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            for (String property : Arrays.asList("a", "b")) {
+                cache.addTriple(prefix + i, property, Integer.toString(random.nextInt(range)));
+                if (i % 10 == 0) {
+                    // a second value
+                    cache.addTriple(prefix + i, property, Double.toString(range * random.nextDouble()));
+                }
+            }
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.space;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KdTreeMapperTest {
+
+    @Test
+    public void testAgainstGrid() {
+        ACache source = generateClusteredCache("s", new Random(1));
+        ACache target = generateClusteredCache("t", new Random(2));
+        for (double threshold : new double[]{0.01, 0.1, 0.5, 1}) {
+            check("euclidean_tree(x.lat|long, y.lat|long)", source, target, threshold);
+            check("manhattan_tree(x.lat|long, y.lat|long)", source, target, threshold);
+            check("geo_orthodromic_tree(x.lat|long, y.lat|long)", source, target, threshold);
+            check("euclidean_tree(x.lat, y.long)", source, target, threshold);
+        }
+    }
+
+    @Test
+    public void testSkew() {
+        ACache clustered = generateClusteredCache("t", new Random(3));
+        PointMatrix m = PointMatrix.of(clustered, new String[]{"lat", "long"});
+        assertTrue(new HR3Index(m, SpaceDistance.EUCLIDEAN, 1, 4).isSkewed(16));
+
+        ACache uniform = new MemoryCache();
+        Random random = new Random(4);
+        for (int i = 0; i < 2000; i++) {
+            uniform.addTriple("ex:" + i, "lat", Double.toString(180 * random.nextDouble() - 90));
+            uniform.addTriple("ex:" + i, "long", Double.toString(360 * random.nextDouble() - 180));
+        }
+        m = PointMatrix.of(uniform, new String[]{"lat", "long"});
+        assertFalse(new HR3Index(m, SpaceDistance.EUCLIDEAN, 5, 4).isSkewed(16));
+    }
+
+    @Test
+    public void testFactories() {
+        assertEquals(MeasureType.EUCLIDEAN_TREE, MeasureFactory.getMeasureType("euclidean_tree"));
+        assertEquals(MeasureType.MANHATTAN_TREE, MeasureFactory.getMeasureType("manhattan_tree"));
+        assertEquals(MeasureType.GEO_ORTHODROMIC_TREE, MeasureFactory.getMeasureType("geo_orthodromic_tree"));
+        assertEquals(MeasureType.GEO_ORTHODROMIC, MeasureFactory.getMeasureType("geo_orthodromic"));
+        assertTrue(MapperFactory.createMapper(MeasureType.GEO_ORTHODROMIC_TREE) instanceof KdTreeMapper);
+    }
+
+    private void check(String expression, ACache source, ACache target, double threshold) {
+        HR3Mapper grid = new HR3Mapper();
+        grid.treeForSkewedData = false;
+        AMapping expected = grid.getMapping(source, target, "?x", "?y", expression.replace("_tree", ""), threshold);
+        for (int threads : new int[]{1, 4}) {
+            KdTreeMapper mapper = new KdTreeMapper();
+            mapper.numberOfThreads = threads;
+            AMapping actual = mapper.getMapping(source, target, "?x", "?y", expression, threshold);
+            assertEquals(expression + " " + threshold, expected.getNumberofMappings(), actual.getNumberofMappings());
+            for (String s : expected.getMap().keySet()) {
+                for (String t : expected.getMap().get(s).keySet()) {
+                    assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 0d);
+                }
+            }
+        }
+    }
+
+    // most points in a few cities, the others spread over the globe
+    private ACache generateClusteredCache(String prefix, Random random) {
+        double[][] cities = {{52.52, 13.40}, {48.86, 2.35}, {-33.87, 151.21}, {64.15, -179.9}};
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < 1500; i++) {
+            double lat, lon;
+            if (i % 10 == 0) {
+                lat = 180 * random.nextDouble() - 90;
+                lon = 360 * random.nextDouble() - 180;
+            } else {
+                double[] city = cities[i % cities.length];
+                lat = city[0] + 0.05 * random.nextGaussian();
+                lon = city[1] + 0.05 * random.nextGaussian();
+            }
+            cache.addTriple(prefix + i, "lat", Double.toString(lat));
+            cache.addTriple(prefix + i, "long", Double.toString(lon));
+        }
+        return cache;
+    }
+}
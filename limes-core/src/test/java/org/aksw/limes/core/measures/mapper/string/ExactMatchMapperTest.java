@@ -22,13 +22,18 @@ import org.aksw.commons.util.Pair;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.IMapper;
 import org.aksw.limes.core.util.RandomStringGenerator;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
@@ -65,6 +70,59 @@ public class ExactMatchMapperTest {
 
     }
 
+    @Test
+    public void testMultipleValues() {
+        ExactMatchMapper mapper = new ExactMatchMapper();
+        String property = "label";
+        Random random = new Random(7);
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        // few distinct values shared by many uris on both sides
+        for (int i = 0; i < 2000; i++) {
+            source.addTriple("s" + random.nextInt(500), property, "v" + random.nextInt(300));
+            target.addTriple("t" + random.nextInt(800), property, "v" + random.nextInt(300));
+        }
+        AMapping expected = MappingFactory.createDefaultMapping();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                Set<String> shared = new HashSet<>(source.getInstance(s).getProperty(property));
+                shared.retainAll(target.getInstance(t).getProperty(property));
+                if (!shared.isEmpty()) {
+                    expected.add(s, t, 1d);
+                }
+            }
+        }
+        AMapping mapping = mapper.getMapping(source, target, "?x", "?y", "exactmatch(x.label, y.label)", 1d);
+        assertEquals(expected, mapping);
+        // swapped sides
+        mapping = mapper.getMapping(target, source, "?x", "?y", "exactmatch(x.label, y.label)", 1d);
+        assertEquals(expected.reverseSourceTarget(), mapping);
+    }
+
+    @Test
+    public void testSharedValuesLinkedOnce() {
+        ExactMatchMapper mapper = new ExactMatchMapper();
+        String property = "label";
+        Random random = new Random(11);
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        // every uri has several values, so linked pairs mostly share more than one
+        for (int i = 0; i < 3000; i++) {
+            source.addTriple("s" + random.nextInt(200), property, "v" + random.nextInt(20));
+            target.addTriple("t" + random.nextInt(300), property, "v" + random.nextInt(20));
+        }
+        for (boolean swapped : new boolean[] { false, true }) {
+            List<String> links = new ArrayList<>();
+            mapper.getMapping(swapped ? target : source, swapped ? source : target, "?x", "?y",
+                    "exactmatch(x.label, y.label)", 1d, (s, t, sim) -> links.add(s + " " + t));
+            Set<String> distinct = new HashSet<>(links);
+            assertEquals(distinct.size(), links.size());
+            AMapping mapping = mapper.getMapping(swapped ? target : source, swapped ? source : target, "?x", "?y",
+                    "exactmatch(x.label, y.label)", 1d);
+            assertEquals(mapping.size(), links.size());
+        }
+    }
+
     private Pair<ACache, ACache> fillRandomCachePairMatching(String sourcePrefix, String targetPrefix,
                                                              String property, int size) {
         RandomStringGenerator rsg = new RandomStringGenerator(5, 20);
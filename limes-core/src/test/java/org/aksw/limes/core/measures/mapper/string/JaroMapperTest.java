@@ -27,8 +27,11 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+
 public class JaroMapperTest extends JaroMapper {
 
     @Test
@@ -37,6 +40,45 @@ public class JaroMapperTest extends JaroMapper {
         deduplicationTest(jm, 1000, 1.0);
     }
 
+    @Test
+    public void testTrieFilter() {
+        JaroMapper jm = new JaroMapper();
+        Map<String, Set<String>> sourceMap = generateRandomMap(500);
+        Map<String, Set<String>> targetMap = generateTypoMap(sourceMap, new Random(42));
+        for (double threshold : new double[]{0.6, 0.75, 0.9}) {
+            AMapping expected = bruteForce(sourceMap, targetMap, threshold);
+            AMapping actual = jm.runTrieFilter(sourceMap, targetMap, threshold);
+            assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+            for (String s : expected.getMap().keySet()) {
+                for (String t : expected.getMap().get(s).keySet()) {
+                    assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 0d);
+                }
+            }
+        }
+    }
+
+    private Map<String, Set<String>> generateTypoMap(Map<String, Set<String>> map, Random random) {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String s : map.keySet()) {
+            char[] chars = s.toCharArray();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                int a = random.nextInt(chars.length);
+                int b = random.nextInt(chars.length);
+                char c = chars[a];
+                chars[a] = chars[b];
+                chars[b] = c;
+            }
+            String t = new String(chars);
+            if (random.nextBoolean()) {
+                t = t.substring(random.nextInt(3));
+            }
+            Set<String> set = new HashSet<>();
+            set.add(t);
+            result.put(t, set);
+        }
+        return result;
+    }
+
     /**
      * Returns the set of characters contained in a string
      *
@@ -17,6 +17,7 @@
  */
 package org.aksw.limes.core.measures.mapper.string;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Map;
@@ -55,4 +56,18 @@ public class JaroWinklerMapperTest extends MapperTest {
         //stopWatch.elapsed(TimeUnit.MILLISECONDS);
         assertTrue(MappingOperations.difference(m1, m2).size() == 0);
     }
+
+    @Test
+    public void testGetMappingAgainstBruteForce() {
+        JaroWinklerMapper jwm = new JaroWinklerMapper();
+        Map<String, Set<String>> s = generateRandomMap(300);
+        Map<String, Set<String>> t = generateRandomMap(300);
+        t.putAll(s);
+        for (double theta : new double[]{0.6d, 0.8d, 0.9d}) {
+            AMapping m1 = jwm.getMapping(s, t, theta);
+            AMapping m2 = bruteForce(s, t, theta, new JaroWinklerMeasure());
+            assertEquals(m2.getNumberofMappings(), m1.getNumberofMappings());
+            assertTrue(MappingOperations.difference(m2, m1).size() == 0);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string;
+
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.string.MongeElkanMeasure;
+import org.aksw.limes.core.util.RandomStringGenerator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class MongeElkanMapperTest {
+
+    private final String[] vocabulary = new String[40];
+
+    public MongeElkanMapperTest() {
+        RandomStringGenerator rsg = new RandomStringGenerator(3, 8, 3);
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = rsg.generateString();
+        }
+    }
+
+    @Test
+    public void testAgainstBruteForce() {
+        Map<String, Set<String>> sourceMap = generateRandomMap(300, 1);
+        Map<String, Set<String>> targetMap = generateRandomMap(300, 2);
+        for (double threshold : new double[]{0.3, 0.5, 0.8}) {
+            AMapping expected = bruteForce(sourceMap, targetMap, threshold);
+            AMapping actual = new MongeElkanMapper().getMapping(sourceMap, targetMap, threshold);
+            assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+            for (String s : expected.getMap().keySet()) {
+                for (String t : expected.getMap().get(s).keySet()) {
+                    assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyTokens() {
+        Map<String, Set<String>> sourceMap = new HashMap<>();
+        sourceMap.put(" new  york", new HashSet<>(Arrays.asList("s1")));
+        Map<String, Set<String>> targetMap = new HashMap<>();
+        targetMap.put(" new york", new HashSet<>(Arrays.asList("t1")));
+        targetMap.put("new  york", new HashSet<>(Arrays.asList("t2")));
+        AMapping expected = bruteForce(sourceMap, targetMap, 0.5);
+        AMapping actual = new MongeElkanMapper().getMapping(sourceMap, targetMap, 0.5);
+        assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+        assertEquals(expected.getConfidence("s1", "t1"), actual.getConfidence("s1", "t1"), 1e-12);
+        assertEquals(expected.getConfidence("s1", "t2"), actual.getConfidence("s1", "t2"), 1e-12);
+    }
+
+    private AMapping bruteForce(Map<String, Set<String>> sourceMap, Map<String, Set<String>> targetMap,
+                                double threshold) {
+        MongeElkanMeasure measure = new MongeElkanMeasure();
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (String s : sourceMap.keySet()) {
+            for (String t : targetMap.keySet()) {
+                double sim = measure.proximity(s, t);
+                if (sim >= threshold) {
+                    for (String sourceUri : sourceMap.get(s)) {
+                        for (String targetUri : targetMap.get(t)) {
+                            m.add(sourceUri, targetUri, sim);
+                        }
+                    }
+                }
+            }
+        }
+        return m;
+    }
+
+    private Map<String, Set<String>> generateRandomMap(int size, long seed) {
+        // values are drawn from a small shared vocabulary with typos to
+        // produce overlapping tokens
+        Random random = new Random(seed);
+        Map<String, Set<String>> map = new HashMap<>();
+        int uri = 0;
+        while (map.size() < size) {
+            StringBuilder value = new StringBuilder();
+            int tokens = 1 + random.nextInt(4);
+            for (int i = 0; i < tokens; i++) {
+                char[] token = vocabulary[random.nextInt(vocabulary.length)].toCharArray();
+                if (random.nextBoolean()) {
+                    token[random.nextInt(token.length)] = (char) ('a' + random.nextInt(26));
+                }
+                value.append(i == 0 ? "" : " ").append(token);
+            }
+            map.computeIfAbsent(value.toString(), k -> new HashSet<>()).add("u" + seed + "_" + uri++);
+        }
+        return map;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.string;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.MapperTest;
+import org.aksw.limes.core.measures.mapper.MappingOperations;
+import org.aksw.limes.core.measures.measure.string.RatcliffObershelpMeasure;
+import org.junit.Test;
+
+public class RatcliffObershelpMapperTest extends MapperTest {
+
+    @Test
+    public void testGetMappingAgainstBruteForce() {
+        RatcliffObershelpMapper rom = new RatcliffObershelpMapper();
+        Map<String, Set<String>> s = generateRandomMap(300);
+        Map<String, Set<String>> t = generateRandomMap(300);
+        t.putAll(s);
+        for (double theta : new double[]{0.6d, 0.8d, 0.9d}) {
+            AMapping m1 = rom.getMapping(s, t, theta);
+            AMapping m2 = bruteForce(s, t, theta, new RatcliffObershelpMeasure());
+            assertEquals(m2.getNumberofMappings(), m1.getNumberofMappings());
+            assertTrue(MappingOperations.difference(m2, m1).size() == 0);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.temporal;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.temporal.simpleTemporal.PredecessorMapper;
+import org.aksw.limes.core.util.datetime.DateTimeFormat;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import static org.junit.Assert.*;
+
+public class EpochColumnTest {
+
+    private ACache cache;
+
+    @Before
+    public void setUp() {
+        EpochColumn.clear();
+        cache = new MemoryCache();
+        cache.addTriple("ex:a", "begin", "2015-05-20T08:21:04+02:00");
+        cache.addTriple("ex:b", "begin", "2015-05-20T08:21:04Z");
+        cache.addTriple("ex:b", "begin", "2015-05-20T08:24:04Z");
+        cache.addTriple("ex:c", "begin", "not a date");
+        cache.addTriple("ex:d", "end", "2015-05-20");
+    }
+
+    @Test
+    public void testFormats() throws ParseException {
+        String[] values = {"2015-05-20T08:21:04.123+02:00", "2015-05-20T08:21:04.123", "2015-05-20T08:21:04Z",
+                "2015-05-20T08:21:04-05:00", "2015-05-20T08:21:04", "2015-05-20T08:21+02:00", "2015-05-20T08:21",
+                "2015-05-20", "2015-05", "2015"};
+        for (String value : values) {
+            assertEquals(value, legacyEpoch(value), DateTimeFormat.getEpoch(value));
+            assertEquals(value, legacyEpoch(value), DateTimeFormat.getDate(value).getTime());
+        }
+        try {
+            DateTimeFormat.getEpoch("May 20th");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testColumn() {
+        EpochColumn column = EpochColumn.get(cache, "begin");
+        assertEquals(cache.getAllInstances().size(), column.size());
+        for (int i = 0; i < column.size(); i++) {
+            String uri = column.getInstance(i).getUri();
+            if (uri.equals("ex:b")) {
+                assertEquals(2, column.getValueCount(i));
+                assertEquals(DateTimeFormat.getEpoch("2015-05-20T08:21:04Z"), column.getEpoch(i, 0));
+                assertEquals(DateTimeFormat.getEpoch("2015-05-20T08:24:04Z"), column.getEpoch(i, 1));
+            } else if (uri.equals("ex:a")) {
+                assertEquals(1, column.getValueCount(i));
+                assertEquals(DateTimeFormat.getEpoch("2015-05-20T06:21:04Z"), column.getEpoch(i, 0));
+            } else {
+                // unparsable or missing
+                assertEquals(0, column.getValueCount(i));
+            }
+        }
+        assertSame(column, EpochColumn.get(cache, "begin"));
+        assertNotSame(column, EpochColumn.get(cache, "end"));
+        assertNotSame(column, EpochColumn.get(cache.clone(), "begin"));
+        cache.addTriple("ex:e", "begin", "2016");
+        EpochColumn updated = EpochColumn.get(cache, "begin");
+        assertNotSame(column, updated);
+        assertEquals(column.size() + 1, updated.size());
+    }
+
+    @Test
+    public void testNumericOrder() {
+        // epochs before and after 2001-09-09 differ in their number of digits
+        ACache source = new MemoryCache();
+        source.addTriple("ex:s", "begin", "2001-09-10T00:00:00Z");
+        ACache target = new MemoryCache();
+        target.addTriple("ex:t1", "begin", "2001-09-08T00:00:00Z");
+        target.addTriple("ex:t2", "begin", "1990-01-01T00:00:00Z");
+        AMapping m = new PredecessorMapper().getMapping(source, target, "?x", "?y",
+                "tmp_predecessor(x.begin,y.begin)", 1d);
+        assertEquals(1, m.size());
+        assertTrue(m.contains("ex:s", "ex:t1"));
+    }
+
+    // the former parsing, trying the formats in order
+    private static long legacyEpoch(String value) throws ParseException {
+        for (DateTimeFormat format : DateTimeFormat.values()) {
+            try {
+                return new SimpleDateFormat(format.getPattern()).parse(value).getTime();
+            } catch (ParseException ignored) {
+            }
+        }
+        throw new ParseException(value, 0);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.temporal.allenAlgebra;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginBegin;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.BeginEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndBegin;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic.EndEnd;
+import org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.complex.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalJoinTest {
+
+    private static final String EXPRESSION = "tmp_during(x.b|e,y.b|e)";
+
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        // few distinct minutes, so that all relations occur
+        Random random = new Random(5);
+        source = randomIntervals("s", 150, random);
+        target = randomIntervals("t", 150, random);
+    }
+
+    @Test
+    public void testAgainstDefinitions() {
+        IntervalJoin.Intervals sources = IntervalJoin.Intervals.of(source, "b", "e");
+        IntervalJoin.Intervals targets = IntervalJoin.Intervals.of(target, "b", "e");
+        IntervalJoin join = new IntervalJoin(targets);
+        int total = 0;
+        for (IntervalJoin.Relation relation : IntervalJoin.Relation.values()) {
+            AMapping expected = MappingFactory.createDefaultMapping();
+            for (int i = 0; i < sources.size(); i++) {
+                for (int j = 0; j < targets.size(); j++) {
+                    if (holds(relation, sources.getBegin(i), sources.getEnd(i), targets.getBegin(j),
+                            targets.getEnd(j))) {
+                        expected.add(sources.getUri(i), targets.getUri(j), 1d);
+                    }
+                }
+            }
+            assertTrue(relation.name(), expected.size() > 0);
+            assertEquals(relation.name(), expected.getMap(), join.getMapping(sources, relation).getMap());
+            total += expected.size();
+        }
+        // the relations partition the pairs of proper intervals
+        assertEquals(sources.size() * targets.size(), total);
+    }
+
+    @Test
+    public void testAgainstAtomicRelations() {
+        Map<AllenAlgebraMapper, List<TreeMap<String, Set<String>>>> mappers = new LinkedHashMap<>();
+        BeginBegin bb = new BeginBegin();
+        BeginEnd be = new BeginEnd();
+        EndBegin eb = new EndBegin();
+        EndEnd ee = new EndEnd();
+        mappers.put(new AfterMapper(), Arrays.asList(be.getConcurrentEvents(source, target, EXPRESSION),
+                be.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new BeforeMapper(), Arrays.asList(eb.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new DuringMapper(), Arrays.asList(ee.getPredecessorEvents(source, target, EXPRESSION),
+                bb.getConcurrentEvents(source, target, EXPRESSION),
+                bb.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new DuringReverseMapper(), Arrays.asList(bb.getPredecessorEvents(source, target, EXPRESSION),
+                ee.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new EqualsMapper(), Arrays.asList(bb.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getConcurrentEvents(source, target, EXPRESSION)));
+        mappers.put(new FinishesMapper(), Arrays.asList(ee.getConcurrentEvents(source, target, EXPRESSION),
+                bb.getConcurrentEvents(source, target, EXPRESSION),
+                bb.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new IsFinishedByMapper(), Arrays.asList(bb.getPredecessorEvents(source, target, EXPRESSION),
+                ee.getConcurrentEvents(source, target, EXPRESSION)));
+        mappers.put(new IsMetByMapper(), Arrays.asList(be.getConcurrentEvents(source, target, EXPRESSION)));
+        mappers.put(new IsOverlappedByMapper(), Arrays.asList(be.getPredecessorEvents(source, target, EXPRESSION),
+                bb.getConcurrentEvents(source, target, EXPRESSION),
+                bb.getPredecessorEvents(source, target, EXPRESSION),
+                ee.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new IsStartedByMapper(), Arrays.asList(bb.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new MeetsMapper(), Arrays.asList(eb.getConcurrentEvents(source, target, EXPRESSION)));
+        mappers.put(new OverlapsMapper(), Arrays.asList(bb.getPredecessorEvents(source, target, EXPRESSION),
+                ee.getPredecessorEvents(source, target, EXPRESSION),
+                eb.getConcurrentEvents(source, target, EXPRESSION),
+                eb.getPredecessorEvents(source, target, EXPRESSION)));
+        mappers.put(new StartsMapper(), Arrays.asList(bb.getConcurrentEvents(source, target, EXPRESSION),
+                ee.getPredecessorEvents(source, target, EXPRESSION)));
+        for (Map.Entry<AllenAlgebraMapper, List<TreeMap<String, Set<String>>>> e : mappers.entrySet()) {
+            AllenAlgebraMapper mapper = e.getKey();
+            AMapping m = mapper.getMapping(source, target, "?x", "?y", EXPRESSION, 1d);
+            assertTrue(mapper.getName(), m.size() > 0);
+            assertEquals(mapper.getName(), mapper.getMapping(new ArrayList<>(e.getValue())).getMap(), m.getMap());
+        }
+    }
+
+    private static boolean holds(IntervalJoin.Relation relation, long bs, long es, long bt, long et) {
+        switch (relation) {
+            case BEFORE:
+                return es < bt;
+            case AFTER:
+                return et < bs;
+            case MEETS:
+                return es == bt;
+            case IS_MET_BY:
+                return et == bs;
+            case OVERLAPS:
+                return bs < bt && bt < es && es < et;
+            case IS_OVERLAPPED_BY:
+                return bt < bs && bs < et && et < es;
+            case STARTS:
+                return bs == bt && es < et;
+            case IS_STARTED_BY:
+                return bs == bt && et < es;
+            case DURING:
+                return bt < bs && es < et;
+            case DURING_REVERSE:
+                return bs < bt && et < es;
+            case FINISHES:
+                return es == et && bt < bs;
+            case IS_FINISHED_BY:
+                return es == et && bs < bt;
+            default:
+                return bs == bt && es == et;
+        }
+    }
+
+    private static ACache randomIntervals(String prefix, int count, Random random) {
+        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
+        df.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long origin = 1432102864000L;
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < count; i++) {
+            long begin = random.nextInt(12);
+            long end = begin + 1 + random.nextInt(6);
+            cache.addTriple(prefix + i, "b", df.format(new Date(origin + begin * 60000)));
+            cache.addTriple(prefix + i, "e", df.format(new Date(origin + end * 60000)));
+        }
+        return cache;
+    }
+}
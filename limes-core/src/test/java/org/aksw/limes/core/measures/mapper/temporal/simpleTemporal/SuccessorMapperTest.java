@@ -23,6 +23,7 @@ import org.aksw.limes.core.execution.planning.planner.CanonicalPlanner;
 import org.aksw.limes.core.execution.planning.planner.DynamicPlanner;
 import org.aksw.limes.core.execution.planning.planner.HeliosPlanner;
 import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -30,6 +31,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SuccessorMapperTest {
@@ -276,4 +280,35 @@ public class SuccessorMapperTest {
         assertTrue(!m.equals(mmm));
     }
 
+    @Test
+    public void bursts() {
+        ACache s = new MemoryCache();
+        ACache t = new MemoryCache();
+        Random random = new Random(42);
+        // bursts of events within a few seconds on a few machines
+        for (int i = 0; i < 300; i++) {
+            s.addTriple("s" + i, "b", "2015-05-20T08:21:0" + random.nextInt(5) + "Z");
+            s.addTriple("s" + i, "m", "" + random.nextInt(3));
+            t.addTriple("t" + i, "b", "2015-05-20T08:21:0" + random.nextInt(5) + "Z");
+            t.addTriple("t" + i, "m", "" + random.nextInt(3));
+        }
+        AMapping m = new SuccessorMapper().getMapping(s, t, "?x", "?y", "tmp_successor(x.b,y.b)", 1d);
+        int expected = 0;
+        for (Instance i : s.getAllInstances()) {
+            String b = i.getProperty("b").first();
+            String successor = null;
+            for (Instance j : t.getAllInstances()) {
+                String c = j.getProperty("b").first();
+                if (c.compareTo(b) > 0 && (successor == null || c.compareTo(successor) < 0))
+                    successor = c;
+            }
+            for (Instance j : t.getAllInstances()) {
+                if (j.getProperty("b").first().equals(successor)) {
+                    assertTrue(m.contains(i.getUri(), j.getUri()));
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, m.size());
+    }
 }
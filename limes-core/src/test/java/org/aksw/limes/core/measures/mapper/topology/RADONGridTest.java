@@ -0,0 +1,120 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.topology;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.junit.After;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RADONGridTest {
+
+    private static final GeometryFactory factory = new GeometryFactory();
+
+    @After
+    public void tearDown() {
+        RADON.heuristicStatMeasure = RADON.GridSizeHeuristics.SAMPLE;
+        RADON.hierarchicalGrids = true;
+        RADON.GridSizeHeuristics.swap = false;
+    }
+
+    @Test
+    public void testMixedScale() {
+        Random random = new Random(11);
+        // country sized polygons among building footprints
+        Map<String, Geometry> source = generate("s", 500, 0.0001, 0.001, random);
+        source.putAll(generate("S", 10, 5, 20, random));
+        Map<String, Geometry> target = generate("t", 500, 0.0001, 0.001, random);
+        target.putAll(generate("T", 10, 5, 20, random));
+
+        RADON.GridSizeHeuristics s = new RADON.GridSizeHeuristics(source.values());
+        RADON.GridSizeHeuristics t = new RADON.GridSizeHeuristics(target.values());
+        assertTrue(RADON.GridSizeHeuristics.isMixedScale(s, t));
+        double[] theta = RADON.GridSizeHeuristics.decideForTheta(s, t, RADON.GridSizeHeuristics.SAMPLE);
+        assertTrue(RADON.getGrids(source, target, s, t, theta).size() > 1);
+        RADON.hierarchicalGrids = false;
+        assertEquals(1, RADON.getGrids(source, target, s, t, theta).size());
+
+        for (String relation : new String[]{RADON.INTERSECTS, RADON.WITHIN, RADON.CONTAINS, RADON.DISJOINT}) {
+            RADON.heuristicStatMeasure = RADON.GridSizeHeuristics.AVG;
+            RADON.hierarchicalGrids = false;
+            AMapping expected = RADON.getMapping(source, target, relation);
+            RADON.heuristicStatMeasure = RADON.GridSizeHeuristics.SAMPLE;
+            assertEquals(relation, expected, RADON.getMapping(source, target, relation));
+            RADON.hierarchicalGrids = true;
+            assertEquals(relation, expected, RADON.getMapping(source, target, relation));
+            assertTrue(relation, expected.size() > 0);
+        }
+    }
+
+    @Test
+    public void testUniformScale() {
+        Random random = new Random(13);
+        Map<String, Geometry> source = generate("s", 1000, 0.5, 1, random);
+        Map<String, Geometry> target = generate("t", 1000, 0.5, 1, random);
+        RADON.GridSizeHeuristics s = new RADON.GridSizeHeuristics(source.values());
+        RADON.GridSizeHeuristics t = new RADON.GridSizeHeuristics(target.values());
+        assertFalse(RADON.GridSizeHeuristics.isMixedScale(s, t));
+        double[] avg = RADON.GridSizeHeuristics.decideForTheta(s, t, RADON.GridSizeHeuristics.AVG);
+        double[] sampled = RADON.GridSizeHeuristics.decideForTheta(s, t, RADON.GridSizeHeuristics.SAMPLE);
+        assertEquals(1, RADON.getGrids(source, target, s, t, sampled).size());
+        // the average extents are among the candidates
+        assertTrue(RADON.GridSizeHeuristics.estimateCost(s, t, sampled[0], sampled[1])
+                <= RADON.GridSizeHeuristics.estimateCost(s, t, avg[0] / 2, avg[1] / 2));
+    }
+
+    @Test
+    public void testPoints() {
+        Map<String, Geometry> source = new HashMap<>();
+        Map<String, Geometry> target = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            source.put("s" + i, factory.createPoint(new Coordinate(i % 10, i / 10)));
+            target.put("t" + i, factory.createPoint(new Coordinate(i % 10, i / 10)));
+        }
+        RADON.GridSizeHeuristics s = new RADON.GridSizeHeuristics(source.values());
+        RADON.GridSizeHeuristics t = new RADON.GridSizeHeuristics(target.values());
+        double[] theta = RADON.GridSizeHeuristics.decideForTheta(s, t, RADON.GridSizeHeuristics.SAMPLE);
+        assertTrue(Double.isFinite(theta[0]) && Double.isFinite(theta[1]));
+        assertEquals(100, RADON.getMapping(source, target, RADON.EQUALS).size());
+    }
+
+    private static Map<String, Geometry> generate(String prefix, int size, double minExtent, double maxExtent,
+                                                  Random random) {
+        Map<String, Geometry> result = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            double x = random.nextDouble() * 40;
+            double y = random.nextDouble() * 40;
+            double w = minExtent + random.nextDouble() * (maxExtent - minExtent);
+            double h = minExtent + random.nextDouble() * (maxExtent - minExtent);
+            result.put(prefix + i, factory.createPolygon(new Coordinate[]{new Coordinate(x, y),
+                    new Coordinate(x + w, y), new Coordinate(x + w, y + h), new Coordinate(x, y + h),
+                    new Coordinate(x, y)}));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.topology;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.junit.After;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RADONPreparedGeometryTest {
+
+    private static final String[] RELATIONS = {RADON.INTERSECTS, RADON.CONTAINS, RADON.COVERS, RADON.WITHIN,
+            RADON.COVEREDBY, RADON.TOUCHES, RADON.OVERLAPS};
+
+    @After
+    public void tearDown() {
+        RADON.usePreparedGeometries = true;
+        RADON.GridSizeHeuristics.swap = false;
+    }
+
+    @Test
+    public void testAgainstFullMatrix() {
+        Random random = new Random(7);
+        GeometryFactory factory = new GeometryFactory();
+        Map<String, Geometry> source = generate("s", 400, random, factory);
+        Map<String, Geometry> target = generate("t", 400, random, factory);
+        for (String relation : RELATIONS) {
+            RADON.usePreparedGeometries = false;
+            AMapping expected = RADON.getMapping(source, target, relation);
+            RADON.usePreparedGeometries = true;
+            AMapping actual = RADON.getMapping(source, target, relation);
+            assertEquals(relation, expected, actual);
+            assertTrue(relation, relation.equals(RADON.TOUCHES) || expected.size() > 0);
+        }
+    }
+
+    private static Map<String, Geometry> generate(String prefix, int size, Random random, GeometryFactory factory) {
+        Map<String, Geometry> result = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            double x = random.nextDouble() * 20;
+            double y = random.nextDouble() * 20;
+            // a mix of large and small triangles, so that containment occurs
+            double r = random.nextInt(4) == 0 ? 3 : 0.2 + random.nextDouble();
+            Coordinate[] ring = new Coordinate[4];
+            for (int j = 0; j < 3; j++) {
+                double angle = 2 * Math.PI * j / 3 + random.nextDouble();
+                ring[j] = new Coordinate(x + r * Math.cos(angle), y + r * Math.sin(angle));
+            }
+            ring[3] = ring[0];
+            result.put(prefix + i, factory.createPolygon(ring));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.mapper.topology;
+
+import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
+import org.aksw.limes.core.execution.planning.planner.CanonicalPlanner;
+import org.aksw.limes.core.execution.planning.planner.Planner;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopologicalRelationsMapperTest {
+
+    private static final List<String> RELATIONS = Arrays.asList(RADON.EQUALS, RADON.DISJOINT, RADON.INTERSECTS,
+            RADON.TOUCHES, RADON.CROSSES, RADON.WITHIN, RADON.CONTAINS, RADON.OVERLAPS, RADON.COVERS,
+            RADON.COVEREDBY);
+
+    @Test
+    public void testAgainstSingleRelations() {
+        Random random = new Random(3);
+        GeometryFactory factory = new GeometryFactory();
+        Map<String, Geometry> source = generate("s", 200, random, factory);
+        Map<String, Geometry> target = generate("t", 200, random, factory);
+        // share some geometries, so that equals occurs
+        for (int i = 0; i < 10; i++) {
+            target.put("t" + i, source.get("s" + i));
+        }
+        Map<String, AMapping> mappings = RADON.getMappings(source, target, RELATIONS);
+        assertEquals(RELATIONS.size(), mappings.size());
+        for (String relation : RELATIONS) {
+            AMapping expected = RADON.getMapping(source, target, relation);
+            assertEquals(relation, expected, mappings.get(relation));
+        }
+        assertTrue(mappings.get(RADON.EQUALS).size() >= 10);
+    }
+
+    @Test
+    public void testGetMapping() {
+        ACache s = new MemoryCache();
+        s.addTriple("http://test.com/s/#1", "asWKT", "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+        s.addTriple("http://test.com/s/#2", "asWKT", "POLYGON ((-10 -10, 0 10, 10 10, 10 0, -10 -10))");
+        s.addTriple("http://test.com/s/#3", "asWKT", "POLYGON ((20 20, 20 21, 21 21, 21 20, 20 20))");
+        ACache t = new MemoryCache();
+        t.addTriple("http://test.com/t/#1", "asWKT", "POLYGON ((-1 -1, -1 11, 11 11, 11 -1, -1 -1))");
+        t.addTriple("http://test.com/t/#2", "asWKT", "POLYGON ((1 1, 1 2, 2 2, 2 1, 1 1))");
+        AMapping reference = MappingFactory.createDefaultMapping();
+        // within
+        reference.add("http://test.com/s/#1", "http://test.com/t/#1", 1.0d);
+        // contains
+        reference.add("http://test.com/s/#1", "http://test.com/t/#2", 1.0d);
+        reference.add("http://test.com/s/#2", "http://test.com/t/#2", 1.0d);
+        TopologicalRelationsMapper mapper = new TopologicalRelationsMapper();
+        assertEquals(reference, mapper.getMapping(s, t, "?x", "?y",
+                "top_relations_within_contains(x.asWKT, y.asWKT)", 1.0d));
+        Map<String, AMapping> mappings = mapper.getMappings(s, t, "?x", "?y",
+                "top_relations_within_contains(x.asWKT, y.asWKT)", 1.0d);
+        assertEquals(new WithinMapper().getMapping(s, t, "?x", "?y", "top_within(x.asWKT, y.asWKT)", 1.0d),
+                mappings.get(RADON.WITHIN));
+        assertEquals(new ContainsMapper().getMapping(s, t, "?x", "?y", "top_contains(x.asWKT, y.asWKT)", 1.0d),
+                mappings.get(RADON.CONTAINS));
+    }
+
+    @Test
+    public void testEngine() {
+        Random random = new Random(5);
+        GeometryFactory factory = new GeometryFactory();
+        ACache s = new MemoryCache();
+        for (Map.Entry<String, Geometry> e : generate("http://test.com/s/#", 100, random, factory).entrySet()) {
+            s.addTriple(e.getKey(), "asWKT", e.getValue().toText());
+        }
+        ACache t = new MemoryCache();
+        for (Map.Entry<String, Geometry> e : generate("http://test.com/t/#", 100, random, factory).entrySet()) {
+            t.addTriple(e.getKey(), "asWKT", e.getValue().toText());
+        }
+        LinkSpecification ls = new LinkSpecification(
+                "OR(top_contains(x.asWKT,y.asWKT)|1.0,OR(top_touches(x.asWKT,y.asWKT)|1.0,top_within(x.asWKT,y.asWKT)|1.0)|0.5)",
+                0.9);
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(s, t, "?x", "?y");
+        AMapping merged = engine.execute(ls, new CanonicalPlanner());
+        Planner.mergeTopologicalRelations = false;
+        try {
+            assertEquals(engine.execute(ls, new CanonicalPlanner()), merged);
+        } finally {
+            Planner.mergeTopologicalRelations = true;
+        }
+        assertTrue(merged.size() > 0);
+    }
+
+    private static Map<String, Geometry> generate(String prefix, int size, Random random, GeometryFactory factory) {
+        Map<String, Geometry> result = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            double x = random.nextInt(40) / 2d;
+            double y = random.nextInt(40) / 2d;
+            // integral corners, so that touching and crossing boxes occur
+            double w = random.nextInt(4) == 0 ? 4 : 0.5 + random.nextInt(3) / 2d;
+            double h = random.nextInt(4) == 0 ? 4 : 0.5 + random.nextInt(3) / 2d;
+            Geometry g = random.nextInt(5) == 0
+                    ? factory.createLineString(new Coordinate[]{new Coordinate(x, y), new Coordinate(x + w, y + h)})
+                    : factory.createPolygon(new Coordinate[]{new Coordinate(x, y), new Coordinate(x + w, y),
+                    new Coordinate(x + w, y + h), new Coordinate(x, y + h), new Coordinate(x, y)});
+            result.put(prefix + i, g);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+package org.aksw.limes.core.measures.mapper.topology.cobalt;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.topology.cobalt.matcher.CobaltAreaMatcher;
+import org.aksw.limes.core.measures.mapper.topology.cobalt.matcher.ICobaltMatcher;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlatRTreeTest {
+
+    @Test
+    public void testAgainstRTree() {
+        Random random = new Random(1);
+        for (int size : new int[]{0, 1, 5, 17, 300, 2000}) {
+            List<RTree.Entry> entries = generateEntries(size, random);
+            RTree rTree = RTree.buildSTR(new ArrayList<>(entries));
+            for (int fanout : new int[]{2, 4, 16, 64}) {
+                FlatRTree flat = new FlatRTree(entries, fanout);
+                assertEquals(size, flat.size());
+                for (int q = 0; q < 50; q++) {
+                    Envelope query = q == 0 ? new Envelope() : randomEnvelope(random);
+                    assertEquals(toUris(rTree.search(query)), search(flat, query, false));
+                    assertEquals(toUris(rTree.searchExcept(query)), search(flat, query, true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatching() {
+        Random random = new Random(2);
+        GeometryFactory factory = new GeometryFactory();
+        Map<String, Geometry> source = new HashMap<>();
+        Map<String, Geometry> target = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            Envelope e = randomEnvelope(random);
+            (i % 2 == 0 ? source : target).put("ex:" + i, factory.toGeometry(e));
+        }
+        int numThreads = Cobalt.NUM_THREADS;
+        try {
+            for (String relation : new String[]{ICobaltMatcher.INTERSECTS, ICobaltMatcher.DISJOINT,
+                    ICobaltMatcher.CONTAINS, ICobaltMatcher.TOUCHES}) {
+                Cobalt.NUM_THREADS = 1;
+                AMapping expected = Cobalt.getMapping(source, target, relation, new CobaltAreaMatcher());
+                Cobalt.NUM_THREADS = 4;
+                AMapping actual = Cobalt.getMapping(source, target, relation, new CobaltAreaMatcher());
+                assertEquals(relation, expected, actual);
+            }
+        } finally {
+            Cobalt.NUM_THREADS = numThreads;
+        }
+    }
+
+    private static Set<String> search(FlatRTree tree, Envelope query, boolean except) {
+        Set<String> result = new TreeSet<>();
+        List<Integer> indexes = new ArrayList<>();
+        if (except) {
+            tree.searchExcept(query, indexes::add);
+        } else {
+            tree.search(query, indexes::add);
+        }
+        for (int i : indexes) {
+            assertEquals("duplicate result", true, result.add(tree.getEntry(i).getUri()));
+        }
+        return result;
+    }
+
+    private static Set<String> toUris(List<RTree.Entry> entries) {
+        return entries.stream().map(RTree.Entry::getUri).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static List<RTree.Entry> generateEntries(int size, Random random) {
+        List<RTree.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // a few empty geometries
+            Envelope e = i % 50 == 7 ? new Envelope() : randomEnvelope(random);
+            entries.add(new RTree.Entry("ex:" + i, e, null));
+        }
+        return entries;
+    }
+
+    private static Envelope randomEnvelope(Random random) {
+        double x = 100 * random.nextDouble(), y = 100 * random.nextDouble();
+        return new Envelope(x, x + 10 * random.nextDouble(), y, y + 10 * random.nextDouble());
+    }
+}
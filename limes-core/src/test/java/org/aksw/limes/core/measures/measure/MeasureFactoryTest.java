@@ -1025,6 +1025,19 @@ public class MeasureFactoryTest {
             assertTrue(measure instanceof WithinMeasure);
             assertTrue(measure.getRuntimeApproximation(500) != 0);
 
+        } catch (InvalidMeasureException e) {
+            // TODO Auto-generated catch block
+            e.printStackTrace();
+        }
+
+        str = "top_relations_within_touches(x.name,y.name)";
+        inst = new Instruction(Command.RUN, str, "0.6", -1, -1, 0);
+        try {
+            type = MeasureFactory.getMeasureType(inst.getMeasureExpression());
+            measure = MeasureFactory.createMeasure(type);
+            assertTrue(measure instanceof TopologicalRelationsMeasure);
+            assertTrue(measure.getRuntimeApproximation(500) != 0);
+
         } catch (InvalidMeasureException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
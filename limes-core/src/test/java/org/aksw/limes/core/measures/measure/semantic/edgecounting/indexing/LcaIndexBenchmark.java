@@ -0,0 +1,206 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing;
+
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.SynsetID;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.AEdgeCountingSemanticMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.dictionary.SemanticDictionary;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.factory.SemanticType;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LCHMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.LiMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.ShortestPathMeasure;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.measures.WuPalmerMeasure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the edge counting measures, in similarity
+ * computations per second, with the {@link LcaIndex} and with the path based
+ * fallback on a random hypernym hierarchy with multiple inheritance. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.LcaIndexBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LcaIndexBenchmark {
+
+    private static final int PAIRS = 1 << 12;
+
+    @Param({ "LCH", "LI", "SHORTEST_PATH", "WUPALMER" })
+    public SemanticType measure;
+
+    @Param({ "true", "false" })
+    public boolean lcaIndex;
+
+    @Param({ "10000", "80000" })
+    public int synsets;
+
+    // fraction of the synsets with a second hypernym
+    @Param({ "0.15" })
+    public double multipleInheritance;
+
+    private AEdgeCountingSemanticMeasure similarity;
+    private ISynset[] synsets1;
+    private ISynset[] synsets2;
+    private int pair = 0;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        int[] offsets = new int[synsets];
+        ISynset[] concepts = new ISynset[synsets];
+        Map<Integer, ArrayList<ArrayList<ISynsetID>>> paths = new HashMap<Integer, ArrayList<ArrayList<ISynsetID>>>();
+        for (int i = 0; i < synsets; i++) {
+            offsets[i] = 1000 + 7 * i;
+            concepts[i] = synset(offsets[i]);
+            ArrayList<ArrayList<ISynsetID>> trees = new ArrayList<ArrayList<ISynsetID>>();
+            if (i < 3) {
+                ArrayList<ISynsetID> tree = new ArrayList<ISynsetID>();
+                tree.add(new SynsetID(offsets[i], POS.NOUN));
+                trees.add(tree);
+            } else {
+                // random earlier hypernyms, giving logarithmic depths
+                int parents = random.nextDouble() < multipleInheritance ? 2 : 1;
+                for (int p = 0; p < parents; p++) {
+                    for (ArrayList<ISynsetID> parentTree : paths.get(offsets[random.nextInt(i)])) {
+                        // bound the number of paths per synset
+                        if (trees.size() >= 16)
+                            break;
+                        ArrayList<ISynsetID> tree = new ArrayList<ISynsetID>(parentTree);
+                        tree.add(new SynsetID(offsets[i], POS.NOUN));
+                        trees.add(tree);
+                    }
+                }
+            }
+            paths.put(offsets[i], trees);
+        }
+        AIndex index = new AIndex() {
+
+            @Override
+            public void preIndex() {
+            }
+
+            @Override
+            public void init(boolean f) {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(ISynset synset) {
+                return paths.get(synset.getOffset());
+            }
+
+            @Override
+            public ArrayList<ArrayList<ISynsetID>> getHypernymPaths(POS pos, int offset) {
+                return paths.get(offset);
+            }
+
+            @Override
+            public int[] getSynsetOffsets(POS pos) {
+                // without offsets, the measures fall back to the hypernym paths
+                return lcaIndex && pos == POS.NOUN ? offsets : null;
+            }
+        };
+        // built lazily by the first query otherwise
+        index.getLcaIndex(POS.NOUN);
+        similarity = measure(measure, index);
+        synsets1 = new ISynset[PAIRS];
+        synsets2 = new ISynset[PAIRS];
+        for (int k = 0; k < PAIRS; k++) {
+            synsets1[k] = concepts[random.nextInt(synsets)];
+            synsets2[k] = concepts[random.nextInt(synsets)];
+        }
+    }
+
+    private static AEdgeCountingSemanticMeasure measure(SemanticType type, AIndex index) {
+        SemanticDictionary dictionary = new SemanticDictionary();
+        switch (type) {
+        case LCH:
+            return new LCHMeasure(index, dictionary);
+        case LI:
+            return new LiMeasure(index, dictionary);
+        case SHORTEST_PATH:
+            return new ShortestPathMeasure(index, dictionary);
+        default:
+            return new WuPalmerMeasure(index, dictionary);
+        }
+    }
+
+    private static ISynset synset(int offset) {
+        SynsetID id = new SynsetID(offset, POS.NOUN);
+        return (ISynset) Proxy.newProxyInstance(ISynset.class.getClassLoader(), new Class<?>[] { ISynset.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getOffset":
+                        return offset;
+                    case "getPOS":
+                        return POS.NOUN;
+                    case "getType":
+                        return 1;
+                    case "getID":
+                        return id;
+                    case "hashCode":
+                        return offset;
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Benchmark
+    public double getSimilarity() {
+        int k = pair;
+        pair = (k + 1) & (PAIRS - 1);
+        return similarity.getSimilarity(synsets1[k], synsets2[k]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LcaIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing;
+
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.SynsetID;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.LeastCommonSubsumerFinder;
+import org.aksw.limes.core.measures.measure.semantic.edgecounting.finders.ShortestPathFinder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LcaIndexTest {
+
+    @Test
+    public void testAgainstFinders() {
+        Random random = new Random(7);
+        int n = 300;
+        int[] offsets = new int[n];
+        List<List<Integer>> parents = new ArrayList<List<Integer>>();
+        for (int i = 0; i < n; i++) {
+            offsets[i] = 1000 + 7 * (n - i);
+            List<Integer> p = new ArrayList<Integer>();
+            // a few roots, and some synsets with several hypernyms
+            if (i > 0 && random.nextDouble() > 0.05) {
+                p.add(random.nextInt(i));
+                if (random.nextDouble() < 0.15)
+                    p.add(random.nextInt(i));
+            }
+            parents.add(p);
+        }
+        Map<Integer, ArrayList<ArrayList<ISynsetID>>> paths = new HashMap<Integer, ArrayList<ArrayList<ISynsetID>>>();
+        for (int i = 0; i < n; i++) {
+            ArrayList<ArrayList<ISynsetID>> trees = new ArrayList<ArrayList<ISynsetID>>();
+            if (parents.get(i).isEmpty()) {
+                ArrayList<ISynsetID> tree = new ArrayList<ISynsetID>();
+                tree.add(new SynsetID(offsets[i], POS.NOUN));
+                trees.add(tree);
+            }
+            for (int parent : parents.get(i)) {
+                for (ArrayList<ISynsetID> parentTree : paths.get(offsets[parent])) {
+                    ArrayList<ISynsetID> tree = new ArrayList<ISynsetID>(parentTree);
+                    tree.add(new SynsetID(offsets[i], POS.NOUN));
+                    trees.add(tree);
+                }
+            }
+            paths.put(offsets[i], trees);
+        }
+        // a synset without paths
+        paths.put(5, new ArrayList<ArrayList<ISynsetID>>());
+        int[] all = new int[n + 1];
+        System.arraycopy(offsets, 0, all, 0, n);
+        all[n] = 5;
+
+        LcaIndex index = new LcaIndex(all, paths::get);
+        assertEquals(n + 1, index.size());
+        assertFalse(index.contains(5));
+        assertFalse(index.contains(6));
+        assertEquals(-1, index.getShortestPath(5, offsets[0]));
+        assertEquals(-1, index.getDepth(offsets[0], 6));
+        for (int i = 0; i < n; i++) {
+            assertTrue(index.contains(offsets[i]));
+            for (int j = 0; j < n; j++) {
+                ArrayList<ArrayList<ISynsetID>> paths1 = paths.get(offsets[i]);
+                ArrayList<ArrayList<ISynsetID>> paths2 = paths.get(offsets[j]);
+                LeastCommonSubsumerFinder finder = new LeastCommonSubsumerFinder();
+                finder.getLeastCommonSubsumer(paths1, paths2);
+                String pair = i + ", " + j;
+                assertEquals(pair, finder.getDepth(), index.getDepth(offsets[i], offsets[j]));
+                assertEquals(pair, finder.getSynsetsDistance(), index.getSynsetsDistance(offsets[i], offsets[j]));
+                assertEquals(pair, ShortestPathFinder.shortestPath(paths1, paths2),
+                        index.getShortestPath(offsets[i], offsets[j]));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * LIMES Core Library - LIMES – Link Discovery Framework for Metric Spaces.
+ * Copyright © 2011 Data Science Group (DICE) (ngonga@uni-paderborn.de)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aksw.limes.core.measures.measure.semantic.edgecounting.indexing.mapped;
+
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class MappedIndexTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("hypernyms", ".idx");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Map<POS, TreeMap<Integer, List<int[]>>> paths = new HashMap<POS, TreeMap<Integer, List<int[]>>>();
+        TreeMap<Integer, List<int[]>> nouns = new TreeMap<Integer, List<int[]>>();
+        nouns.put(1, Arrays.asList(new int[] { 1 }));
+        nouns.put(7, Arrays.asList(new int[] { 1, 3, 7 }, new int[] { 1, 5, 6, 7 }));
+        nouns.put(3, Arrays.asList(new int[] { 1, 3 }));
+        paths.put(POS.NOUN, nouns);
+        TreeMap<Integer, List<int[]>> adverbs = new TreeMap<Integer, List<int[]>>();
+        adverbs.put(42, Arrays.asList(new int[] { 42 }));
+        adverbs.put(43, new ArrayList<int[]>());
+        paths.put(POS.ADVERB, adverbs);
+        MappedIndex.write(file, paths);
+
+        MappedIndex index = new MappedIndex(file);
+        assertTrue(index.isValid());
+        index.preIndex();
+
+        ArrayList<ArrayList<ISynsetID>> trees = index.getHypernymPaths(POS.NOUN, 7);
+        assertEquals(2, trees.size());
+        assertEquals(Arrays.asList(1, 3, 7), offsets(trees.get(0)));
+        assertEquals(Arrays.asList(1, 5, 6, 7), offsets(trees.get(1)));
+        assertEquals(POS.NOUN, trees.get(1).get(2).getPOS());
+        assertEquals(3, index.getMinDepth(POS.NOUN, 7));
+        assertEquals(4, index.getMaxDepth(POS.NOUN, 7));
+        assertEquals(Arrays.asList(1), offsets(index.getHypernymPaths(POS.NOUN, 1).get(0)));
+
+        assertEquals(1, index.getHypernymPaths(POS.ADVERB, 42).size());
+        assertTrue(index.getHypernymPaths(POS.ADVERB, 43).isEmpty());
+        assertEquals(-1, index.getMinDepth(POS.ADVERB, 43));
+        // unknown synsets and empty sections
+        assertTrue(index.getHypernymPaths(POS.NOUN, 2).isEmpty());
+        assertTrue(index.getHypernymPaths(POS.VERB, 7).isEmpty());
+        assertEquals(-1, index.getMaxDepth(POS.VERB, 7));
+        index.close();
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        }
+        assertFalse(new MappedIndex(file).isValid());
+        file.delete();
+        assertFalse(new MappedIndex(file).isValid());
+    }
+
+    private static List<Integer> offsets(List<ISynsetID> path) {
+        List<Integer> offsets = new ArrayList<Integer>();
+        for (ISynsetID id : path)
+            offsets.add(id.getOffset());
+        return offsets;
+    }
+}